@@ -0,0 +1,120 @@
+package com.zeyadrashed.bench;
+
+import com.zeyadrashed.obj.Transaction;
+import com.zeyadrashed.obj.TransactionType;
+import com.zeyadrashed.util.FixedPoint;
+import com.zeyadrashed.util.SymbolDictionary;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds deterministic in-memory transaction sets for the benchmarks.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+final class BenchmarkData {
+
+    private static final LocalDate START = LocalDate.of(2000, 1, 1);
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Builds a date-sorted workload in which every SELL is covered. Each symbol first opens
+     * {@code openLots} one-share lots, then repeats {@code rounds} times: buy {@code lotsPerSell}
+     * one-share lots and sell {@code lotsPerSell} shares. Every SELL therefore consumes exactly
+     * {@code lotsPerSell} lots while the queue stays {@code openLots} deep.
+     *
+     * @param symbols     number of distinct symbols
+     * @param openLots    open lots kept per symbol
+     * @param lotsPerSell lots consumed by each SELL
+     * @param rounds      buy/sell rounds per symbol
+     * @return the transactions, sorted by date
+     */
+    static List<Transaction> matchingWorkload(int symbols, int openLots, int lotsPerSell, int rounds) {
+        Random random = new Random(42);
+        List<Transaction> transactions = new ArrayList<>(symbols * (openLots + rounds * (lotsPerSell + 1)));
+        for (int s = 0; s < symbols; s++) {
+            String symbol = "S" + s;
+            for (int i = 0; i < openLots; i++) {
+                transactions.add(new Transaction(START, TransactionType.BUY, symbol, 1, price(random)));
+            }
+        }
+        for (int r = 0; r < rounds; r++) {
+            LocalDate date = START.plusDays(1 + r);
+            for (int s = 0; s < symbols; s++) {
+                String symbol = "S" + s;
+                for (int i = 0; i < lotsPerSell; i++) {
+                    transactions.add(new Transaction(date, TransactionType.BUY, symbol, 1, price(random)));
+                }
+                transactions.add(new Transaction(date, TransactionType.SELL, symbol, lotsPerSell, price(random)));
+            }
+        }
+        return transactions;
+    }
+
+    /**
+     * Builds the same shape of workload as {@link #matchingWorkload(int, int, int, int)} for one symbol,
+     * but with random prices spread widely enough to reorder HIFO, a lot ID on every BUY, and every SELL
+     * naming the first lot bought in its round, so specific-lot identification has a lot to look up.
+     *
+     * @param openLots    open lots kept
+     * @param lotsPerSell lots consumed by each SELL
+     * @param rounds      buy/sell rounds
+     * @return the transactions, sorted by date
+     */
+    static List<Transaction> lotWorkload(int openLots, int lotsPerSell, int rounds) {
+        Random random = new Random(42);
+        int symbolId = SymbolDictionary.idOf("LOTS");
+        int start = (int) START.toEpochDay();
+        long nextLotId = 1;
+        List<Transaction> transactions = new ArrayList<>(openLots + rounds * (lotsPerSell + 1));
+        for (int i = 0; i < openLots; i++) {
+            transactions.add(lot(start, TransactionType.BUY, symbolId, 1, price(random), nextLotId++));
+        }
+        for (int r = 0; r < rounds; r++) {
+            long firstLotId = nextLotId;
+            for (int i = 0; i < lotsPerSell; i++) {
+                transactions.add(lot(start + 1 + r, TransactionType.BUY, symbolId, 1, price(random), nextLotId++));
+            }
+            transactions.add(lot(start + 1 + r, TransactionType.SELL, symbolId, lotsPerSell, price(random), firstLotId));
+        }
+        return transactions;
+    }
+
+    private static Transaction lot(int epochDay, TransactionType type, int symbolId, int quantity, double price,
+                                   long lotId) {
+        return new Transaction(epochDay, type, symbolId, quantity, price, FixedPoint.fromDouble(price), lotId);
+    }
+
+    /**
+     * Builds {@code rows} transactions with random dates over ten years, in random order.
+     *
+     * @param rows number of transactions
+     * @return the unsorted transactions
+     */
+    static List<Transaction> unsorted(int rows) {
+        Random random = new Random(42);
+        List<Transaction> transactions = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            transactions.add(new Transaction(START.plusDays(random.nextInt(3650)),
+                    random.nextBoolean() ? TransactionType.BUY : TransactionType.SELL,
+                    "S" + random.nextInt(100), random.nextInt(200) + 1, price(random)));
+        }
+        return transactions;
+    }
+
+    private static double price(Random random) {
+        return Math.round((10 + 490 * random.nextDouble()) * 100) / 100.0;
+    }
+}
@@ -0,0 +1,57 @@
+package com.zeyadrashed.bench;
+
+import com.zeyadrashed.util.UtilLogger;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-message cost of {@link UtilLogger} for enabled, disabled and guarded calls.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LoggerBenchmark {
+
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UtilLogger.setLevel(UtilLogger.Level.INFO);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        UtilLogger.exportLog();
+    }
+
+    @Benchmark
+    public void infoEnabled() {
+        UtilLogger.logInfo("processing transaction: " + counter++);
+    }
+
+    @Benchmark
+    public void debugDisabled() {
+        UtilLogger.logDebug("processing transaction: " + counter++);
+    }
+
+    @Benchmark
+    public void debugDisabledGuarded() {
+        if (UtilLogger.isDebugEnabled()) {
+            UtilLogger.logDebug("processing transaction: " + counter++);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.zeyadrashed.bench;
+
+import com.zeyadrashed.CapitalCalculator;
+import com.zeyadrashed.engine.LotMethod;
+import com.zeyadrashed.obj.Transaction;
+import com.zeyadrashed.util.UtilLogger;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the lot-relief methods on one deep symbol. As in {@link MatchingBenchmark}, each invocation
+ * replays the same buy/sell rounds against {@code openLots} lots opened outside the measurement, so a
+ * method whose score falls as {@code openLots} grows is doing work proportional to the number of lots.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LotMethodBenchmark {
+
+    private static final int TRANSACTIONS = 100_000;
+
+    @Param({"FIFO", "LIFO", "HIFO", "AVERAGE", "SPECIFIC"})
+    public LotMethod method;
+
+    @Param({"1000", "100000"})
+    public int openLots;
+
+    @Param({"1", "10"})
+    public int lotsPerSell;
+
+    private List<Transaction> opening;
+    private List<Transaction> rounds;
+    private CapitalCalculator calculator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // measure matching, not per-transaction log messages
+        UtilLogger.setLevel(UtilLogger.Level.WARN);
+        List<Transaction> workload = BenchmarkData.lotWorkload(openLots, lotsPerSell, TRANSACTIONS / (lotsPerSell + 1));
+        opening = workload.subList(0, openLots);
+        rounds = workload.subList(openLots, workload.size());
+    }
+
+    @Setup(Level.Invocation)
+    public void openLots() {
+        calculator = new CapitalCalculator(false, method);
+        calculator.setPrintSales(false);
+        calculator.processTransactions(opening);
+    }
+
+    @Benchmark
+    public CapitalCalculator match() {
+        calculator.processTransactions(rounds);
+        return calculator;
+    }
+}
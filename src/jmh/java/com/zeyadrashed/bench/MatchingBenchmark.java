@@ -0,0 +1,82 @@
+package com.zeyadrashed.bench;
+
+import com.zeyadrashed.CapitalCalculator;
+import com.zeyadrashed.obj.Transaction;
+import com.zeyadrashed.util.UtilLogger;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures FIFO matching across lot depth, lots consumed per SELL and symbol cardinality.
+ * Each invocation replays the same number of buy/sell rounds against books that already hold
+ * {@code openLots} lots (opened outside the measurement), so the score should stay flat as
+ * {@code openLots} grows; a drop means SELLs have become proportional to queue depth again.
+ * {@code fixedPoint} compares the exact micros path against the double path.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchingBenchmark {
+
+    private static final int TRANSACTIONS_PER_SYMBOL = 100_000;
+
+    @Param({"1", "100", "10000"})
+    public int symbols;
+
+    @Param({"1000", "10000", "100000"})
+    public int openLots;
+
+    @Param({"1", "10"})
+    public int lotsPerSell;
+
+    @Param({"false", "true"})
+    public boolean fixedPoint;
+
+    private List<Transaction> opening;
+    private List<Transaction> rounds;
+    private CapitalCalculator calculator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // measure matching, not per-transaction log messages
+        UtilLogger.setLevel(UtilLogger.Level.WARN);
+        int lotsPerSymbol = Math.max(1, openLots / symbols);
+        int roundCount = Math.max(1, TRANSACTIONS_PER_SYMBOL / symbols / (lotsPerSell + 1));
+        List<Transaction> workload = BenchmarkData.matchingWorkload(symbols, lotsPerSymbol, lotsPerSell, roundCount);
+        opening = workload.subList(0, symbols * lotsPerSymbol);
+        rounds = workload.subList(symbols * lotsPerSymbol, workload.size());
+    }
+
+    @Setup(Level.Invocation)
+    public void openLots() {
+        calculator = new CapitalCalculator(fixedPoint);
+        calculator.setPrintSales(false);
+        calculator.processTransactions(opening);
+    }
+
+    @Benchmark
+    public CapitalCalculator sequential() {
+        calculator.processTransactions(rounds);
+        return calculator;
+    }
+
+    @Benchmark
+    public CapitalCalculator parallel() {
+        calculator.processTransactionsParallel(rounds, Runtime.getRuntime().availableProcessors());
+        return calculator;
+    }
+}
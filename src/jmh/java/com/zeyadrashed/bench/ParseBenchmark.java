@@ -0,0 +1,65 @@
+package com.zeyadrashed.bench;
+
+import com.zeyadrashed.obj.Transaction;
+import com.zeyadrashed.util.CSVGenerator;
+import com.zeyadrashed.util.CSVParser;
+import com.zeyadrashed.util.MappedCSVParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures CSV parse throughput on generated files of increasing size.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    public int rows;
+
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = File.createTempFile("capitalcalc_bench_", ".csv");
+        file.deleteOnExit();
+        CSVGenerator.generateCSV(file.getAbsolutePath(), rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public List<Transaction> parseCSV() throws IOException {
+        return CSVParser.parseCSV(file.getAbsolutePath());
+    }
+
+    @Benchmark
+    public List<Transaction> mapped() throws IOException {
+        return MappedCSVParser.parse(file.getAbsolutePath());
+    }
+
+    @Benchmark
+    public List<Transaction> mappedParallel() throws IOException {
+        return MappedCSVParser.parseParallel(file.getAbsolutePath(), Runtime.getRuntime().availableProcessors());
+    }
+}
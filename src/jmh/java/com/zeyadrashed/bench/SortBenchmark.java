@@ -0,0 +1,66 @@
+package com.zeyadrashed.bench;
+
+import com.zeyadrashed.obj.Transaction;
+import com.zeyadrashed.util.DateSort;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the date sort that {@code CapitalCalculator.main} runs before matching.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SortBenchmark {
+
+    @Param({"100000", "1000000", "10000000"})
+    public int rows;
+
+    private List<Transaction> unsorted;
+    private List<Transaction> working;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        unsorted = BenchmarkData.unsorted(rows);
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        working = new ArrayList<>(unsorted);
+    }
+
+    @Benchmark
+    public List<Transaction> comparatorSort() {
+        Collections.sort(working, Comparator.comparing(Transaction::getDate));
+        return working;
+    }
+
+    @Benchmark
+    public List<Transaction> radixSort() {
+        DateSort.sort(working);
+        return working;
+    }
+
+    @Benchmark
+    public List<Transaction> radixSortParallel() {
+        DateSort.sortParallel(working, Runtime.getRuntime().availableProcessors());
+        return working;
+    }
+}
@@ -1,14 +1,49 @@
 package com.zeyadrashed;
 
+import com.zeyadrashed.engine.GainSeries;
+import com.zeyadrashed.engine.LotMethod;
+import com.zeyadrashed.engine.LotQueue;
+import com.zeyadrashed.engine.MarkToMarket;
+import com.zeyadrashed.engine.MatchSink;
+import com.zeyadrashed.engine.ShardedEngine;
+import com.zeyadrashed.engine.SymbolBook;
+import com.zeyadrashed.engine.SymbolJournal;
+import com.zeyadrashed.engine.WashSaleTracker;
+import com.zeyadrashed.obj.CorporateAction;
+import com.zeyadrashed.obj.CorporateActionType;
+import com.zeyadrashed.obj.Position;
 import com.zeyadrashed.obj.Transaction;
 import com.zeyadrashed.obj.TransactionType;
 import com.zeyadrashed.util.CSVParser;
+import com.zeyadrashed.util.ConcurrentFileLoader;
+import com.zeyadrashed.util.CorporateActionParser;
+import com.zeyadrashed.util.DateSort;
+import com.zeyadrashed.util.FixedPoint;
+import com.zeyadrashed.util.MappedCSVParser;
+import com.zeyadrashed.util.MatchBinaryWriter;
+import com.zeyadrashed.util.MatchCSVWriter;
+import com.zeyadrashed.util.PriceFileParser;
+import com.zeyadrashed.util.RunMetrics;
+import com.zeyadrashed.util.Snapshot;
+import com.zeyadrashed.util.SymbolDictionary;
+import com.zeyadrashed.util.TransactionMerger;
 import com.zeyadrashed.util.UtilLogger;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.DecimalFormat;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+
+import static com.zeyadrashed.util.CommandLine.option;
 
 /**
  * Main business logic. This version gathers all transactions from all CSV files, sorts them by date,
@@ -19,10 +54,58 @@ import java.util.*;
  * <p>Rutgers ID: 199009651</p>
  * <br>
  * <p>
- * Using a Deque ensures that when we partially consume a BUY transaction,
- * the remaining shares remain at the front of the queue (preserving FIFO order).
+ * Using a {@link LotQueue} ensures that when we partially consume a BUY lot,
+ * the remaining shares remain at the front of the queue (preserving FIFO order)
+ * without reallocating the lot.
  *
  * </p>
+ * <p>
+ * FIFO is the default; {@code --method=lifo|hifo|average|specific} picks another {@link LotMethod} for the run.
+ * </p>
+ * <p>
+ * Realized gains are also indexed by sale date, so {@link #getRealizedGain(String, LocalDate, LocalDate)} and
+ * friends answer date-range questions (a tax year, a quarter) in O(log n) per symbol, and
+ * {@code --from=YYYY-MM-DD --to=YYYY-MM-DD} prints a summary for one range after the lifetime one.
+ * </p>
+ * <p>
+ * Open positions are marked to market against an end-of-day price file ({@code --prices=path}, rows of
+ * {@code symbol,price}) by a {@link MarkToMarket}, which caches each symbol's unrealized gain and only
+ * recomputes symbols whose price changed or that traded since.
+ * </p>
+ * <p>
+ * Each run is instrumented by a {@link RunMetrics}: time and allocation per phase, rows per second per
+ * file and matching counters, published over JMX while the run is going and written as JSON at the end
+ * ({@code --metrics=path}, by default next to the log in {@code logs/}).
+ * </p>
+ * <p>
+ * With {@code --wash-sales} every book runs a {@link WashSaleTracker}: losses on sales with replacement shares
+ * bought within 30 days before or after them are disallowed and deferred into the replacement shares' cost
+ * basis, and a wash-sale summary is printed after the gains.
+ * </p>
+ * <p>
+ * Rows may name an account in an optional seventh column. {@code --shards=N} matches every (account, symbol)
+ * pair separately on a {@link ShardedEngine} of N single-threaded shards and prints a summary per account and
+ * a consolidated portfolio summary instead. Options the sharded engine does not implement are rejected.
+ * </p>
+ * <p>
+ * With {@code --corrections} every book keeps a {@link SymbolJournal}, and a transaction dated before the last
+ * one its symbol has seen is applied as a correction, replaying only that symbol from its nearest checkpoint.
+ * CSV files are then read one at a time in name order, each sorted by date, so late rows in a later file
+ * correct the earlier ones instead of having to be merged into them.
+ * </p>
+ * <p>
+ * {@code --matches=path} streams a record of every relieved lot to a {@link MatchSink}: a {@link MatchCSVWriter}
+ * if the path ends in {@code .csv}, otherwise a {@link MatchBinaryWriter}.
+ * </p>
+ * <p>
+ * {@code --actions=path} reads stock splits, reverse splits and ticker renames ({@link CorporateActionParser})
+ * and applies each one before the first transaction dated on or after it; actions dated after the last
+ * transaction wait for a later run to reach them, so a snapshot's watermark stays valid. A split costs O(1)
+ * per symbol: the book's position is restated at once and its lots only as they are relieved. A rename
+ * makes the new symbol an alias of the old symbol's book in this calculator, so rows under either symbol
+ * reach the same lots, while the shared {@link SymbolDictionary} keeps naming earlier rows by their own
+ * symbol.
+ * </p>
  *
  * @author Zeyad "zmr15" Rashed
  * @mailto zmr15@scarletmail.rutgers.edu
@@ -31,20 +114,94 @@ import java.util.*;
 public class CapitalCalculator {
 
     private static final DecimalFormat df = new DecimalFormat("#.##");
-    private Map<String, Deque<Transaction>> purchaseQueues;
-    private Map<String, Double> symbolGains;
+    /**
+     * Options the sharded engine does not implement, rejected with {@code --shards} rather than ignored.
+     */
+    private static final String[] SHARDED_UNSUPPORTED = {"--snapshot", "--actions", "--wash-sales", "--corrections",
+            "--matches", "--prices", "--from", "--to", "--stream", "--parallel"};
+    /**
+     * Pairs of options that cannot be used together, checked before either is applied.
+     */
+    private static final String[][] CONFLICTING_OPTIONS = {{"--wash-sales", "--corrections"},
+            {"--corrections", "--matches"}, {"--actions", "--wash-sales"}, {"--actions", "--corrections"}};
+    private SymbolBook[] books;
+    private boolean fixedPoint;
+    private LotMethod lotMethod;
+    private boolean washSales;
+    private SymbolJournal[] journals;
+    private MatchSink matchSink;
+    private List<CorporateAction> actions;
+    private int nextAction;
+    private final MarkToMarket marks = new MarkToMarket();
+    private final RunMetrics metrics = new RunMetrics(this::openBooks);
+    private boolean printSales = true;
+    private int watermarkDay = Integer.MIN_VALUE;
+    private int lastProcessedDay = Integer.MIN_VALUE;
 
     /**
-     * Constructor to initialize the purchase queue and symbol gains maps.
+     * Constructor to initialize the symbol books, keeping money in doubles.
      */
     public CapitalCalculator() {
-        purchaseQueues = new HashMap<>();
-        symbolGains = new HashMap<>();
-        UtilLogger.logDebug("initialized 'purchaseQueues' and 'symbolGains' maps in `CapitalCalculator` constructor");
+        this(false);
+    }
+
+    /**
+     * Constructor to initialize the symbol books, which are indexed by {@link SymbolDictionary} ID.
+     *
+     * @param fixedPoint true to keep prices, cost basis and gains in exact fixed-point micros
+     */
+    public CapitalCalculator(boolean fixedPoint) {
+        this(fixedPoint, LotMethod.FIFO);
+    }
+
+    /**
+     * Constructor to initialize the symbol books, which are indexed by {@link SymbolDictionary} ID.
+     *
+     * @param fixedPoint true to keep prices, cost basis and gains in exact fixed-point micros
+     * @param lotMethod  how SELLs choose the lots they relieve
+     */
+    public CapitalCalculator(boolean fixedPoint, LotMethod lotMethod) {
+        books = new SymbolBook[Math.max(16, SymbolDictionary.size())];
+        this.fixedPoint = fixedPoint;
+        this.lotMethod = lotMethod;
+        UtilLogger.logDebug("initialized 'books' array in `CapitalCalculator` constructor" + (fixedPoint ? " (fixed-point, " : " (") +
+                lotMethod + ")");
     }
 
     public static void main(String[] args) throws IOException {
-        CapitalCalculator calculator = new CapitalCalculator();
+        String shards = option(args, "--shards");
+        if (shards != null) {
+            for (String unsupported : SHARDED_UNSUPPORTED) {
+                if (option(args, unsupported) != null) {
+                    String msg = unsupported + " is not supported with --shards.";
+                    System.err.println(msg);
+                    UtilLogger.logWarning(msg);
+                    return;
+                }
+            }
+        }
+
+        for (String[] conflict : CONFLICTING_OPTIONS) {
+            if (option(args, conflict[0]) != null && option(args, conflict[1]) != null) {
+                String msg = conflict[0] + " cannot be combined with " + conflict[1] + ".";
+                System.err.println(msg);
+                UtilLogger.logWarning(msg);
+                return;
+            }
+        }
+
+        String method = option(args, "--method");
+        CapitalCalculator calculator = new CapitalCalculator(option(args, "--fixed") != null,
+                method == null || method.isEmpty() ? LotMethod.FIFO : LotMethod.parse(method));
+        calculator.setWashSales(option(args, "--wash-sales") != null);
+        calculator.setCorrections(option(args, "--corrections") != null);
+        String matches = option(args, "--matches");
+        String actionsOption = option(args, "--actions");
+        if (actionsOption != null && !actionsOption.isEmpty()) {
+            calculator.setCorporateActions(CorporateActionParser.parse(Path.of(actionsOption)));
+        }
+        RunMetrics metrics = calculator.getMetrics();
+        metrics.register();
 
         File csvDir = new File("csv");
         if (!csvDir.exists() || !csvDir.isDirectory()) {
@@ -54,124 +211,599 @@ public class CapitalCalculator {
             return;
         }
 
-        File[] csvFiles = csvDir.listFiles((_, name) -> name.toLowerCase().endsWith(".csv"));
+        String snapshotOption = option(args, "--snapshot");
+        Path snapshotPath = snapshotOption == null || snapshotOption.isEmpty() ? null : Path.of(snapshotOption);
+        Set<String> consumedFiles = new LinkedHashSet<>();
+        if (snapshotPath != null && Files.exists(snapshotPath)) {
+            metrics.begin(RunMetrics.Phase.SNAPSHOT);
+            Snapshot snapshot = Snapshot.read(snapshotPath);
+            calculator.restore(snapshot);
+            metrics.end(RunMetrics.Phase.SNAPSHOT);
+            consumedFiles.addAll(snapshot.getConsumedFiles());
+            String msg = "resumed from snapshot " + snapshotPath + " with watermark " +
+                    (snapshot.getWatermarkDay() == Integer.MIN_VALUE ? "(none)" : LocalDate.ofEpochDay(snapshot.getWatermarkDay())) +
+                    " and " + consumedFiles.size() + " consumed files";
+            System.out.println(msg);
+            UtilLogger.logInfo(msg);
+        }
+
+        File[] csvFiles = csvDir.listFiles((_, name) -> name.toLowerCase().endsWith(".csv") && !consumedFiles.contains(name));
         if (csvFiles == null || csvFiles.length == 0) {
-            String msg = "No '.csv' files found in csv directory.";
+            String msg = consumedFiles.isEmpty() ? "No '.csv' files found in csv directory." : "No new '.csv' files found in csv directory.";
             System.out.println(msg);
             UtilLogger.logDebug(msg);
+            if (consumedFiles.isEmpty()) {
+                return;
+            }
+        }
+
+        if (shards != null) {
+            runSharded(csvFiles, shards.isEmpty() ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(shards),
+                    option(args, "--fixed") != null, calculator.lotMethod, args);
             return;
         }
 
-        List<Transaction> allTransactions = new ArrayList<>();
-        for (File file : csvFiles) {
-            try {
-                List<Transaction> transactions = CSVParser.parseCSV(file.getAbsolutePath());
-                String msg = "adding " + transactions.size() + " transactions from file: " + file.getName();
-                System.out.println(msg);
-                UtilLogger.logInfo(msg);
-                allTransactions.addAll(transactions);
-            } catch (Exception e) {
-                String msg = "error processing file: " + file.getName() + " - ";
-                System.err.println(msg + e.getMessage());
-                UtilLogger.logError(msg, e);
+        Closeable matchWriter = null;
+        if (matches != null && !matches.isEmpty()) {
+            if (matches.toLowerCase().endsWith(".csv")) {
+                MatchCSVWriter writer = new MatchCSVWriter(Path.of(matches), calculator.fixedPoint);
+                calculator.setMatchSink(writer);
+                matchWriter = writer;
+            } else {
+                MatchBinaryWriter writer = new MatchBinaryWriter(Path.of(matches), calculator.fixedPoint);
+                calculator.setMatchSink(writer);
+                matchWriter = writer;
             }
         }
 
-        UtilLogger.logInfo("sorting " + allTransactions.size() + " transactions by date");
-        Collections.sort(allTransactions, Comparator.comparing(Transaction::getDate));
+        List<File> loadedFiles = new ArrayList<>();
+        if (csvFiles == null || csvFiles.length == 0) {
+            // nothing new since the snapshot; just report it
+        } else if (calculator.isCorrections()) {
+            String mmap = option(args, "--mmap");
+            correctTransactions(calculator, csvFiles, mmap == null ? 0 : mmap.isEmpty() ? 1 : Integer.parseInt(mmap),
+                    loadedFiles);
+        } else if (option(args, "--stream") != null) {
+            String runSize = option(args, "--run-size");
+            streamTransactions(calculator, csvFiles,
+                    runSize == null ? TransactionMerger.DEFAULT_RUN_SIZE : Integer.parseInt(runSize), loadedFiles);
+        } else {
+            String mmap = option(args, "--mmap");
+            int mappedChunks = mmap == null ? 0 : mmap.isEmpty() ? 1 : Integer.parseInt(mmap);
+            String loadThreads = option(args, "--load-threads");
+            int concurrency = loadThreads == null ? 1 : Integer.parseInt(loadThreads);
+            metrics.begin(RunMetrics.Phase.LOAD);
+            List<Transaction> allTransactions = loadTransactions(csvFiles, mappedChunks, concurrency,
+                    calculator.fixedPoint, loadedFiles, metrics);
+            metrics.end(RunMetrics.Phase.LOAD);
+
+            UtilLogger.logInfo("sorting " + allTransactions.size() + " transactions by date");
+            metrics.begin(RunMetrics.Phase.SORT);
+            DateSort.sortParallel(allTransactions, Runtime.getRuntime().availableProcessors());
+            metrics.end(RunMetrics.Phase.SORT);
 
-        calculator.processTransactions(allTransactions);
+            String parallel = option(args, "--parallel");
+            metrics.begin(RunMetrics.Phase.MATCH);
+            if (parallel != null) {
+                int parallelism = parallel.isEmpty() ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(parallel);
+                calculator.processTransactionsParallel(allTransactions, parallelism);
+            } else {
+                calculator.processTransactions(allTransactions);
+            }
+            metrics.end(RunMetrics.Phase.MATCH);
+        }
+
+        if (matchWriter != null) {
+            calculator.setMatchSink(null);
+            matchWriter.close();
+            UtilLogger.logInfo("wrote match records to " + matches);
+        }
 
+        metrics.begin(RunMetrics.Phase.SUMMARY);
         calculator.printSummary();
+        if (calculator.isWashSales()) {
+            calculator.printWashSaleSummary();
+        }
+        String from = option(args, "--from");
+        String to = option(args, "--to");
+        if (from != null || to != null) {
+            calculator.printSummary(from == null || from.isEmpty() ? null : LocalDate.parse(from),
+                    to == null || to.isEmpty() ? null : LocalDate.parse(to));
+        }
+        String prices = option(args, "--prices");
+        if (prices != null && !prices.isEmpty()) {
+            calculator.loadPrices(Path.of(prices));
+            calculator.printUnrealizedSummary();
+        }
+        metrics.end(RunMetrics.Phase.SUMMARY);
+
+        if (snapshotPath != null) {
+            for (File file : loadedFiles) {
+                consumedFiles.add(file.getName());
+            }
+            metrics.begin(RunMetrics.Phase.SNAPSHOT);
+            calculator.toSnapshot(consumedFiles).write(snapshotPath);
+            metrics.end(RunMetrics.Phase.SNAPSHOT);
+            UtilLogger.logInfo("wrote snapshot " + snapshotPath);
+        }
+        metrics.begin(RunMetrics.Phase.EXPORT_LOG);
+        UtilLogger.exportLog();
+        metrics.end(RunMetrics.Phase.EXPORT_LOG);
+
+        String metricsOption = option(args, "--metrics");
+        metrics.writeJson(metricsOption == null || metricsOption.isEmpty() ? null : Path.of(metricsOption));
+    }
+
+    /**
+     * Runs every CSV file through a {@link ShardedEngine}, with one book per (account, symbol) pair, and
+     * prints the per-account and consolidated portfolio summaries. If a shard fails while matching, the
+     * failure is reported and the program exits with status 1 rather than printing partial summaries.
+     *
+     * @param csvFiles   the CSV files to read
+     * @param shards     the number of shards
+     * @param fixedPoint true to keep money in fixed-point micros
+     * @param lotMethod  how SELLs choose the lots they relieve
+     * @param args       the command-line arguments, for the loading and metrics options
+     * @throws IOException if the metrics cannot be written or the run is interrupted
+     */
+    private static void runSharded(File[] csvFiles, int shards, boolean fixedPoint, LotMethod lotMethod, String[] args)
+            throws IOException {
+        ShardedEngine engine = new ShardedEngine(shards, fixedPoint, lotMethod);
+        RunMetrics metrics = engine.getMetrics();
+        metrics.register();
+
+        String mmap = option(args, "--mmap");
+        int mappedChunks = mmap == null ? 0 : mmap.isEmpty() ? 1 : Integer.parseInt(mmap);
+        String loadThreads = option(args, "--load-threads");
+        int concurrency = loadThreads == null ? 1 : Integer.parseInt(loadThreads);
+        metrics.begin(RunMetrics.Phase.LOAD);
+        List<Transaction> allTransactions = loadTransactions(csvFiles, mappedChunks, concurrency, fixedPoint,
+                new ArrayList<>(), metrics);
+        metrics.end(RunMetrics.Phase.LOAD);
+
+        UtilLogger.logInfo("sorting " + allTransactions.size() + " transactions by date");
+        metrics.begin(RunMetrics.Phase.SORT);
+        DateSort.sortParallel(allTransactions, Runtime.getRuntime().availableProcessors());
+        metrics.end(RunMetrics.Phase.SORT);
+
+        metrics.begin(RunMetrics.Phase.MATCH);
+        try {
+            engine.processTransactions(allTransactions);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while matching");
+        } catch (IllegalStateException e) {
+            // a shard stopped part-way, so its books, and every summary that includes them, are incomplete
+            String msg = "matching failed, no summary printed: " + e.getCause();
+            System.err.println(msg);
+            UtilLogger.logError(msg, e);
+            UtilLogger.exportLog();
+            System.exit(1);
+        }
+        metrics.end(RunMetrics.Phase.MATCH);
+
+        metrics.begin(RunMetrics.Phase.SUMMARY);
+        engine.printAccountSummary();
+        engine.printPortfolioSummary();
+        metrics.end(RunMetrics.Phase.SUMMARY);
+
+        metrics.begin(RunMetrics.Phase.EXPORT_LOG);
         UtilLogger.exportLog();
+        metrics.end(RunMetrics.Phase.EXPORT_LOG);
+
+        String metricsOption = option(args, "--metrics");
+        metrics.writeJson(metricsOption == null || metricsOption.isEmpty() ? null : Path.of(metricsOption));
+    }
+
+    /**
+     * Parses every CSV file into one list, reporting and skipping files that fail to parse. With a
+     * concurrency above 1 the files are parsed on virtual threads, but they are still reported and
+     * merged in file order, so the result is the same as the sequential loop.
+     *
+     * @param csvFiles     the CSV files to read
+     * @param mappedChunks 0 to use {@link CSVParser}, otherwise the number of chunks each file is split into
+     *                     for {@link MappedCSVParser}
+     * @param concurrency  the maximum number of files parsed at the same time
+     * @param fixedPoint   true if the calculator keeps money in fixed-point micros, so either parser parses
+     *                     them exactly
+     * @param loadedFiles  receives each file that was parsed successfully
+     * @param metrics      receives each file's row count and parse time
+     * @return all transactions, in file order
+     */
+    private static List<Transaction> loadTransactions(File[] csvFiles, int mappedChunks, int concurrency,
+                                                      boolean fixedPoint, List<File> loadedFiles, RunMetrics metrics) {
+        ConcurrentFileLoader.FileParser format;
+        if (mappedChunks == 0) {
+            format = path -> CSVParser.parseCSV(path, fixedPoint);
+        } else if (mappedChunks == 1) {
+            format = path -> MappedCSVParser.parse(path, fixedPoint);
+        } else {
+            format = path -> MappedCSVParser.parseParallel(path, mappedChunks, fixedPoint);
+        }
+        ConcurrentFileLoader.FileParser parser = path -> {
+            long start = System.nanoTime();
+            List<Transaction> transactions = format.parse(path);
+            metrics.recordFile(new File(path).getName(), transactions.size(), System.nanoTime() - start);
+            return transactions;
+        };
+
+        List<Transaction> allTransactions = new ArrayList<>();
+        if (concurrency <= 1) {
+            for (File file : csvFiles) {
+                try {
+                    addLoaded(allTransactions, file, parser.parse(file.getAbsolutePath()));
+                    loadedFiles.add(file);
+                } catch (Exception e) {
+                    reportLoadError(file, e);
+                }
+            }
+            return allTransactions;
+        }
+
+        UtilLogger.logInfo("parsing " + csvFiles.length + " files with up to " + concurrency + " at a time");
+        try (ConcurrentFileLoader loader = new ConcurrentFileLoader(concurrency)) {
+            List<Future<List<Transaction>>> results = loader.submitAll(csvFiles, parser);
+            for (int i = 0; i < csvFiles.length; i++) {
+                try {
+                    addLoaded(allTransactions, csvFiles[i], results.get(i).get());
+                    loadedFiles.add(csvFiles[i]);
+                } catch (ExecutionException e) {
+                    reportLoadError(csvFiles[i], e.getCause() instanceof Exception cause ? cause : e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    reportLoadError(csvFiles[i], e);
+                }
+            }
+        }
+        return allTransactions;
+    }
+
+    /**
+     * Reports a successfully parsed file and appends its transactions.
+     */
+    private static void addLoaded(List<Transaction> allTransactions, File file, List<Transaction> transactions) {
+        String msg = "adding " + transactions.size() + " transactions from file: " + file.getName();
+        System.out.println(msg);
+        UtilLogger.logInfo(msg);
+        allTransactions.addAll(transactions);
+    }
+
+    /**
+     * Reports a file that could not be parsed.
+     */
+    private static void reportLoadError(File file, Exception e) {
+        String msg = "error processing file: " + file.getName() + " - ";
+        System.err.println(msg + e.getMessage());
+        UtilLogger.logError(msg, e);
+    }
+
+    /**
+     * Feeds every CSV file through a {@link TransactionMerger} straight into {@link #processTransaction(Transaction)},
+     * so the full history never has to be held in memory. Files that fail to parse are reported and skipped
+     * before any of their rows are processed.
+     *
+     * @param calculator  the calculator to feed
+     * @param csvFiles    the CSV files to read
+     * @param runSize     the maximum number of rows sorted in memory when spilling an unsorted file
+     * @param loadedFiles receives each file that was added to the merge
+     * @throws IOException if there is an error reading a file once merging has started
+     */
+    private static void streamTransactions(CapitalCalculator calculator, File[] csvFiles, int runSize,
+                                           List<File> loadedFiles) throws IOException {
+        RunMetrics metrics = calculator.metrics;
+        try (TransactionMerger merger = new TransactionMerger(runSize, calculator.fixedPoint)) {
+            metrics.begin(RunMetrics.Phase.LOAD);
+            for (File file : csvFiles) {
+                try {
+                    long start = System.nanoTime();
+                    int rows = merger.addFile(file);
+                    metrics.recordFile(file.getName(), rows, System.nanoTime() - start);
+                    loadedFiles.add(file);
+                    String msg = "streaming " + rows + " transactions from file: " + file.getName();
+                    System.out.println(msg);
+                    UtilLogger.logInfo(msg);
+                } catch (Exception e) {
+                    reportLoadError(file, e);
+                }
+            }
+
+            metrics.end(RunMetrics.Phase.LOAD);
+
+            UtilLogger.logInfo("merging transactions by date");
+            metrics.begin(RunMetrics.Phase.MATCH);
+            Transaction transaction;
+            while ((transaction = merger.next()) != null) {
+                calculator.processTransaction(transaction);
+            }
+            metrics.end(RunMetrics.Phase.MATCH);
+            UtilLogger.logInfo("completed processing merged transactions");
+        }
+    }
+
+    /**
+     * Loads, sorts and processes each CSV file in turn, in file name order, so a file's rows dated before
+     * rows of earlier files are applied as corrections.
+     *
+     * @param calculator   the calculator, with corrections on
+     * @param csvFiles     the CSV files to read
+     * @param mappedChunks 0 to use {@link CSVParser}, otherwise the number of chunks each file is split into
+     *                     for {@link MappedCSVParser}
+     * @param loadedFiles  receives each file that was parsed successfully
+     */
+    private static void correctTransactions(CapitalCalculator calculator, File[] csvFiles, int mappedChunks,
+                                            List<File> loadedFiles) {
+        RunMetrics metrics = calculator.metrics;
+        File[] ordered = csvFiles.clone();
+        Arrays.sort(ordered, Comparator.comparing(File::getName));
+        for (File file : ordered) {
+            metrics.begin(RunMetrics.Phase.LOAD);
+            List<Transaction> transactions = loadTransactions(new File[]{file}, mappedChunks, 1,
+                    calculator.fixedPoint, loadedFiles, metrics);
+            metrics.end(RunMetrics.Phase.LOAD);
+
+            metrics.begin(RunMetrics.Phase.SORT);
+            DateSort.sortParallel(transactions, Runtime.getRuntime().availableProcessors());
+            metrics.end(RunMetrics.Phase.SORT);
+
+            metrics.begin(RunMetrics.Phase.MATCH);
+            calculator.processTransactions(transactions);
+            metrics.end(RunMetrics.Phase.MATCH);
+        }
     }
 
     /**
      * Processes a single transaction.
      *
      * @param transaction the transaction to process
+     * @return true if the transaction was applied, false if it was skipped or rejected
      */
-    public void processTransaction(Transaction transaction) {
-        UtilLogger.logInfo("processing transaction: " + transaction);
+    public boolean processTransaction(Transaction transaction) {
+        if (!afterWatermark(transaction)) {
+            return false;
+        }
+        if (actions != null) {
+            applyActionsThrough(transaction.getEpochDay());
+        }
+        if (UtilLogger.isDebugEnabled()) {
+            UtilLogger.logDebug("processing transaction: " + transaction);
+        }
+        if (journals != null) {
+            return processJournaled(transaction);
+        }
 
         if (transaction.getType() == TransactionType.BUY) {
-            purchaseQueues.putIfAbsent(transaction.getSymbol(), new LinkedList<>());
-            UtilLogger.logDebug("adding BUY transaction for symbol " + transaction.getSymbol());
-            purchaseQueues.get(transaction.getSymbol()).addLast(transaction);
+            if (UtilLogger.isDebugEnabled()) {
+                UtilLogger.logDebug("adding BUY transaction for symbol " + transaction.getSymbol());
+            }
+            SymbolBook book = bookFor(transaction.getSymbolId());
+            book.buy(transaction);
+            marks.invalidate(book.getSymbolId());
         } else if (transaction.getType() == TransactionType.SELL) {
-            Deque<Transaction> buyQueue = purchaseQueues.get(transaction.getSymbol());
-            int totalAvailableShares = 0;
-            if (buyQueue != null) {
-                for (Transaction buy : buyQueue) {
-                    totalAvailableShares += buy.getQuantity();
-                }
+            SymbolBook book = bookAt(transaction.getSymbolId());
+            if (!hasSufficientShares(book, transaction)) {
+                return false;
             }
-            if (totalAvailableShares < transaction.getQuantity()) {
-                String msg = "insufficient shares available to sell for symbol: " + transaction.getSymbol() +
-                        ". Available: " + totalAvailableShares + ", Attempted to sell: " + transaction.getQuantity();
-                UtilLogger.logError(msg, new IllegalStateException(msg));
-                return;
+            if (UtilLogger.isDebugEnabled()) {
+                UtilLogger.logDebug("processing SELL transaction for symbol " + transaction.getSymbol());
             }
-            UtilLogger.logDebug("processing SELL transaction for symbol " + transaction.getSymbol());
-            double gain = processSellTransaction(transaction);
-            String msg = "capital gain/loss for selling " + transaction.getQuantity() + " shares of " +
-                    transaction.getSymbol() + ": $" + df.format(gain);
-            System.out.println(msg);
-            UtilLogger.logInfo(msg);
-            symbolGains.put(
-                    transaction.getSymbol(),
-                    symbolGains.getOrDefault(transaction.getSymbol(), 0.0) + gain
-            );
+            double gain = book.sell(transaction);
+            marks.invalidate(book.getSymbolId());
+            reportSale(transaction, gain);
         }
+        return true;
     }
 
     /**
-     * Processes a sell transaction.
+     * Applies every corporate action dated on or before a day that has not been applied yet. Actions dated
+     * on or before the snapshot watermark were applied by the run that wrote the snapshot and are skipped.
      *
-     * @param sellTransaction the sell transaction
-     * @return the calculated capital gain (or loss)
+     * @param day the last effective date to apply, as an epoch-day
      */
-    private double processSellTransaction(Transaction sellTransaction) {
-        UtilLogger.logDebug("begin processing sell transaction: " + sellTransaction);
+    private void applyActionsThrough(int day) {
+        while (nextAction < actions.size() && actions.get(nextAction).getEpochDay() <= day) {
+            CorporateAction action = actions.get(nextAction++);
+            if (action.getEpochDay() <= watermarkDay) {
+                UtilLogger.logInfo("skipping corporate action already applied before the snapshot watermark: " + action);
+                continue;
+            }
+            if (action.getEpochDay() > lastProcessedDay) {
+                lastProcessedDay = action.getEpochDay();
+            }
+            applyAction(action);
+        }
+    }
 
-        Deque<Transaction> buyQueue = purchaseQueues.get(sellTransaction.getSymbol());
-        int sharesToSell = sellTransaction.getQuantity();
-        double totalCostBasis = 0.0;
+    /**
+     * Applies one corporate action to the book of the symbol it names, if that symbol has one.
+     */
+    private void applyAction(CorporateAction action) {
+        int symbolId = SymbolDictionary.find(action.getSymbol());
+        SymbolBook book = symbolId < 0 ? null : bookAt(symbolId);
+        if (book == null) {
+            UtilLogger.logInfo("no book for " + action.getSymbol() + "; nothing to adjust for " + action);
+            return;
+        }
+        UtilLogger.logInfo("applying " + action);
+        if (action.getType() != CorporateActionType.RENAME) {
+            book.split(action.getRatioNumerator(), action.getRatioDenominator());
+            marks.invalidate(book.getSymbolId());
+            return;
+        }
+        int newId = SymbolDictionary.idOf(action.getNewSymbol());
+        SymbolBook existing = bookAt(newId);
+        if (existing != null && existing != book) {
+            UtilLogger.logWarning("cannot rename " + action.getSymbol() + " to " + action.getNewSymbol() +
+                    ", which already has its own book; skipping " + action);
+            return;
+        }
+        // the new symbol becomes an alias of the book, so rows under either symbol reach the same lots
+        placeBook(newId, book);
+        book.rename(newId);
+        marks.invalidate(book.getSymbolId());
+    }
 
-        while (sharesToSell > 0) {
-            Transaction buyTransaction = buyQueue.peekFirst();
-            if (buyTransaction == null) {
-                String msg = "unexpected error: no BUY transaction available for symbol: " + sellTransaction.getSymbol();
+    /**
+     * Processes a single transaction through its symbol's journal, applying it as a correction if it is
+     * dated before the last transaction the symbol has seen. A rejected SELL is still logged, so a backdated
+     * BUY can cover it later.
+     *
+     * @param transaction the transaction to process
+     * @return true if the transaction was applied, false if it was rejected
+     */
+    private boolean processJournaled(Transaction transaction) {
+        SymbolBook book = bookFor(transaction.getSymbolId());
+        SymbolJournal journal = journalFor(book);
+        marks.invalidate(transaction.getSymbolId());
+        if (journal.isBackdated(transaction)) {
+            double change = journal.correct(transaction);
+            if (journal.isLastRejected()) {
+                metrics.recordRejectedSell();
+                String msg = "insufficient shares available on " + transaction.getDate() + " for backdated sell of symbol: " +
+                        transaction.getSymbol() + ". Attempted to sell: " + transaction.getQuantity();
                 UtilLogger.logError(msg, new IllegalStateException(msg));
-                return 0.0;
+                return false;
             }
+            if (printSales || UtilLogger.isDebugEnabled()) {
+                String msg = "backdated " + transaction.getType() + " of " + transaction.getQuantity() + " shares of " +
+                        transaction.getSymbol() + " on " + transaction.getDate() + " changed its realized gain by $" +
+                        df.format(change);
+                if (printSales) {
+                    System.out.println(msg);
+                }
+                UtilLogger.logDebug(msg);
+            }
+            return true;
+        }
+        if (!journal.append(transaction)) {
+            rejectSell(book.getOpenShares(), transaction);
+            return false;
+        }
+        if (transaction.getType() == TransactionType.SELL) {
+            reportSale(transaction, journal.getLastGain());
+        }
+        return true;
+    }
 
-            int availableShares = buyTransaction.getQuantity();
+    /**
+     * Prints and logs a matched SELL's gain/loss.
+     */
+    private void reportSale(Transaction transaction, double gain) {
+        if (printSales || UtilLogger.isDebugEnabled()) {
+            String msg = "capital gain/loss for selling " + transaction.getQuantity() + " shares of " +
+                    transaction.getSymbol() + ": $" + df.format(gain);
+            if (printSales) {
+                System.out.println(msg);
+            }
+            UtilLogger.logDebug(msg);
+        }
+    }
 
-            if (availableShares <= sharesToSell) {
-                UtilLogger.logDebug("consuming entire BUY transaction: " + buyTransaction + " for " + availableShares + " shares");
-                totalCostBasis += availableShares * buyTransaction.getPrice();
-                sharesToSell -= availableShares;
-                buyQueue.pollFirst();
-            } else {
-                UtilLogger.logDebug("partially consuming BUY transaction: " + buyTransaction + ". using " + sharesToSell + " shares");
-                totalCostBasis += sharesToSell * buyTransaction.getPrice();
-                int remainingShares = availableShares - sharesToSell;
-                Transaction updatedBuy = new Transaction(
-                        buyTransaction.getDate(),
-                        buyTransaction.getType(),
-                        buyTransaction.getSymbol(),
-                        remainingShares,
-                        buyTransaction.getPrice()
-                );
-                buyQueue.pollFirst();
-                buyQueue.addFirst(updatedBuy);
-                sharesToSell = 0;
+    /**
+     * Gets a symbol's book, creating an empty one in this calculator's mode if needed.
+     *
+     * @param symbolId the stock symbol's dictionary ID
+     * @return the book
+     */
+    private SymbolBook bookFor(int symbolId) {
+        SymbolBook book = bookAt(symbolId);
+        if (book == null) {
+            book = new SymbolBook(symbolId, fixedPoint, lotMethod);
+            if (washSales) {
+                book.enableWashSales();
             }
+            book.setMatchSink(matchSink);
+            placeBook(symbolId, book);
         }
-        double totalProceeds = sellTransaction.getQuantity() * sellTransaction.getPrice();
-        UtilLogger.logDebug("completed processing sell transaction: " + sellTransaction);
-        return totalProceeds - totalCostBasis;
+        return book;
+    }
+
+    /**
+     * Points a symbol ID at a book: the book's own ID, or an alias left by a rename.
+     *
+     * @param symbolId the stock symbol's dictionary ID
+     * @param book     the book
+     */
+    private void placeBook(int symbolId, SymbolBook book) {
+        if (symbolId >= books.length) {
+            books = Arrays.copyOf(books, Math.max(symbolId + 1, books.length * 2));
+        }
+        books[symbolId] = book;
+    }
+
+    /**
+     * Gets a book's journal, starting one from the book's current state if needed.
+     *
+     * @param book the symbol's book
+     * @return the journal
+     */
+    private SymbolJournal journalFor(SymbolBook book) {
+        int symbolId = book.getSymbolId();
+        if (symbolId >= journals.length) {
+            journals = Arrays.copyOf(journals, Math.max(symbolId + 1, journals.length * 2));
+        }
+        SymbolJournal journal = journals[symbolId];
+        if (journal == null) {
+            journal = new SymbolJournal(book, lotMethod);
+            journals[symbolId] = journal;
+        }
+        return journal;
+    }
+
+    /**
+     * Gets a symbol's book if it has one.
+     *
+     * @param symbolId the stock symbol's dictionary ID
+     * @return the book, or {@code null} if the symbol was never bought
+     */
+    private SymbolBook bookAt(int symbolId) {
+        return symbolId < books.length ? books[symbolId] : null;
+    }
+
+    /**
+     * Checks a transaction against the snapshot watermark and advances the last processed date. Transactions
+     * dated before the watermark would have had to be applied before state that is already in the snapshot,
+     * so they are logged and skipped.
+     *
+     * @param transaction the transaction about to be processed
+     * @return true if the transaction should be processed
+     */
+    private boolean afterWatermark(Transaction transaction) {
+        int day = transaction.getEpochDay();
+        if (day < watermarkDay) {
+            UtilLogger.logWarning("skipping transaction dated before the snapshot watermark " +
+                    LocalDate.ofEpochDay(watermarkDay) + ": " + transaction);
+            return false;
+        }
+        if (day > lastProcessedDay) {
+            lastProcessedDay = day;
+        }
+        return true;
+    }
+
+    /**
+     * Checks that a book holds enough shares to cover a SELL, logging an error if it does not.
+     *
+     * @param book            the symbol's book, or {@code null} if the symbol was never bought
+     * @param sellTransaction the sell transaction
+     * @return true if the sell can be matched
+     */
+    private boolean hasSufficientShares(SymbolBook book, Transaction sellTransaction) {
+        long totalAvailableShares = book == null ? 0 : book.getOpenShares();
+        if (totalAvailableShares < sellTransaction.getQuantity()) {
+            rejectSell(totalAvailableShares, sellTransaction);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Counts and logs a SELL rejected for lack of shares.
+     */
+    private void rejectSell(long totalAvailableShares, Transaction sellTransaction) {
+        metrics.recordRejectedSell();
+        String msg = "insufficient shares available to sell for symbol: " + sellTransaction.getSymbol() +
+                ". Available: " + totalAvailableShares + ", Attempted to sell: " + sellTransaction.getQuantity();
+        UtilLogger.logError(msg, new IllegalStateException(msg));
     }
 
     /**
@@ -187,19 +819,597 @@ public class CapitalCalculator {
         UtilLogger.logInfo("completed processing transactions list");
     }
 
+    /**
+     * Processes a date-sorted list of transactions with one task per symbol on a {@link ForkJoinPool}.
+     * FIFO matching never crosses symbols, so each symbol's transactions are replayed in input order on
+     * their own book. Each book accumulates its gain in the same order as {@link #processTransactions(List)},
+     * so the results are identical.
+     * Per-sale gains are logged rather than printed, since tasks finish in no particular order.
+     *
+     * @param transactions the date-sorted list of transactions to process
+     * @param parallelism  the number of worker threads
+     */
+    public void processTransactionsParallel(List<Transaction> transactions, int parallelism) {
+        if (matchSink != null) {
+            UtilLogger.logInfo("match records are written in order; processing sequentially");
+            processTransactions(transactions);
+            return;
+        }
+        if (actions != null) {
+            UtilLogger.logInfo("corporate actions are applied between transactions in date order; processing sequentially");
+            processTransactions(transactions);
+            return;
+        }
+        UtilLogger.logInfo("processing " + transactions.size() + " transactions on " + parallelism + " threads");
+
+        List<List<Transaction>> bySymbol = new ArrayList<>(Collections.nCopies(SymbolDictionary.size(), null));
+        List<List<Transaction>> work = new ArrayList<>();
+        for (Transaction t : transactions) {
+            if (!afterWatermark(t)) {
+                continue;
+            }
+            List<Transaction> symbolTransactions = bySymbol.get(t.getSymbolId());
+            if (symbolTransactions == null) {
+                symbolTransactions = new ArrayList<>();
+                bySymbol.set(t.getSymbolId(), symbolTransactions);
+                work.add(symbolTransactions);
+                SymbolBook book = bookFor(t.getSymbolId());
+                if (journals != null) {
+                    journalFor(book);
+                }
+            }
+            symbolTransactions.add(t);
+        }
+
+        // submit the busiest symbols first so one large symbol doesn't start last and dominate the run
+        work.sort(Comparator.comparingInt((List<Transaction> symbolTransactions) -> symbolTransactions.size()).reversed());
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(work.size());
+            for (List<Transaction> symbolTransactions : work) {
+                int symbolId = symbolTransactions.getFirst().getSymbolId();
+                SymbolBook book = books[symbolId];
+                SymbolJournal journal = journals == null ? null : journals[symbolId];
+                tasks.add(pool.submit(() -> processSymbol(book, journal, symbolTransactions)));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        marks.invalidateAll();
+        UtilLogger.logInfo("completed processing transactions list");
+    }
+
+    /**
+     * Replays one symbol's transactions against its book.
+     *
+     * @param book         the symbol's book
+     * @param journal      the book's journal, or {@code null} if corrections are off
+     * @param transactions the symbol's transactions, in date order
+     */
+    private void processSymbol(SymbolBook book, SymbolJournal journal, List<Transaction> transactions) {
+        for (Transaction t : transactions) {
+            if (UtilLogger.isDebugEnabled()) {
+                UtilLogger.logDebug("processing transaction: " + t);
+            }
+            if (journal != null) {
+                if (!journal.append(t)) {
+                    rejectSell(book.getOpenShares(), t);
+                }
+            } else if (t.getType() == TransactionType.BUY) {
+                book.buy(t);
+            } else if (t.getType() == TransactionType.SELL && hasSufficientShares(book, t)) {
+                double gain = book.sell(t);
+                if (UtilLogger.isDebugEnabled()) {
+                    UtilLogger.logDebug("capital gain/loss for selling " + t.getQuantity() + " shares of " +
+                            t.getSymbol() + ": $" + df.format(gain));
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the current state with the state saved in a snapshot, including the aliases left by renames.
+     * Transactions dated before the snapshot's watermark are skipped from then on. The calculator switches to the snapshot's money mode
+     * and lot-relief method, since exact micros and doubles cannot be mixed in one book and lots already
+     * relieved under one method cannot be re-ordered for another.
+     *
+     * @param snapshot the snapshot to restore
+     */
+    public void restore(Snapshot snapshot) {
+        if (snapshot.isFixedPoint() != fixedPoint) {
+            UtilLogger.logWarning("snapshot was written in " + (snapshot.isFixedPoint() ? "fixed-point" : "double") +
+                    " mode; continuing in that mode");
+        }
+        if (snapshot.getLotMethod() != lotMethod) {
+            UtilLogger.logWarning("snapshot was written with the " + snapshot.getLotMethod() + " lot method; continuing with it");
+        }
+        if (snapshot.isWashSales() != washSales) {
+            UtilLogger.logWarning("snapshot was written " + (snapshot.isWashSales() ? "with" : "without") +
+                    " wash-sale detection; continuing " + (snapshot.isWashSales() ? "with" : "without") + " it");
+        }
+        Arrays.fill(books, null);
+        if (journals != null) {
+            Arrays.fill(journals, null);
+        }
+        fixedPoint = snapshot.isFixedPoint();
+        lotMethod = snapshot.getLotMethod();
+        washSales = snapshot.isWashSales();
+        for (SymbolBook book : snapshot.getBooks()) {
+            book.setMatchSink(matchSink);
+            placeBook(book.getSymbolId(), book);
+        }
+        for (Map.Entry<String, String> alias : snapshot.getAliases().entrySet()) {
+            placeBook(SymbolDictionary.idOf(alias.getKey()), bookAt(SymbolDictionary.find(alias.getValue())));
+        }
+        watermarkDay = snapshot.getWatermarkDay();
+        lastProcessedDay = snapshot.getWatermarkDay();
+        marks.invalidateAll();
+    }
+
+    /**
+     * Captures the current state, with the last processed date as the watermark. The snapshot shares the
+     * live books, so it should be written before any further processing.
+     *
+     * @param consumedFiles names of every CSV file processed so far, including earlier runs
+     * @return the snapshot
+     */
+    public Snapshot toSnapshot(Set<String> consumedFiles) {
+        Map<String, String> aliases = new LinkedHashMap<>();
+        for (int i = 0; i < books.length; i++) {
+            if (books[i] != null && books[i].getSymbolId() != i) {
+                aliases.put(SymbolDictionary.nameOf(i), SymbolDictionary.nameOf(books[i].getSymbolId()));
+            }
+        }
+        return new Snapshot(lastProcessedDay, consumedFiles, fixedPoint, lotMethod, washSales, openBooks(), aliases);
+    }
+
+    /**
+     * Sets whether each matched SELL's gain/loss is printed to standard output (it is always logged).
+     *
+     * @param printSales true to print every sale
+     */
+    public void setPrintSales(boolean printSales) {
+        this.printSales = printSales;
+    }
+
+    /**
+     * Turns wash-sale detection on or off for books created from now on, and on for existing books. A book
+     * only sees wash sales among the transactions it processes after detection starts.
+     *
+     * @param washSales true to detect wash sales
+     */
+    public void setWashSales(boolean washSales) {
+        if (washSales && journals != null) {
+            throw new IllegalStateException("wash-sale detection cannot be combined with corrections");
+        }
+        if (washSales && actions != null) {
+            throw new IllegalStateException("wash-sale detection cannot be combined with corporate actions");
+        }
+        this.washSales = washSales;
+        if (washSales) {
+            for (SymbolBook book : openBooks()) {
+                book.enableWashSales();
+            }
+        }
+    }
+
+    /**
+     * Turns backdated-transaction corrections on or off. With corrections on, each book logs every transaction
+     * it sees, so memory grows with the number of transactions. Wash-sale adjustments reach across sales
+     * and are not replayed, so the two cannot be combined.
+     *
+     * @param corrections true to journal every book and correct backdated transactions
+     * @throws IllegalStateException if wash sales are detected
+     */
+    public void setCorrections(boolean corrections) {
+        if (corrections && washSales) {
+            throw new IllegalStateException("corrections cannot be combined with wash-sale detection");
+        }
+        if (corrections && matchSink != null) {
+            throw new IllegalStateException("corrections cannot be combined with a match sink");
+        }
+        if (corrections && actions != null) {
+            throw new IllegalStateException("corrections cannot be combined with corporate actions");
+        }
+        if (!corrections) {
+            journals = null;
+        } else if (journals == null) {
+            journals = new SymbolJournal[books.length];
+        }
+    }
+
+    /**
+     * Sets the sink that receives a record for every lot relieved from now on, in every book. Records are
+     * produced in processing order, so {@link #processTransactionsParallel(List, int)} runs sequentially
+     * while a sink is set. A record cannot be taken back, so a sink cannot be combined with corrections.
+     *
+     * @param matchSink the sink, or {@code null} for none
+     * @throws IllegalStateException if backdated transactions are corrected
+     */
+    public void setMatchSink(MatchSink matchSink) {
+        if (matchSink != null && journals != null) {
+            throw new IllegalStateException("a match sink cannot be combined with corrections");
+        }
+        this.matchSink = matchSink;
+        for (SymbolBook book : openBooks()) {
+            book.setMatchSink(matchSink);
+        }
+    }
+
+    /**
+     * Sets the corporate actions to apply, each before the first transaction dated on or after it. The
+     * journal's checkpoints and the wash-sale window hold shares in the units they were bought in, so actions
+     * cannot be combined with corrections or wash-sale detection.
+     *
+     * @param actions the actions, in date order, or {@code null} for none
+     * @throws IllegalStateException if backdated transactions are corrected or wash sales are detected
+     */
+    public void setCorporateActions(List<CorporateAction> actions) {
+        if (actions != null && journals != null) {
+            throw new IllegalStateException("corporate actions cannot be combined with corrections");
+        }
+        if (actions != null && washSales) {
+            throw new IllegalStateException("corporate actions cannot be combined with wash-sale detection");
+        }
+        this.actions = actions;
+        this.nextAction = 0;
+        UtilLogger.logInfo("loaded " + (actions == null ? 0 : actions.size()) + " corporate actions");
+    }
+
+    /**
+     * Checks whether backdated transactions are corrected.
+     *
+     * @return true if corrections are on
+     */
+    public boolean isCorrections() {
+        return journals != null;
+    }
+
+    /**
+     * Checks whether wash sales are detected.
+     *
+     * @return true if wash sales are detected
+     */
+    public boolean isWashSales() {
+        return washSales;
+    }
+
+    /**
+     * Checks whether money is kept in fixed-point micros.
+     *
+     * @return true in fixed-point mode
+     */
+    public boolean isFixedPoint() {
+        return fixedPoint;
+    }
+
+    /**
+     * Gets the total loss disallowed by wash sales so far, across every symbol.
+     *
+     * @return disallowed loss, as a positive amount
+     */
+    public double getDisallowedLoss() {
+        long micros = 0L;
+        double loss = 0.0;
+        for (SymbolBook book : openBooks()) {
+            WashSaleTracker tracker = book.getWashSales();
+            if (tracker != null) {
+                micros += tracker.getDisallowedLossMicros();
+                loss += tracker.getDisallowedLoss();
+            }
+        }
+        return fixedPoint ? FixedPoint.toDouble(micros) : loss;
+    }
+
+    /**
+     * Gets the open position summary for a symbol without walking its purchase queue.
+     *
+     * @param symbol the stock symbol
+     * @return the position, or {@code null} if the symbol was never bought
+     */
+    public Position getPosition(String symbol) {
+        int symbolId = SymbolDictionary.find(symbol);
+        SymbolBook book = symbolId < 0 ? null : bookAt(symbolId);
+        return book == null ? null : book.getPosition();
+    }
+
+    /**
+     * Gets the aggregated capital gains/losses per stock symbol, for every symbol with at least one
+     * matched SELL.
+     *
+     * @return unmodifiable copy of the gains
+     */
+    public Map<String, Double> getSymbolGains() {
+        Map<String, Double> gains = new HashMap<>();
+        for (SymbolBook book : openBooks()) {
+            if (book.getSalesMatched() > 0) {
+                gains.put(book.getSymbol(), book.getRealizedGain());
+            }
+        }
+        return Collections.unmodifiableMap(gains);
+    }
+
+    /**
+     * Gets the realized gain/loss of one symbol's sales dated within a range.
+     *
+     * @param symbol the stock symbol
+     * @param from   the first sale date to include, or {@code null} for no lower bound
+     * @param to     the last sale date to include, or {@code null} for no upper bound
+     * @return the gain (0 if the symbol has no sales in the range)
+     */
+    public double getRealizedGain(String symbol, LocalDate from, LocalDate to) {
+        int symbolId = SymbolDictionary.find(symbol);
+        SymbolBook book = symbolId < 0 ? null : bookAt(symbolId);
+        return book == null ? 0.0 : book.getGainSeries().sum(fromDay(from), toDay(to));
+    }
+
+    /**
+     * Gets the realized gain/loss of every sale dated within a range, across all symbols. In fixed-point
+     * mode the symbols are summed exactly in micros.
+     *
+     * @param from the first sale date to include, or {@code null} for no lower bound
+     * @param to   the last sale date to include, or {@code null} for no upper bound
+     * @return the portfolio gain
+     */
+    public double getRealizedGain(LocalDate from, LocalDate to) {
+        int fromDay = fromDay(from);
+        int toDay = toDay(to);
+        double gain = 0.0;
+        long gainMicros = 0L;
+        for (SymbolBook book : openBooks()) {
+            if (fixedPoint) {
+                gainMicros += book.getGainSeries().sumMicros(fromDay, toDay);
+            } else {
+                gain += book.getGainSeries().sum(fromDay, toDay);
+            }
+        }
+        return fixedPoint ? FixedPoint.toDouble(gainMicros) : gain;
+    }
+
+    /**
+     * Gets the capital gains/losses per stock symbol for sales dated within a range, for every symbol with
+     * at least one matched SELL in the range.
+     *
+     * @param from the first sale date to include, or {@code null} for no lower bound
+     * @param to   the last sale date to include, or {@code null} for no upper bound
+     * @return unmodifiable copy of the gains
+     */
+    public Map<String, Double> getSymbolGains(LocalDate from, LocalDate to) {
+        int fromDay = fromDay(from);
+        int toDay = toDay(to);
+        Map<String, Double> gains = new HashMap<>();
+        for (SymbolBook book : openBooks()) {
+            if (book.getGainSeries().hasSales(fromDay, toDay)) {
+                gains.put(book.getSymbol(), book.getGainSeries().sum(fromDay, toDay));
+            }
+        }
+        return Collections.unmodifiableMap(gains);
+    }
+
+    private static int fromDay(LocalDate from) {
+        return from == null ? Integer.MIN_VALUE : (int) from.toEpochDay();
+    }
+
+    private static int toDay(LocalDate to) {
+        return to == null ? Integer.MAX_VALUE : (int) to.toEpochDay();
+    }
+
+    /**
+     * Prints the capital gains/losses per stock symbol, and in total, for sales dated within a range.
+     *
+     * @param from the first sale date to include, or {@code null} for no lower bound
+     * @param to   the last sale date to include, or {@code null} for no upper bound
+     */
+    public void printSummary(LocalDate from, LocalDate to) {
+        int fromDay = fromDay(from);
+        int toDay = toDay(to);
+        String range = (from == null ? "start" : from.toString()) + " to " + (to == null ? "end" : to.toString());
+        UtilLogger.logInfo("printing summary of capital gains/losses from " + range);
+        System.out.println("--- Capital Gains/Losses " + range + " ---");
+        long totalMicros = 0L;
+        double total = 0.0;
+        for (SymbolBook book : openBooks()) {
+            GainSeries series = book.getGainSeries();
+            if (!series.hasSales(fromDay, toDay)) {
+                continue;
+            }
+            String gain;
+            if (fixedPoint) {
+                long micros = series.sumMicros(fromDay, toDay);
+                totalMicros += micros;
+                gain = df.format(FixedPoint.toBigDecimal(micros));
+            } else {
+                double value = series.sum(fromDay, toDay);
+                total += value;
+                gain = df.format(value);
+            }
+            String msg = book.getSymbol() + ": $" + gain;
+            System.out.println(msg);
+            UtilLogger.logInfo(msg);
+        }
+        String msg = "Total: $" + (fixedPoint ? df.format(FixedPoint.toBigDecimal(totalMicros)) : df.format(total));
+        System.out.println(msg);
+        UtilLogger.logInfo(msg);
+        System.out.println("-------------------------------------\n");
+    }
+
+    /**
+     * Loads an end-of-day price file. Only symbols whose price changed will have their unrealized gain
+     * recomputed.
+     *
+     * @param path the price file, rows of {@code symbol,price}
+     * @return the number of symbols whose price changed
+     * @throws IOException if there is an error reading the file
+     */
+    public int loadPrices(Path path) throws IOException {
+        int[] changed = new int[1];
+        int read = PriceFileParser.parse(path, (symbolId, price, priceMicros) -> {
+            // a renamed symbol's price marks the book it is an alias of
+            SymbolBook book = bookAt(symbolId);
+            if (marks.setPrice(book == null ? symbolId : book.getSymbolId(), price, priceMicros)) {
+                changed[0]++;
+            }
+        });
+        UtilLogger.logInfo("loaded " + read + " prices from " + path + ", " + changed[0] + " changed");
+        return changed[0];
+    }
+
+    /**
+     * Gets the unrealized gain/loss of a symbol's open position at its latest closing price.
+     *
+     * @param symbol the stock symbol
+     * @return the unrealized gain, or 0 if the symbol has no open position or no price
+     */
+    public double getUnrealizedGain(String symbol) {
+        int symbolId = SymbolDictionary.find(symbol);
+        SymbolBook book = symbolId < 0 ? null : bookAt(symbolId);
+        return book == null ? 0.0 : marks.unrealizedGain(book);
+    }
+
+    /**
+     * Gets the unrealized gain/loss of every open position at its latest closing price, in O(symbols). In
+     * fixed-point mode the symbols are summed exactly in micros.
+     *
+     * @return the portfolio's unrealized gain
+     */
+    public double getUnrealizedGain() {
+        double gain = 0.0;
+        long gainMicros = 0L;
+        for (SymbolBook book : openBooks()) {
+            if (fixedPoint) {
+                gainMicros += marks.unrealizedGainMicros(book);
+            } else {
+                gain += marks.unrealizedGain(book);
+            }
+        }
+        return fixedPoint ? FixedPoint.toDouble(gainMicros) : gain;
+    }
+
+    /**
+     * Prints the unrealized gain/loss per stock symbol with open shares, and in total. Symbols with open
+     * shares but no price are listed as unpriced.
+     */
+    public void printUnrealizedSummary() {
+        UtilLogger.logInfo("printing summary of unrealized gains/losses per stock symbol:");
+        System.out.println("--- Unrealized Gains/Losses ---");
+        long totalMicros = 0L;
+        double total = 0.0;
+        for (SymbolBook book : openBooks()) {
+            if (book.getOpenShares() == 0) {
+                continue;
+            }
+            String msg;
+            if (!marks.hasPrice(book.getSymbolId())) {
+                msg = book.getSymbol() + ": no price for " + book.getOpenShares() + " open shares";
+            } else if (fixedPoint) {
+                long micros = marks.unrealizedGainMicros(book);
+                totalMicros += micros;
+                msg = book.getSymbol() + ": $" + df.format(FixedPoint.toBigDecimal(micros));
+            } else {
+                double gain = marks.unrealizedGain(book);
+                total += gain;
+                msg = book.getSymbol() + ": $" + df.format(gain);
+            }
+            System.out.println(msg);
+            UtilLogger.logInfo(msg);
+        }
+        String msg = "Total: $" + (fixedPoint ? df.format(FixedPoint.toBigDecimal(totalMicros)) : df.format(total));
+        System.out.println(msg);
+        UtilLogger.logInfo(msg);
+        System.out.println("-------------------------------------\n");
+    }
+
+    /**
+     * Prints the loss disallowed by wash sales per stock symbol, and the losses whose 30-day window is still
+     * open as of the last processed date, which a later BUY could still disallow.
+     */
+    public void printWashSaleSummary() {
+        UtilLogger.logInfo("printing summary of wash sales per stock symbol:");
+        System.out.println("--- Wash Sales ---");
+        for (SymbolBook book : openBooks()) {
+            WashSaleTracker tracker = book.getWashSales();
+            if (tracker == null) {
+                continue;
+            }
+            tracker.settle(lastProcessedDay);
+            if (tracker.getWashSales() == 0 && tracker.getPendingLoss() == 0.0) {
+                continue;
+            }
+            String msg = book.getSymbol() + ": disallowed $" + df.format(tracker.getDisallowedLoss()) + " in " +
+                    tracker.getWashSales() + " matches, pending $" + df.format(tracker.getPendingLoss());
+            System.out.println(msg);
+            UtilLogger.logInfo(msg);
+        }
+        String msg = "Total disallowed: $" + df.format(getDisallowedLoss());
+        System.out.println(msg);
+        UtilLogger.logInfo(msg);
+        System.out.println("-------------------------------------\n");
+    }
+
+    /**
+     * Gets this run's instrumentation.
+     *
+     * @return the metrics
+     */
+    public RunMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the mark-to-market state, for inspecting prices and recomputation counts.
+     *
+     * @return the marks
+     */
+    public MarkToMarket getMarks() {
+        return marks;
+    }
+
     /**
      * Prints a summary of the aggregated capital gains/losses per stock symbol.
      */
     public void printSummary() {
         UtilLogger.logInfo("printing summary of capital gains/losses per stock symbol:");
         System.out.println("\n--- Capital Gains/Losses Summary ---");
-        for (Map.Entry<String, Double> entry : symbolGains.entrySet()) {
-            String symbol = entry.getKey();
-            double totalGain = entry.getValue();
-            String msg = symbol + ": $" + df.format(totalGain);
+        for (SymbolBook book : openBooks()) {
+            if (book.getSalesMatched() == 0) {
+                continue;
+            }
+            String total = fixedPoint ? df.format(FixedPoint.toBigDecimal(book.getRealizedGainMicros()))
+                    : df.format(book.getRealizedGain());
+            String msg = book.getSymbol() + ": $" + total;
             System.out.println(msg);
             UtilLogger.logInfo(msg);
         }
         System.out.println("-------------------------------------\n");
     }
+
+    /**
+     * Gets every symbol's book, in symbol ID order, for views over the engine state such as the GUI's
+     * tables. The books are live and must not be read while transactions are being processed.
+     *
+     * @return the books
+     */
+    public List<SymbolBook> getBooks() {
+        return openBooks();
+    }
+
+    /**
+     * Gets every book that has been created, in symbol ID order. A book reached under a renamed symbol's
+     * other ID is listed once.
+     *
+     * @return the books
+     */
+    private List<SymbolBook> openBooks() {
+        List<SymbolBook> open = new ArrayList<>();
+        for (int i = 0; i < books.length; i++) {
+            if (books[i] != null && books[i].getSymbolId() == i) {
+                open.add(books[i]);
+            }
+        }
+        return open;
+    }
 }
\ No newline at end of file
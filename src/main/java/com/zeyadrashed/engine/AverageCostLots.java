@@ -0,0 +1,204 @@
+package com.zeyadrashed.engine;
+
+import com.zeyadrashed.util.FixedPoint;
+
+/**
+ * Average-cost lot selection: every share is relieved at the average cost of all shares held.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * The lots themselves are kept in a FIFO {@link LotQueue}, which still decides the purchase dates (and so
+ * the holding periods) a sale draws on, while running totals of shares and cost give the average price
+ * in O(1). Relieving shares takes their average cost out of the total, so the average only changes
+ * when a lot is opened. In double mode the cost relieved by a sale is summed lot by lot and taken out of the
+ * total in one step when the next sale, lot or split comes, the same way the position takes it out of its
+ * basis, so the two stay bit-for-bit equal. In fixed-point mode the average is rounded to the nearest micro, the way brokers
+ * round a reported average cost. Saved lots carry the average price; the pool's exact total cost is the
+ * open cost basis of the book's position less any deferred wash-sale losses, which is restored alongside
+ * them (in double mode the pool's own total is saved, see {@link #getCost()}). A split leaves the total cost
+ * as it is and takes the position's new share count, so the average is restated at once while the lots
+ * underneath are restated as they are relieved.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class AverageCostLots implements LotSelection {
+
+    private final boolean fixedPoint;
+    private final LotQueue lots = new LotQueue();
+    private long shares;
+    private double cost;
+    private long costMicros;
+    private double relieved;
+    private long average;
+
+    /**
+     * Constructor for an empty pool.
+     *
+     * @param fixedPoint true if prices are fixed-point micros rather than raw {@code double} bits
+     */
+    public AverageCostLots(boolean fixedPoint) {
+        this.fixedPoint = fixedPoint;
+    }
+
+    @Override
+    public void add(int epochDay, int quantity, long price, long lotId, int epoch) {
+        takeRelieved();
+        lots.add(epochDay, quantity, price, lotId, epoch);
+        shares += quantity;
+        if (fixedPoint) {
+            costMicros += FixedPoint.multiply(quantity, price);
+        } else {
+            cost += quantity * Double.longBitsToDouble(price);
+        }
+        updateAverage();
+    }
+
+    /**
+     * Replaces the pool's totals after its lots have been restored, so they are exactly what they were
+     * when the lots were saved.
+     *
+     * @param shares     the total shares, which differ from the lots' own sum while lots from before a split
+     *                   are open
+     * @param cost       the total cost (double mode)
+     * @param costMicros the total cost in micros (fixed-point mode)
+     * @param average    the saved average price per share
+     */
+    void restoreCost(long shares, double cost, long costMicros, long average) {
+        this.shares = shares;
+        this.cost = cost;
+        this.costMicros = costMicros;
+        this.average = average;
+        relieved = 0.0;
+    }
+
+    /**
+     * Gets the pool's total cost in double mode, with the cost relieved by the last sale already taken
+     * out. The position's basis is the same total plus any deferred wash-sale losses, added and relieved in
+     * a different order, so subtracting them back out of the basis would not give the same bits.
+     *
+     * @return total cost of the open shares
+     */
+    public double getCost() {
+        return cost - relieved;
+    }
+
+    /**
+     * Takes the cost relieved by the last sale out of the total.
+     */
+    private void takeRelieved() {
+        cost -= relieved;
+        relieved = 0.0;
+    }
+
+    /**
+     * Starts matching a sale. Lot IDs are ignored, since shares are relieved at the average.
+     */
+    @Override
+    public boolean select(long lotId) {
+        takeRelieved();
+        return false;
+    }
+
+    private void updateAverage() {
+        average = fixedPoint ? Math.floorDiv(2 * costMicros + shares, 2 * shares)
+                : Double.doubleToRawLongBits(cost / shares);
+    }
+
+    @Override
+    public void consumeFirst(int quantity) {
+        lots.consumeFirst(quantity);
+        shares -= quantity;
+        if (shares == 0) {
+            // drop rounding left over from averaging once the pool is empty
+            cost = 0.0;
+            costMicros = 0L;
+            relieved = 0.0;
+        } else if (fixedPoint) {
+            costMicros -= FixedPoint.multiply(quantity, average);
+        } else {
+            relieved += quantity * Double.longBitsToDouble(average);
+        }
+    }
+
+    /**
+     * Restates the front lot's quantity. The price is ignored, since shares are relieved at the average.
+     */
+    @Override
+    public void restateFirst(int quantity, long price, int epoch) {
+        lots.restateFirst(quantity, average, epoch);
+    }
+
+    /**
+     * Every lot is relieved at the pool's average, whose total cost already spans every lot.
+     */
+    @Override
+    public boolean pricesEachLot() {
+        return false;
+    }
+
+    @Override
+    public void onSplit(long openShares) {
+        takeRelieved();
+        shares = openShares;
+        if (shares == 0) {
+            cost = 0.0;
+            costMicros = 0L;
+        } else {
+            updateAverage();
+        }
+    }
+
+    @Override
+    public int peekEpoch() {
+        return lots.peekEpoch();
+    }
+
+    @Override
+    public int peekDay() {
+        return lots.peekDay();
+    }
+
+    @Override
+    public int peekQuantity() {
+        return lots.peekQuantity();
+    }
+
+    /**
+     * Gets the average cost per share of the whole pool.
+     *
+     * @return average price per share
+     */
+    @Override
+    public long peekPrice() {
+        return average;
+    }
+
+    @Override
+    public long peekLotId() {
+        return lots.peekLotId();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return lots.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return lots.size();
+    }
+
+    @Override
+    public void forEach(LotVisitor visitor) {
+        if (shares == 0) {
+            return;
+        }
+        lots.forEach((day, quantity, price, lotId, epoch) -> visitor.visit(day, quantity, average, lotId, epoch));
+    }
+}
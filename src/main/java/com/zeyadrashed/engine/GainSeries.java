@@ -0,0 +1,235 @@
+package com.zeyadrashed.engine;
+
+import com.zeyadrashed.util.FixedPoint;
+
+import java.util.Arrays;
+
+/**
+ * Realized gains of one symbol by sale date, as a running total, so the gain over any date range is
+ * two binary searches and a subtraction.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * There is one entry per distinct sale date, in date order: the epoch-day and the cumulative gain of every
+ * sale up to and including that day. Transactions are processed in date order, so recording a gain either
+ * adds to the last entry or appends a new one, in amortized O(1) and without allocating. The gain between
+ * two dates is the total at the last entry on or before the end minus the total at the last entry before
+ * the start, found by binary search in O(log n). A gain dated before the last entry, which only happens
+ * if a caller feeds transactions out of order, is inserted in place and added to every later total in
+ * O(n), which keeps queries O(log n) without paying for a tree on the common path.
+ * </p>
+ * <p>
+ * Totals are kept like the book's money: exact {@code long} micros in fixed-point mode, {@code double}s
+ * otherwise. {@link #totalAt(int)} returns them as an opaque 64-bit value (micros, or the raw bits of a
+ * {@code double}), the same way lot prices are stored; 0 is zero in both. In double mode a range's gain
+ * is the difference of two running totals, so it carries their rounding: an error of about one ulp of
+ * the larger total (some 1e-7 dollars at a billion) rather than of the range's own sum. That is far
+ * below a cent, but it is not exact, and two ranges that split a third need not add up to it bit for bit;
+ * the fixed-point mode is for when they must.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class GainSeries {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private final boolean fixedPoint;
+    private int[] days;
+    private long[] totals;
+    private int size;
+
+    /**
+     * Constructor for an empty series.
+     *
+     * @param fixedPoint true to keep totals in fixed-point micros
+     */
+    public GainSeries(boolean fixedPoint) {
+        this(fixedPoint, new int[DEFAULT_CAPACITY], new long[DEFAULT_CAPACITY], 0);
+    }
+
+    /**
+     * Constructor for a series restored from saved entries. The arrays are taken over, not copied.
+     *
+     * @param fixedPoint true if the totals are fixed-point micros
+     * @param days       sale dates as epoch-days, strictly increasing
+     * @param totals     cumulative gains, as returned by {@link #totalAt(int)}
+     * @param size       the number of entries in use
+     */
+    public GainSeries(boolean fixedPoint, int[] days, long[] totals, int size) {
+        this.fixedPoint = fixedPoint;
+        this.days = days.length == 0 ? new int[DEFAULT_CAPACITY] : days;
+        this.totals = days.length == 0 ? new long[DEFAULT_CAPACITY] : totals;
+        this.size = size;
+    }
+
+    /**
+     * Records the gain of one sale.
+     *
+     * @param epochDay   the sale date as days since 1970-01-01
+     * @param gain       the gain (double mode)
+     * @param gainMicros the gain in micros (fixed-point mode)
+     */
+    public void record(int epochDay, double gain, long gainMicros) {
+        long delta = fixedPoint ? gainMicros : Double.doubleToRawLongBits(gain);
+        if (size > 0 && days[size - 1] == epochDay) {
+            totals[size - 1] = add(totals[size - 1], delta);
+        } else if (size == 0 || days[size - 1] < epochDay) {
+            if (size == days.length) {
+                grow();
+            }
+            days[size] = epochDay;
+            totals[size] = size == 0 ? delta : add(totals[size - 1], delta);
+            size++;
+        } else {
+            insert(epochDay, delta);
+        }
+    }
+
+    /**
+     * Adds a gain dated before the last entry, shifting later entries up if the date is new and adding the
+     * gain to every total from that date on.
+     */
+    private void insert(int epochDay, long delta) {
+        int i = Arrays.binarySearch(days, 0, size, epochDay);
+        if (i < 0) {
+            i = -i - 1;
+            if (size == days.length) {
+                grow();
+            }
+            System.arraycopy(days, i, days, i + 1, size - i);
+            System.arraycopy(totals, i, totals, i + 1, size - i);
+            days[i] = epochDay;
+            totals[i] = i == 0 ? 0L : totals[i - 1];
+            size++;
+        }
+        for (int j = i; j < size; j++) {
+            totals[j] = add(totals[j], delta);
+        }
+    }
+
+    /**
+     * Puts the series back to an earlier state of itself, for replaying sales after a backdated correction.
+     *
+     * @param size      the number of entries it had
+     * @param lastTotal the total of its last entry then, as returned by {@link #totalAt(int)}
+     */
+    void truncate(int size, long lastTotal) {
+        this.size = size;
+        if (size > 0) {
+            totals[size - 1] = lastTotal;
+        }
+    }
+
+    /**
+     * Gets the realized gain of every sale dated from {@code fromDay} to {@code toDay}, inclusive.
+     *
+     * @param fromDay the first epoch-day of the range
+     * @param toDay   the last epoch-day of the range
+     * @return the gain (converted from micros in fixed-point mode; in double mode the difference of two
+     * running totals, so rounded to about one ulp of the larger)
+     */
+    public double sum(int fromDay, int toDay) {
+        if (toDay < fromDay) {
+            return 0.0;
+        }
+        if (fixedPoint) {
+            return FixedPoint.toDouble(sumMicros(fromDay, toDay));
+        }
+        return Double.longBitsToDouble(totalOf(entriesThrough(toDay)))
+                - Double.longBitsToDouble(totalOf(entriesBefore(fromDay)));
+    }
+
+    /**
+     * Gets the exact realized gain of every sale dated from {@code fromDay} to {@code toDay}, inclusive, in a
+     * fixed-point series.
+     *
+     * @param fromDay the first epoch-day of the range
+     * @param toDay   the last epoch-day of the range
+     * @return the gain in micros (0 in double mode)
+     */
+    public long sumMicros(int fromDay, int toDay) {
+        if (!fixedPoint || toDay < fromDay) {
+            return 0L;
+        }
+        return totalOf(entriesThrough(toDay)) - totalOf(entriesBefore(fromDay));
+    }
+
+    /**
+     * Checks whether any sale is dated from {@code fromDay} to {@code toDay}, inclusive.
+     *
+     * @param fromDay the first epoch-day of the range
+     * @param toDay   the last epoch-day of the range
+     * @return true if at least one sale falls in the range
+     */
+    public boolean hasSales(int fromDay, int toDay) {
+        return toDay >= fromDay && entriesThrough(toDay) > entriesBefore(fromDay);
+    }
+
+    /**
+     * Gets the cumulative total of the first {@code count} entries.
+     */
+    private long totalOf(int count) {
+        return count == 0 ? 0L : totals[count - 1];
+    }
+
+    /**
+     * Gets the number of entries dated on or before a day.
+     */
+    private int entriesThrough(int epochDay) {
+        int i = Arrays.binarySearch(days, 0, size, epochDay);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    /**
+     * Gets the number of entries dated before a day.
+     */
+    private int entriesBefore(int epochDay) {
+        int i = Arrays.binarySearch(days, 0, size, epochDay);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    private long add(long total, long delta) {
+        return fixedPoint ? total + delta
+                : Double.doubleToRawLongBits(Double.longBitsToDouble(total) + Double.longBitsToDouble(delta));
+    }
+
+    private void grow() {
+        days = Arrays.copyOf(days, days.length * 2);
+        totals = Arrays.copyOf(totals, totals.length * 2);
+    }
+
+    /**
+     * Gets the number of distinct sale dates.
+     *
+     * @return number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the sale date of an entry.
+     *
+     * @param index the entry, 0 being the earliest
+     * @return epoch-day
+     */
+    public int dayAt(int index) {
+        return days[index];
+    }
+
+    /**
+     * Gets the cumulative gain through an entry, as micros or the raw bits of a {@code double}.
+     *
+     * @param index the entry, 0 being the earliest
+     * @return the opaque 64-bit total
+     */
+    public long totalAt(int index) {
+        return totals[index];
+    }
+}
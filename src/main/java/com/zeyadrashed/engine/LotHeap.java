@@ -0,0 +1,224 @@
+package com.zeyadrashed.engine;
+
+import java.util.Arrays;
+
+/**
+ * Highest-in-first-out (HIFO) lot selection: a binary max-heap of open lots keyed by price.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * The most expensive lot is always at the root, so it is read in O(1). A partial fill only lowers its
+ * quantity, which does not change its key; a full fill removes the root in O(log n). Lots with the same
+ * price are relieved oldest first, using the order they were opened in as a tie-breaker, so HIFO with
+ * one price degenerates to FIFO. Lots are kept in parallel primitive arrays like {@link LotQueue}. Prices
+ * are compared as 64-bit keys: micros as they are, and the raw bits of a {@code double} with the magnitude
+ * bits of negative values flipped, which orders them the way {@link Double#compare} does without decoding
+ * them.
+ * </p>
+ * <p>
+ * Once the symbol splits, lots stated in different epochs are compared by their price per pre-split share,
+ * from the symbol's {@link SplitFactors}; lots of the same epoch still compare their stored prices exactly.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class LotHeap implements LotSelection {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private final long negativeMask;
+    private int[] days = new int[DEFAULT_CAPACITY];
+    private int[] quantities = new int[DEFAULT_CAPACITY];
+    private long[] prices = new long[DEFAULT_CAPACITY];
+    private long[] sequences = new long[DEFAULT_CAPACITY];
+    private long[] lotIds = new long[DEFAULT_CAPACITY];
+    private int[] epochs = new int[DEFAULT_CAPACITY];
+    private SplitFactors factors;
+    private int size;
+    private long nextSequence;
+
+    /**
+     * Constructor for an empty heap.
+     *
+     * @param fixedPoint true if prices are fixed-point micros rather than raw {@code double} bits
+     */
+    public LotHeap(boolean fixedPoint) {
+        negativeMask = fixedPoint ? 0L : Long.MAX_VALUE;
+    }
+
+    @Override
+    public void add(int epochDay, int quantity, long price, long lotId, int epoch) {
+        if (size == days.length) {
+            int capacity = size * 2;
+            days = Arrays.copyOf(days, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            sequences = Arrays.copyOf(sequences, capacity);
+            lotIds = Arrays.copyOf(lotIds, capacity);
+            epochs = Arrays.copyOf(epochs, capacity);
+        }
+        set(size, epochDay, quantity, price, nextSequence++, lotId, epoch);
+        siftUp(size++);
+    }
+
+    @Override
+    public void consumeFirst(int quantity) {
+        quantities[0] -= quantity;
+        if (quantities[0] == 0) {
+            size--;
+            if (size > 0) {
+                move(size, 0);
+                siftDown(0);
+            }
+        }
+    }
+
+    /**
+     * Restates the root lot and moves it down if it is no longer the most expensive, since the rounded
+     * price can differ slightly from its exact price per pre-split share.
+     */
+    @Override
+    public void restateFirst(int quantity, long price, int epoch) {
+        quantities[0] = quantity;
+        prices[0] = price;
+        epochs[0] = epoch;
+        if (quantity == 0) {
+            consumeFirst(0);
+        } else {
+            siftDown(0);
+        }
+    }
+
+    @Override
+    public void useSplitFactors(SplitFactors factors) {
+        this.factors = factors;
+    }
+
+    @Override
+    public int peekEpoch() {
+        return epochs[0];
+    }
+
+    @Override
+    public int peekDay() {
+        return days[0];
+    }
+
+    @Override
+    public int peekQuantity() {
+        return quantities[0];
+    }
+
+    @Override
+    public long peekPrice() {
+        return prices[0];
+    }
+
+    @Override
+    public long peekLotId() {
+        return lotIds[0];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(LotVisitor visitor) {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(sequences[a], sequences[b]));
+        for (int i : order) {
+            visitor.visit(days[i], quantities[i], prices[i], lotIds[i], epochs[i]);
+        }
+    }
+
+    /**
+     * Checks whether the lot in slot {@code a} should be relieved before the lot in slot {@code b}.
+     */
+    private boolean before(int a, int b) {
+        if (epochs[a] != epochs[b]) {
+            double priceA = factors.basePrice(prices[a], epochs[a]);
+            double priceB = factors.basePrice(prices[b], epochs[b]);
+            if (priceA != priceB) {
+                return priceA > priceB;
+            }
+            return sequences[a] < sequences[b];
+        }
+        if (prices[a] == prices[b]) {
+            return sequences[a] < sequences[b];
+        }
+        return key(prices[a]) > key(prices[b]);
+    }
+
+    /**
+     * Maps a stored price to a key that orders as the price does.
+     */
+    private long key(long price) {
+        return price ^ (price >> 63 & negativeMask);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(i, parent)) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int right = left + 1;
+            int child = right < size && before(right, left) ? right : left;
+            if (!before(child, i)) {
+                return;
+            }
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int day = days[a];
+        int quantity = quantities[a];
+        long price = prices[a];
+        long sequence = sequences[a];
+        long lotId = lotIds[a];
+        int epoch = epochs[a];
+        move(b, a);
+        set(b, day, quantity, price, sequence, lotId, epoch);
+    }
+
+    private void move(int from, int to) {
+        set(to, days[from], quantities[from], prices[from], sequences[from], lotIds[from], epochs[from]);
+    }
+
+    private void set(int i, int day, int quantity, long price, long sequence, long lotId, int epoch) {
+        days[i] = day;
+        quantities[i] = quantity;
+        prices[i] = price;
+        sequences[i] = sequence;
+        lotIds[i] = lotId;
+        epochs[i] = epoch;
+    }
+}
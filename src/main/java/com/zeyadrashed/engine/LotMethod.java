@@ -0,0 +1,103 @@
+package com.zeyadrashed.engine;
+
+import com.zeyadrashed.obj.Position;
+
+/**
+ * The lot-relief methods a run can match SELLs with.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public enum LotMethod {
+
+    /**
+     * First in, first out: the oldest lot is relieved first.
+     */
+    FIFO,
+
+    /**
+     * Last in, first out: the newest lot is relieved first.
+     */
+    LIFO,
+
+    /**
+     * Highest in, first out: the most expensive lot is relieved first.
+     */
+    HIFO,
+
+    /**
+     * Every share is relieved at the average cost of all shares held.
+     */
+    AVERAGE,
+
+    /**
+     * The SELL names the lot to relieve; anything else is relieved FIFO.
+     */
+    SPECIFIC;
+
+    /**
+     * Creates an empty lot selection for this method.
+     *
+     * @param fixedPoint true if prices are fixed-point micros rather than raw {@code double} bits
+     * @return the lot selection
+     */
+    public LotSelection create(boolean fixedPoint) {
+        return switch (this) {
+            case FIFO -> new LotQueue(false);
+            case LIFO -> new LotQueue(true);
+            case HIFO -> new LotHeap(fixedPoint);
+            case AVERAGE -> new AverageCostLots(fixedPoint);
+            case SPECIFIC -> new SpecificLots();
+        };
+    }
+
+    /**
+     * Restores a lot selection from saved lots, oldest first. FIFO and LIFO take the arrays over as they are.
+     *
+     * @param fixedPoint true if prices are fixed-point micros rather than raw {@code double} bits
+     * @param days       purchase dates as epoch-days
+     * @param quantities remaining quantities
+     * @param prices     prices per share
+     * @param lotIds     lot IDs (0 where a lot has none)
+     * @param epochs     split epochs the lots are stated in
+     * @param factors    the symbol's split factors, or {@code null} if it has not split
+     * @param position   the restored position the lots belong to
+     * @return the lot selection
+     */
+    public LotSelection restore(boolean fixedPoint, int[] days, int[] quantities, long[] prices, long[] lotIds,
+                                int[] epochs, SplitFactors factors, Position position) {
+        if (this == FIFO || this == LIFO) {
+            return new LotQueue(this == LIFO, days, quantities, prices, lotIds, factors == null ? null : epochs);
+        }
+        LotSelection lots = create(fixedPoint);
+        if (factors != null) {
+            lots.useSplitFactors(factors);
+        }
+        for (int i = 0; i < days.length; i++) {
+            lots.add(days[i], quantities[i], prices[i], lotIds[i], epochs[i]);
+        }
+        if (lots instanceof AverageCostLots pool && prices.length > 0) {
+            // every saved lot carries the pool's average price
+            pool.restoreCost(position.getOpenShares(), position.getOpenCostBasis(),
+                    position.getOpenCostBasisMicros(), prices[0]);
+        }
+        return lots;
+    }
+
+    /**
+     * Looks up a method by name, ignoring case.
+     *
+     * @param name the method name, e.g. {@code "hifo"}
+     * @return the method
+     * @throws IllegalArgumentException if there is no such method
+     */
+    public static LotMethod parse(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+}
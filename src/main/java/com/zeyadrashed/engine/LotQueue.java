@@ -0,0 +1,229 @@
+package com.zeyadrashed.engine;
+
+import java.util.Arrays;
+
+/**
+ * FIFO or LIFO deque of open BUY lots for a single symbol, stored in parallel primitive arrays.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * Each lot is an epoch-day, a quantity and a price (16 bytes) instead of a {@code Transaction} inside a
+ * {@code LinkedList} node. Lots sit between {@code head} (oldest) and {@code tail} (newest); FIFO relieves
+ * from the head and LIFO from the tail. A partial fill decrements the lot's quantity in place and a full
+ * fill just moves the index, so matching a SELL allocates nothing. Consumed slots are reclaimed by
+ * compacting the arrays when the queue needs to grow. Lot IDs get their own array the first time a BUY
+ * names one, and split epochs the first time a lot is stated in an epoch other than 0.
+ * </p>
+ * <p>
+ * The price is an opaque 64-bit value chosen by the owning {@link SymbolBook}: fixed-point micros, or the
+ * raw bits of a {@code double}, so both calculation modes share the same 16-byte lot.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class LotQueue implements LotSelection {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private final boolean lastInFirstOut;
+    private int[] days;
+    private int[] quantities;
+    private long[] prices;
+    private long[] lotIds;
+    private int[] epochs;
+    private int head;
+    private int tail;
+
+    /**
+     * Constructor for an empty FIFO queue.
+     */
+    public LotQueue() {
+        this(false);
+    }
+
+    /**
+     * Constructor for an empty queue.
+     *
+     * @param lastInFirstOut true to relieve the newest lot first
+     */
+    public LotQueue(boolean lastInFirstOut) {
+        this.lastInFirstOut = lastInFirstOut;
+        days = new int[DEFAULT_CAPACITY];
+        quantities = new int[DEFAULT_CAPACITY];
+        prices = new long[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Constructor for a queue restored from saved lots, oldest first. The arrays are taken over, not copied.
+     *
+     * @param lastInFirstOut true to relieve the newest lot first
+     * @param days           purchase dates as epoch-days
+     * @param quantities     remaining quantities
+     * @param prices         prices per share
+     * @param lotIds         lot IDs, or {@code null} if no lot has one
+     * @param epochs         split epochs, or {@code null} if every lot is in epoch 0
+     */
+    public LotQueue(boolean lastInFirstOut, int[] days, int[] quantities, long[] prices, long[] lotIds,
+                    int[] epochs) {
+        this.lastInFirstOut = lastInFirstOut;
+        if (days.length == 0) {
+            this.days = new int[DEFAULT_CAPACITY];
+            this.quantities = new int[DEFAULT_CAPACITY];
+            this.prices = new long[DEFAULT_CAPACITY];
+        } else {
+            this.days = days;
+            this.quantities = quantities;
+            this.prices = prices;
+            this.lotIds = lotIds;
+            this.epochs = epochs;
+        }
+        this.tail = days.length;
+    }
+
+    @Override
+    public void add(int epochDay, int quantity, long price, long lotId, int epoch) {
+        if (tail == days.length) {
+            ensureCapacity();
+        }
+        days[tail] = epochDay;
+        quantities[tail] = quantity;
+        prices[tail] = price;
+        if (lotId != 0 && lotIds == null) {
+            lotIds = new long[days.length];
+        }
+        if (lotIds != null) {
+            lotIds[tail] = lotId;
+        }
+        if (epoch != 0 && epochs == null) {
+            epochs = new int[days.length];
+        }
+        if (epochs != null) {
+            epochs[tail] = epoch;
+        }
+        tail++;
+    }
+
+    @Override
+    public void consumeFirst(int quantity) {
+        int front = front();
+        quantities[front] -= quantity;
+        if (quantities[front] == 0) {
+            removeFront();
+        }
+    }
+
+    @Override
+    public void restateFirst(int quantity, long price, int epoch) {
+        int front = front();
+        quantities[front] = quantity;
+        prices[front] = price;
+        if (epoch != 0 && epochs == null) {
+            epochs = new int[days.length];
+        }
+        if (epochs != null) {
+            epochs[front] = epoch;
+        }
+        if (quantity == 0) {
+            removeFront();
+        }
+    }
+
+    @Override
+    public int peekEpoch() {
+        return epochs == null ? 0 : epochs[front()];
+    }
+
+    @Override
+    public int peekDay() {
+        return days[front()];
+    }
+
+    @Override
+    public int peekQuantity() {
+        return quantities[front()];
+    }
+
+    @Override
+    public long peekPrice() {
+        return prices[front()];
+    }
+
+    @Override
+    public long peekLotId() {
+        return lotIds == null ? 0L : lotIds[front()];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return head == tail;
+    }
+
+    @Override
+    public int size() {
+        return tail - head;
+    }
+
+    @Override
+    public void forEach(LotVisitor visitor) {
+        for (int i = head; i < tail; i++) {
+            visitor.visit(days[i], quantities[i], prices[i], lotIds == null ? 0L : lotIds[i],
+                    epochs == null ? 0 : epochs[i]);
+        }
+    }
+
+    private int front() {
+        return lastInFirstOut ? tail - 1 : head;
+    }
+
+    private void removeFront() {
+        if (lastInFirstOut) {
+            tail--;
+        } else {
+            head++;
+        }
+        if (head == tail) {
+            head = 0;
+            tail = 0;
+        }
+    }
+
+    /**
+     * Makes room for one more lot, compacting consumed slots first and doubling the arrays only when the
+     * queue is more than half full.
+     */
+    private void ensureCapacity() {
+        int size = tail - head;
+        int capacity = days.length;
+        if (size > capacity / 2) {
+            capacity *= 2;
+        }
+        if (capacity == days.length) {
+            System.arraycopy(days, head, days, 0, size);
+            System.arraycopy(quantities, head, quantities, 0, size);
+            System.arraycopy(prices, head, prices, 0, size);
+            if (lotIds != null) {
+                System.arraycopy(lotIds, head, lotIds, 0, size);
+            }
+            if (epochs != null) {
+                System.arraycopy(epochs, head, epochs, 0, size);
+            }
+        } else {
+            days = Arrays.copyOfRange(days, head, head + capacity);
+            quantities = Arrays.copyOfRange(quantities, head, head + capacity);
+            prices = Arrays.copyOfRange(prices, head, head + capacity);
+            if (lotIds != null) {
+                lotIds = Arrays.copyOfRange(lotIds, head, head + capacity);
+            }
+            if (epochs != null) {
+                epochs = Arrays.copyOfRange(epochs, head, head + capacity);
+            }
+        }
+        head = 0;
+        tail = size;
+    }
+}
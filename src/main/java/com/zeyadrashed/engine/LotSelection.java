@@ -0,0 +1,171 @@
+package com.zeyadrashed.engine;
+
+/**
+ * The open lots of one symbol, ordered by a lot-relief method.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * A {@link SymbolBook} relieves a SELL by repeatedly reading the lot at the front ({@code peek*}) and
+ * consuming shares from it until the SELL is covered; each implementation decides which lot is at the
+ * front. Prices are the book's opaque 64-bit values (fixed-point micros, or the raw bits of a
+ * {@code double}); an implementation that orders lots by price has to be told which. Every implementation
+ * finds the front lot in O(1) and consumes it in O(log n) or better.
+ * </p>
+ * <p>
+ * Each lot also carries the {@link SplitFactors} epoch its quantity and price are stated in. A split does
+ * not touch the lots; the book restates the front lot to the current epoch with {@link #restateFirst} before
+ * relieving it, so lots of different epochs can be open at once.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ * @see LotMethod
+ */
+public interface LotSelection {
+
+    /**
+     * Receives open lots, for saving state.
+     */
+    @FunctionalInterface
+    interface LotVisitor {
+
+        /**
+         * Called once per open lot.
+         *
+         * @param epochDay the purchase date as days since 1970-01-01
+         * @param quantity the remaining number of shares
+         * @param price    the price per share
+         * @param lotId    the lot ID, or 0 if the BUY did not name one
+         * @param epoch    the split epoch the quantity and price are stated in
+         */
+        void visit(int epochDay, int quantity, long price, long lotId, int epoch);
+    }
+
+    /**
+     * Opens a lot.
+     *
+     * @param epochDay the purchase date as days since 1970-01-01
+     * @param quantity the number of shares
+     * @param price    the price per share
+     * @param lotId    the lot ID, or 0 if the BUY did not name one
+     * @param epoch    the split epoch the quantity and price are stated in, 0 if the symbol has not split
+     */
+    void add(int epochDay, int quantity, long price, long lotId, int epoch);
+
+    /**
+     * Asks for a particular lot to be relieved next, for the SELL about to be matched. Methods that do not
+     * identify lots ignore this.
+     *
+     * @param lotId the lot named by the SELL, or 0 to relieve lots in the method's own order
+     * @return true if that lot is now at the front
+     */
+    default boolean select(long lotId) {
+        return false;
+    }
+
+    /**
+     * Removes {@code quantity} shares from the front lot, dropping the lot once it is empty.
+     *
+     * @param quantity the number of shares to remove, at most {@link #peekQuantity()}
+     */
+    void consumeFirst(int quantity);
+
+    /**
+     * Restates the front lot in another split epoch, keeping its purchase date and lot ID. A lot restated to
+     * 0 shares is dropped.
+     *
+     * @param quantity the quantity in the new epoch
+     * @param price    the price per share in the new epoch
+     * @param epoch    the new epoch
+     */
+    void restateFirst(int quantity, long price, int epoch);
+
+    /**
+     * Gives the selection the symbol's split factors, once it first splits, for methods that compare lots
+     * stated in different epochs. Others ignore this.
+     *
+     * @param factors the symbol's split factors
+     */
+    default void useSplitFactors(SplitFactors factors) {
+    }
+
+    /**
+     * Checks whether each lot is relieved at its own price, so the book has to carry its cost basis through a
+     * split. Methods that relieve every lot at a pooled price keep their own cost and return false.
+     *
+     * @return true if {@link #peekPrice()} is the front lot's own price
+     */
+    default boolean pricesEachLot() {
+        return true;
+    }
+
+    /**
+     * Tells the selection the symbol has split, for methods that keep totals over all lots. Others ignore
+     * this, since their lots are restated one at a time.
+     *
+     * @param openShares the position's share count after the split
+     */
+    default void onSplit(long openShares) {
+    }
+
+    /**
+     * Gets the split epoch the front lot is stated in.
+     *
+     * @return epoch of the front lot
+     */
+    int peekEpoch();
+
+    /**
+     * Gets the purchase date of the front lot.
+     *
+     * @return epoch-day of the front lot
+     */
+    int peekDay();
+
+    /**
+     * Gets the remaining quantity of the front lot.
+     *
+     * @return number of shares
+     */
+    int peekQuantity();
+
+    /**
+     * Gets the price per share that relieving the front lot is charged at.
+     *
+     * @return price per share
+     */
+    long peekPrice();
+
+    /**
+     * Gets the ID of the front lot.
+     *
+     * @return lot ID, or 0 if the BUY did not name one
+     */
+    long peekLotId();
+
+    /**
+     * Checks whether there are no open lots.
+     *
+     * @return true if there are no open lots
+     */
+    boolean isEmpty();
+
+    /**
+     * Gets the number of open lots.
+     *
+     * @return number of lots
+     */
+    int size();
+
+    /**
+     * Visits every open lot in the order the lots were opened, so that adding them to an empty selection
+     * of the same method restores the same state.
+     *
+     * @param visitor receives each lot
+     */
+    void forEach(LotVisitor visitor);
+}
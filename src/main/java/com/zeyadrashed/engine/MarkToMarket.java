@@ -0,0 +1,178 @@
+package com.zeyadrashed.engine;
+
+import com.zeyadrashed.obj.Position;
+import com.zeyadrashed.util.FixedPoint;
+import com.zeyadrashed.util.SymbolDictionary;
+
+import java.util.Arrays;
+
+/**
+ * Latest closing price per symbol and the unrealized gain of each open position at that price.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * The unrealized gain of a symbol is its open shares at the closing price minus its open cost basis, both of
+ * which the book's {@link Position} keeps up to date on every BUY and SELL, so no lots are walked. Each
+ * symbol's gain is cached alongside a clean flag, all in arrays indexed by {@link SymbolDictionary} ID. A
+ * cached gain is recomputed only after its symbol's price changes or its book trades
+ * ({@link #invalidate(int)}), so loading a new price file only costs the symbols whose price moved, and
+ * totalling the portfolio is O(symbols).
+ * </p>
+ * <p>
+ * Prices are kept both as doubles and as fixed-point micros; a fixed-point book is marked exactly in
+ * micros. Not thread-safe: prices are loaded and gains read between runs, not while books are trading.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class MarkToMarket {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private double[] prices = new double[DEFAULT_CAPACITY];
+    private long[] pricesMicros = new long[DEFAULT_CAPACITY];
+    private boolean[] priced = new boolean[DEFAULT_CAPACITY];
+    private double[] unrealized = new double[DEFAULT_CAPACITY];
+    private long[] unrealizedMicros = new long[DEFAULT_CAPACITY];
+    private boolean[] clean = new boolean[DEFAULT_CAPACITY];
+    private long recomputed;
+
+    /**
+     * Sets a symbol's closing price, invalidating its cached gain only if the price changed.
+     *
+     * @param symbolId    the stock symbol's dictionary ID
+     * @param price       the closing price per share
+     * @param priceMicros the closing price per share in fixed-point micros
+     * @return true if the price is new or different
+     */
+    public boolean setPrice(int symbolId, double price, long priceMicros) {
+        if (symbolId >= priced.length) {
+            grow(symbolId + 1);
+        }
+        if (priced[symbolId] && prices[symbolId] == price && pricesMicros[symbolId] == priceMicros) {
+            return false;
+        }
+        prices[symbolId] = price;
+        pricesMicros[symbolId] = priceMicros;
+        priced[symbolId] = true;
+        clean[symbolId] = false;
+        return true;
+    }
+
+    /**
+     * Marks a symbol's cached gain as stale, after its book has traded. Allocation-free.
+     *
+     * @param symbolId the stock symbol's dictionary ID
+     */
+    public void invalidate(int symbolId) {
+        if (symbolId < clean.length) {
+            clean[symbolId] = false;
+        }
+    }
+
+    /**
+     * Marks every cached gain as stale, after books have been replaced or traded in bulk.
+     */
+    public void invalidateAll() {
+        Arrays.fill(clean, false);
+    }
+
+    /**
+     * Checks whether a symbol has a closing price.
+     *
+     * @param symbolId the stock symbol's dictionary ID
+     * @return true if a price has been set
+     */
+    public boolean hasPrice(int symbolId) {
+        return symbolId < priced.length && priced[symbolId];
+    }
+
+    /**
+     * Gets a symbol's closing price.
+     *
+     * @param symbolId the stock symbol's dictionary ID
+     * @return the price per share, or 0 if none has been set
+     */
+    public double getPrice(int symbolId) {
+        return hasPrice(symbolId) ? prices[symbolId] : 0.0;
+    }
+
+    /**
+     * Gets the unrealized gain of a book's open position at its symbol's closing price.
+     *
+     * @param book the symbol's book
+     * @return the unrealized gain (converted from micros for a fixed-point book), or 0 if the symbol has no
+     * price
+     */
+    public double unrealizedGain(SymbolBook book) {
+        int symbolId = book.getSymbolId();
+        if (!refresh(book)) {
+            return 0.0;
+        }
+        return unrealized[symbolId];
+    }
+
+    /**
+     * Gets the exact unrealized gain of a fixed-point book's open position at its symbol's closing price.
+     *
+     * @param book the symbol's book
+     * @return the unrealized gain in micros, or 0 for a double-mode book or a symbol with no price
+     */
+    public long unrealizedGainMicros(SymbolBook book) {
+        int symbolId = book.getSymbolId();
+        if (!book.isFixedPoint() || !refresh(book)) {
+            return 0L;
+        }
+        return unrealizedMicros[symbolId];
+    }
+
+    /**
+     * Recomputes a book's cached gain if it is stale.
+     *
+     * @return false if the symbol has no price
+     */
+    private boolean refresh(SymbolBook book) {
+        int symbolId = book.getSymbolId();
+        if (!hasPrice(symbolId)) {
+            return false;
+        }
+        if (!clean[symbolId]) {
+            Position position = book.getPosition();
+            if (book.isFixedPoint()) {
+                long micros = FixedPoint.multiply(position.getOpenShares(), pricesMicros[symbolId])
+                        - position.getOpenCostBasisMicros();
+                unrealizedMicros[symbolId] = micros;
+                unrealized[symbolId] = FixedPoint.toDouble(micros);
+            } else {
+                unrealized[symbolId] = position.getOpenShares() * prices[symbolId] - position.getOpenCostBasis();
+            }
+            clean[symbolId] = true;
+            recomputed++;
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of times a cached gain has been recomputed, to confirm that only stale symbols are.
+     *
+     * @return recomputations so far
+     */
+    public long getRecomputed() {
+        return recomputed;
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, priced.length * 2);
+        prices = Arrays.copyOf(prices, capacity);
+        pricesMicros = Arrays.copyOf(pricesMicros, capacity);
+        priced = Arrays.copyOf(priced, capacity);
+        unrealized = Arrays.copyOf(unrealized, capacity);
+        unrealizedMicros = Arrays.copyOf(unrealizedMicros, capacity);
+        clean = Arrays.copyOf(clean, capacity);
+    }
+}
@@ -0,0 +1,135 @@
+package com.zeyadrashed.engine;
+
+/**
+ * Matching counters for one symbol in the current run: BUYs, SELLs, partial fills, how many lots each SELL
+ * consumed, and the most lots open at once.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * Counters are plain fields owned by the book's single writer, so recording costs a few increments and no
+ * synchronization, and they are always on. Totals across symbols are built by {@link #addTo(MatchCounters)}
+ * when they are read; read while matching is running they are approximate. They describe the current run
+ * only and are not saved in snapshots.
+ * </p>
+ * <p>
+ * The lots-per-SELL histogram has power-of-two buckets: bucket 0 counts SELLs that consumed one lot,
+ * bucket {@code b} those that consumed {@code 2^(b-1)+1} to {@code 2^b} lots, and the last bucket
+ * everything above.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class MatchCounters {
+
+    /**
+     * Number of buckets in the lots-per-SELL histogram.
+     */
+    public static final int BUCKETS = 16;
+
+    private long buys;
+    private long sells;
+    private long partialFills;
+    private int peakOpenLots;
+    private final long[] lotsPerSell = new long[BUCKETS];
+
+    /**
+     * Records a BUY.
+     *
+     * @param openLots the number of open lots after the BUY
+     */
+    public void recordBuy(int openLots) {
+        buys++;
+        if (openLots > peakOpenLots) {
+            peakOpenLots = openLots;
+        }
+    }
+
+    /**
+     * Records a matched SELL.
+     *
+     * @param lotsConsumed the number of lots the SELL drew shares from
+     * @param partialFill  true if the last lot it drew from still has shares left
+     */
+    public void recordSell(int lotsConsumed, boolean partialFill) {
+        sells++;
+        if (partialFill) {
+            partialFills++;
+        }
+        lotsPerSell[bucket(lotsConsumed)]++;
+    }
+
+    /**
+     * Gets the histogram bucket for a number of lots.
+     *
+     * @param lots lots consumed by one SELL, at least 1
+     * @return the bucket index
+     */
+    public static int bucket(int lots) {
+        return lots <= 1 ? 0 : Math.min(BUCKETS - 1, 32 - Integer.numberOfLeadingZeros(lots - 1));
+    }
+
+    /**
+     * Adds these counters to a total. The peak is combined as a maximum.
+     *
+     * @param total the counters to add to
+     */
+    public void addTo(MatchCounters total) {
+        total.buys += buys;
+        total.sells += sells;
+        total.partialFills += partialFills;
+        total.peakOpenLots = Math.max(total.peakOpenLots, peakOpenLots);
+        for (int i = 0; i < BUCKETS; i++) {
+            total.lotsPerSell[i] += lotsPerSell[i];
+        }
+    }
+
+    /**
+     * Gets the number of BUYs.
+     *
+     * @return number of BUYs
+     */
+    public long getBuys() {
+        return buys;
+    }
+
+    /**
+     * Gets the number of matched SELLs.
+     *
+     * @return number of SELLs
+     */
+    public long getSells() {
+        return sells;
+    }
+
+    /**
+     * Gets the number of SELLs that left their last lot partially consumed.
+     *
+     * @return number of partial fills
+     */
+    public long getPartialFills() {
+        return partialFills;
+    }
+
+    /**
+     * Gets the most lots that were open at once.
+     *
+     * @return peak open lots
+     */
+    public int getPeakOpenLots() {
+        return peakOpenLots;
+    }
+
+    /**
+     * Gets a copy of the lots-per-SELL histogram.
+     *
+     * @return SELL counts per bucket
+     */
+    public long[] getLotsPerSell() {
+        return lotsPerSell.clone();
+    }
+}
@@ -0,0 +1,40 @@
+package com.zeyadrashed.engine;
+
+/**
+ * Receives one record for every lot a SELL relieves, as the SELL is matched.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * Money is passed as the book's opaque 64-bit values (fixed-point micros, or the raw bits of a
+ * {@code double}), so a sink can store it without converting; the book's mode says which. The cost basis
+ * includes any wash-sale adjustment carried by the lot, but a loss disallowed because of a later purchase is
+ * not known yet when the record is produced. A sink is called on the thread matching the book.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ * @see SymbolBook#setMatchSink(MatchSink)
+ */
+@FunctionalInterface
+public interface MatchSink {
+
+    /**
+     * Called once per relieved lot.
+     *
+     * @param symbolId  the dictionary ID of the symbol the sale was made under
+     * @param saleDay   the SELL's date as days since 1970-01-01
+     * @param buyDay    the lot's purchase date as days since 1970-01-01
+     * @param quantity  the number of shares relieved from the lot
+     * @param lotId     the lot ID, or 0 if the BUY did not name one
+     * @param proceeds  the sale proceeds of those shares
+     * @param costBasis the cost basis of those shares
+     * @param gain      proceeds minus cost basis
+     * @param longTerm  true if the shares were held for more than a year
+     */
+    void onMatch(int symbolId, int saleDay, int buyDay, int quantity, long lotId, long proceeds, long costBasis,
+                 long gain, boolean longTerm);
+}
@@ -0,0 +1,494 @@
+package com.zeyadrashed.engine;
+
+import com.zeyadrashed.obj.Transaction;
+import com.zeyadrashed.obj.TransactionType;
+import com.zeyadrashed.util.AccountDictionary;
+import com.zeyadrashed.util.FixedPoint;
+import com.zeyadrashed.util.RunMetrics;
+import com.zeyadrashed.util.SymbolDictionary;
+import com.zeyadrashed.util.UtilLogger;
+
+import java.text.DecimalFormat;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Matching engine for many accounts, with one book per (account, symbol) pair split across independent
+ * shards.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * Each (account, symbol) pair is hashed to one of N shards. A shard owns its books outright and is driven
+ * by a single worker thread, so matching takes no locks: the books of a shard are only ever touched by its
+ * worker, and a pair's transactions reach that worker in submission order. Transactions are handed over in
+ * batches of {@link #BATCH_SIZE} through a bounded queue per shard, so the producer pays for one queue
+ * operation per batch rather than per trade and blocks instead of buffering without limit when a shard
+ * falls behind. A shard keeps its books in arrays indexed by account ID and then symbol ID
+ * ({@link AccountDictionary}, {@link SymbolDictionary}), so finding a book never hashes a String.
+ * </p>
+ * <p>
+ * Transactions are submitted from one thread, in date order. Once {@link #finish()} has joined the workers,
+ * gains can be summarized per account or consolidated per symbol across every account.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public final class ShardedEngine {
+
+    /**
+     * Number of transactions handed to a shard at once.
+     */
+    public static final int BATCH_SIZE = 1024;
+    /**
+     * Number of batches a shard's queue holds before the producer blocks.
+     */
+    public static final int QUEUE_BATCHES = 64;
+    private static final Transaction[] END = new Transaction[0];
+    private static final DecimalFormat df = new DecimalFormat("#.##");
+
+    private final boolean fixedPoint;
+    private final Shard[] shards;
+    private final Transaction[][] batches;
+    private final int[] batchSizes;
+    private final RunMetrics metrics;
+    private boolean started;
+    private boolean finished;
+
+    /**
+     * The books of one shard and the worker thread that owns them.
+     */
+    private static class Shard implements Runnable {
+
+        private final ArrayBlockingQueue<Transaction[]> queue = new ArrayBlockingQueue<>(QUEUE_BATCHES);
+        private final boolean fixedPoint;
+        private final LotMethod lotMethod;
+        private final RunMetrics metrics;
+        private SymbolBook[][] books = new SymbolBook[16][];
+        private long processed;
+        private Thread thread;
+        private volatile Throwable failure;
+
+        private Shard(boolean fixedPoint, LotMethod lotMethod, RunMetrics metrics) {
+            this.fixedPoint = fixedPoint;
+            this.lotMethod = lotMethod;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Transaction[] batch;
+                while ((batch = queue.take()) != END) {
+                    if (failure == null) {
+                        try {
+                            for (Transaction t : batch) {
+                                apply(t);
+                            }
+                        } catch (RuntimeException e) {
+                            // keep draining, so the producer never blocks on a shard that stopped
+                            failure = e;
+                            UtilLogger.logError("shard failed: " + e.getMessage(), e);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                failure = e;
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void apply(Transaction t) {
+            processed++;
+            if (UtilLogger.isDebugEnabled()) {
+                UtilLogger.logDebug("processing transaction: " + t);
+            }
+            if (t.getType() == TransactionType.BUY) {
+                bookFor(t.getAccountId(), t.getSymbolId()).buy(t);
+            } else if (t.getType() == TransactionType.SELL) {
+                SymbolBook book = bookAt(t.getAccountId(), t.getSymbolId());
+                long available = book == null ? 0 : book.getOpenShares();
+                if (available < t.getQuantity()) {
+                    metrics.recordRejectedSell();
+                    String msg = "insufficient shares available to sell for symbol: " + t.getSymbol() +
+                            " in account '" + t.getAccount() + "'. Available: " + available + ", Attempted to sell: " +
+                            t.getQuantity();
+                    UtilLogger.logError(msg, new IllegalStateException(msg));
+                    return;
+                }
+                double gain = book.sell(t);
+                if (UtilLogger.isDebugEnabled()) {
+                    UtilLogger.logDebug("capital gain/loss for selling " + t.getQuantity() + " shares of " +
+                            t.getSymbol() + " in account '" + t.getAccount() + "': $" + df.format(gain));
+                }
+            }
+        }
+
+        private SymbolBook bookFor(int accountId, int symbolId) {
+            if (accountId >= books.length) {
+                books = Arrays.copyOf(books, Math.max(accountId + 1, books.length * 2));
+            }
+            SymbolBook[] account = books[accountId];
+            if (account == null) {
+                account = new SymbolBook[Math.max(4, symbolId + 1)];
+                books[accountId] = account;
+            } else if (symbolId >= account.length) {
+                account = Arrays.copyOf(account, Math.max(symbolId + 1, account.length * 2));
+                books[accountId] = account;
+            }
+            SymbolBook book = account[symbolId];
+            if (book == null) {
+                book = new SymbolBook(symbolId, fixedPoint, lotMethod);
+                account[symbolId] = book;
+            }
+            return book;
+        }
+
+        private SymbolBook bookAt(int accountId, int symbolId) {
+            if (accountId >= books.length || books[accountId] == null || symbolId >= books[accountId].length) {
+                return null;
+            }
+            return books[accountId][symbolId];
+        }
+    }
+
+    /**
+     * Receives books with the account they belong to.
+     */
+    @FunctionalInterface
+    public interface BookVisitor {
+
+        /**
+         * Called once per book.
+         *
+         * @param accountId the account's {@link AccountDictionary} ID
+         * @param book      the account's book for one symbol
+         */
+        void visit(int accountId, SymbolBook book);
+    }
+
+    /**
+     * Constructor for an engine with no books yet.
+     *
+     * @param shards     the number of shards, and worker threads
+     * @param fixedPoint true to keep prices, cost basis and gains in exact fixed-point micros
+     * @param lotMethod  how SELLs choose the lots they relieve
+     */
+    public ShardedEngine(int shards, boolean fixedPoint, LotMethod lotMethod) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("need at least one shard: " + shards);
+        }
+        this.fixedPoint = fixedPoint;
+        // metrics only asks for the books after construction, and the class is final, so this cannot escape half-built
+        metrics = new RunMetrics(this::getBooks);
+        this.shards = new Shard[shards];
+        for (int i = 0; i < shards; i++) {
+            this.shards[i] = new Shard(fixedPoint, lotMethod, metrics);
+        }
+        batches = new Transaction[shards][BATCH_SIZE];
+        batchSizes = new int[shards];
+    }
+
+    /**
+     * Starts one worker thread per shard.
+     */
+    public void start() {
+        if (started) {
+            throw new IllegalStateException("engine already started");
+        }
+        started = true;
+        for (int i = 0; i < shards.length; i++) {
+            shards[i].thread = Thread.ofPlatform().name("capitalcalc-shard-" + i).start(shards[i]);
+        }
+        UtilLogger.logInfo("started " + shards.length + " shards");
+    }
+
+    /**
+     * Hands a transaction to the shard that owns its (account, symbol) pair, blocking while that shard's
+     * queue is full.
+     *
+     * @param transaction the transaction to process
+     * @throws InterruptedException if interrupted while waiting for queue space
+     */
+    public void submit(Transaction transaction) throws InterruptedException {
+        int shard = shardOf(transaction.getAccountId(), transaction.getSymbolId(), shards.length);
+        Transaction[] batch = batches[shard];
+        batch[batchSizes[shard]++] = transaction;
+        if (batchSizes[shard] == BATCH_SIZE) {
+            shards[shard].queue.put(batch);
+            batches[shard] = new Transaction[BATCH_SIZE];
+            batchSizes[shard] = 0;
+        }
+    }
+
+    /**
+     * Hands over every partly filled batch, tells the shards to stop and waits for them to drain.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     * @throws IllegalStateException if a shard failed while matching
+     */
+    public void finish() throws InterruptedException {
+        if (finished) {
+            return;
+        }
+        for (int i = 0; i < shards.length; i++) {
+            if (batchSizes[i] > 0) {
+                shards[i].queue.put(Arrays.copyOf(batches[i], batchSizes[i]));
+                batchSizes[i] = 0;
+            }
+            shards[i].queue.put(END);
+        }
+        for (Shard shard : shards) {
+            shard.thread.join();
+        }
+        finished = true;
+        for (Shard shard : shards) {
+            if (shard.failure != null) {
+                throw new IllegalStateException("shard failed while matching", shard.failure);
+            }
+        }
+        StringBuilder counts = new StringBuilder();
+        for (Shard shard : shards) {
+            counts.append(counts.isEmpty() ? "" : ", ").append(shard.processed);
+        }
+        UtilLogger.logInfo("shards finished; transactions per shard: " + counts);
+    }
+
+    /**
+     * Processes a date-sorted list of transactions: starts the shards, submits every transaction and waits
+     * for them to finish.
+     *
+     * @param transactions the date-sorted list of transactions to process
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void processTransactions(List<Transaction> transactions) throws InterruptedException {
+        UtilLogger.logInfo("processing " + transactions.size() + " transactions on " + shards.length + " shards");
+        start();
+        for (Transaction t : transactions) {
+            submit(t);
+        }
+        finish();
+        UtilLogger.logInfo("completed processing transactions list");
+    }
+
+    /**
+     * Picks the shard for an (account, symbol) pair by mixing both IDs into one 64-bit value and scaling
+     * its upper half to the number of shards.
+     *
+     * @param accountId the account's ID
+     * @param symbolId  the symbol's ID
+     * @param shards    the number of shards
+     * @return the shard, from 0 to {@code shards - 1}
+     */
+    static int shardOf(int accountId, int symbolId, int shards) {
+        long key = ((long) accountId << 32 | (symbolId & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+        return (int) (((key >>> 32) * shards) >>> 32);
+    }
+
+    /**
+     * Visits every book, shard by shard. Only valid once {@link #finish()} has returned.
+     *
+     * @param visitor receives each book with its account
+     */
+    public void forEachBook(BookVisitor visitor) {
+        if (!finished) {
+            throw new IllegalStateException("books can only be read after finish()");
+        }
+        visitBooks(visitor);
+    }
+
+    /**
+     * Visits every book a shard has published so far, without checking that the workers are done.
+     */
+    private void visitBooks(BookVisitor visitor) {
+        for (Shard shard : shards) {
+            for (int accountId = 0; accountId < shard.books.length; accountId++) {
+                SymbolBook[] account = shard.books[accountId];
+                if (account == null) {
+                    continue;
+                }
+                for (SymbolBook book : account) {
+                    if (book != null) {
+                        visitor.visit(accountId, book);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets every book, for metrics. While the shards are running this reads the books their workers own
+     * without synchronizing, like the other metrics of a run in progress: a book opened a moment ago may be
+     * missing and its counters may lag, but the counters of every book found only grow. Once
+     * {@link #finish()} has returned the list is exact.
+     *
+     * @return the books
+     */
+    public List<SymbolBook> getBooks() {
+        List<SymbolBook> all = new ArrayList<>();
+        visitBooks((_, book) -> all.add(book));
+        return all;
+    }
+
+    /**
+     * Gets an account's book for a symbol. Only valid once {@link #finish()} has returned.
+     *
+     * @param account the account name, empty for {@link AccountDictionary#DEFAULT}
+     * @param symbol  the stock symbol
+     * @return the book, or {@code null} if the account never bought the symbol
+     */
+    public SymbolBook getBook(String account, String symbol) {
+        if (!finished) {
+            throw new IllegalStateException("books can only be read after finish()");
+        }
+        int accountId = AccountDictionary.find(account);
+        int symbolId = SymbolDictionary.find(symbol);
+        if (accountId < 0 || symbolId < 0) {
+            return null;
+        }
+        return shards[shardOf(accountId, symbolId, shards.length)].bookAt(accountId, symbolId);
+    }
+
+    /**
+     * Gets the realized gain/loss per account, for every account with at least one matched SELL.
+     *
+     * @return realized gain by account name, in account ID order
+     */
+    public Map<String, Double> getAccountGains() {
+        return sumBy(true);
+    }
+
+    /**
+     * Gets the realized gain/loss per stock symbol consolidated across every account, for every symbol with
+     * at least one matched SELL.
+     *
+     * @return realized gain by symbol, in symbol ID order
+     */
+    public Map<String, Double> getSymbolGains() {
+        return sumBy(false);
+    }
+
+    /**
+     * Gets the realized gain/loss of the whole portfolio.
+     *
+     * @return realized gain
+     */
+    public double getRealizedGain() {
+        long[] micros = new long[1];
+        double[] gain = new double[1];
+        forEachBook((_, book) -> {
+            micros[0] += book.getRealizedGainMicros();
+            gain[0] += book.getRealizedGain();
+        });
+        return fixedPoint ? FixedPoint.toDouble(micros[0]) : gain[0];
+    }
+
+    /**
+     * Adds up the books' realized gains by account or by symbol. Fixed-point totals are added in micros, so
+     * they are exact.
+     */
+    private Map<String, Double> sumBy(boolean byAccount) {
+        int size = byAccount ? AccountDictionary.size() : SymbolDictionary.size();
+        long[] micros = new long[size];
+        double[] gains = new double[size];
+        boolean[] sold = new boolean[size];
+        forEachBook((accountId, book) -> {
+            if (book.getSalesMatched() == 0) {
+                return;
+            }
+            int key = byAccount ? accountId : book.getSymbolId();
+            micros[key] += book.getRealizedGainMicros();
+            gains[key] += book.getRealizedGain();
+            sold[key] = true;
+        });
+        Map<String, Double> totals = new LinkedHashMap<>();
+        for (int key = 0; key < size; key++) {
+            if (sold[key]) {
+                totals.put(byAccount ? AccountDictionary.nameOf(key) : SymbolDictionary.nameOf(key),
+                        fixedPoint ? FixedPoint.toDouble(micros[key]) : gains[key]);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Prints the realized gain/loss of every account with at least one matched SELL.
+     */
+    public void printAccountSummary() {
+        UtilLogger.logInfo("printing summary of capital gains/losses per account:");
+        System.out.println("\n--- Capital Gains/Losses per Account ---");
+        for (Map.Entry<String, Double> entry : getAccountGains().entrySet()) {
+            String msg = (entry.getKey().isEmpty() ? "(no account)" : entry.getKey()) + ": $" + df.format(entry.getValue());
+            System.out.println(msg);
+            UtilLogger.logInfo(msg);
+        }
+        System.out.println("-------------------------------------\n");
+    }
+
+    /**
+     * Prints the consolidated portfolio: per symbol, the realized gain/loss, open shares and open cost basis
+     * across every account, then the total realized gain/loss.
+     */
+    public void printPortfolioSummary() {
+        UtilLogger.logInfo("printing consolidated portfolio summary:");
+        int size = SymbolDictionary.size();
+        long[] gainMicros = new long[size];
+        double[] gains = new double[size];
+        long[] shares = new long[size];
+        long[] basisMicros = new long[size];
+        double[] basis = new double[size];
+        boolean[] seen = new boolean[size];
+        forEachBook((_, book) -> {
+            int id = book.getSymbolId();
+            gainMicros[id] += book.getRealizedGainMicros();
+            gains[id] += book.getRealizedGain();
+            shares[id] += book.getOpenShares();
+            basisMicros[id] += book.getPosition().getOpenCostBasisMicros();
+            basis[id] += book.getPosition().getOpenCostBasis();
+            seen[id] = true;
+        });
+
+        System.out.println("\n--- Consolidated Portfolio ---");
+        long totalMicros = 0L;
+        double total = 0.0;
+        for (int id = 0; id < size; id++) {
+            if (!seen[id]) {
+                continue;
+            }
+            totalMicros += gainMicros[id];
+            total += gains[id];
+            String msg = SymbolDictionary.nameOf(id) + ": realized $" +
+                    (fixedPoint ? df.format(FixedPoint.toBigDecimal(gainMicros[id])) : df.format(gains[id])) +
+                    ", open " + shares[id] + " shares, cost basis $" +
+                    (fixedPoint ? df.format(FixedPoint.toBigDecimal(basisMicros[id])) : df.format(basis[id]));
+            System.out.println(msg);
+            UtilLogger.logInfo(msg);
+        }
+        String msg = "Total realized: $" + (fixedPoint ? df.format(FixedPoint.toBigDecimal(totalMicros)) : df.format(total));
+        System.out.println(msg);
+        UtilLogger.logInfo(msg);
+        System.out.println("-------------------------------------\n");
+    }
+
+    /**
+     * Gets this engine's instrumentation.
+     *
+     * @return the metrics
+     */
+    public RunMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the number of shards.
+     *
+     * @return number of shards
+     */
+    public int getShards() {
+        return shards.length;
+    }
+}
@@ -0,0 +1,203 @@
+package com.zeyadrashed.engine;
+
+import com.zeyadrashed.util.UtilLogger;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Specific-lot identification: a SELL names the lot it relieves, found through a hash index on lot ID.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * Lots are stored oldest first in parallel primitive arrays, like {@link LotQueue}, and lots with an ID
+ * are also indexed from ID to array slot. {@link #select(long)} moves the front to the named lot in O(1).
+ * Shares a SELL needs beyond that lot, and SELLs that name no lot, are relieved FIFO. A lot emptied out
+ * of order leaves a hole that the FIFO front skips over; holes are squeezed out, and the index rebuilt,
+ * when the arrays fill up. Lot IDs are expected to be unique per symbol; if one is reused, the newest
+ * lot with that ID is the one selected.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class SpecificLots implements LotSelection {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private int[] days = new int[DEFAULT_CAPACITY];
+    private int[] quantities = new int[DEFAULT_CAPACITY];
+    private long[] prices = new long[DEFAULT_CAPACITY];
+    private long[] lotIds = new long[DEFAULT_CAPACITY];
+    private int[] epochs = new int[DEFAULT_CAPACITY];
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private int head;
+    private int tail;
+    private int size;
+    private int selected = -1;
+
+    @Override
+    public void add(int epochDay, int quantity, long price, long lotId, int epoch) {
+        if (tail == days.length) {
+            ensureCapacity();
+        }
+        days[tail] = epochDay;
+        quantities[tail] = quantity;
+        prices[tail] = price;
+        lotIds[tail] = lotId;
+        epochs[tail] = epoch;
+        if (lotId != 0) {
+            slotsById.put(lotId, tail);
+        }
+        tail++;
+        size++;
+    }
+
+    @Override
+    public boolean select(long lotId) {
+        if (lotId == 0) {
+            selected = -1;
+            return false;
+        }
+        Integer slot = slotsById.get(lotId);
+        if (slot == null) {
+            UtilLogger.logWarning("lot " + lotId + " is not open; relieving the oldest lots instead");
+            selected = -1;
+            return false;
+        }
+        selected = slot;
+        return true;
+    }
+
+    @Override
+    public void consumeFirst(int quantity) {
+        int front = front();
+        quantities[front] -= quantity;
+        if (quantities[front] == 0) {
+            removeFront(front);
+        }
+    }
+
+    @Override
+    public void restateFirst(int quantity, long price, int epoch) {
+        int front = front();
+        quantities[front] = quantity;
+        prices[front] = price;
+        epochs[front] = epoch;
+        if (quantity == 0) {
+            removeFront(front);
+        }
+    }
+
+    @Override
+    public int peekEpoch() {
+        return epochs[front()];
+    }
+
+    private void removeFront(int front) {
+        size--;
+        if (lotIds[front] != 0) {
+            slotsById.remove(lotIds[front], front);
+        }
+        if (front == selected) {
+            selected = -1;
+        }
+        while (head < tail && quantities[head] == 0) {
+            head++;
+        }
+        if (head == tail) {
+            head = 0;
+            tail = 0;
+        }
+    }
+
+    @Override
+    public int peekDay() {
+        return days[front()];
+    }
+
+    @Override
+    public int peekQuantity() {
+        return quantities[front()];
+    }
+
+    @Override
+    public long peekPrice() {
+        return prices[front()];
+    }
+
+    @Override
+    public long peekLotId() {
+        return lotIds[front()];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(LotVisitor visitor) {
+        for (int i = head; i < tail; i++) {
+            if (quantities[i] != 0) {
+                visitor.visit(days[i], quantities[i], prices[i], lotIds[i], epochs[i]);
+            }
+        }
+    }
+
+    private int front() {
+        return selected >= 0 ? selected : head;
+    }
+
+    /**
+     * Makes room for one more lot, squeezing out consumed slots and holes first and doubling the arrays
+     * only when more than half of them hold open lots. Moved lots are re-indexed.
+     */
+    private void ensureCapacity() {
+        int capacity = size > days.length / 2 ? days.length * 2 : days.length;
+        int[] newDays = capacity == days.length ? days : new int[capacity];
+        int[] newQuantities = capacity == days.length ? quantities : new int[capacity];
+        long[] newPrices = capacity == days.length ? prices : new long[capacity];
+        long[] newLotIds = capacity == days.length ? lotIds : new long[capacity];
+        int[] newEpochs = capacity == days.length ? epochs : new int[capacity];
+        int selectedLot = selected;
+        selected = -1;
+        slotsById.clear();
+        int next = 0;
+        for (int i = head; i < tail; i++) {
+            if (quantities[i] == 0) {
+                continue;
+            }
+            newDays[next] = days[i];
+            newQuantities[next] = quantities[i];
+            newPrices[next] = prices[i];
+            newLotIds[next] = lotIds[i];
+            newEpochs[next] = epochs[i];
+            if (lotIds[i] != 0) {
+                slotsById.put(lotIds[i], next);
+            }
+            if (i == selectedLot) {
+                selected = next;
+            }
+            next++;
+        }
+        Arrays.fill(newQuantities, next, capacity, 0);
+        days = newDays;
+        quantities = newQuantities;
+        prices = newPrices;
+        lotIds = newLotIds;
+        epochs = newEpochs;
+        head = 0;
+        tail = next;
+    }
+}
@@ -0,0 +1,262 @@
+package com.zeyadrashed.engine;
+
+import java.util.Arrays;
+
+/**
+ * One symbol's stock splits as a cumulative adjustment factor per epoch, so a split costs O(1) and open lots
+ * are restated to it only when they are next relieved or reported.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * Epoch 0 is the symbol before any split; every split starts a new epoch whose factor is the exact fraction
+ * of shares now held per share held in epoch 0 (4 for a 4-for-1 split, 1/10 after a 1-for-10 reverse split),
+ * kept in lowest terms. A lot remembers the epoch it was opened or last restated under; restating it
+ * multiplies its quantity by the ratio of the two factors and keeps its cost basis, so the price per share is
+ * divided by the same ratio.
+ * </p>
+ * <p>
+ * Splits that do not divide evenly leave fractional shares. The position's share count is updated when the
+ * split happens, rounded down, with the exact fraction kept here. Restated lots are rounded down too, and
+ * the fractions they drop are carried, exactly, to the next lot restated, so by the time every lot has been
+ * restated their quantities add up to the position's. A lot restated to zero shares passes its cost on the
+ * same way, and so do the micros that rounding a restated lot's price gains or loses in fixed-point mode, so
+ * the lots and the carried cost always add up to the position's cost basis. The sale that closes the position
+ * is charged whatever cost is still carried; the fraction of a share left over is then dropped, as if paid
+ * out in cash, which is not part of the input.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class SplitFactors {
+
+    private static final int DEFAULT_CAPACITY = 4;
+
+    private final boolean fixedPoint;
+    private long[] numerators = new long[DEFAULT_CAPACITY];
+    private long[] denominators = new long[DEFAULT_CAPACITY];
+    private int epochs = 1;
+    private long carryNumerator;
+    private long carryDenominator = 1;
+    private long fractionNumerator;
+    private long fractionDenominator = 1;
+    private double carryCost;
+    private long carryCostMicros;
+
+    /**
+     * Constructor for a symbol that has not split yet.
+     *
+     * @param fixedPoint true if prices are fixed-point micros rather than raw {@code double} bits
+     */
+    public SplitFactors(boolean fixedPoint) {
+        this.fixedPoint = fixedPoint;
+        numerators[0] = 1;
+        denominators[0] = 1;
+    }
+
+    /**
+     * Constructor for factors restored from {@link #exportState()}.
+     *
+     * @param fixedPoint true if prices are fixed-point micros rather than raw {@code double} bits
+     * @param state      the exported state
+     */
+    public SplitFactors(boolean fixedPoint, long[] state) {
+        this.fixedPoint = fixedPoint;
+        int i = 0;
+        epochs = (int) state[i++];
+        numerators = Arrays.copyOfRange(state, i, i + Math.max(epochs, DEFAULT_CAPACITY));
+        i += epochs;
+        denominators = Arrays.copyOfRange(state, i, i + Math.max(epochs, DEFAULT_CAPACITY));
+        i += epochs;
+        carryNumerator = state[i++];
+        carryDenominator = state[i++];
+        fractionNumerator = state[i++];
+        fractionDenominator = state[i++];
+        carryCostMicros = state[i++];
+        carryCost = Double.longBitsToDouble(state[i]);
+    }
+
+    /**
+     * Starts a new epoch for a split of {@code numerator} new shares for every {@code denominator} old ones.
+     *
+     * @param openShares  the position's share count before the split
+     * @param numerator   new shares per {@code denominator} old shares
+     * @param denominator old shares
+     * @return the position's share count after the split, rounded down
+     * @throws ArithmeticException if the factors no longer fit in a {@code long}
+     */
+    long split(long openShares, long numerator, long denominator) {
+        long g = gcd(numerator, denominator);
+        numerator /= g;
+        denominator /= g;
+        if (epochs == numerators.length) {
+            numerators = Arrays.copyOf(numerators, epochs * 2);
+            denominators = Arrays.copyOf(denominators, epochs * 2);
+        }
+        int current = epochs - 1;
+        long n = Math.multiplyExact(numerators[current], numerator);
+        long d = Math.multiplyExact(denominators[current], denominator);
+        g = gcd(n, d);
+        numerators[epochs] = n / g;
+        denominators[epochs] = d / g;
+        epochs++;
+
+        // the position's exact share count, whole and fractional, scales by the split
+        n = Math.multiplyExact(Math.addExact(Math.multiplyExact(openShares, fractionDenominator), fractionNumerator),
+                numerator);
+        d = Math.multiplyExact(fractionDenominator, denominator);
+        long shares = Math.floorDiv(n, d);
+        g = gcd(n - shares * d, d);
+        fractionNumerator = (n - shares * d) / g;
+        fractionDenominator = d / g;
+
+        // so do the fractional shares not yet given to a lot
+        n = Math.multiplyExact(carryNumerator, numerator);
+        d = Math.multiplyExact(carryDenominator, denominator);
+        g = gcd(n, d);
+        carryNumerator = n / g;
+        carryDenominator = d / g;
+        return shares;
+    }
+
+    /**
+     * Restates a lot's quantity from the epoch it was opened under to the current one, rounding down and
+     * carrying the fraction to the next lot restated.
+     *
+     * @param epoch    the lot's epoch
+     * @param quantity the lot's quantity in that epoch
+     * @return the quantity now, possibly 0
+     * @throws ArithmeticException if the result does not fit in an {@code int}
+     */
+    int restateQuantity(int epoch, int quantity) {
+        int current = epochs - 1;
+        long rn = Math.multiplyExact(numerators[current], denominators[epoch]);
+        long rd = Math.multiplyExact(denominators[current], numerators[epoch]);
+        long g = gcd(rn, rd);
+        rn /= g;
+        rd /= g;
+        long n = Math.addExact(Math.multiplyExact(Math.multiplyExact((long) quantity, rn), carryDenominator),
+                Math.multiplyExact(carryNumerator, rd));
+        long d = Math.multiplyExact(rd, carryDenominator);
+        long whole = Math.floorDiv(n, d);
+        g = gcd(n - whole * d, d);
+        carryNumerator = (n - whole * d) / g;
+        carryDenominator = d / g;
+        return Math.toIntExact(whole);
+    }
+
+    /**
+     * Adds cost to pass on to the next lot restated: that of a lot restated to zero shares, or the micros
+     * left over by rounding a restated lot's price.
+     *
+     * @param cost       cost to add (double mode)
+     * @param costMicros cost to add in micros (fixed-point mode), possibly negative
+     */
+    void carryCost(double cost, long costMicros) {
+        carryCost += cost;
+        carryCostMicros += costMicros;
+    }
+
+    /**
+     * Takes the cost carried from lots restated to zero shares.
+     *
+     * @return the carried cost, in micros in fixed-point mode, otherwise as raw {@code double} bits
+     */
+    long takeCarriedCost() {
+        long cost = fixedPoint ? carryCostMicros : Double.doubleToRawLongBits(carryCost);
+        carryCost = 0.0;
+        carryCostMicros = 0L;
+        return cost;
+    }
+
+    /**
+     * Drops the fractional shares, and any cost still carried with them, once the position is closed.
+     */
+    void dropFractions() {
+        carryNumerator = 0;
+        carryDenominator = 1;
+        fractionNumerator = 0;
+        fractionDenominator = 1;
+        carryCost = 0.0;
+        carryCostMicros = 0L;
+    }
+
+    /**
+     * Converts a price stated in some epoch to the price of one epoch-0 share, for comparing lots opened in
+     * different epochs.
+     *
+     * @param price the price per share, as the book stores it
+     * @param epoch the epoch it is stated in
+     * @return the price per epoch-0 share
+     */
+    public double basePrice(long price, int epoch) {
+        double perShare = fixedPoint ? price : Double.longBitsToDouble(price);
+        return perShare * numerators[epoch] / denominators[epoch];
+    }
+
+    /**
+     * Gets the shares held now for every share held in an earlier epoch.
+     *
+     * @param epoch the earlier epoch
+     * @return the split ratio since then
+     */
+    public double ratio(int epoch) {
+        int current = epochs - 1;
+        return (double) numerators[current] * denominators[epoch] / ((double) denominators[current] * numerators[epoch]);
+    }
+
+    /**
+     * Gets the current epoch, which lots opened now are stated in.
+     *
+     * @return the epoch, 0 before any split
+     */
+    public int current() {
+        return epochs - 1;
+    }
+
+    /**
+     * Gets the shares held now for every share held before any split.
+     *
+     * @return the cumulative split factor
+     */
+    public double getFactor() {
+        return (double) numerators[epochs - 1] / denominators[epochs - 1];
+    }
+
+    /**
+     * Exports the factors and carried fractions, for a snapshot.
+     *
+     * @return the state, to pass to {@link #SplitFactors(boolean, long[])}
+     */
+    public long[] exportState() {
+        long[] state = new long[1 + 2 * epochs + 6];
+        int i = 0;
+        state[i++] = epochs;
+        System.arraycopy(numerators, 0, state, i, epochs);
+        i += epochs;
+        System.arraycopy(denominators, 0, state, i, epochs);
+        i += epochs;
+        state[i++] = carryNumerator;
+        state[i++] = carryDenominator;
+        state[i++] = fractionNumerator;
+        state[i++] = fractionDenominator;
+        state[i++] = carryCostMicros;
+        state[i] = Double.doubleToRawLongBits(carryCost);
+        return state;
+    }
+
+    private static long gcd(long a, long b) {
+        a = Math.abs(a);
+        b = Math.abs(b);
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a == 0 ? 1 : a;
+    }
+}
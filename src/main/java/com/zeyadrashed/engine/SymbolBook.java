@@ -0,0 +1,622 @@
+package com.zeyadrashed.engine;
+
+import com.zeyadrashed.obj.Position;
+import com.zeyadrashed.obj.Transaction;
+import com.zeyadrashed.util.EpochDays;
+import com.zeyadrashed.util.FixedPoint;
+import com.zeyadrashed.util.SymbolDictionary;
+import com.zeyadrashed.util.UtilLogger;
+
+import java.time.LocalDate;
+
+/**
+ * All matching state for a single symbol: its open lots, the running position summary and the realized
+ * gain so far.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * Which lot a SELL relieves is decided by the book's {@link LotSelection}, FIFO unless another
+ * {@link LotMethod} is chosen. Matching never looks at another symbol's lots, so a book can be driven by any single thread.
+ * A book itself is not thread-safe.
+ * </p>
+ * <p>
+ * A book keeps its money either in {@code double}s or, in fixed-point mode, in {@code long} micros (see
+ * {@link FixedPoint}) so that totals are exact and do not depend on summation order. The realized gain is a
+ * primitive field of the book rather than a boxed map value, so recording a sale allocates nothing. Each
+ * sale is also recorded by date in a {@link GainSeries}, so the gain over any date range can be queried
+ * without replaying the history.
+ * </p>
+ * <p>
+ * With {@link #enableWashSales()} the book also runs a {@link WashSaleTracker}, which disallows losses on
+ * sales that have replacement shares bought within 30 days and adds them back to the realized gain and to
+ * the replacement shares' cost basis.
+ * </p>
+ * <p>
+ * With {@link #setMatchSink(MatchSink)} every relieved lot is also reported as it is consumed, with its
+ * proceeds, cost basis, gain and whether it was held long-term (sold after the first anniversary of its
+ * purchase).
+ * </p>
+ * <p>
+ * A stock split ({@link #split(long, long)}) costs O(1) however many lots are open: it updates the position's
+ * share count and starts a new epoch in the book's {@link SplitFactors}, and each lot is restated to the
+ * current epoch only when it reaches the front of the selection to be relieved, keeping its cost basis.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class SymbolBook {
+
+    private final int symbolId;
+    private final boolean fixedPoint;
+    private int nameId;
+    private LotSelection lots;
+    private Position position;
+    private GainSeries gainSeries;
+    private WashSaleTracker washSales;
+    private MatchSink matchSink;
+    private SplitFactors splits;
+    private final MatchCounters counters = new MatchCounters();
+    private double realizedGain;
+    private long realizedGainMicros;
+    private int salesMatched;
+
+    /**
+     * Constructor for an empty double-mode book.
+     *
+     * @param symbolId the stock symbol's {@link SymbolDictionary} ID
+     */
+    public SymbolBook(int symbolId) {
+        this(symbolId, false);
+    }
+
+    /**
+     * Constructor for an empty book.
+     *
+     * @param symbolId   the stock symbol's {@link SymbolDictionary} ID
+     * @param fixedPoint true to keep prices and gains in fixed-point micros
+     */
+    public SymbolBook(int symbolId, boolean fixedPoint) {
+        this(symbolId, fixedPoint, LotMethod.FIFO);
+    }
+
+    /**
+     * Constructor for an empty book using a given lot-relief method.
+     *
+     * @param symbolId   the stock symbol's {@link SymbolDictionary} ID
+     * @param fixedPoint true to keep prices and gains in fixed-point micros
+     * @param method     how SELLs choose the lots they relieve
+     */
+    public SymbolBook(int symbolId, boolean fixedPoint, LotMethod method) {
+        this(symbolId, fixedPoint, method.create(fixedPoint), new Position());
+    }
+
+    /**
+     * Constructor for a book restored from saved state. Gains are restored separately with
+     * {@link #restoreGain(double, long, int)} and {@link #restoreGainSeries(GainSeries)}.
+     *
+     * @param symbolId   the stock symbol's {@link SymbolDictionary} ID
+     * @param fixedPoint true if the saved state is in fixed-point micros
+     * @param lots       the open lots
+     * @param position   the position summary matching {@code lots}
+     */
+    public SymbolBook(int symbolId, boolean fixedPoint, LotSelection lots, Position position) {
+        this.symbolId = symbolId;
+        this.nameId = symbolId;
+        this.fixedPoint = fixedPoint;
+        this.lots = lots;
+        this.position = position;
+        this.gainSeries = new GainSeries(fixedPoint);
+    }
+
+    /**
+     * Opens a lot for a BUY transaction.
+     *
+     * @param buyTransaction the buy transaction
+     */
+    public void buy(Transaction buyTransaction) {
+        int day = buyTransaction.getEpochDay();
+        int epoch = splits == null ? 0 : splits.current();
+        if (fixedPoint) {
+            lots.add(day, buyTransaction.getQuantity(), buyTransaction.getPriceMicros(), buyTransaction.getLotId(),
+                    epoch);
+            position.openFixed(buyTransaction.getQuantity(), buyTransaction.getPriceMicros());
+        } else {
+            lots.add(day, buyTransaction.getQuantity(), Double.doubleToRawLongBits(buyTransaction.getPrice()),
+                    buyTransaction.getLotId(), epoch);
+            position.open(buyTransaction.getQuantity(), buyTransaction.getPrice());
+        }
+        counters.recordBuy(lots.size());
+        if (washSales != null) {
+            washSales.buy(this, day, buyTransaction.getQuantity());
+        }
+    }
+
+    /**
+     * Relieves lots for a SELL transaction, in the order of the book's lot-relief method, and adds the result to the realized gain. The caller
+     * is expected to have checked {@link #getOpenShares()} first.
+     *
+     * @param sellTransaction the sell transaction
+     * @return the calculated capital gain (or loss), before any part of a loss is disallowed as a wash sale
+     */
+    public double sell(Transaction sellTransaction) {
+        boolean debug = UtilLogger.isDebugEnabled();
+        if (debug) {
+            UtilLogger.logDebug("begin processing sell transaction: " + sellTransaction);
+        }
+
+        int sharesToSell = sellTransaction.getQuantity();
+        double totalCostBasis = 0.0;
+        long totalCostBasisMicros = 0L;
+        int lotsConsumed = 0;
+        boolean partialFill = false;
+        // once the symbol has split, the sale that closes the position is charged the cost still carried
+        boolean closing = splits != null && position.getOpenShares() == sharesToSell;
+        lots.select(sellTransaction.getLotId());
+
+        while (sharesToSell > 0) {
+            if (splits != null) {
+                restateFirst();
+            }
+            if (lots.isEmpty()) {
+                String msg = "unexpected error: no BUY transaction available for symbol: " + getSymbol();
+                UtilLogger.logError(msg, new IllegalStateException(msg));
+                return 0.0;
+            }
+
+            int availableShares = lots.peekQuantity();
+            int used = Math.min(availableShares, sharesToSell);
+            if (debug) {
+                if (used == availableShares) {
+                    UtilLogger.logDebug("consuming entire BUY lot: " + describeFirst() + " for " + used + " shares");
+                } else {
+                    UtilLogger.logDebug("partially consuming BUY lot: " + describeFirst() + ". using " + used + " shares");
+                }
+            }
+            int buyDay = lots.peekDay();
+            long lotId = lots.peekLotId();
+            long lotCostMicros = 0L;
+            double lotCost = 0.0;
+            if (fixedPoint) {
+                lotCostMicros = FixedPoint.multiply(used, lots.peekPrice());
+                if (washSales != null) {
+                    lotCostMicros += washSales.relieveMicros(buyDay, used);
+                }
+            } else {
+                lotCost = used * Double.longBitsToDouble(lots.peekPrice());
+                if (washSales != null) {
+                    lotCost += washSales.relieve(buyDay, used);
+                }
+            }
+            sharesToSell -= used;
+            lots.consumeFirst(used);
+            lotsConsumed++;
+            partialFill = used < availableShares;
+            if (closing && sharesToSell == 0) {
+                // every lot still open restates to less than a share; their cost and the rounding carried
+                // between lots belong to the last shares sold
+                restateFirst();
+                long carried = splits.takeCarriedCost();
+                lotCostMicros += fixedPoint ? carried : 0L;
+                lotCost += fixedPoint ? 0.0 : Double.longBitsToDouble(carried);
+            }
+
+            if (fixedPoint) {
+                totalCostBasisMicros += lotCostMicros;
+                if (matchSink != null) {
+                    long proceedsMicros = FixedPoint.multiply(used, sellTransaction.getPriceMicros());
+                    emitMatch(sellTransaction, buyDay, lotId, used, proceedsMicros, lotCostMicros,
+                            proceedsMicros - lotCostMicros);
+                }
+            } else {
+                totalCostBasis += lotCost;
+                if (matchSink != null) {
+                    double proceeds = used * sellTransaction.getPrice();
+                    emitMatch(sellTransaction, buyDay, lotId, used, Double.doubleToRawLongBits(proceeds),
+                            Double.doubleToRawLongBits(lotCost), Double.doubleToRawLongBits(proceeds - lotCost));
+                }
+            }
+        }
+
+        double gain;
+        long gainMicros = 0L;
+        if (fixedPoint) {
+            position.closeFixed(sellTransaction.getQuantity(), totalCostBasisMicros);
+            gainMicros = FixedPoint.multiply(sellTransaction.getQuantity(), sellTransaction.getPriceMicros())
+                    - totalCostBasisMicros;
+            realizedGainMicros += gainMicros;
+            gainSeries.record(sellTransaction.getEpochDay(), 0.0, gainMicros);
+            gain = FixedPoint.toDouble(gainMicros);
+        } else {
+            position.close(sellTransaction.getQuantity(), totalCostBasis);
+            double totalProceeds = sellTransaction.getQuantity() * sellTransaction.getPrice();
+            gain = totalProceeds - totalCostBasis;
+            realizedGain += gain;
+            gainSeries.record(sellTransaction.getEpochDay(), gain, 0L);
+        }
+        salesMatched++;
+        if (splits != null && position.getOpenShares() == 0) {
+            closeFractions();
+        }
+        if (washSales != null) {
+            washSales.sell(this, sellTransaction.getEpochDay(), sellTransaction.getQuantity(), gain, gainMicros);
+        }
+        counters.recordSell(lotsConsumed, partialFill);
+        if (debug) {
+            UtilLogger.logDebug("completed processing sell transaction: " + sellTransaction);
+        }
+        return gain;
+    }
+
+    /**
+     * Restates the front lot, and any lot that takes its place, until the front lot is stated in the current
+     * split epoch. The lot keeps its cost basis, plus any carried from earlier lots, and its price per share
+     * is that basis over the new quantity. In fixed-point mode the price is rounded to the nearest micro and
+     * the micros that rounding gains or loses are carried to the next lot restated, so the lots and the
+     * position's cost basis never drift apart. Methods that relieve every lot at a pooled price keep their
+     * own cost, so only the quantity is restated for them.
+     */
+    private void restateFirst() {
+        int current = splits.current();
+        while (!lots.isEmpty() && lots.peekEpoch() != current) {
+            int quantity = lots.peekQuantity();
+            int restated = splits.restateQuantity(lots.peekEpoch(), quantity);
+            if (!lots.pricesEachLot()) {
+                lots.restateFirst(restated, lots.peekPrice(), current);
+                continue;
+            }
+            long carried = splits.takeCarriedCost();
+            if (fixedPoint) {
+                long basis = FixedPoint.multiply(quantity, lots.peekPrice()) + carried;
+                if (restated == 0) {
+                    splits.carryCost(0.0, basis);
+                    lots.restateFirst(0, 0L, current);
+                } else {
+                    long price = Math.floorDiv(2 * basis + restated, 2L * restated);
+                    splits.carryCost(0.0, basis - Math.multiplyExact(price, (long) restated));
+                    lots.restateFirst(restated, price, current);
+                }
+            } else {
+                double basis = quantity * Double.longBitsToDouble(lots.peekPrice()) + Double.longBitsToDouble(carried);
+                if (restated == 0) {
+                    splits.carryCost(basis, 0L);
+                    lots.restateFirst(0, 0L, current);
+                } else {
+                    lots.restateFirst(restated, Double.doubleToRawLongBits(basis / restated), current);
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies a stock split of {@code numerator} new shares for every {@code denominator} held, e.g. 4 and 1
+     * for a 4-for-1 split or 1 and 10 for a 1-for-10 reverse split. The position's share count is updated at
+     * once, rounded down, and its cost basis is unchanged; open lots are restated as they are relieved. A
+     * split that leaves less than one share closes the position.
+     *
+     * @param numerator   new shares per {@code denominator} old shares
+     * @param denominator old shares
+     * @throws IllegalArgumentException if either ratio term is not positive
+     * @throws IllegalStateException    if the book detects wash sales, which track shares by purchase date
+     *                                  in the units they were bought in
+     */
+    public void split(long numerator, long denominator) {
+        if (numerator <= 0 || denominator <= 0) {
+            throw new IllegalArgumentException("invalid split ratio " + numerator + ":" + denominator);
+        }
+        if (washSales != null) {
+            throw new IllegalStateException("stock splits cannot be applied to a book that detects wash sales");
+        }
+        if (splits == null) {
+            splits = new SplitFactors(fixedPoint);
+            lots.useSplitFactors(splits);
+        }
+        long shares = splits.split(position.getOpenShares(), numerator, denominator);
+        position.split(shares);
+        lots.onSplit(shares);
+        if (shares == 0) {
+            closeFractions();
+        }
+    }
+
+    /**
+     * Drops what is left of a closed position: lots that restate to less than a share, and the fractions
+     * carried between lots. A sale that closes the position has already been charged any carried cost.
+     */
+    private void closeFractions() {
+        restateFirst();
+        splits.dropFractions();
+    }
+
+    /**
+     * Visits every open lot stated in the current split epoch, for reporting. Lots that have not been
+     * restated yet are reported rounded down, with their price per share scaled by the split ratio; the lots
+     * themselves are not changed.
+     *
+     * @param visitor receives each lot
+     */
+    public void forEachLot(LotSelection.LotVisitor visitor) {
+        if (splits == null) {
+            lots.forEach(visitor);
+            return;
+        }
+        int current = splits.current();
+        lots.forEach((day, quantity, price, lotId, epoch) -> {
+            if (epoch == current) {
+                visitor.visit(day, quantity, price, lotId, epoch);
+                return;
+            }
+            double ratio = splits.ratio(epoch);
+            int restated = (int) Math.floor(quantity * ratio);
+            if (restated > 0) {
+                double perShare = priceOf(price) * quantity / restated;
+                visitor.visit(day, restated, fixedPoint ? FixedPoint.fromDouble(perShare)
+                        : Double.doubleToRawLongBits(perShare), lotId, current);
+            }
+        });
+    }
+
+    /**
+     * Passes the lot at the front of the selection, about to be relieved, to the match sink.
+     */
+    private void emitMatch(Transaction sellTransaction, int buyDay, long lotId, int used, long proceeds, long costBasis,
+                           long gain) {
+        int saleDay = sellTransaction.getEpochDay();
+        matchSink.onMatch(nameId, saleDay, buyDay, used, lotId, proceeds, costBasis, gain,
+                saleDay > EpochDays.plusYears(buyDay, 1));
+    }
+
+    /**
+     * Disallows part of a loss as a wash sale: adds it back to the realized gain on the sale's date and to
+     * the open cost basis of the replacement shares.
+     *
+     * @param saleDay      the losing sale's date as an epoch-day
+     * @param amount       the disallowed loss, as a positive amount (double mode)
+     * @param amountMicros the disallowed loss in micros (fixed-point mode)
+     */
+    void disallow(int saleDay, double amount, long amountMicros) {
+        if (fixedPoint) {
+            realizedGainMicros += amountMicros;
+            position.adjustBasisFixed(amountMicros);
+        } else {
+            realizedGain += amount;
+            position.adjustBasis(amount);
+        }
+        gainSeries.record(saleDay, amount, amountMicros);
+    }
+
+    /**
+     * Starts wash-sale detection for this book, from its next transaction on.
+     */
+    public void enableWashSales() {
+        if (washSales == null) {
+            washSales = new WashSaleTracker(fixedPoint);
+        }
+    }
+
+    /**
+     * Restores the wash-sale state saved in a snapshot.
+     *
+     * @param washSales the saved tracker, in this book's mode
+     */
+    public void restoreWashSales(WashSaleTracker washSales) {
+        this.washSales = washSales;
+    }
+
+    /**
+     * Sets the sink that receives a record for every lot relieved from now on.
+     *
+     * @param matchSink the sink, or {@code null} for none
+     */
+    public void setMatchSink(MatchSink matchSink) {
+        this.matchSink = matchSink;
+    }
+
+    /**
+     * Restores the split factors saved in a snapshot, for the lots the book was restored with.
+     *
+     * @param splits the saved factors, in this book's mode
+     */
+    public void restoreSplits(SplitFactors splits) {
+        this.splits = splits;
+        lots.useSplitFactors(splits);
+    }
+
+    /**
+     * Restores the realized gain saved in a snapshot.
+     *
+     * @param gain         the realized gain (double mode)
+     * @param gainMicros   the realized gain in micros (fixed-point mode)
+     * @param salesMatched the number of SELLs matched so far
+     */
+    public void restoreGain(double gain, long gainMicros, int salesMatched) {
+        this.realizedGain = gain;
+        this.realizedGainMicros = gainMicros;
+        this.salesMatched = salesMatched;
+    }
+
+    /**
+     * Puts the book back to an earlier state, for replaying transactions after a backdated correction. The
+     * gain series and matching counters are left as they are.
+     *
+     * @param lots         the open lots then
+     * @param position     the position then
+     * @param gain         the realized gain then (double mode)
+     * @param gainMicros   the realized gain then in micros (fixed-point mode)
+     * @param salesMatched the number of SELLs matched then
+     */
+    void rewind(LotSelection lots, Position position, double gain, long gainMicros, int salesMatched) {
+        this.lots = lots;
+        this.position = position;
+        restoreGain(gain, gainMicros, salesMatched);
+    }
+
+    /**
+     * Restores the realized gains by sale date saved in a snapshot.
+     *
+     * @param gainSeries the saved series, in this book's mode
+     */
+    public void restoreGainSeries(GainSeries gainSeries) {
+        this.gainSeries = gainSeries;
+    }
+
+    /**
+     * Describes the lot at the front of the selection, for log messages.
+     */
+    private String describeFirst() {
+        return String.format("Lot[date=%s, quantity=%d, price=%.2f%s]", LocalDate.ofEpochDay(lots.peekDay()),
+                lots.peekQuantity(), priceOf(lots.peekPrice()), lots.peekLotId() == 0 ? "" : ", id=" + lots.peekLotId());
+    }
+
+    /**
+     * Decodes a price stored in this book's lots.
+     *
+     * @param storedPrice the 64-bit lot price
+     * @return the price per share
+     */
+    public double priceOf(long storedPrice) {
+        return fixedPoint ? FixedPoint.toDouble(storedPrice) : Double.longBitsToDouble(storedPrice);
+    }
+
+    /**
+     * Gets the number of shares available to sell.
+     *
+     * @return open shares
+     */
+    public long getOpenShares() {
+        return position.getOpenShares();
+    }
+
+    /**
+     * Gets the stock symbol the book currently trades under, the newest one after a ticker change.
+     *
+     * @return symbol
+     */
+    public String getSymbol() {
+        return SymbolDictionary.nameOf(nameId);
+    }
+
+    /**
+     * Gets the dictionary ID of the symbol the book currently trades under. It is the book's own
+     * {@link #getSymbolId()} unless the book has been renamed.
+     *
+     * @return current symbol ID
+     */
+    public int getNameId() {
+        return nameId;
+    }
+
+    /**
+     * Renames the book after a ticker change. The book keeps its own ID, under which its owner indexes it,
+     * but reports the new symbol from now on, and so do the match records of its later sales; records
+     * already produced keep the symbol they were sold under.
+     *
+     * @param newSymbolId the new stock symbol's {@link SymbolDictionary} ID
+     */
+    public void rename(int newSymbolId) {
+        this.nameId = newSymbolId;
+    }
+
+    /**
+     * Gets the stock symbol's dictionary ID.
+     *
+     * @return symbol ID
+     */
+    public int getSymbolId() {
+        return symbolId;
+    }
+
+    /**
+     * Gets the open lots.
+     *
+     * @return lot selection
+     */
+    public LotSelection getLots() {
+        return lots;
+    }
+
+    /**
+     * Gets the open position summary.
+     *
+     * @return position
+     */
+    public Position getPosition() {
+        return position;
+    }
+
+    /**
+     * Checks whether this book keeps its money in fixed-point micros.
+     *
+     * @return true in fixed-point mode
+     */
+    public boolean isFixedPoint() {
+        return fixedPoint;
+    }
+
+    /**
+     * Gets the realized gain/loss of every SELL matched so far.
+     *
+     * @return realized gain (converted from micros in fixed-point mode)
+     */
+    public double getRealizedGain() {
+        return fixedPoint ? FixedPoint.toDouble(realizedGainMicros) : realizedGain;
+    }
+
+    /**
+     * Gets the exact realized gain/loss of a fixed-point book.
+     *
+     * @return realized gain in micros (0 in double mode)
+     */
+    public long getRealizedGainMicros() {
+        return realizedGainMicros;
+    }
+
+    /**
+     * Gets the realized gains by sale date, for date-range queries.
+     *
+     * @return gain series
+     */
+    public GainSeries getGainSeries() {
+        return gainSeries;
+    }
+
+    /**
+     * Gets the wash-sale state.
+     *
+     * @return wash-sale tracker, or {@code null} if wash sales are not detected for this book
+     */
+    public WashSaleTracker getWashSales() {
+        return washSales;
+    }
+
+    /**
+     * Gets the split factors.
+     *
+     * @return split factors, or {@code null} if the symbol has not split
+     */
+    public SplitFactors getSplits() {
+        return splits;
+    }
+
+    /**
+     * Gets this run's matching counters.
+     *
+     * @return counters
+     */
+    public MatchCounters getCounters() {
+        return counters;
+    }
+
+    /**
+     * Gets the number of SELLs matched so far.
+     *
+     * @return number of sales
+     */
+    public int getSalesMatched() {
+        return salesMatched;
+    }
+}
@@ -0,0 +1,338 @@
+package com.zeyadrashed.engine;
+
+import com.zeyadrashed.obj.Position;
+import com.zeyadrashed.obj.Transaction;
+import com.zeyadrashed.obj.TransactionType;
+import com.zeyadrashed.util.UtilLogger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only event log of one symbol's transactions with periodic checkpoints of its book, so a backdated
+ * transaction can be applied by replaying only that symbol's recent history.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * Every transaction the book sees is logged in date order, with whether each SELL was matched or rejected for
+ * lack of shares. A checkpoint copies the book's open lots, position and realized gain after
+ * a given number of events. Checkpoints are taken once at least {@link #MIN_CHECKPOINT_INTERVAL} events,
+ * and at least as many events as there are open lots, have been logged since the last one, so copying lots
+ * costs amortized O(1) per event and all checkpoints together hold no more entries than the log.
+ * </p>
+ * <p>
+ * A transaction dated before the last logged one is a correction: it is inserted after the events of its
+ * date, the book is put back to the last checkpoint before that point, and every later event is replayed,
+ * rejected SELLs included, since the correction may now cover them. The checkpoint also holds the length and
+ * last total of the book's {@link GainSeries}, so realized gains, by date as well as in total, come out
+ * exactly as if the transaction had arrived in order, and move by the difference the correction makes. A
+ * correction costs time proportional to the symbol's events since that checkpoint; other symbols are not
+ * touched. Matching counters count replayed work as it happens and are not rewound.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class SymbolJournal {
+
+    /**
+     * Fewest events between two checkpoints.
+     */
+    public static final int MIN_CHECKPOINT_INTERVAL = 64;
+    private static final byte APPLIED = 0;
+    private static final byte SOLD = 1;
+    private static final byte REJECTED = 2;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final SymbolBook book;
+    private final LotMethod lotMethod;
+    private Transaction[] events = new Transaction[DEFAULT_CAPACITY];
+    private int[] days = new int[DEFAULT_CAPACITY];
+    private byte[] outcomes = new byte[DEFAULT_CAPACITY];
+    private int size;
+    private double lastGain;
+    private boolean lastRejected;
+    private final List<Checkpoint> checkpoints = new ArrayList<>();
+    private int corrections;
+    private long replayedEvents;
+
+    /**
+     * The book's state after a number of logged events.
+     */
+    private static class Checkpoint {
+
+        private final int events;
+        private final int[] days;
+        private final int[] quantities;
+        private final long[] prices;
+        private final long[] lotIds;
+        private final int[] epochs;
+        private final long openShares;
+        private final double openCostBasis;
+        private final long openCostBasisMicros;
+        private final double realizedGain;
+        private final long realizedGainMicros;
+        private final int salesMatched;
+        private final int seriesSize;
+        private final long seriesTotal;
+
+        private Checkpoint(int events, SymbolBook book) {
+            this.events = events;
+            LotSelection lots = book.getLots();
+            int count = lots.size();
+            days = new int[count];
+            quantities = new int[count];
+            prices = new long[count];
+            lotIds = new long[count];
+            epochs = new int[count];
+            int[] next = new int[1];
+            lots.forEach((day, quantity, price, lotId, epoch) -> {
+                int i = next[0]++;
+                days[i] = day;
+                quantities[i] = quantity;
+                prices[i] = price;
+                lotIds[i] = lotId;
+                epochs[i] = epoch;
+            });
+            Position position = book.getPosition();
+            openShares = position.getOpenShares();
+            openCostBasis = position.getOpenCostBasis();
+            openCostBasisMicros = position.getOpenCostBasisMicros();
+            realizedGain = book.isFixedPoint() ? 0.0 : book.getRealizedGain();
+            realizedGainMicros = book.getRealizedGainMicros();
+            salesMatched = book.getSalesMatched();
+            GainSeries gainSeries = book.getGainSeries();
+            seriesSize = gainSeries.size();
+            seriesTotal = seriesSize == 0 ? 0L : gainSeries.totalAt(seriesSize - 1);
+        }
+    }
+
+    /**
+     * Constructor for a journal over a book, starting from the book's current state.
+     *
+     * @param book      the symbol's book
+     * @param lotMethod the lot-relief method the book uses
+     */
+    public SymbolJournal(SymbolBook book, LotMethod lotMethod) {
+        this.book = book;
+        this.lotMethod = lotMethod;
+        checkpoints.add(new Checkpoint(0, book));
+    }
+
+    /**
+     * Checks whether a transaction is dated before the last logged one, and so needs {@link #correct}.
+     *
+     * @param transaction the transaction
+     * @return true if it is backdated
+     */
+    public boolean isBackdated(Transaction transaction) {
+        return size > 0 && transaction.getEpochDay() < days[size - 1];
+    }
+
+    /**
+     * Logs a transaction dated on or after every logged one and applies it to the book.
+     *
+     * @param transaction the transaction
+     * @return true if it was applied, false if it is a SELL the book cannot cover
+     */
+    public boolean append(Transaction transaction) {
+        if (size == events.length) {
+            grow();
+        }
+        events[size] = transaction;
+        days[size] = transaction.getEpochDay();
+        size++;
+        lastGain = apply(size - 1);
+        lastRejected = outcomes[size - 1] == REJECTED;
+        checkpointIfDue(size);
+        return !lastRejected;
+    }
+
+    /**
+     * Applies a backdated transaction: logs it after the events of its date, rewinds the book to the last
+     * checkpoint before it and replays every later event.
+     *
+     * @param transaction the backdated transaction
+     * @return the resulting change in the book's realized gain (converted from micros in fixed-point mode)
+     */
+    public double correct(Transaction transaction) {
+        int at = upperBound(transaction.getEpochDay());
+        Checkpoint checkpoint = checkpointAtOrBefore(at);
+        double gainBefore = book.getRealizedGain();
+        rewind(checkpoint);
+
+        if (size == events.length) {
+            grow();
+        }
+        System.arraycopy(events, at, events, at + 1, size - at);
+        System.arraycopy(days, at, days, at + 1, size - at);
+        events[at] = transaction;
+        days[at] = transaction.getEpochDay();
+        size++;
+        while (checkpoints.getLast() != checkpoint) {
+            checkpoints.removeLast();
+        }
+
+        for (int i = checkpoint.events; i < size; i++) {
+            apply(i);
+            checkpointIfDue(i + 1);
+        }
+        lastRejected = outcomes[at] == REJECTED;
+        corrections++;
+        replayedEvents += size - checkpoint.events;
+        double change = book.getRealizedGain() - gainBefore;
+        if (UtilLogger.isDebugEnabled()) {
+            UtilLogger.logDebug("applied backdated transaction " + transaction + " by replaying " +
+                    (size - checkpoint.events) + " of " + size + " events; realized gain changed by " + change);
+        }
+        return change;
+    }
+
+    /**
+     * Applies one logged event to the book and records its outcome.
+     *
+     * @return the gain it realized, or 0 if it was not a matched SELL
+     */
+    private double apply(int i) {
+        Transaction t = events[i];
+        if (t.getType() == TransactionType.BUY) {
+            book.buy(t);
+            outcomes[i] = APPLIED;
+            return 0.0;
+        } else if (t.getType() == TransactionType.SELL) {
+            if (book.getOpenShares() < t.getQuantity()) {
+                outcomes[i] = REJECTED;
+                return 0.0;
+            }
+            outcomes[i] = SOLD;
+            return book.sell(t);
+        }
+        outcomes[i] = APPLIED;
+        return 0.0;
+    }
+
+    /**
+     * Puts the book back to a checkpoint's state. The lots are copied, since a restored lot selection may
+     * take the arrays over.
+     */
+    private void rewind(Checkpoint checkpoint) {
+        Position position = book.isFixedPoint() ? new Position(checkpoint.openShares, checkpoint.openCostBasisMicros)
+                : new Position(checkpoint.openShares, checkpoint.openCostBasis);
+        LotSelection lots = lotMethod.restore(book.isFixedPoint(), checkpoint.days.clone(), checkpoint.quantities.clone(),
+                checkpoint.prices.clone(), checkpoint.lotIds.clone(), checkpoint.epochs.clone(), book.getSplits(),
+                position);
+        book.rewind(lots, position, checkpoint.realizedGain, checkpoint.realizedGainMicros, checkpoint.salesMatched);
+        book.getGainSeries().truncate(checkpoint.seriesSize, checkpoint.seriesTotal);
+    }
+
+    /**
+     * Takes a checkpoint after the first {@code events} events if enough have been applied since the last one.
+     */
+    private void checkpointIfDue(int events) {
+        int since = events - checkpoints.getLast().events;
+        if (since >= MIN_CHECKPOINT_INTERVAL && since >= book.getLots().size()) {
+            checkpoints.add(new Checkpoint(events, book));
+        }
+    }
+
+    /**
+     * Finds the index after the last logged event dated on or before a day.
+     */
+    private int upperBound(int day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] <= day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the last checkpoint taken after at most {@code events} events.
+     */
+    private Checkpoint checkpointAtOrBefore(int events) {
+        int low = 0;
+        int high = checkpoints.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (checkpoints.get(mid).events <= events) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return checkpoints.get(low);
+    }
+
+    private void grow() {
+        int capacity = events.length * 2;
+        events = Arrays.copyOf(events, capacity);
+        days = Arrays.copyOf(days, capacity);
+        outcomes = Arrays.copyOf(outcomes, capacity);
+    }
+
+    /**
+     * Gets the gain realized by the last event applied by {@link #append(Transaction)}.
+     *
+     * @return realized gain (converted from micros in fixed-point mode), or 0 if it was not a matched SELL
+     */
+    public double getLastGain() {
+        return lastGain;
+    }
+
+    /**
+     * Checks whether the last transaction appended or corrected was a SELL rejected for lack of shares on its
+     * date.
+     *
+     * @return true if it was rejected
+     */
+    public boolean isLastRejected() {
+        return lastRejected;
+    }
+
+    /**
+     * Gets the number of events logged.
+     *
+     * @return number of events
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of checkpoints kept, including the initial one.
+     *
+     * @return number of checkpoints
+     */
+    public int getCheckpoints() {
+        return checkpoints.size();
+    }
+
+    /**
+     * Gets the number of backdated transactions applied.
+     *
+     * @return number of corrections
+     */
+    public int getCorrections() {
+        return corrections;
+    }
+
+    /**
+     * Gets the number of events replayed by corrections, including the corrections themselves.
+     *
+     * @return number of replayed events
+     */
+    public long getReplayedEvents() {
+        return replayedEvents;
+    }
+}
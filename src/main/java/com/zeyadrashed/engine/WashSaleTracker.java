@@ -0,0 +1,518 @@
+package com.zeyadrashed.engine;
+
+import com.zeyadrashed.util.FixedPoint;
+import com.zeyadrashed.util.UtilLogger;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Wash-sale detection for a single symbol: losses on sales with a BUY of the same symbol within
+ * {@link #WINDOW_DAYS} days before or after them are disallowed and deferred into the replacement shares'
+ * cost basis.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * BUYs of the last {@link #WINDOW_DAYS} days are kept in a ring of {@link #RING_DAYS} slots indexed by
+ * epoch-day, each holding the shares bought that day that are still open and not yet used as replacement
+ * shares; relieving a lot takes its shares out of its day's slot in O(1), so shares sold by the losing sale
+ * itself never count as its replacements. A losing SELL first looks back through the ring, oldest day
+ * first, and whatever part of the loss has no replacement shares yet is queued as pending. Pending losses
+ * are matched, oldest first, against BUYs in the next {@link #WINDOW_DAYS} days and become final once a
+ * transaction is dated after their window, so every pending loss is queued and dequeued once and each
+ * transaction costs amortized O(1).
+ * </p>
+ * <p>
+ * A disallowed loss is deferred per share: it is added to the owning {@link SymbolBook}'s realized gain
+ * (recorded on the sale's date) and to the cost basis of the replacement shares, which is charged when
+ * lots bought on the replacement day are relieved. Shares bought on the same day are treated as
+ * interchangeable, so the deferral follows the day rather than a particular lot. Deferrals live in a second
+ * ring indexed by epoch-day the same way, which doubles whenever it has to span from the oldest to the newest
+ * purchase day still carrying a deferral, so relieving a lot finds its day's deferral in O(1) without
+ * hashing or boxing. Transactions are expected in date order, as for matching.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class WashSaleTracker {
+
+    /**
+     * Number of days before and after a losing sale in which a BUY makes it a wash sale.
+     */
+    public static final int WINDOW_DAYS = 30;
+    /**
+     * Number of slots in the BUY ring; a power of two covering the sale day and the {@link #WINDOW_DAYS}
+     * days before it.
+     */
+    public static final int RING_DAYS = 32;
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private final boolean fixedPoint;
+    private final int[] ringDays = new int[RING_DAYS];
+    private final int[] ringShares = new int[RING_DAYS];
+    private int[] pendingDays = new int[DEFAULT_CAPACITY];
+    private int[] pendingShares = new int[DEFAULT_CAPACITY];
+    private double[] pendingLosses = new double[DEFAULT_CAPACITY];
+    private long[] pendingLossesMicros = new long[DEFAULT_CAPACITY];
+    private int head;
+    private int tail;
+    private long[] deferredShares = new long[DEFAULT_CAPACITY];
+    private double[] deferredAmounts = new double[DEFAULT_CAPACITY];
+    private long[] deferredAmountsMicros = new long[DEFAULT_CAPACITY];
+    private int firstDeferredDay;
+    private int lastDeferredDay;
+    private int deferredDays;
+    private double pendingLoss;
+    private long pendingLossMicros;
+    private double disallowedLoss;
+    private long disallowedLossMicros;
+    private int washSales;
+
+    /**
+     * Constructor for a tracker with no history.
+     *
+     * @param fixedPoint true if amounts are fixed-point micros
+     */
+    public WashSaleTracker(boolean fixedPoint) {
+        this.fixedPoint = fixedPoint;
+        Arrays.fill(ringDays, Integer.MIN_VALUE);
+    }
+
+    /**
+     * Constructor for a tracker restored from {@link #exportState()}.
+     *
+     * @param fixedPoint true if amounts are fixed-point micros
+     * @param state      the saved state
+     */
+    public WashSaleTracker(boolean fixedPoint, long[] state) {
+        this.fixedPoint = fixedPoint;
+        int i = 0;
+        for (int slot = 0; slot < RING_DAYS; slot++) {
+            ringDays[slot] = (int) state[i++];
+            ringShares[slot] = (int) state[i++];
+        }
+        int pending = (int) state[i++];
+        if (pending > pendingDays.length) {
+            growPending(pending);
+        }
+        for (int p = 0; p < pending; p++) {
+            pendingDays[p] = (int) state[i++];
+            pendingShares[p] = (int) state[i++];
+            pendingLosses[p] = Double.longBitsToDouble(state[i++]);
+            pendingLossesMicros[p] = state[i++];
+        }
+        tail = pending;
+        int deferred = (int) state[i++];
+        for (int d = 0; d < deferred; d++) {
+            int slot = openDeferral((int) state[i++]);
+            deferredShares[slot] = state[i++];
+            deferredAmounts[slot] = Double.longBitsToDouble(state[i++]);
+            deferredAmountsMicros[slot] = state[i++];
+        }
+        pendingLoss = Double.longBitsToDouble(state[i++]);
+        pendingLossMicros = state[i++];
+        disallowedLoss = Double.longBitsToDouble(state[i++]);
+        disallowedLossMicros = state[i++];
+        washSales = (int) state[i];
+    }
+
+    /**
+     * Records a BUY after its lot was opened, deferring pending losses into it before its remaining shares
+     * join the window.
+     *
+     * @param book     the symbol's book
+     * @param day      the purchase date as an epoch-day
+     * @param quantity the number of shares bought
+     */
+    void buy(SymbolBook book, int day, int quantity) {
+        settle(day);
+        int left = quantity;
+        while (left > 0 && head < tail) {
+            int used = Math.min(left, pendingShares[head]);
+            int saleDay = pendingDays[head];
+            double loss = 0.0;
+            long lossMicros = 0L;
+            if (fixedPoint) {
+                lossMicros = prorate(pendingLossesMicros[head], used, pendingShares[head]);
+                pendingLossesMicros[head] -= lossMicros;
+                pendingLossMicros -= lossMicros;
+            } else {
+                loss = used == pendingShares[head] ? pendingLosses[head]
+                        : pendingLosses[head] * used / pendingShares[head];
+                pendingLosses[head] -= loss;
+                pendingLoss -= loss;
+            }
+            pendingShares[head] -= used;
+            if (pendingShares[head] == 0) {
+                head++;
+            }
+            left -= used;
+            defer(book, saleDay, day, used, -loss, -lossMicros);
+        }
+        if (head == tail) {
+            head = 0;
+            tail = 0;
+        }
+        if (left > 0) {
+            int slot = day & (RING_DAYS - 1);
+            if (ringDays[slot] != day) {
+                ringDays[slot] = day;
+                ringShares[slot] = 0;
+            }
+            ringShares[slot] += left;
+        }
+    }
+
+    /**
+     * Records shares relieved from a lot, taking them out of the window and charging any loss deferred
+     * into their basis.
+     *
+     * @param day  the lot's purchase date as an epoch-day
+     * @param used the number of shares relieved
+     * @return the deferred loss added to their cost basis (double mode)
+     */
+    double relieve(int day, int used) {
+        leaveWindow(day, used);
+        int slot = deferralSlot(day);
+        if (slot < 0) {
+            return 0.0;
+        }
+        long shares = deferredShares[slot];
+        double amount = used >= shares ? deferredAmounts[slot] : deferredAmounts[slot] * used / shares;
+        deferredAmounts[slot] -= amount;
+        takeDeferredShares(slot, day, used);
+        return amount;
+    }
+
+    /**
+     * Records shares relieved from a lot of a fixed-point book, taking them out of the window and charging
+     * any loss deferred into their basis.
+     *
+     * @param day  the lot's purchase date as an epoch-day
+     * @param used the number of shares relieved
+     * @return the deferred loss added to their cost basis, in micros
+     */
+    long relieveMicros(int day, int used) {
+        leaveWindow(day, used);
+        int slot = deferralSlot(day);
+        if (slot < 0) {
+            return 0L;
+        }
+        long shares = deferredShares[slot];
+        long amount = used >= shares ? deferredAmountsMicros[slot] : prorate(deferredAmountsMicros[slot], used, shares);
+        deferredAmountsMicros[slot] -= amount;
+        takeDeferredShares(slot, day, used);
+        return amount;
+    }
+
+    /**
+     * Records a matched SELL. A loss is disallowed against replacement shares bought in the window before
+     * it, and any part without replacement shares is held pending for the window after it.
+     *
+     * @param book       the symbol's book
+     * @param day        the sale date as an epoch-day
+     * @param quantity   the number of shares sold
+     * @param gain       the sale's gain (double mode)
+     * @param gainMicros the sale's gain in micros (fixed-point mode)
+     */
+    void sell(SymbolBook book, int day, int quantity, double gain, long gainMicros) {
+        settle(day);
+        if (fixedPoint ? gainMicros >= 0 : gain >= 0.0) {
+            return;
+        }
+        int left = quantity;
+        for (int buyDay = day - WINDOW_DAYS; buyDay <= day && left > 0; buyDay++) {
+            int slot = buyDay & (RING_DAYS - 1);
+            if (ringDays[slot] != buyDay || ringShares[slot] == 0) {
+                continue;
+            }
+            int used = Math.min(left, ringShares[slot]);
+            ringShares[slot] -= used;
+            double loss = 0.0;
+            long lossMicros = 0L;
+            if (fixedPoint) {
+                lossMicros = prorate(gainMicros, used, left);
+                gainMicros -= lossMicros;
+            } else {
+                loss = used == left ? gain : gain * used / left;
+                gain -= loss;
+            }
+            left -= used;
+            defer(book, day, buyDay, used, -loss, -lossMicros);
+        }
+        if (left > 0) {
+            if (tail == pendingDays.length) {
+                growPending(pendingDays.length * 2);
+            }
+            pendingDays[tail] = day;
+            pendingShares[tail] = left;
+            pendingLosses[tail] = gain;
+            pendingLossesMicros[tail] = gainMicros;
+            tail++;
+            pendingLoss += gain;
+            pendingLossMicros += gainMicros;
+        }
+    }
+
+    /**
+     * Makes every pending loss whose window closed before a date final.
+     *
+     * @param day the date as an epoch-day; no later transaction may be dated before it
+     */
+    public void settle(int day) {
+        while (head < tail && pendingDays[head] + WINDOW_DAYS < day) {
+            pendingLoss -= pendingLosses[head];
+            pendingLossMicros -= pendingLossesMicros[head];
+            head++;
+        }
+        if (head == tail) {
+            head = 0;
+            tail = 0;
+            pendingLoss = 0.0;
+            pendingLossMicros = 0L;
+        }
+    }
+
+    /**
+     * Disallows part of a loss and defers it into the replacement shares' basis.
+     */
+    private void defer(SymbolBook book, int saleDay, int buyDay, int shares, double amount, long amountMicros) {
+        int slot = openDeferral(buyDay);
+        deferredShares[slot] += shares;
+        deferredAmounts[slot] += amount;
+        deferredAmountsMicros[slot] += amountMicros;
+        disallowedLoss += amount;
+        disallowedLossMicros += amountMicros;
+        washSales++;
+        book.disallow(saleDay, amount, amountMicros);
+        if (UtilLogger.isDebugEnabled()) {
+            UtilLogger.logDebug("wash sale: disallowed $" + (fixedPoint ? FixedPoint.toBigDecimal(amountMicros) : amount) +
+                    " of the " + book.getSymbol() + " loss of " + LocalDate.ofEpochDay(saleDay) + ", deferred into " +
+                    shares + " shares bought " + LocalDate.ofEpochDay(buyDay));
+        }
+    }
+
+    /**
+     * Finds the slot of the loss deferred into shares bought on a day.
+     *
+     * @return the slot, or -1 if nothing is deferred into that day's shares
+     */
+    private int deferralSlot(int day) {
+        if (deferredDays == 0 || day < firstDeferredDay || day > lastDeferredDay) {
+            return -1;
+        }
+        int slot = day & (deferredShares.length - 1);
+        return deferredShares[slot] > 0 ? slot : -1;
+    }
+
+    /**
+     * Gets the slot for a day's deferral, widening the span of deferred days and doubling the ring as
+     * needed. Slots outside the span are always empty, so each day in it has a slot of its own.
+     */
+    private int openDeferral(int day) {
+        if (deferredDays == 0) {
+            firstDeferredDay = day;
+            lastDeferredDay = day;
+        } else if (day < firstDeferredDay || day > lastDeferredDay) {
+            int first = Math.min(firstDeferredDay, day);
+            int last = Math.max(lastDeferredDay, day);
+            if (last - first >= deferredShares.length) {
+                growDeferrals(last - first + 1);
+            }
+            firstDeferredDay = first;
+            lastDeferredDay = last;
+        }
+        int slot = day & (deferredShares.length - 1);
+        if (deferredShares[slot] == 0) {
+            deferredDays++;
+        }
+        return slot;
+    }
+
+    /**
+     * Takes relieved shares out of a day's deferral, emptying its slot and narrowing the span once none are
+     * left.
+     */
+    private void takeDeferredShares(int slot, int day, int used) {
+        deferredShares[slot] -= used;
+        if (deferredShares[slot] > 0) {
+            return;
+        }
+        deferredShares[slot] = 0;
+        deferredAmounts[slot] = 0.0;
+        deferredAmountsMicros[slot] = 0L;
+        if (--deferredDays == 0) {
+            return;
+        }
+        int mask = deferredShares.length - 1;
+        while (deferredShares[firstDeferredDay & mask] == 0) {
+            firstDeferredDay++;
+        }
+        while (deferredShares[lastDeferredDay & mask] == 0) {
+            lastDeferredDay--;
+        }
+    }
+
+    private void growDeferrals(int span) {
+        int capacity = Math.max(Integer.highestOneBit(span - 1) << 1, deferredShares.length * 2);
+        long[] shares = new long[capacity];
+        double[] amounts = new double[capacity];
+        long[] amountsMicros = new long[capacity];
+        int oldMask = deferredShares.length - 1;
+        for (int day = firstDeferredDay; day <= lastDeferredDay; day++) {
+            int from = day & oldMask;
+            int to = day & (capacity - 1);
+            shares[to] = deferredShares[from];
+            amounts[to] = deferredAmounts[from];
+            amountsMicros[to] = deferredAmountsMicros[from];
+        }
+        deferredShares = shares;
+        deferredAmounts = amounts;
+        deferredAmountsMicros = amountsMicros;
+    }
+
+    private void leaveWindow(int day, int used) {
+        int slot = day & (RING_DAYS - 1);
+        if (ringDays[slot] == day) {
+            ringShares[slot] = Math.max(0, ringShares[slot] - used);
+        }
+    }
+
+    /**
+     * Computes {@code amount * part / whole}, rounded down, without overflowing.
+     */
+    private static long prorate(long amount, long part, long whole) {
+        long high = Math.multiplyHigh(amount, part);
+        long low = amount * part;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return Math.floorDiv(low, whole);
+        }
+        BigInteger[] quotient = BigInteger.valueOf(amount).multiply(BigInteger.valueOf(part))
+                .divideAndRemainder(BigInteger.valueOf(whole));
+        return quotient[1].signum() < 0 ? quotient[0].longValueExact() - 1 : quotient[0].longValueExact();
+    }
+
+    private void growPending(int capacity) {
+        int size = tail - head;
+        pendingDays = Arrays.copyOfRange(pendingDays, head, head + capacity);
+        pendingShares = Arrays.copyOfRange(pendingShares, head, head + capacity);
+        pendingLosses = Arrays.copyOfRange(pendingLosses, head, head + capacity);
+        pendingLossesMicros = Arrays.copyOfRange(pendingLossesMicros, head, head + capacity);
+        head = 0;
+        tail = size;
+    }
+
+    /**
+     * Saves the tracker's state, for snapshots.
+     *
+     * @return state for {@link #WashSaleTracker(boolean, long[])}
+     */
+    public long[] exportState() {
+        int pending = tail - head;
+        long[] state = new long[2 * RING_DAYS + 1 + 4 * pending + 1 + 4 * deferredDays + 5];
+        int i = 0;
+        for (int slot = 0; slot < RING_DAYS; slot++) {
+            state[i++] = ringDays[slot];
+            state[i++] = ringShares[slot];
+        }
+        state[i++] = pending;
+        for (int p = head; p < tail; p++) {
+            state[i++] = pendingDays[p];
+            state[i++] = pendingShares[p];
+            state[i++] = Double.doubleToRawLongBits(pendingLosses[p]);
+            state[i++] = pendingLossesMicros[p];
+        }
+        state[i++] = deferredDays;
+        for (int day = firstDeferredDay; deferredDays > 0 && day <= lastDeferredDay; day++) {
+            int slot = deferralSlot(day);
+            if (slot >= 0) {
+                state[i++] = day;
+                state[i++] = deferredShares[slot];
+                state[i++] = Double.doubleToRawLongBits(deferredAmounts[slot]);
+                state[i++] = deferredAmountsMicros[slot];
+            }
+        }
+        state[i++] = Double.doubleToRawLongBits(pendingLoss);
+        state[i++] = pendingLossMicros;
+        state[i++] = Double.doubleToRawLongBits(disallowedLoss);
+        state[i++] = disallowedLossMicros;
+        state[i] = washSales;
+        return state;
+    }
+
+    /**
+     * Gets the total loss disallowed so far, as a positive amount.
+     *
+     * @return disallowed loss (converted from micros in fixed-point mode)
+     */
+    public double getDisallowedLoss() {
+        return fixedPoint ? FixedPoint.toDouble(disallowedLossMicros) : disallowedLoss;
+    }
+
+    /**
+     * Gets the exact total loss disallowed so far in a fixed-point book.
+     *
+     * @return disallowed loss in micros (0 in double mode)
+     */
+    public long getDisallowedLossMicros() {
+        return disallowedLossMicros;
+    }
+
+    /**
+     * Gets the loss deferred into open shares that has not been charged to a sale yet. It is part of the
+     * position's open cost basis but not of any lot's price.
+     *
+     * @return deferred basis (double mode)
+     */
+    public double getDeferredBasis() {
+        double total = 0.0;
+        for (int day = firstDeferredDay; deferredDays > 0 && day <= lastDeferredDay; day++) {
+            int slot = deferralSlot(day);
+            if (slot >= 0) {
+                total += deferredAmounts[slot];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Gets the loss deferred into open shares of a fixed-point book that has not been charged to a sale yet.
+     *
+     * @return deferred basis in micros (0 in double mode)
+     */
+    public long getDeferredBasisMicros() {
+        long total = 0L;
+        for (int day = firstDeferredDay; deferredDays > 0 && day <= lastDeferredDay; day++) {
+            int slot = deferralSlot(day);
+            if (slot >= 0) {
+                total += deferredAmountsMicros[slot];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Gets the losses whose window is still open, as of the symbol's last transaction or
+     * {@link #settle(int)}. They may yet be disallowed by a BUY.
+     *
+     * @return pending loss, as a negative amount (converted from micros in fixed-point mode)
+     */
+    public double getPendingLoss() {
+        return fixedPoint ? FixedPoint.toDouble(pendingLossMicros) : pendingLoss;
+    }
+
+    /**
+     * Gets the number of times part of a loss was matched to replacement shares.
+     *
+     * @return number of wash-sale matches
+     */
+    public int getWashSales() {
+        return washSales;
+    }
+}
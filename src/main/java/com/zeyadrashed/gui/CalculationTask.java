@@ -0,0 +1,188 @@
+package com.zeyadrashed.gui;
+
+import com.zeyadrashed.CapitalCalculator;
+import com.zeyadrashed.engine.LotMethod;
+import com.zeyadrashed.engine.SymbolBook;
+import com.zeyadrashed.obj.Transaction;
+import com.zeyadrashed.util.DateSort;
+import com.zeyadrashed.util.MappedCSVParser;
+import com.zeyadrashed.util.RunMetrics;
+import com.zeyadrashed.util.UtilLogger;
+import javafx.concurrent.Task;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Background task that loads, sorts and matches a set of CSV files, then indexes the open lots for display.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * The calculator is created, driven and indexed entirely on the task's thread, and only handed to the
+ * JavaFX thread in the {@link Result} once the task has succeeded, so the books are never read while they
+ * change. Transactions are matched in chunks of {@link #CHUNK} and progress is published at most every
+ * {@link #UPDATE_INTERVAL_MILLIS} milliseconds (and at each phase change), so the FX thread sees a few
+ * updates per second however many transactions there are. Cancelling stops the run between files or
+ * chunks.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class CalculationTask extends Task<CalculationTask.Result> {
+
+    /**
+     * Number of transactions matched between checks for progress and cancellation.
+     */
+    public static final int CHUNK = 1 << 16;
+    /**
+     * Minimum time between two progress updates.
+     */
+    public static final long UPDATE_INTERVAL_MILLIS = 100;
+    private static final double LOAD_SHARE = 0.4;
+    private static final double SORT_SHARE = 0.1;
+    private static final double MATCH_SHARE = 0.45;
+
+    private final List<File> files;
+    private final boolean fixedPoint;
+    private final LotMethod lotMethod;
+    private long lastUpdate;
+
+    /**
+     * Everything the dashboard shows about a finished run.
+     */
+    public static class Result {
+
+        private final CapitalCalculator calculator;
+        private final List<SymbolBook> books;
+        private final OpenLotIndex openLots;
+        private final int transactions;
+
+        private Result(CapitalCalculator calculator, List<SymbolBook> books, OpenLotIndex openLots, int transactions) {
+            this.calculator = calculator;
+            this.books = books;
+            this.openLots = openLots;
+            this.transactions = transactions;
+        }
+
+        /**
+         * Gets the calculator, for queries and its run metrics.
+         *
+         * @return calculator
+         */
+        public CapitalCalculator getCalculator() {
+            return calculator;
+        }
+
+        /**
+         * Gets every symbol's book, in symbol ID order.
+         *
+         * @return books
+         */
+        public List<SymbolBook> getBooks() {
+            return books;
+        }
+
+        /**
+         * Gets the open lots of every book.
+         *
+         * @return open-lot index
+         */
+        public OpenLotIndex getOpenLots() {
+            return openLots;
+        }
+
+        /**
+         * Gets the number of transactions loaded.
+         *
+         * @return number of transactions
+         */
+        public int getTransactions() {
+            return transactions;
+        }
+    }
+
+    /**
+     * Constructor for a task over some CSV files.
+     *
+     * @param files      the CSV files to process
+     * @param fixedPoint true to keep money in fixed-point micros
+     * @param lotMethod  how SELLs choose the lots they relieve
+     */
+    public CalculationTask(List<File> files, boolean fixedPoint, LotMethod lotMethod) {
+        this.files = files;
+        this.fixedPoint = fixedPoint;
+        this.lotMethod = lotMethod;
+    }
+
+    @Override
+    protected Result call() throws Exception {
+        CapitalCalculator calculator = new CapitalCalculator(fixedPoint, lotMethod);
+        calculator.setPrintSales(false);
+        RunMetrics metrics = calculator.getMetrics();
+        metrics.register();
+
+        metrics.begin(RunMetrics.Phase.LOAD);
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            if (isCancelled()) {
+                return null;
+            }
+            File file = files.get(i);
+            publish(LOAD_SHARE * i / files.size(), "loading " + file.getName(), true);
+            long start = System.nanoTime();
+            List<Transaction> loaded = MappedCSVParser.parse(file.getAbsolutePath(), fixedPoint);
+            metrics.recordFile(file.getName(), loaded.size(), System.nanoTime() - start);
+            transactions.addAll(loaded);
+        }
+        metrics.end(RunMetrics.Phase.LOAD);
+
+        publish(LOAD_SHARE, "sorting " + transactions.size() + " transactions", true);
+        metrics.begin(RunMetrics.Phase.SORT);
+        DateSort.sortParallel(transactions, Runtime.getRuntime().availableProcessors());
+        metrics.end(RunMetrics.Phase.SORT);
+
+        int total = transactions.size();
+        metrics.begin(RunMetrics.Phase.MATCH);
+        for (int from = 0; from < total; from += CHUNK) {
+            if (isCancelled()) {
+                return null;
+            }
+            int to = Math.min(total, from + CHUNK);
+            for (int i = from; i < to; i++) {
+                calculator.processTransaction(transactions.get(i));
+            }
+            publish(LOAD_SHARE + SORT_SHARE + MATCH_SHARE * to / total, "matched " + to + " of " + total + " transactions",
+                    to == total);
+        }
+        metrics.end(RunMetrics.Phase.MATCH);
+
+        publish(LOAD_SHARE + SORT_SHARE + MATCH_SHARE, "indexing open lots", true);
+        List<SymbolBook> books = calculator.getBooks();
+        OpenLotIndex openLots = new OpenLotIndex(books);
+        UtilLogger.logInfo("dashboard run finished: " + total + " transactions, " + books.size() + " symbols, " +
+                openLots.size() + " open lots");
+        publish(1.0, "processed " + total + " transactions: " + books.size() + " symbols, " + openLots.size() +
+                " open lots", true);
+        return new Result(calculator, books, openLots, total);
+    }
+
+    /**
+     * Publishes progress, skipping updates that come sooner than {@link #UPDATE_INTERVAL_MILLIS} after the
+     * last one unless forced.
+     */
+    private void publish(double fraction, String message, boolean force) {
+        long now = System.nanoTime();
+        if (!force && now - lastUpdate < UPDATE_INTERVAL_MILLIS * 1_000_000) {
+            return;
+        }
+        lastUpdate = now;
+        updateProgress(fraction, 1.0);
+        updateMessage(message);
+    }
+}
@@ -1,5 +1,26 @@
 package com.zeyadrashed.gui;
 
+import com.zeyadrashed.engine.LotMethod;
+import com.zeyadrashed.engine.SymbolBook;
+import com.zeyadrashed.util.UtilLogger;
+import javafx.application.Application;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.Stage;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.util.List;
+import java.util.function.Function;
+
 /**
  * Main service layer logic. This class houses the logic responsible for the GUI
  * of the program.
@@ -8,6 +29,14 @@ package com.zeyadrashed.gui;
  * <p>Chapter 6 Project</p>
  * <p>Rutgers ID: 199009651</p>
  * <br>
+ * <p>
+ * The dashboard processes every CSV file in a chosen directory with a {@link CalculationTask} on a background
+ * thread, showing its throttled progress, and then lists realized gains per symbol and every open lot. Both
+ * tables are backed by {@link LazyRowList}s, so the JavaFX thread is never blocked by a run and only builds
+ * the rows that are on screen, even for millions of lots. Rows have a fixed height so the tables can
+ * scroll to any row without measuring the ones before it. Columns are not sortable, since sorting would
+ * need every row built.
+ * </p>
  *
  * @author Zeyad "zmr15" Rashed
  * @mailto zmr15@scarletmail.rutgers.edu
@@ -15,5 +44,186 @@ package com.zeyadrashed.gui;
  *
  * @see com.zeyadrashed.CapitalCalculator
  */
-public class CapitalCalcApp {
+public class CapitalCalcApp extends Application {
+
+    private static final double ROW_HEIGHT = 24;
+    private final DecimalFormat df = new DecimalFormat("#,##0.00");
+
+    private File csvDirectory = new File("csv");
+    private final Label directoryLabel = new Label();
+    private final CheckBox fixedPointBox = new CheckBox("Fixed-point");
+    private final ComboBox<LotMethod> methodBox = new ComboBox<>();
+    private final Button runButton = new Button("Run");
+    private final Button cancelButton = new Button("Cancel");
+    private final ProgressBar progressBar = new ProgressBar(0);
+    private final Label statusLabel = new Label("Choose a directory of CSV files and press Run.");
+    private final TableView<GainRow> gainsTable = new TableView<>();
+    private final TableView<OpenLotIndex.LotRow> lotsTable = new TableView<>();
+    private CalculationTask task;
+
+    /**
+     * One row of the realized-gains table.
+     */
+    private static class GainRow {
+
+        private final String symbol;
+        private final double realizedGain;
+        private final int salesMatched;
+        private final long openShares;
+        private final double openCostBasis;
+        private final int openLots;
+
+        private GainRow(SymbolBook book) {
+            this.symbol = book.getSymbol();
+            this.realizedGain = book.getRealizedGain();
+            this.salesMatched = book.getSalesMatched();
+            this.openShares = book.getOpenShares();
+            this.openCostBasis = book.getPosition().getOpenCostBasis();
+            this.openLots = book.getLots().size();
+        }
+    }
+
+    @Override
+    public void start(Stage stage) {
+        if (System.getProperty("capitalcalc.log.level") == null) {
+            UtilLogger.setLevel(UtilLogger.Level.WARN);
+        }
+
+        Button chooseButton = new Button("Directory...");
+        chooseButton.setOnAction(_ -> chooseDirectory(stage));
+        directoryLabel.setText(csvDirectory.getAbsolutePath());
+        methodBox.getItems().addAll(LotMethod.values());
+        methodBox.setValue(LotMethod.FIFO);
+        runButton.setOnAction(_ -> run());
+        cancelButton.setOnAction(_ -> {
+            if (task != null) {
+                task.cancel();
+            }
+        });
+        cancelButton.setDisable(true);
+        HBox toolbar = new HBox(8, chooseButton, directoryLabel, fixedPointBox, methodBox, runButton, cancelButton);
+        toolbar.setAlignment(Pos.CENTER_LEFT);
+        toolbar.setPadding(new Insets(8));
+
+        addColumn(gainsTable, "Symbol", row -> row.symbol);
+        addColumn(gainsTable, "Realized gain", row -> df.format(row.realizedGain));
+        addColumn(gainsTable, "Sales", row -> row.salesMatched);
+        addColumn(gainsTable, "Open shares", row -> row.openShares);
+        addColumn(gainsTable, "Open cost basis", row -> df.format(row.openCostBasis));
+        addColumn(gainsTable, "Open lots", row -> row.openLots);
+        addColumn(lotsTable, "Symbol", OpenLotIndex.LotRow::getSymbol);
+        addColumn(lotsTable, "Purchased", OpenLotIndex.LotRow::getDate);
+        addColumn(lotsTable, "Quantity", OpenLotIndex.LotRow::getQuantity);
+        addColumn(lotsTable, "Price", row -> df.format(row.getPrice()));
+        addColumn(lotsTable, "Lot", row -> row.getLotId() == 0 ? "" : Long.toString(row.getLotId()));
+        for (TableView<?> table : List.of(gainsTable, lotsTable)) {
+            table.setFixedCellSize(ROW_HEIGHT);
+            table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+            table.setPlaceholder(new Label("No results yet"));
+        }
+        TabPane tabs = new TabPane(new Tab("Realized gains", gainsTable), new Tab("Open lots", lotsTable));
+        tabs.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
+
+        progressBar.setMaxWidth(Double.MAX_VALUE);
+        HBox.setHgrow(progressBar, Priority.ALWAYS);
+        HBox statusBar = new HBox(8, statusLabel, progressBar);
+        statusBar.setAlignment(Pos.CENTER_LEFT);
+        statusBar.setPadding(new Insets(8));
+
+        BorderPane root = new BorderPane(tabs, toolbar, null, statusBar, null);
+        stage.setTitle("Capital Calculator");
+        stage.setScene(new Scene(root, 1000, 700));
+        stage.show();
+    }
+
+    /**
+     * Adds a read-only, unsortable column to a table.
+     */
+    private static <S, T> void addColumn(TableView<S> table, String title, Function<S, T> value) {
+        TableColumn<S, T> column = new TableColumn<>(title);
+        column.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(value.apply(cell.getValue())));
+        column.setSortable(false);
+        table.getColumns().add(column);
+    }
+
+    private void chooseDirectory(Stage stage) {
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle("CSV directory");
+        if (csvDirectory.isDirectory()) {
+            chooser.setInitialDirectory(csvDirectory);
+        }
+        File chosen = chooser.showDialog(stage);
+        if (chosen != null) {
+            csvDirectory = chosen;
+            directoryLabel.setText(chosen.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Starts a run over every CSV file in the chosen directory on a background thread.
+     */
+    private void run() {
+        File[] csvFiles = csvDirectory.listFiles((_, name) -> name.toLowerCase().endsWith(".csv"));
+        if (csvFiles == null || csvFiles.length == 0) {
+            statusLabel.setText("No '.csv' files found in " + csvDirectory);
+            return;
+        }
+
+        task = new CalculationTask(List.of(csvFiles), fixedPointBox.isSelected(), methodBox.getValue());
+        progressBar.progressProperty().bind(task.progressProperty());
+        statusLabel.textProperty().bind(task.messageProperty());
+        runButton.setDisable(true);
+        cancelButton.setDisable(false);
+
+        task.setOnSucceeded(_ -> {
+            finish();
+            show(task.getValue());
+        });
+        task.setOnCancelled(_ -> {
+            finish();
+            statusLabel.setText("Cancelled");
+        });
+        task.setOnFailed(_ -> {
+            finish();
+            Throwable failure = task.getException();
+            statusLabel.setText("Failed: " + failure.getMessage());
+            UtilLogger.logError("dashboard run failed", failure instanceof Exception e ? e : new Exception(failure));
+        });
+
+        Thread worker = new Thread(task, "capitalcalc-run");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void finish() {
+        progressBar.progressProperty().unbind();
+        statusLabel.textProperty().unbind();
+        runButton.setDisable(false);
+        cancelButton.setDisable(true);
+    }
+
+    /**
+     * Shows a finished run. Rows are only built as the tables scroll to them.
+     */
+    private void show(CalculationTask.Result result) {
+        List<SymbolBook> books = result.getBooks();
+        OpenLotIndex openLots = result.getOpenLots();
+        gainsTable.setItems(new LazyRowList<>(books.size(), i -> new GainRow(books.get(i))));
+        lotsTable.setItems(new LazyRowList<>(openLots.size(), openLots::rowAt));
+        statusLabel.setText(result.getTransactions() + " transactions, " + books.size() + " symbols, " +
+                openLots.size() + " open lots; total realized gain " +
+                df.format(result.getCalculator().getRealizedGain(null, null)));
+    }
+
+    @Override
+    public void stop() throws IOException {
+        if (task != null) {
+            task.cancel();
+        }
+        UtilLogger.exportLog();
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
 }
@@ -0,0 +1,84 @@
+package com.zeyadrashed.gui;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Read-only observable list whose rows are built on demand, a page at a time, from data that lives
+ * elsewhere.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * A {@code TableView} only asks its items for the rows it is drawing, so backing it with this list means a
+ * table over millions of lots only ever builds the few pages that have been scrolled into view. Pages of
+ * {@link #PAGE_SIZE} rows are kept in a small least-recently-used cache so scrolling back and forth does not
+ * rebuild them. The list never changes once built; new results are shown by giving the table a new list.
+ * Tables over it should not be sortable, since sorting would need every row.
+ * </p>
+ * <p>
+ * Only used from the JavaFX application thread.
+ * </p>
+ *
+ * @param <T> the row type
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class LazyRowList<T> extends ObservableListBase<T> {
+
+    /**
+     * Number of rows built together.
+     */
+    public static final int PAGE_SIZE = 256;
+    private static final int MAX_PAGES = 64;
+
+    private final int size;
+    private final IntFunction<T> rowAt;
+    private final Map<Integer, Object[]> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Object[]> eldest) {
+            return size() > MAX_PAGES;
+        }
+    };
+
+    /**
+     * Constructor for a list of {@code size} rows.
+     *
+     * @param size  the number of rows
+     * @param rowAt builds the row at an index
+     */
+    public LazyRowList(int size, IntFunction<T> rowAt) {
+        this.size = size;
+        this.rowAt = rowAt;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("row " + index + " of " + size);
+        }
+        int page = index / PAGE_SIZE;
+        Object[] rows = pages.get(page);
+        if (rows == null) {
+            int first = page * PAGE_SIZE;
+            rows = new Object[Math.min(PAGE_SIZE, size - first)];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = rowAt.apply(first + i);
+            }
+            pages.put(page, rows);
+        }
+        return (T) rows[index % PAGE_SIZE];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,167 @@
+package com.zeyadrashed.gui;
+
+import com.zeyadrashed.engine.SymbolBook;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Every open lot of a finished run, copied into flat primitive columns so the open-lots table can build any
+ * row by index.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * Lots are listed symbol by symbol, in symbol ID order, and within a symbol in the order they were opened.
+ * A lot costs 28 bytes here, with no object per lot; {@link #rowAt(int)} finds the lot's symbol by binary
+ * search over the symbols' first rows and builds a {@link LotRow} only for rows the table asks for. The
+ * index is built on the background thread once matching is done, so it never races the books.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class OpenLotIndex {
+
+    private final String[] symbols;
+    private final int[] firstRows;
+    private final int[] days;
+    private final int[] quantities;
+    private final double[] prices;
+    private final long[] lotIds;
+
+    /**
+     * One row of the open-lots table.
+     */
+    public static class LotRow {
+
+        private final String symbol;
+        private final LocalDate date;
+        private final int quantity;
+        private final double price;
+        private final long lotId;
+
+        private LotRow(String symbol, LocalDate date, int quantity, double price, long lotId) {
+            this.symbol = symbol;
+            this.date = date;
+            this.quantity = quantity;
+            this.price = price;
+            this.lotId = lotId;
+        }
+
+        /**
+         * Gets the stock symbol.
+         *
+         * @return symbol
+         */
+        public String getSymbol() {
+            return symbol;
+        }
+
+        /**
+         * Gets the purchase date.
+         *
+         * @return date
+         */
+        public LocalDate getDate() {
+            return date;
+        }
+
+        /**
+         * Gets the remaining number of shares.
+         *
+         * @return quantity
+         */
+        public int getQuantity() {
+            return quantity;
+        }
+
+        /**
+         * Gets the price per share.
+         *
+         * @return price
+         */
+        public double getPrice() {
+            return price;
+        }
+
+        /**
+         * Gets the lot ID.
+         *
+         * @return lot ID, or 0 if the BUY did not name one
+         */
+        public long getLotId() {
+            return lotId;
+        }
+    }
+
+    /**
+     * Builds the index from a run's books.
+     *
+     * @param books every book, in symbol ID order
+     */
+    public OpenLotIndex(List<SymbolBook> books) {
+        int total = 0;
+        for (SymbolBook book : books) {
+            total += book.getLots().size();
+        }
+        symbols = new String[books.size()];
+        firstRows = new int[books.size()];
+        int[] days = new int[total];
+        int[] quantities = new int[total];
+        double[] prices = new double[total];
+        long[] lotIds = new long[total];
+
+        int[] next = new int[1];
+        for (int b = 0; b < books.size(); b++) {
+            SymbolBook book = books.get(b);
+            symbols[b] = book.getSymbol();
+            firstRows[b] = next[0];
+            book.forEachLot((day, quantity, price, lotId, epoch) -> {
+                int i = next[0]++;
+                days[i] = day;
+                quantities[i] = quantity;
+                prices[i] = book.priceOf(price);
+                lotIds[i] = lotId;
+            });
+        }
+        // lots from before a reverse split can round down to no shares
+        this.days = next[0] < total ? Arrays.copyOf(days, next[0]) : days;
+        this.quantities = next[0] < total ? Arrays.copyOf(quantities, next[0]) : quantities;
+        this.prices = next[0] < total ? Arrays.copyOf(prices, next[0]) : prices;
+        this.lotIds = next[0] < total ? Arrays.copyOf(lotIds, next[0]) : lotIds;
+    }
+
+    /**
+     * Gets the number of open lots.
+     *
+     * @return number of lots
+     */
+    public int size() {
+        return days.length;
+    }
+
+    /**
+     * Builds the row for one lot.
+     *
+     * @param index the lot's row, from 0 to {@link #size()} - 1
+     * @return the row
+     */
+    public LotRow rowAt(int index) {
+        int book = Arrays.binarySearch(firstRows, index);
+        if (book < 0) {
+            book = -book - 2;
+        } else {
+            // symbols without open lots share their first row with the next symbol; take the last of them
+            while (book + 1 < firstRows.length && firstRows[book + 1] == index) {
+                book++;
+            }
+        }
+        return new LotRow(symbols[book], LocalDate.ofEpochDay(days[index]), quantities[index], prices[index],
+                lotIds[index]);
+    }
+}
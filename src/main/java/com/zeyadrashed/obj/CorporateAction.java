@@ -0,0 +1,134 @@
+package com.zeyadrashed.obj;
+
+import java.time.LocalDate;
+
+/**
+ * Object representing a corporate action: a stock split, a reverse split or a ticker rename.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * A split or reverse split gives {@code ratioNumerator} new shares for every {@code ratioDenominator} held,
+ * so a 4-for-1 split is 4:1 and a 1-for-10 reverse split is 1:10. The symbol is kept as text rather than
+ * interned, since a rename earlier in the file changes which book a later action's symbol refers to.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class CorporateAction {
+
+    private final int epochDay;
+    private final CorporateActionType type;
+    private final String symbol;
+    private final long ratioNumerator;
+    private final long ratioDenominator;
+    private final String newSymbol;
+
+    /**
+     * Constructor for a split or reverse split.
+     *
+     * @param epochDay         the effective date as days since 1970-01-01
+     * @param type             SPLIT or REVERSE_SPLIT
+     * @param symbol           the stock symbol
+     * @param ratioNumerator   new shares per {@code ratioDenominator} old shares
+     * @param ratioDenominator old shares
+     */
+    public CorporateAction(int epochDay, CorporateActionType type, String symbol, long ratioNumerator,
+                           long ratioDenominator) {
+        this.epochDay = epochDay;
+        this.type = type;
+        this.symbol = symbol;
+        this.ratioNumerator = ratioNumerator;
+        this.ratioDenominator = ratioDenominator;
+        this.newSymbol = null;
+    }
+
+    /**
+     * Constructor for a ticker rename.
+     *
+     * @param epochDay  the effective date as days since 1970-01-01
+     * @param symbol    the old stock symbol
+     * @param newSymbol the new stock symbol
+     */
+    public CorporateAction(int epochDay, String symbol, String newSymbol) {
+        this.epochDay = epochDay;
+        this.type = CorporateActionType.RENAME;
+        this.symbol = symbol;
+        this.ratioNumerator = 1;
+        this.ratioDenominator = 1;
+        this.newSymbol = newSymbol;
+    }
+
+    /**
+     * Gets the effective date.
+     *
+     * @return epoch-day
+     */
+    public int getEpochDay() {
+        return epochDay;
+    }
+
+    /**
+     * Gets the effective date.
+     *
+     * @return date
+     */
+    public LocalDate getDate() {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * Gets the type of action.
+     *
+     * @return type
+     */
+    public CorporateActionType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the stock symbol, the old one for a rename.
+     *
+     * @return symbol
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Gets the new shares per {@link #getRatioDenominator()} old shares.
+     *
+     * @return ratio numerator, 1 for a rename
+     */
+    public long getRatioNumerator() {
+        return ratioNumerator;
+    }
+
+    /**
+     * Gets the old shares the ratio is stated per.
+     *
+     * @return ratio denominator, 1 for a rename
+     */
+    public long getRatioDenominator() {
+        return ratioDenominator;
+    }
+
+    /**
+     * Gets the new stock symbol of a rename.
+     *
+     * @return new symbol, or {@code null} for a split
+     */
+    public String getNewSymbol() {
+        return newSymbol;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CorporateAction[date=%s, type=%s, symbol=%s, %s]", getDate(), type, symbol,
+                type == CorporateActionType.RENAME ? "newSymbol=" + newSymbol : "ratio=" + ratioNumerator + ":" + ratioDenominator);
+    }
+}
@@ -0,0 +1,19 @@
+package com.zeyadrashed.obj;
+
+/**
+ * Enum for the type of corporate action (SPLIT/REVERSE_SPLIT/RENAME)
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public enum CorporateActionType {
+    SPLIT,
+    REVERSE_SPLIT,
+    RENAME
+}
@@ -0,0 +1,172 @@
+package com.zeyadrashed.obj;
+
+import com.zeyadrashed.util.FixedPoint;
+
+/**
+ * Running summary of the open position held in a single symbol.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * Every BUY adds to the summary and every SELL removes the shares (and the cost basis of the lots)
+ * it consumed, so the number of shares available to sell can be read in O(1) instead of summing
+ * the purchase queue on every SELL. A position is kept either in doubles or in fixed-point micros
+ * ({@code *Fixed} methods), matching the mode of its book.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class Position {
+
+    private long openShares;
+    private double openCostBasis;
+    private long openCostBasisMicros;
+
+    /**
+     * Constructor for a flat position.
+     */
+    public Position() {
+    }
+
+    /**
+     * Constructor for a position restored from saved totals.
+     *
+     * @param openShares    the number of shares held
+     * @param openCostBasis the total cost basis of the shares held
+     */
+    public Position(long openShares, double openCostBasis) {
+        this.openShares = openShares;
+        this.openCostBasis = openCostBasis;
+    }
+
+    /**
+     * Constructor for a fixed-point position restored from saved totals.
+     *
+     * @param openShares          the number of shares held
+     * @param openCostBasisMicros the total cost basis of the shares held, in micros
+     */
+    public Position(long openShares, long openCostBasisMicros) {
+        this.openShares = openShares;
+        this.openCostBasisMicros = openCostBasisMicros;
+    }
+
+    /**
+     * Records a newly opened lot.
+     *
+     * @param quantity the number of shares bought
+     * @param price    the price per share
+     */
+    public void open(int quantity, double price) {
+        openShares += quantity;
+        openCostBasis += quantity * price;
+    }
+
+    /**
+     * Records shares relieved by a SELL.
+     *
+     * @param quantity  the number of shares sold
+     * @param costBasis the cost basis of the lots consumed by the sale
+     */
+    public void close(int quantity, double costBasis) {
+        openShares -= quantity;
+        openCostBasis -= costBasis;
+        if (openShares == 0) {
+            openCostBasis = 0.0; // drop accumulated rounding drift once the position is flat
+        }
+    }
+
+    /**
+     * Records a newly opened lot priced in micros.
+     *
+     * @param quantity    the number of shares bought
+     * @param priceMicros the price per share in micros
+     */
+    public void openFixed(int quantity, long priceMicros) {
+        openShares += quantity;
+        openCostBasisMicros += FixedPoint.multiply(quantity, priceMicros);
+    }
+
+    /**
+     * Records shares relieved by a SELL, with the cost basis in micros.
+     *
+     * @param quantity        the number of shares sold
+     * @param costBasisMicros the cost basis of the lots consumed by the sale, in micros
+     */
+    public void closeFixed(int quantity, long costBasisMicros) {
+        openShares -= quantity;
+        openCostBasisMicros -= costBasisMicros;
+        if (openShares == 0) {
+            openCostBasisMicros = 0L; // average-cost relief can leave a rounding remainder
+        }
+    }
+
+    /**
+     * Adds to the cost basis of the shares held without opening or relieving any, e.g. for a loss deferred
+     * into them.
+     *
+     * @param amount the amount to add
+     */
+    public void adjustBasis(double amount) {
+        openCostBasis += amount;
+    }
+
+    /**
+     * Adds micros to the cost basis of the shares held without opening or relieving any, e.g. for a loss
+     * deferred into them.
+     *
+     * @param amountMicros the amount to add, in micros
+     */
+    public void adjustBasisFixed(long amountMicros) {
+        openCostBasisMicros += amountMicros;
+    }
+
+    /**
+     * Replaces the number of shares held after a stock split, leaving the cost basis as it is unless the
+     * split leaves less than one share, which closes the position.
+     *
+     * @param openShares the share count after the split
+     */
+    public void split(long openShares) {
+        this.openShares = openShares;
+        if (openShares == 0) {
+            openCostBasis = 0.0;
+            openCostBasisMicros = 0L;
+        }
+    }
+
+    /**
+     * Gets the number of shares currently held.
+     *
+     * @return open shares
+     */
+    public long getOpenShares() {
+        return openShares;
+    }
+
+    /**
+     * Gets the total cost basis of the shares currently held.
+     *
+     * @return open cost basis
+     */
+    public double getOpenCostBasis() {
+        return openCostBasisMicros == 0 ? openCostBasis : FixedPoint.toDouble(openCostBasisMicros);
+    }
+
+    /**
+     * Gets the exact total cost basis of a fixed-point position.
+     *
+     * @return open cost basis in micros (0 for a double position)
+     */
+    public long getOpenCostBasisMicros() {
+        return openCostBasisMicros;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Position[openShares=%d, openCostBasis=%.2f]", openShares, getOpenCostBasis());
+    }
+}
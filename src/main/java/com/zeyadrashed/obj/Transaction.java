@@ -1,5 +1,9 @@
 package com.zeyadrashed.obj;
 
+import com.zeyadrashed.util.AccountDictionary;
+import com.zeyadrashed.util.FixedPoint;
+import com.zeyadrashed.util.SymbolDictionary;
+
 import java.time.LocalDate;
 
 /**
@@ -16,11 +20,14 @@ import java.time.LocalDate;
  */
 public class Transaction {
 
-    private LocalDate date;
+    private int epochDay;
     private TransactionType type;
-    private String symbol;
+    private int symbolId;
     private int quantity;
     private double price;
+    private long priceMicros;
+    private long lotId;
+    private int accountId;
 
     /**
      * Constructor for a stock transaction.
@@ -32,20 +39,82 @@ public class Transaction {
      * @param price    the price per share
      */
     public Transaction(LocalDate date, TransactionType type, String symbol, int quantity, double price) {
-        this.date = date;
+        this(date, type, symbol, quantity, price, FixedPoint.fromDouble(price));
+    }
+
+    /**
+     * Constructor for a stock transaction whose fixed-point price was parsed exactly from its source text.
+     *
+     * @param date        the date of the transaction
+     * @param type        the transaction type (BUY or SELL)
+     * @param symbol      the stock symbol
+     * @param quantity    the number of shares
+     * @param price       the price per share
+     * @param priceMicros the price per share in millionths
+     */
+    public Transaction(LocalDate date, TransactionType type, String symbol, int quantity, double price, long priceMicros) {
+        this((int) date.toEpochDay(), type, SymbolDictionary.idOf(symbol), quantity, price, priceMicros, 0L);
+    }
+
+    /**
+     * Constructor for a stock transaction whose date has already been encoded and whose symbol has already
+     * been interned.
+     *
+     * @param epochDay    the date of the transaction as days since 1970-01-01
+     * @param type        the transaction type (BUY or SELL)
+     * @param symbolId    the stock symbol's {@link SymbolDictionary} ID
+     * @param quantity    the number of shares
+     * @param price       the price per share
+     * @param priceMicros the price per share in millionths
+     * @param lotId       for a BUY, the ID of the lot it opens; for a SELL, the lot to relieve first; 0 if none
+     */
+    public Transaction(int epochDay, TransactionType type, int symbolId, int quantity, double price, long priceMicros,
+                       long lotId) {
+        this(epochDay, type, symbolId, quantity, price, priceMicros, lotId, AccountDictionary.DEFAULT);
+    }
+
+    /**
+     * Constructor for a stock transaction in a named account, with its date encoded and its symbol and
+     * account interned.
+     *
+     * @param epochDay    the date of the transaction as days since 1970-01-01
+     * @param type        the transaction type (BUY or SELL)
+     * @param symbolId    the stock symbol's {@link SymbolDictionary} ID
+     * @param quantity    the number of shares
+     * @param price       the price per share
+     * @param priceMicros the price per share in millionths
+     * @param lotId       for a BUY, the ID of the lot it opens; for a SELL, the lot to relieve first; 0 if none
+     * @param accountId   the account's {@link AccountDictionary} ID
+     */
+    public Transaction(int epochDay, TransactionType type, int symbolId, int quantity, double price, long priceMicros,
+                       long lotId, int accountId) {
+        this.epochDay = epochDay;
         this.type = type;
-        this.symbol = symbol;
+        this.symbolId = symbolId;
         this.quantity = quantity;
         this.price = price;
+        this.priceMicros = priceMicros;
+        this.lotId = lotId;
+        this.accountId = accountId;
     }
 
     /**
-     * Gets the transaction date.
+     * Gets the transaction date. The date is stored as an epoch-day, so this creates a new
+     * {@link LocalDate}; sorting and matching use {@link #getEpochDay()} instead.
      *
      * @return transaction date
      */
     public LocalDate getDate() {
-        return date;
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * Gets the transaction date as days since 1970-01-01.
+     *
+     * @return epoch-day of the transaction
+     */
+    public int getEpochDay() {
+        return epochDay;
     }
 
     /**
@@ -63,7 +132,17 @@ public class Transaction {
      * @return symbol
      */
     public String getSymbol() {
-        return symbol;
+        return SymbolDictionary.nameOf(symbolId);
+    }
+
+    /**
+     * Gets the stock symbol's dictionary ID.
+     *
+     * @return symbol ID
+     * @see SymbolDictionary
+     */
+    public int getSymbolId() {
+        return symbolId;
     }
 
     /**
@@ -84,9 +163,48 @@ public class Transaction {
         return price;
     }
 
+    /**
+     * Gets the price per share as fixed-point millionths.
+     *
+     * @return price per share in micros
+     * @see FixedPoint
+     */
+    public long getPriceMicros() {
+        return priceMicros;
+    }
+
+    /**
+     * Gets the lot ID: for a BUY the lot it opens, for a SELL the lot to relieve first.
+     *
+     * @return lot ID, or 0 if the row did not name a lot
+     */
+    public long getLotId() {
+        return lotId;
+    }
+
+    /**
+     * Gets the account name.
+     *
+     * @return account, empty if the row did not name one
+     */
+    public String getAccount() {
+        return AccountDictionary.nameOf(accountId);
+    }
+
+    /**
+     * Gets the account's dictionary ID.
+     *
+     * @return account ID, {@link AccountDictionary#DEFAULT} if the row did not name an account
+     * @see AccountDictionary
+     */
+    public int getAccountId() {
+        return accountId;
+    }
+
     @Override
     public String toString() {
-        return String.format("Transaction[date=%s, type=%s, symbol=%s, quantity=%d, price=%.2f]",
-                date, type, symbol, quantity, price);
+        return String.format("Transaction[date=%s, type=%s, symbol=%s, quantity=%d, price=%.2f%s]",
+                getDate(), type, getSymbol(), quantity, price,
+                accountId == AccountDictionary.DEFAULT ? "" : ", account=" + getAccount());
     }
 }
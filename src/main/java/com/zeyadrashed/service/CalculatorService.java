@@ -0,0 +1,389 @@
+package com.zeyadrashed.service;
+
+import com.zeyadrashed.CapitalCalculator;
+import com.zeyadrashed.engine.LotMethod;
+import com.zeyadrashed.obj.Position;
+import com.zeyadrashed.obj.Transaction;
+import com.zeyadrashed.util.CSVParser;
+import com.zeyadrashed.util.Snapshot;
+import com.zeyadrashed.util.UtilLogger;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static com.zeyadrashed.util.CommandLine.option;
+
+/**
+ * Resident service that keeps a {@link CapitalCalculator} in memory and applies transactions as they arrive,
+ * so a live feed pays neither JVM startup nor a replay per trade.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * Clients connect over local TCP ({@code --port=N}), a Unix-domain socket ({@code --socket=path}) or
+ * standard input ({@code --stdin}) and send one line per request. A line starting with a digit is a
+ * transaction in the CSV row format of {@link CSVParser}; anything else is a command:
+ * </p>
+ * <pre>
+ * POSITION symbol                      OK shares=100 cost=12345.67
+ * GAIN symbol|* [from [to]]            OK 1234.56        realized, optionally for sales in a date range
+ * UNREALIZED symbol|*                  OK -78.9          against the last PRICES file
+ * PRICES path                          OK changed=12
+ * STATS                                OK transactions=... rejected=... batches=... maxBatch=...
+ * PING, QUIT, SHUTDOWN
+ * </pre>
+ * <p>
+ * Every line gets exactly one reply line, in order: {@code OK} or {@code REJECTED} for a transaction, and
+ * {@code ERR message} for anything that could not be parsed. Clients may pipeline requests.
+ * </p>
+ * <p>
+ * One virtual thread per connection reads and parses lines and hands them to a bounded queue, which
+ * pushes back on clients when the engine falls behind. A single event-loop thread is the only writer of
+ * the calculator: it takes whatever has queued up as one batch (up to {@link #MAX_BATCH}), applies it in
+ * arrival order and passes each reply to its connection's writer thread, which flushes once per burst.
+ * The calculator therefore needs no locks and queries always see every transaction received before them.
+ * Per-transaction logging and printing are switched off unless a log level is set explicitly.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class CalculatorService {
+
+    /**
+     * Largest number of requests the event loop applies between two looks at the queue.
+     */
+    public static final int MAX_BATCH = 1024;
+    private static final int QUEUE_CAPACITY = 1 << 16;
+    private static final String CLOSE = "\u0000close";
+
+    private final CapitalCalculator calculator;
+    private final BlockingQueue<Request> requests = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final DecimalFormat df = new DecimalFormat("#.##");
+    private volatile boolean running = true;
+    private Closeable listener;
+    private long transactions;
+    private long rejected;
+    private long batches;
+    private int maxBatch;
+
+    /**
+     * A parsed request line, waiting for the event loop.
+     */
+    private static class Request {
+
+        private final Connection connection;
+        private final Transaction transaction;
+        private final String[] command;
+        private final String reply;
+
+        private Request(Connection connection, Transaction transaction, String[] command, String reply) {
+            this.connection = connection;
+            this.transaction = transaction;
+            this.command = command;
+            this.reply = reply;
+        }
+    }
+
+    /**
+     * Constructor for a service around a calculator. The calculator must not be used by anything else
+     * while the service runs.
+     *
+     * @param calculator the calculator holding the state
+     */
+    public CalculatorService(CapitalCalculator calculator) {
+        this.calculator = calculator;
+        calculator.setPrintSales(false);
+    }
+
+    /**
+     * Listens on a local TCP port or Unix-domain socket, serving each connection on its own virtual thread.
+     *
+     * @param address an {@link InetSocketAddress} or {@link UnixDomainSocketAddress}
+     * @throws IOException if the address cannot be bound
+     */
+    public void listen(SocketAddress address) throws IOException {
+        boolean unix = address instanceof UnixDomainSocketAddress;
+        ServerSocketChannel server = ServerSocketChannel.open(unix ? StandardProtocolFamily.UNIX : StandardProtocolFamily.INET);
+        server.bind(address);
+        listener = server;
+        UtilLogger.logInfo("service listening on " + address);
+        Thread.ofVirtual().name("service-accept").start(() -> {
+            while (running) {
+                try {
+                    SocketChannel channel = server.accept();
+                    if (!unix) {
+                        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                    }
+                    serve(Channels.newInputStream(channel), Channels.newOutputStream(channel), channel, false);
+                } catch (IOException e) {
+                    if (running) {
+                        UtilLogger.logError("error accepting connection", e);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Serves one client over a pair of streams, such as standard input and output.
+     *
+     * @param in               the client's requests
+     * @param out              where replies are written
+     * @param resource         closed when the client disconnects, or {@code null}
+     * @param shutdownOnClose  true to stop the service when the client disconnects
+     */
+    public void serve(InputStream in, OutputStream out, Closeable resource, boolean shutdownOnClose) {
+        Connection connection = new Connection(in, out, resource, shutdownOnClose);
+        Thread.ofVirtual().name("service-read").start(connection::read);
+        Thread.ofVirtual().name("service-write").start(connection::write);
+    }
+
+    /**
+     * Runs the event loop on the calling thread until a {@code SHUTDOWN} request arrives.
+     */
+    public void run() {
+        List<Request> batch = new ArrayList<>(MAX_BATCH);
+        while (running) {
+            try {
+                batch.add(requests.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            requests.drainTo(batch, MAX_BATCH - 1);
+            batches++;
+            maxBatch = Math.max(maxBatch, batch.size());
+            for (Request request : batch) {
+                request.connection.replies.add(apply(request));
+            }
+            batch.clear();
+        }
+        if (listener != null) {
+            try {
+                listener.close();
+            } catch (IOException e) {
+                UtilLogger.logError("error closing listener", e);
+            }
+        }
+        UtilLogger.logInfo("service stopped after " + transactions + " transactions in " + batches + " batches");
+    }
+
+    /**
+     * Applies one request to the calculator. Only called on the event-loop thread.
+     *
+     * @return the reply line
+     */
+    private String apply(Request request) {
+        if (request.reply != null) {
+            return request.reply;
+        }
+        if (request.transaction != null) {
+            transactions++;
+            if (calculator.processTransaction(request.transaction)) {
+                return "OK";
+            }
+            rejected++;
+            return "REJECTED";
+        }
+        String[] command = request.command;
+        try {
+            switch (command[0].toUpperCase()) {
+                case "POSITION": {
+                    Position position = command.length > 1 ? calculator.getPosition(command[1]) : null;
+                    return position == null ? "OK shares=0 cost=0"
+                            : "OK shares=" + position.getOpenShares() + " cost=" + df.format(position.getOpenCostBasis());
+                }
+                case "GAIN": {
+                    LocalDate from = command.length > 2 ? LocalDate.parse(command[2]) : null;
+                    LocalDate to = command.length > 3 ? LocalDate.parse(command[3]) : null;
+                    double gain = command.length < 2 || command[1].equals("*") ? calculator.getRealizedGain(from, to)
+                            : calculator.getRealizedGain(command[1], from, to);
+                    return "OK " + df.format(gain);
+                }
+                case "UNREALIZED": {
+                    double gain = command.length < 2 || command[1].equals("*") ? calculator.getUnrealizedGain()
+                            : calculator.getUnrealizedGain(command[1]);
+                    return "OK " + df.format(gain);
+                }
+                case "PRICES":
+                    return "OK changed=" + calculator.loadPrices(Path.of(command[1]));
+                case "STATS":
+                    return "OK transactions=" + transactions + " rejected=" + rejected + " batches=" + batches +
+                            " maxBatch=" + maxBatch;
+                case "PING":
+                    return "OK";
+                case "QUIT":
+                    return CLOSE;
+                case "SHUTDOWN":
+                    running = false;
+                    return CLOSE;
+                default:
+                    return "ERR unknown command: " + command[0];
+            }
+        } catch (Exception e) {
+            UtilLogger.logError("error applying command: " + String.join(" ", command), e);
+            return "ERR " + e.getMessage();
+        }
+    }
+
+    /**
+     * One client: a reader thread that parses lines into requests and a writer thread that sends replies.
+     */
+    private class Connection {
+
+        private final BufferedReader in;
+        private final Writer out;
+        private final Closeable resource;
+        private final boolean shutdownOnClose;
+        private final BlockingQueue<String> replies = new LinkedBlockingQueue<>();
+
+        private Connection(InputStream in, OutputStream out, Closeable resource, boolean shutdownOnClose) {
+            this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.resource = resource;
+            this.shutdownOnClose = shutdownOnClose;
+        }
+
+        private void read() {
+            try {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    requests.put(parse(line.trim()));
+                }
+                requests.put(new Request(this, null, new String[]{shutdownOnClose ? "SHUTDOWN" : "QUIT"}, null));
+            } catch (IOException e) {
+                // the client went away; the writer closes the connection once its replies are drained
+                replies.add(CLOSE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private Request parse(String line) {
+            if (!Character.isDigit(line.charAt(0))) {
+                return new Request(this, null, line.split("\\s+"), null);
+            }
+            try {
+                Transaction transaction = CSVParser.parseLine(line, false, calculator.isFixedPoint());
+                return transaction == null ? new Request(this, null, null, "ERR too few columns")
+                        : new Request(this, transaction, null, null);
+            } catch (RuntimeException e) {
+                return new Request(this, null, null, "ERR " + e.getMessage());
+            }
+        }
+
+        private void write() {
+            List<String> burst = new ArrayList<>();
+            try {
+                while (true) {
+                    burst.add(replies.take());
+                    replies.drainTo(burst);
+                    for (String reply : burst) {
+                        if (reply == CLOSE) {
+                            out.write("OK bye\n");
+                            out.flush();
+                            close();
+                            return;
+                        }
+                        out.write(reply);
+                        out.write('\n');
+                    }
+                    out.flush();
+                    burst.clear();
+                }
+            } catch (IOException e) {
+                close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void close() {
+            try {
+                if (resource != null) {
+                    resource.close();
+                }
+            } catch (IOException e) {
+                UtilLogger.logError("error closing connection", e);
+            }
+        }
+    }
+
+    /**
+     * Starts the service, e.g. {@code --port=7070 --fixed --method=hifo --snapshot=state.bin}. With
+     * {@code --snapshot} the state is restored at start-up and written back on {@code SHUTDOWN}. With
+     * {@code --corrections} a trade dated before its symbol's last one is applied as a correction instead of
+     * out of order.
+     *
+     * @param args the command-line options
+     * @throws IOException if the listener cannot be bound or the snapshot cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (System.getProperty("capitalcalc.log.level") == null) {
+            UtilLogger.setLevel(UtilLogger.Level.WARN);
+        }
+        String method = option(args, "--method");
+        CapitalCalculator calculator = new CapitalCalculator(option(args, "--fixed") != null,
+                method == null || method.isEmpty() ? LotMethod.FIFO : LotMethod.parse(method));
+        calculator.setCorrections(option(args, "--corrections") != null);
+
+        String snapshotOption = option(args, "--snapshot");
+        Path snapshotPath = snapshotOption == null || snapshotOption.isEmpty() ? null : Path.of(snapshotOption);
+        Set<String> consumedFiles = new LinkedHashSet<>();
+        if (snapshotPath != null && Files.exists(snapshotPath)) {
+            Snapshot snapshot = Snapshot.read(snapshotPath);
+            calculator.restore(snapshot);
+            consumedFiles.addAll(snapshot.getConsumedFiles());
+        }
+
+        calculator.getMetrics().register();
+        CalculatorService service = new CalculatorService(calculator);
+        String socket = option(args, "--socket");
+        String port = option(args, "--port");
+        if (option(args, "--stdin") != null) {
+            service.serve(System.in, System.out, null, true);
+        } else if (socket != null && !socket.isEmpty()) {
+            Path socketPath = Path.of(socket);
+            Files.deleteIfExists(socketPath);
+            service.listen(UnixDomainSocketAddress.of(socketPath));
+        } else {
+            int portNumber = port == null || port.isEmpty() ? 7070 : Integer.parseInt(port);
+            service.listen(new InetSocketAddress(InetAddress.getLoopbackAddress(), portNumber));
+            System.err.println("listening on port " + portNumber);
+        }
+        service.run();
+
+        if (snapshotPath != null) {
+            calculator.toSnapshot(consumedFiles).write(snapshotPath);
+            UtilLogger.logInfo("wrote snapshot " + snapshotPath);
+        }
+        UtilLogger.exportLog();
+    }
+}
@@ -0,0 +1,162 @@
+package com.zeyadrashed.service;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.zeyadrashed.util.CommandLine.option;
+
+/**
+ * Load generator for {@link CalculatorService}: streams generated trades at the service and reports
+ * throughput and per-trade latency percentiles.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * Trades are generated from a seed the same way as {@code CSVGenerator}'s no-naked-short mode: dates never
+ * go backwards and a SELL never exceeds the shares bought, so every trade should be accepted. Up to
+ * {@code --window} trades are in flight at once; {@code --window=1} measures pure round-trip latency,
+ * larger windows measure latency under pipelined load. Latency is from just before a trade is written to
+ * the socket until its reply has been read, and the first {@code --warmup} trades are not counted. If the
+ * service closes the connection or a read or write fails, both the sending and the reading side stop and
+ * the failure is thrown instead of a report.
+ * </p>
+ * <p>
+ * Example: {@code --port=7070 --trades=1000000 --symbols=500 --window=64}, or {@code --socket=path}.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class LoadClient {
+
+    /**
+     * Runs one load test against a running service and prints the results.
+     *
+     * @param args the command-line options
+     * @throws Exception if the service cannot be reached or the connection fails before every reply is read
+     */
+    public static void main(String[] args) throws Exception {
+        String socket = option(args, "--socket");
+        String port = option(args, "--port");
+        int trades = intOption(args, "--trades", 1_000_000);
+        int symbols = intOption(args, "--symbols", 100);
+        int window = intOption(args, "--window", 64);
+        int warmup = Math.min(trades / 2, intOption(args, "--warmup", 100_000));
+        String seed = option(args, "--seed");
+
+        SocketChannel channel;
+        if (socket != null && !socket.isEmpty()) {
+            channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+            channel.connect(UnixDomainSocketAddress.of(Path.of(socket)));
+        } else {
+            channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                    port == null || port.isEmpty() ? 7070 : Integer.parseInt(port)));
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        }
+
+        // written by the sending thread and read by the reading one, so each slot is published
+        AtomicLongArray sentAt = new AtomicLongArray(trades);
+        long[] latencies = new long[trades];
+        int[] rejected = new int[1];
+        AtomicReference<IOException> readFailure = new AtomicReference<>();
+        Semaphore inFlight = new Semaphore(window);
+        BufferedReader in = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+        Thread reader = Thread.ofPlatform().name("load-read").start(() -> {
+            try {
+                for (int i = 0; i < trades; i++) {
+                    String reply = in.readLine();
+                    if (reply == null) {
+                        throw new EOFException("service closed the connection after " + i + " replies");
+                    }
+                    latencies[i] = System.nanoTime() - sentAt.get(i);
+                    if (!reply.equals("OK")) {
+                        rejected[0]++;
+                    }
+                    inFlight.release();
+                }
+            } catch (IOException e) {
+                readFailure.set(e);
+                // no more permits will come back, so wake the sender to see the failure
+                inFlight.release(window);
+            }
+        });
+
+        OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+        SplittableRandom random = new SplittableRandom(seed == null ? 42L : Long.parseLong(seed));
+        long[] positions = new long[symbols];
+        int startDay = (int) LocalDate.of(2020, 1, 1).toEpochDay();
+        long start = System.nanoTime();
+        IOException failure = null;
+        try {
+            for (int i = 0; i < trades; i++) {
+                int symbol = random.nextInt(symbols);
+                int quantity = random.nextInt(200) + 1;
+                boolean sell = positions[symbol] > 0 && random.nextBoolean();
+                if (sell) {
+                    quantity = (int) Math.min(quantity, positions[symbol]);
+                    positions[symbol] -= quantity;
+                } else {
+                    positions[symbol] += quantity;
+                }
+                String row = LocalDate.ofEpochDay(startDay + (int) ((long) i * 1825 / trades)) + (sell ? ",SELL,S" : ",BUY,S") +
+                        symbol + "," + quantity + "," + (10 + random.nextInt(490)) + "." + random.nextInt(10) + "\n";
+                byte[] bytes = row.getBytes(StandardCharsets.US_ASCII);
+
+                inFlight.acquire();
+                if (readFailure.get() != null) {
+                    break;
+                }
+                sentAt.set(i, System.nanoTime());
+                out.write(bytes);
+                out.flush();
+            }
+        } catch (IOException e) {
+            failure = e;
+            // the reader would otherwise wait for replies to trades that were never sent
+            channel.close();
+        }
+        reader.join();
+        long elapsed = System.nanoTime() - start;
+        channel.close();
+        if (failure == null) {
+            failure = readFailure.get();
+        }
+        if (failure != null) {
+            throw new IOException("load test stopped early: " + failure.getMessage(), failure);
+        }
+
+        long[] measured = Arrays.copyOfRange(latencies, warmup, trades);
+        Arrays.sort(measured);
+        System.out.printf("%d trades in %d ms (%.0f trades/s), window %d, %d not OK%n", trades, elapsed / 1_000_000,
+                trades * 1e9 / elapsed, window, rejected[0]);
+        System.out.printf("latency us: p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f  max %.1f%n",
+                percentile(measured, 0.50), percentile(measured, 0.90), percentile(measured, 0.99),
+                percentile(measured, 0.999), measured.length == 0 ? 0.0 : measured[measured.length - 1] / 1e3);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted.length == 0 ? 0.0 : sorted[(int) Math.min(sorted.length - 1, (long) (p * sorted.length))] / 1e3;
+    }
+
+    private static int intOption(String[] args, String name, int defaultValue) {
+        String value = option(args, name);
+        return value == null || value.isEmpty() ? defaultValue : Integer.parseInt(value);
+    }
+}
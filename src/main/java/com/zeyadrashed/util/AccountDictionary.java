@@ -0,0 +1,102 @@
+package com.zeyadrashed.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide dictionary that assigns every account a dense int ID the first time it is seen.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * The account counterpart of {@link SymbolDictionary}: parsers intern each account name from the optional
+ * account column once, so per-account state can live in arrays indexed by ID. Rows without an account
+ * belong to the unnamed account {@link #DEFAULT}, which always has ID 0. Other IDs count up from 1 in
+ * first-seen order and are never reused. Lookups are lock-free and assigning a new ID takes a short lock.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public final class AccountDictionary {
+
+    /**
+     * ID of the unnamed account that rows without an account column belong to.
+     */
+    public static final int DEFAULT = 0;
+
+    private static final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private static final Object lock = new Object();
+    private static volatile String[] names = new String[256];
+    private static volatile int size;
+
+    static {
+        idOf("");
+    }
+
+    private AccountDictionary() {
+    }
+
+    /**
+     * Gets the ID of an account, assigning the next free ID if the account is new.
+     *
+     * @param account the account name, or an empty string for {@link #DEFAULT}
+     * @return the account's ID
+     */
+    public static int idOf(String account) {
+        Integer id = ids.get(account);
+        if (id != null) {
+            return id;
+        }
+        synchronized (lock) {
+            id = ids.get(account);
+            if (id != null) {
+                return id;
+            }
+            int next = size;
+            String[] current = names;
+            if (next == current.length) {
+                current = Arrays.copyOf(current, next * 2);
+            }
+            current[next] = account;
+            // publish the name before the ID, so anyone holding the ID can resolve it
+            names = current;
+            size = next + 1;
+            ids.put(account, next);
+            return next;
+        }
+    }
+
+    /**
+     * Gets the ID of an account without assigning one.
+     *
+     * @param account the account name
+     * @return the account's ID, or -1 if it has never been seen
+     */
+    public static int find(String account) {
+        Integer id = ids.get(account);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Gets the account name for an ID.
+     *
+     * @param id an ID returned by {@link #idOf(String)}
+     * @return the account name, empty for {@link #DEFAULT}
+     */
+    public static String nameOf(int id) {
+        return names[id];
+    }
+
+    /**
+     * Gets the number of IDs assigned so far; every ID is below this value.
+     *
+     * @return number of accounts
+     */
+    public static int size() {
+        return size;
+    }
+}
@@ -1,15 +1,26 @@
 package com.zeyadrashed.util;
 
 import com.zeyadrashed.obj.TransactionType;
-import org.junit.Test;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Random;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static com.zeyadrashed.util.CommandLine.option;
 
 /**
  * Utility class that generates a random CSV file with a given number of transactions.
@@ -19,6 +30,22 @@ import java.util.Random;
  * <p>Chapter 6 Project</p>
  * <p>Rutgers ID: 199009651</p>
  * <br>
+ * <p>
+ * Rows are generated in fixed-size chunks. Each chunk gets its own {@link SplittableRandom}, split from the
+ * seed in chunk order, so chunks can be generated on any number of threads and the file is still identical
+ * for the same seed and {@link Config}. Rows are written as bytes straight into a per-chunk buffer, and
+ * chunks are written out in order as they complete.
+ * </p>
+ * <p>
+ * Symbols are picked with a Zipf distribution ({@code skew} 0 is uniform). In no-naked-short mode dates
+ * increase with the row number and every SELL is covered by shares bought earlier in the same chunk, so
+ * the file never sells shares it does not hold, whatever the chunk size. Otherwise dates are uniform over
+ * the range and BUY/SELL is a coin flip, as before.
+ * </p>
+ * <p>
+ * With {@code accounts} above 0 every row also names one of that many accounts, picked uniformly, in the
+ * optional account column (with the lot column left empty), and positions are kept per account.
+ * </p>
  *
  * @author Zeyad "zmr15" Rashed
  * @mailto zmr15@scarletmail.rutgers.edu
@@ -26,52 +53,375 @@ import java.util.Random;
  */
 public class CSVGenerator {
 
-    private static final String[] SYMBOLS = {"AAPL", "GOOG", "MSFT", "AMZN"};
-    private static final Random random = new Random();
+    private static final String[] KNOWN_SYMBOLS = {"AAPL", "GOOG", "MSFT", "AMZN", "META", "NVDA", "TSLA", "IBM"};
+    private static final byte[] HEADER = "date,transactionType,symbol,quantity,price\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ACCOUNT_HEADER = "date,transactionType,symbol,quantity,price,lot,account\n"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BUY = "BUY".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SELL = "SELL".getBytes(StandardCharsets.US_ASCII);
+    /**
+     * Upper bound on the bytes in one generated row.
+     */
+    private static final int MAX_ROW_BYTES = 64;
     private static final String sysDate = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
 
     /**
-     * Generates a random CSV file with a given number of transactions.
+     * Settings for a generated file. The defaults reproduce the original generator's shape: four symbols,
+     * uniform picks, five years from 2020-01-01, quantities 1-200 and prices 10.00-500.00.
+     */
+    public static class Config {
+
+        private long seed = 42L;
+        private int symbols = 4;
+        private double skew = 0.0;
+        private boolean noNakedShorts = false;
+        private int accounts = 0;
+        private LocalDate startDate = LocalDate.of(2020, 1, 1);
+        private int days = 5 * 365;
+        private int parallelism = 1;
+        private int chunkRows = 1 << 18;
+
+        /**
+         * Sets the seed; the same seed and settings always produce the same file.
+         *
+         * @param seed the seed
+         * @return this config
+         */
+        public Config seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Sets the number of distinct symbols.
+         *
+         * @param symbols the symbol count, at least 1
+         * @return this config
+         */
+        public Config symbols(int symbols) {
+            if (symbols < 1) {
+                throw new IllegalArgumentException("symbols must be at least 1: " + symbols);
+            }
+            this.symbols = symbols;
+            return this;
+        }
+
+        /**
+         * Sets the Zipf exponent of symbol popularity: symbol {@code i} is picked with weight
+         * {@code 1 / (i + 1)^skew}.
+         *
+         * @param skew 0 for uniform, around 1 for a realistic long tail
+         * @return this config
+         */
+        public Config skew(double skew) {
+            if (skew < 0) {
+                throw new IllegalArgumentException("skew must not be negative: " + skew);
+            }
+            this.skew = skew;
+            return this;
+        }
+
+        /**
+         * Sets whether every SELL must be covered by shares already bought.
+         *
+         * @param noNakedShorts true to keep a running position and never oversell
+         * @return this config
+         */
+        public Config noNakedShorts(boolean noNakedShorts) {
+            this.noNakedShorts = noNakedShorts;
+            return this;
+        }
+
+        /**
+         * Sets the number of accounts trades are spread over.
+         *
+         * @param accounts the account count, or 0 to leave out the account column
+         * @return this config
+         */
+        public Config accounts(int accounts) {
+            if (accounts < 0) {
+                throw new IllegalArgumentException("accounts must not be negative: " + accounts);
+            }
+            this.accounts = accounts;
+            return this;
+        }
+
+        /**
+         * Sets the date range.
+         *
+         * @param startDate the first date
+         * @param days      the number of days in the range
+         * @return this config
+         */
+        public Config dates(LocalDate startDate, int days) {
+            if (days < 1) {
+                throw new IllegalArgumentException("days must be at least 1: " + days);
+            }
+            this.startDate = startDate;
+            this.days = days;
+            return this;
+        }
+
+        /**
+         * Sets the number of threads generating chunks. This does not change the output.
+         *
+         * @param parallelism the thread count
+         * @return this config
+         */
+        public Config parallelism(int parallelism) {
+            this.parallelism = Math.max(1, parallelism);
+            return this;
+        }
+
+        /**
+         * Sets the number of rows per chunk. This is part of the output's identity: positions in
+         * no-naked-short mode are kept per chunk, and each chunk has its own random stream.
+         *
+         * @param chunkRows the rows per chunk
+         * @return this config
+         */
+        public Config chunkRows(int chunkRows) {
+            if (chunkRows < 1 || (long) chunkRows * MAX_ROW_BYTES > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("chunkRows out of range: " + chunkRows);
+            }
+            this.chunkRows = chunkRows;
+            return this;
+        }
+    }
+
+    /**
+     * Generates a random CSV file with a given number of transactions, using the default {@link Config}.
      *
      * @param filePath        the path where the CSV file will be written
      * @param numTransactions the number of transactions to generate
      * @throws IOException if there is an error writing the file
      */
     public static void generateCSV(String filePath, int numTransactions) throws IOException {
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(filePath))) {
-            bw.write("date,transactionType,symbol,quantity,price");
-            bw.newLine();
+        generateCSV(Path.of(filePath), numTransactions, new Config());
+    }
+
+    /**
+     * Generates a random CSV file.
+     *
+     * @param path   where the CSV file will be written
+     * @param rows   the number of transactions to generate
+     * @param config the generator settings
+     * @throws IOException if there is an error writing the file
+     */
+    public static void generateCSV(Path path, long rows, Config config) throws IOException {
+        UtilLogger.logInfo("generating " + rows + " transactions into " + path + " (seed " + config.seed + ", " +
+                config.symbols + " symbols, skew " + config.skew + (config.noNakedShorts ? ", no naked shorts" : "") + ")");
+        Layout layout = new Layout(config, rows);
+        long chunks = (rows + config.chunkRows - 1) / config.chunkRows;
+        SplittableRandom root = new SplittableRandom(config.seed);
 
-            LocalDate startDate = LocalDate.of(2020, 1, 1);
-            UtilLogger.logDebug("generating test dataset (" + sysDate + "_sample_transactions.csv file)....");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(channel, ByteBuffer.wrap(config.accounts > 0 ? ACCOUNT_HEADER : HEADER));
+            if (config.parallelism == 1) {
+                for (long c = 0; c < chunks; c++) {
+                    write(channel, layout.chunk(c, root.split()));
+                }
+            } else {
+                ForkJoinPool pool = new ForkJoinPool(config.parallelism);
+                try {
+                    // keep a bounded window of chunks in flight so memory does not grow with the file
+                    Deque<ForkJoinTask<ByteBuffer>> pending = new ArrayDeque<>();
+                    for (long c = 0; c < chunks; c++) {
+                        long chunk = c;
+                        SplittableRandom random = root.split();
+                        pending.add(pool.submit(() -> layout.chunk(chunk, random)));
+                        if (pending.size() >= 2 * config.parallelism) {
+                            write(channel, pending.poll().join());
+                        }
+                    }
+                    while (!pending.isEmpty()) {
+                        write(channel, pending.poll().join());
+                    }
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+        UtilLogger.logInfo("generated " + rows + " transactions into " + path);
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+    }
+
+    /**
+     * Everything shared by the chunks of one file: symbol names and popularity, dates and settings.
+     */
+    private static class Layout {
 
-            for (int i = 0; i < numTransactions; i++) {
-                LocalDate date = startDate.plusDays(random.nextInt(5 * 365));
-                TransactionType type = random.nextBoolean() ? TransactionType.BUY : TransactionType.SELL;
-                String symbol = SYMBOLS[random.nextInt(SYMBOLS.length)];
+        private final Config config;
+        private final long rows;
+        private final byte[][] symbolBytes;
+        private final double[] cumulativeWeights;
+        private final byte[][] dateBytes;
+
+        private Layout(Config config, long rows) {
+            this.config = config;
+            this.rows = rows;
+
+            symbolBytes = new byte[config.symbols][];
+            for (int i = 0; i < config.symbols; i++) {
+                String symbol = i < KNOWN_SYMBOLS.length ? KNOWN_SYMBOLS[i] : "S" + i;
+                symbolBytes[i] = symbol.getBytes(StandardCharsets.US_ASCII);
+            }
+
+            cumulativeWeights = new double[config.symbols];
+            double total = 0;
+            for (int i = 0; i < config.symbols; i++) {
+                total += config.skew == 0 ? 1.0 : Math.pow(i + 1, -config.skew);
+                cumulativeWeights[i] = total;
+            }
+            for (int i = 0; i < config.symbols; i++) {
+                cumulativeWeights[i] /= total;
+            }
+
+            int start = (int) config.startDate.toEpochDay();
+            dateBytes = new byte[config.days][];
+            for (int d = 0; d < config.days; d++) {
+                dateBytes[d] = LocalDate.ofEpochDay(start + d).toString().getBytes(StandardCharsets.US_ASCII);
+            }
+        }
+
+        /**
+         * Generates one chunk of rows into a buffer ready to be written.
+         */
+        private ByteBuffer chunk(long chunk, SplittableRandom random) {
+            long first = chunk * config.chunkRows;
+            int count = (int) Math.min(config.chunkRows, rows - first);
+            byte[] out = new byte[count * MAX_ROW_BYTES];
+            boolean accounts = config.accounts > 0;
+            long[] positions = config.noNakedShorts && !accounts ? new long[config.symbols] : null;
+            Map<Long, Long> accountPositions = config.noNakedShorts && accounts ? new HashMap<>() : null;
+            int at = 0;
+
+            for (int i = 0; i < count; i++) {
+                int symbol = pickSymbol(random.nextDouble());
+                int account = accounts ? random.nextInt(config.accounts) : 0;
                 int quantity = random.nextInt(200) + 1;
-                double price = 10 + (490 * random.nextDouble());
+                int priceCents = 1000 + random.nextInt(49_001);
+                int day;
+                TransactionType type;
+                if (positions == null && accountPositions == null) {
+                    day = random.nextInt(config.days);
+                    type = random.nextBoolean() ? TransactionType.BUY : TransactionType.SELL;
+                } else if (accountPositions != null) {
+                    day = (int) ((first + i) * config.days / rows);
+                    long key = (long) account * config.symbols + symbol;
+                    long held = accountPositions.getOrDefault(key, 0L);
+                    if (held > 0 && random.nextBoolean()) {
+                        type = TransactionType.SELL;
+                        quantity = (int) Math.min(quantity, held);
+                        accountPositions.put(key, held - quantity);
+                    } else {
+                        type = TransactionType.BUY;
+                        accountPositions.put(key, held + quantity);
+                    }
+                } else {
+                    day = (int) ((first + i) * config.days / rows);
+                    if (positions[symbol] > 0 && random.nextBoolean()) {
+                        type = TransactionType.SELL;
+                        quantity = (int) Math.min(quantity, positions[symbol]);
+                        positions[symbol] -= quantity;
+                    } else {
+                        type = TransactionType.BUY;
+                        positions[symbol] += quantity;
+                    }
+                }
 
-                String line = String.format("%s,%s,%s,%d,%.2f", date, type, symbol, quantity, price);
-                bw.write(line);
-                bw.newLine();
+                at = put(out, at, dateBytes[day]);
+                out[at++] = ',';
+                at = put(out, at, type == TransactionType.BUY ? BUY : SELL);
+                out[at++] = ',';
+                at = put(out, at, symbolBytes[symbol]);
+                out[at++] = ',';
+                at = putDigits(out, at, quantity);
+                out[at++] = ',';
+                at = putDigits(out, at, priceCents / 100);
+                out[at++] = '.';
+                out[at++] = (byte) ('0' + priceCents / 10 % 10);
+                out[at++] = (byte) ('0' + priceCents % 10);
+                if (accounts) {
+                    out[at++] = ',';
+                    out[at++] = ',';
+                    out[at++] = 'A';
+                    at = putDigits(out, at, account);
+                }
+                out[at++] = '\n';
+            }
+            return ByteBuffer.wrap(out, 0, at);
+        }
 
-                UtilLogger.logDebug("generated line: " + line);
+        private int pickSymbol(double u) {
+            int i = Arrays.binarySearch(cumulativeWeights, u);
+            i = i >= 0 ? i : -i - 1;
+            return Math.min(i, cumulativeWeights.length - 1);
+        }
+
+        private static int put(byte[] out, int at, byte[] bytes) {
+            System.arraycopy(bytes, 0, out, at, bytes.length);
+            return at + bytes.length;
+        }
+
+        private static int putDigits(byte[] out, int at, int value) {
+            int digits = 1;
+            for (int v = value; v >= 10; v /= 10) {
+                digits++;
+            }
+            for (int i = at + digits - 1; i >= at; i--) {
+                out[i] = (byte) ('0' + value % 10);
+                value /= 10;
             }
+            return at + digits;
         }
     }
 
     /**
-     * Test method for testing CSV generation.
+     * Generates a CSV file from the command line, e.g.
+     * {@code --out=csv/load.csv --rows=1000000000 --seed=7 --symbols=12000 --skew=1.1 --no-naked-shorts --threads=16},
+     * plus {@code --accounts=50000} for an account column.
+     *
+     * @param args the command-line options
+     * @throws IOException if there is an error writing the file
      */
-    @Test
-    public void testGenerator() {
-        try {
-            generateCSV("csv/" + sysDate + "_sample_transactions.csv", 10);
-            System.out.println("CSV file generated successfully.");
-            UtilLogger.logInfo("CSV file generated successfully.");
-        } catch (IOException e) {
-            System.err.println("error generating csv: " + e.getMessage());
+    public static void main(String[] args) throws IOException {
+        Config config = new Config();
+        String value;
+        if ((value = option(args, "--seed")) != null) {
+            config.seed(Long.parseLong(value));
+        }
+        if ((value = option(args, "--symbols")) != null) {
+            config.symbols(Integer.parseInt(value));
+        }
+        if ((value = option(args, "--skew")) != null) {
+            config.skew(Double.parseDouble(value));
         }
+        if ((value = option(args, "--accounts")) != null) {
+            config.accounts(Integer.parseInt(value));
+        }
+        if ((value = option(args, "--days")) != null) {
+            config.dates(config.startDate, Integer.parseInt(value));
+        }
+        if ((value = option(args, "--chunk-rows")) != null) {
+            config.chunkRows(Integer.parseInt(value));
+        }
+        value = option(args, "--threads");
+        config.parallelism(value == null ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(value));
+        config.noNakedShorts(option(args, "--no-naked-shorts") != null);
+
+        String rows = option(args, "--rows");
+        String out = option(args, "--out");
+        Path path = Path.of(out == null || out.isEmpty() ? "csv/" + sysDate + "_sample_transactions.csv" : out);
+        long start = System.nanoTime();
+        generateCSV(path, rows == null ? 1_000_000L : Long.parseLong(rows), config);
+        System.out.println("wrote " + path + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        UtilLogger.exportLog();
     }
-}
\ No newline at end of file
+}
@@ -3,8 +3,6 @@ package com.zeyadrashed.util;
 import com.zeyadrashed.obj.Transaction;
 import com.zeyadrashed.obj.TransactionType;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -17,6 +15,12 @@ import java.util.List;
  * <p>Chapter 6 Project</p>
  * <p>Rutgers ID: 199009651</p>
  * <br>
+ * <p>
+ * Rows are {@code date,transactionType,symbol,quantity,price} with an optional sixth {@code lot} column: a
+ * numeric lot ID that a BUY opens, or that a SELL relieves first under specific-lot identification. An
+ * optional seventh {@code account} column names the account the trade belongs to (the lot column may be
+ * left empty); rows without one belong to {@link AccountDictionary#DEFAULT}.
+ * </p>
  *
  * @author Zeyad "zmr15" Rashed
  * @mailto zmr15@scarletmail.rutgers.edu
@@ -25,40 +29,78 @@ import java.util.List;
 public class CSVParser {
 
     /**
-     * Parses a CSV file into a list of transactions.
+     * Parses a CSV file into a list of transactions for a calculator that keeps money in doubles.
      *
      * @param filePath the path to the CSV file
      * @return a list of Transaction objects
      * @throws IOException if there is an error reading the file
      */
     public static List<Transaction> parseCSV(String filePath) throws IOException {
-        List<Transaction> transactions = new ArrayList<>();
-
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            boolean isFirstLine = true;
-            while ((line = br.readLine()) != null) {
-                if (isFirstLine && line.toLowerCase().contains("date")) {
-                    isFirstLine = false;
-                    continue;
-                }
-                isFirstLine = false;
-
-                String[] parts = line.split(",");
-                if (parts.length < 5) {
-                    continue;
-                }
+        return parseCSV(filePath, false);
+    }
 
-                LocalDate date = LocalDate.parse(parts[0].trim()); // expects yyyy-mm-dd format
-                TransactionType type = TransactionType.valueOf(parts[1].trim().toUpperCase());
-                String symbol = parts[2].trim();
-                int quantity = Integer.parseInt(parts[3].trim());
-                double price = Double.parseDouble(parts[4].trim());
+    /**
+     * Parses a CSV file into a list of transactions.
+     *
+     * @param filePath   the path to the CSV file
+     * @param fixedPoint true to parse each price's exact fixed-point micros as well as its double
+     * @return a list of Transaction objects
+     * @throws IOException if there is an error reading the file
+     */
+    public static List<Transaction> parseCSV(String filePath, boolean fixedPoint) throws IOException {
+        List<Transaction> transactions = new ArrayList<>();
 
-                Transaction transaction = new Transaction(date, type, symbol, quantity, price);
+        try (TransactionReader reader = new TransactionReader(filePath, fixedPoint)) {
+            Transaction transaction;
+            while ((transaction = reader.next()) != null) {
                 transactions.add(transaction);
             }
         }
         return transactions;
     }
+
+    /**
+     * Parses a single CSV row for a calculator that keeps money in doubles.
+     *
+     * @param line      the raw line
+     * @param firstLine whether this is the first line of the file, which may be a header
+     * @return the parsed transaction, or {@code null} if the line is a header or has too few columns
+     */
+    public static Transaction parseLine(String line, boolean firstLine) {
+        return parseLine(line, firstLine, false);
+    }
+
+    /**
+     * Parses a single CSV row. The price is always parsed with {@link Double#parseDouble(String)}; only in
+     * fixed-point mode is it also parsed exactly into micros, which rejects forms such as {@code NaN} or hex
+     * that only a double can hold. In double mode the micros are rounded from the double, as
+     * {@link Transaction#Transaction(LocalDate, TransactionType, String, int, double)} does.
+     *
+     * @param line       the raw line
+     * @param firstLine  whether this is the first line of the file, which may be a header
+     * @param fixedPoint true to parse the price's exact fixed-point micros
+     * @return the parsed transaction, or {@code null} if the line is a header or has too few columns
+     */
+    public static Transaction parseLine(String line, boolean firstLine, boolean fixedPoint) {
+        if (firstLine && line.toLowerCase().contains("date")) {
+            return null;
+        }
+
+        String[] parts = line.split(",");
+        if (parts.length < 5) {
+            return null;
+        }
+
+        LocalDate date = LocalDate.parse(parts[0].trim()); // expects yyyy-mm-dd format
+        TransactionType type = TransactionType.valueOf(parts[1].trim().toUpperCase());
+        String symbol = parts[2].trim();
+        int quantity = Integer.parseInt(parts[3].trim());
+        String priceText = parts[4].trim();
+        double price = Double.parseDouble(priceText);
+        long lotId = parts.length > 5 && !parts[5].isBlank() ? Long.parseLong(parts[5].trim()) : 0L;
+        int accountId = parts.length > 6 ? AccountDictionary.idOf(parts[6].trim()) : AccountDictionary.DEFAULT;
+
+        return new Transaction((int) date.toEpochDay(), type, SymbolDictionary.idOf(symbol), quantity, price,
+                fixedPoint ? FixedPoint.parse(priceText) : FixedPoint.fromDouble(price), lotId, accountId);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.zeyadrashed.util;
+
+/**
+ * Command-line option lookup shared by the calculator, the service, the load client and the generator.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public final class CommandLine {
+
+    private CommandLine() {
+    }
+
+    /**
+     * Looks up a command-line option of the form {@code --name} or {@code --name=value}.
+     *
+     * @param args the command-line arguments
+     * @param name the option name, including the leading dashes
+     * @return the option's value, an empty string if given without a value, or {@code null} if absent
+     */
+    public static String option(String[] args, String name) {
+        for (String arg : args) {
+            if (arg.equals(name)) {
+                return "";
+            }
+            if (arg.startsWith(name + "=")) {
+                return arg.substring(name.length() + 1);
+            }
+        }
+        return null;
+    }
+}
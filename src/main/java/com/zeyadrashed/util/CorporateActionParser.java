@@ -0,0 +1,107 @@
+package com.zeyadrashed.util;
+
+import com.zeyadrashed.obj.CorporateAction;
+import com.zeyadrashed.obj.CorporateActionType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Parses a corporate-action file: stock splits, reverse splits and ticker renames.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * Rows are {@code date,action,symbol,value}, with an optional header on the first line and blank rows
+ * skipped. The action is {@code SPLIT}, {@code REVERSE_SPLIT} or {@code RENAME}, ignoring case. A split's
+ * value is {@code N:D} (N new shares for every D held) or just {@code N} for N-for-1; a reverse split's is
+ * {@code 1:N} or just {@code N} for 1-for-N; a rename's is the new symbol. A ratio that contradicts its
+ * action, such as a {@code SPLIT} of {@code 1:10}, is rejected rather than applied the other way. Actions are
+ * returned in date order, keeping file order within a date.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class CorporateActionParser {
+
+    /**
+     * Parses a corporate-action file.
+     *
+     * @param path the corporate-action file
+     * @return the actions, in date order
+     * @throws IOException              if there is an error reading the file
+     * @throws IllegalArgumentException if a row is malformed
+     */
+    public static List<CorporateAction> parse(Path path) throws IOException {
+        List<CorporateAction> actions = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || lineNumber == 1 && line.toLowerCase().contains("symbol")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (fields.length < 4) {
+                    throw new IllegalArgumentException("line " + lineNumber + ": expected date,action,symbol,value: " + line);
+                }
+                try {
+                    actions.add(parseRow(fields));
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("line " + lineNumber + ": " + e.getMessage() + ": " + line, e);
+                }
+            }
+        }
+        // stable, so actions on the same date keep file order
+        actions.sort(Comparator.comparingInt(CorporateAction::getEpochDay));
+        return actions;
+    }
+
+    private static CorporateAction parseRow(String[] fields) {
+        int epochDay = (int) LocalDate.parse(fields[0].trim()).toEpochDay();
+        CorporateActionType type = CorporateActionType.valueOf(fields[1].trim().toUpperCase());
+        String symbol = fields[2].trim();
+        String value = fields[3].trim();
+        if (symbol.isEmpty() || value.isEmpty()) {
+            throw new IllegalArgumentException("missing symbol or value");
+        }
+        if (type == CorporateActionType.RENAME) {
+            return new CorporateAction(epochDay, symbol, value);
+        }
+        long numerator;
+        long denominator;
+        int colon = value.indexOf(':');
+        if (colon >= 0) {
+            numerator = Long.parseLong(value.substring(0, colon).trim());
+            denominator = Long.parseLong(value.substring(colon + 1).trim());
+        } else if (type == CorporateActionType.SPLIT) {
+            numerator = Long.parseLong(value);
+            denominator = 1;
+        } else {
+            numerator = 1;
+            denominator = Long.parseLong(value);
+        }
+        if (numerator <= 0 || denominator <= 0) {
+            throw new IllegalArgumentException("split ratio must be positive");
+        }
+        if (type == CorporateActionType.SPLIT && numerator <= denominator) {
+            throw new IllegalArgumentException("a split must give more shares than it takes: " + value);
+        }
+        if (type == CorporateActionType.REVERSE_SPLIT && numerator >= denominator) {
+            throw new IllegalArgumentException("a reverse split must give fewer shares than it takes: " + value);
+        }
+        return new CorporateAction(epochDay, type, symbol, numerator, denominator);
+    }
+}
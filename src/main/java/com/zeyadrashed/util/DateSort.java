@@ -0,0 +1,175 @@
+package com.zeyadrashed.util;
+
+import com.zeyadrashed.obj.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Stable linear-time sort of transactions by epoch-day.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * Days are keyed relative to the earliest date in the batch. When the batch spans at most
+ * {@value #MAX_BUCKETS} days (about 179 years) a single counting sort pass places every transaction;
+ * wider spans fall back to an LSD radix sort with 16-bit digits. Every pass is stable, so transactions
+ * on the same day keep their input order, which FIFO matching depends on.
+ * </p>
+ * <p>
+ * {@link #sortParallel(List, int)} splits each pass into contiguous chunks: chunks are counted in
+ * parallel, each chunk's offsets within a bucket follow the chunks before it, and the chunks are then
+ * scattered in parallel, so the result is identical to {@link #sort(List)}.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public final class DateSort {
+
+    private static final int DIGIT_BITS = 16;
+    private static final int MAX_BUCKETS = 1 << DIGIT_BITS;
+
+    /**
+     * Smallest chunk worth handing to its own thread in {@link #sortParallel(List, int)}.
+     */
+    private static final int MIN_CHUNK = 1 << 16;
+
+    private DateSort() {
+    }
+
+    /**
+     * Sorts transactions by date, keeping the input order of transactions on the same day.
+     *
+     * @param transactions the transactions to sort in place
+     */
+    public static void sort(List<Transaction> transactions) {
+        sortParallel(transactions, 1);
+    }
+
+    /**
+     * Sorts transactions by date on up to {@code parallelism} threads, keeping the input order of
+     * transactions on the same day. Small inputs are sorted on the calling thread.
+     *
+     * @param transactions the transactions to sort in place
+     * @param parallelism  the maximum number of threads
+     */
+    public static void sortParallel(List<Transaction> transactions, int parallelism) {
+        int n = transactions.size();
+        if (n < 2) {
+            return;
+        }
+        Transaction[] items = transactions.toArray(new Transaction[0]);
+        int[] keys = new int[n];
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            int day = items[i].getEpochDay();
+            keys[i] = day;
+            min = Math.min(min, day);
+            max = Math.max(max, day);
+        }
+        if (min == max) {
+            return;
+        }
+        for (int i = 0; i < n; i++) {
+            keys[i] -= min;
+        }
+
+        long span = (long) max - min;
+        int bits = 64 - Long.numberOfLeadingZeros(span);
+        int chunks = Math.max(1, Math.min(parallelism, n / MIN_CHUNK));
+        Transaction[] itemsOut = new Transaction[n];
+        int[] keysOut = new int[n];
+
+        ForkJoinPool pool = chunks > 1 ? new ForkJoinPool(chunks) : null;
+        try {
+            for (int shift = 0; shift < bits; shift += DIGIT_BITS) {
+                int digitBits = Math.min(DIGIT_BITS, bits - shift);
+                int buckets = span < MAX_BUCKETS ? (int) span + 1 : 1 << digitBits;
+                pass(pool, chunks, items, keys, itemsOut, keysOut, shift, buckets);
+                Transaction[] swapItems = items;
+                items = itemsOut;
+                itemsOut = swapItems;
+                int[] swapKeys = keys;
+                keys = keysOut;
+                keysOut = swapKeys;
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            transactions.set(i, items[i]);
+        }
+    }
+
+    /**
+     * One stable counting-sort pass on the digit {@code (key >>> shift) & (buckets - 1)}, or on the key
+     * itself when it is already below {@code buckets}.
+     */
+    private static void pass(ForkJoinPool pool, int chunks, Transaction[] items, int[] keys,
+                             Transaction[] itemsOut, int[] keysOut, int shift, int buckets) {
+        int n = items.length;
+        int mask = Integer.bitCount(buckets) == 1 ? buckets - 1 : -1;
+        int[][] counts = new int[chunks][buckets];
+
+        runChunks(pool, chunks, n, (c, from, to) -> {
+            int[] count = counts[c];
+            for (int i = from; i < to; i++) {
+                count[(keys[i] >>> shift) & mask]++;
+            }
+        });
+
+        // bucket-major, chunk-minor offsets keep equal digits in input order across chunks
+        int offset = 0;
+        for (int b = 0; b < buckets; b++) {
+            for (int c = 0; c < chunks; c++) {
+                int count = counts[c][b];
+                counts[c][b] = offset;
+                offset += count;
+            }
+        }
+
+        runChunks(pool, chunks, n, (c, from, to) -> {
+            int[] next = counts[c];
+            for (int i = from; i < to; i++) {
+                int slot = next[(keys[i] >>> shift) & mask]++;
+                itemsOut[slot] = items[i];
+                keysOut[slot] = keys[i];
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface ChunkTask {
+        void run(int chunk, int from, int to);
+    }
+
+    /**
+     * Runs {@code task} over {@code chunks} contiguous ranges of {@code [0, n)}, on the pool if there is one.
+     */
+    private static void runChunks(ForkJoinPool pool, int chunks, int n, ChunkTask task) {
+        if (pool == null) {
+            task.run(0, 0, n);
+            return;
+        }
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            int chunk = c;
+            int from = (int) ((long) n * c / chunks);
+            int to = (int) ((long) n * (c + 1) / chunks);
+            tasks.add(pool.submit(() -> task.run(chunk, from, to)));
+        }
+        for (ForkJoinTask<?> t : tasks) {
+            t.join();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.zeyadrashed.util;
+
+/**
+ * Allocation-free conversions between calendar dates and epoch-days (days since 1970-01-01),
+ * matching {@link java.time.LocalDate#toEpochDay()} for every valid ISO date.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public final class EpochDays {
+
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private EpochDays() {
+    }
+
+    /**
+     * Converts a calendar date to an epoch-day.
+     *
+     * @param year  the year
+     * @param month the month, 1-12
+     * @param day   the day of month
+     * @return days since 1970-01-01
+     * @throws IllegalArgumentException if the date does not exist
+     */
+    public static int of(int year, int month, int day) {
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            throw new IllegalArgumentException("invalid date: " + year + "-" + month + "-" + day);
+        }
+        // days-from-civil, counting years from March so the leap day falls at the end of the year
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Gets the year of an epoch-day.
+     *
+     * @param epochDay days since 1970-01-01
+     * @return the year
+     */
+    public static int year(int epochDay) {
+        int z = epochDay + 719468;
+        int era = Math.floorDiv(z, 146097);
+        int dayOfEra = z - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        return yearOfEra + era * 400 + (mp >= 10 ? 1 : 0);
+    }
+
+    /**
+     * Gets the month (1-12) of an epoch-day.
+     *
+     * @param epochDay days since 1970-01-01
+     * @return the month
+     */
+    public static int month(int epochDay) {
+        int dayOfEra = Math.floorMod(epochDay + 719468, 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        return mp < 10 ? mp + 3 : mp - 9;
+    }
+
+    /**
+     * Gets the day of month of an epoch-day.
+     *
+     * @param epochDay days since 1970-01-01
+     * @return the day of month
+     */
+    public static int dayOfMonth(int epochDay) {
+        int dayOfEra = Math.floorMod(epochDay + 719468, 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        return dayOfYear - (153 * mp + 2) / 5 + 1;
+    }
+
+    /**
+     * Adds whole years to an epoch-day, moving Feb 29th to Feb 28th in a year that has none, like
+     * {@link java.time.LocalDate#plusYears(long)}.
+     *
+     * @param epochDay days since 1970-01-01
+     * @param years    the number of years to add
+     * @return the resulting epoch-day
+     */
+    public static int plusYears(int epochDay, int years) {
+        int year = year(epochDay) + years;
+        int month = month(epochDay);
+        return of(year, month, Math.min(dayOfMonth(epochDay), lengthOfMonth(year, month)));
+    }
+
+    /**
+     * Gets the number of days in a month.
+     *
+     * @param year  the year
+     * @param month the month, 1-12
+     * @return the number of days
+     */
+    public static int lengthOfMonth(int year, int month) {
+        if (month == 2 && isLeapYear(year)) {
+            return 29;
+        }
+        return DAYS_IN_MONTH[month - 1];
+    }
+
+    /**
+     * Checks whether a year is an ISO leap year.
+     *
+     * @param year the year
+     * @return true if the year has a Feb 29th
+     */
+    public static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+}
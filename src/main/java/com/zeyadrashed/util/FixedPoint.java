@@ -0,0 +1,135 @@
+package com.zeyadrashed.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Helpers for money held as a {@code long} count of millionths of a dollar ("micros").
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * Sums and differences of micros are exact, so totals do not depend on the order rows are added in and
+ * never drift the way {@code double} sums do. A {@code long} holds about 9.2 trillion dollars; products
+ * that would overflow throw {@link ArithmeticException} instead of wrapping.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public final class FixedPoint {
+
+    /**
+     * Number of decimal places kept.
+     */
+    public static final int DECIMALS = 6;
+
+    /**
+     * Micros per whole unit.
+     */
+    public static final long SCALE = 1_000_000L;
+
+    private FixedPoint() {
+    }
+
+    /**
+     * Parses a plain decimal string exactly, rounding half-up past six decimal places.
+     *
+     * @param text the decimal text, e.g. {@code "98.38"}
+     * @return the value in micros
+     * @throws NumberFormatException if the text is not a plain decimal number
+     */
+    public static long parse(String text) {
+        int len = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (len > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i = 1;
+        }
+        long units = 0;
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean seenDot = false;
+        boolean roundUp = false;
+        int digits = 0;
+        for (; i < len; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && !seenDot) {
+                seenDot = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                // exponents and other forms go through BigDecimal
+                return fromBigDecimal(new BigDecimal(text));
+            }
+            digits++;
+            if (!seenDot) {
+                units = Math.addExact(Math.multiplyExact(units, 10), c - '0');
+            } else if (fractionDigits < DECIMALS) {
+                fraction = fraction * 10 + (c - '0');
+                fractionDigits++;
+            } else if (fractionDigits == DECIMALS) {
+                roundUp = c >= '5';
+                fractionDigits++;
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("not a number: \"" + text + "\"");
+        }
+        for (int d = Math.min(fractionDigits, DECIMALS); d < DECIMALS; d++) {
+            fraction *= 10;
+        }
+        long value = Math.addExact(Math.multiplyExact(units, SCALE), fraction + (roundUp ? 1 : 0));
+        return negative ? -value : value;
+    }
+
+    /**
+     * Converts a double to micros, rounding to the nearest micro.
+     *
+     * @param value the value
+     * @return the value in micros
+     */
+    public static long fromDouble(double value) {
+        return Math.round(value * SCALE);
+    }
+
+    /**
+     * Converts micros to the nearest double.
+     *
+     * @param micros the value in micros
+     * @return the value as a double
+     */
+    public static double toDouble(long micros) {
+        return micros / (double) SCALE;
+    }
+
+    /**
+     * Converts micros to an exact BigDecimal, e.g. for formatting.
+     *
+     * @param micros the value in micros
+     * @return the exact value
+     */
+    public static BigDecimal toBigDecimal(long micros) {
+        return BigDecimal.valueOf(micros, DECIMALS);
+    }
+
+    /**
+     * Multiplies a quantity by a price in micros.
+     *
+     * @param quantity    the number of shares
+     * @param priceMicros the price per share in micros
+     * @return the total in micros
+     * @throws ArithmeticException if the result overflows
+     */
+    public static long multiply(long quantity, long priceMicros) {
+        return Math.multiplyExact(quantity, priceMicros);
+    }
+
+    private static long fromBigDecimal(BigDecimal value) {
+        return value.setScale(DECIMALS, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,576 @@
+package com.zeyadrashed.util;
+
+import com.zeyadrashed.obj.Transaction;
+import com.zeyadrashed.obj.TransactionType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.ToIntFunction;
+
+/**
+ * Memory-mapped CSV parser that scans raw bytes instead of reading lines into Strings.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * Accepts the same input as {@link CSVParser#parseCSV(String)}: an optional header on the first line,
+ * comma-separated {@code date,transactionType,symbol,quantity,price} rows with optional whitespace around
+ * fields, and short rows skipped. Dates are converted to epoch-days arithmetically, quantities and prices
+ * are accumulated digit by digit, and each distinct
+ * symbol is turned into a String and interned in the {@link SymbolDictionary} only once per parse, as is each
+ * distinct name in the optional account column ({@link AccountDictionary}). As in
+ * {@link CSVParser#parseLine(String, boolean, boolean)}, prices are parsed exactly into {@link FixedPoint}
+ * micros only in fixed-point mode; in double mode the micros are rounded from the double, so both parsers
+ * give the same transactions in either mode.
+ * </p>
+ * <p>
+ * A file can be cut into line-aligned byte ranges with {@link #split(String, int)} and the ranges parsed
+ * independently, which is what {@link #parseParallel(String, int)} does.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class MappedCSVParser {
+
+    /**
+     * Largest region mapped at once; a single mapping cannot exceed {@link Integer#MAX_VALUE} bytes.
+     */
+    private static final long MAX_WINDOW = 1L << 30;
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Receives each parsed row.
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+
+        /**
+         * Called once per data row, in file order.
+         *
+         * @param epochDay    the transaction date as days since 1970-01-01
+         * @param type        the transaction type
+         * @param symbolId    the stock symbol's {@link SymbolDictionary} ID
+         * @param quantity    the number of shares
+         * @param price       the price per share
+         * @param priceMicros the price per share in exact fixed-point millionths, or rounded from
+         *                    {@code price} when not parsing in fixed-point mode
+         * @param lotId       the optional lot column, or 0 if absent
+         * @param accountId   the optional account column's {@link AccountDictionary} ID, or
+         *                    {@link AccountDictionary#DEFAULT} if absent
+         */
+        void onRow(int epochDay, TransactionType type, int symbolId, int quantity, double price, long priceMicros,
+                   long lotId, int accountId);
+    }
+
+    private final boolean fixedPoint;
+    private final RowHandler handler;
+    private final NameCache symbols = new NameCache(SymbolDictionary::idOf);
+    private NameCache accounts;
+    private final int[] fields = new int[14];
+    private long priceMicros;
+
+    private MappedCSVParser(boolean fixedPoint, RowHandler handler) {
+        this.fixedPoint = fixedPoint;
+        this.handler = handler;
+    }
+
+    /**
+     * Parses a whole CSV file into a list of transactions for a calculator that keeps money in doubles.
+     *
+     * @param filePath the path to the CSV file
+     * @return a list of Transaction objects, in file order
+     * @throws IOException if there is an error reading the file
+     */
+    public static List<Transaction> parse(String filePath) throws IOException {
+        return parse(filePath, false);
+    }
+
+    /**
+     * Parses a whole CSV file into a list of transactions.
+     *
+     * @param filePath   the path to the CSV file
+     * @param fixedPoint true to parse each price's exact fixed-point micros as well as its double
+     * @return a list of Transaction objects, in file order
+     * @throws IOException if there is an error reading the file
+     */
+    public static List<Transaction> parse(String filePath, boolean fixedPoint) throws IOException {
+        List<Transaction> transactions = new ArrayList<>();
+        parse(filePath, 0, Long.MAX_VALUE, fixedPoint, (epochDay, type, symbolId, quantity, price, priceMicros, lotId, accountId) ->
+                transactions.add(new Transaction(epochDay, type, symbolId, quantity, price, priceMicros, lotId,
+                        accountId)));
+        return transactions;
+    }
+
+    /**
+     * Parses a CSV file on several threads for a calculator that keeps money in doubles, one line-aligned
+     * chunk each, and concatenates the results in file order.
+     *
+     * @param filePath    the path to the CSV file
+     * @param parallelism the number of chunks (and threads) to use
+     * @return a list of Transaction objects, in file order
+     * @throws IOException if there is an error reading the file
+     */
+    public static List<Transaction> parseParallel(String filePath, int parallelism) throws IOException {
+        return parseParallel(filePath, parallelism, false);
+    }
+
+    /**
+     * Parses a CSV file on several threads, one line-aligned chunk each, and concatenates the results
+     * in file order.
+     *
+     * @param filePath    the path to the CSV file
+     * @param parallelism the number of chunks (and threads) to use
+     * @param fixedPoint  true to parse each price's exact fixed-point micros as well as its double
+     * @return a list of Transaction objects, in file order
+     * @throws IOException if there is an error reading the file
+     */
+    public static List<Transaction> parseParallel(String filePath, int parallelism, boolean fixedPoint)
+            throws IOException {
+        long[] bounds = split(filePath, parallelism);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<List<Transaction>>> chunks = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                chunks.add(pool.submit(() -> {
+                    List<Transaction> chunk = new ArrayList<>();
+                    parse(filePath, start, end, fixedPoint, (epochDay, type, symbolId, quantity, price, priceMicros, lotId, accountId) ->
+                            chunk.add(new Transaction(epochDay, type, symbolId, quantity, price, priceMicros, lotId,
+                                    accountId)));
+                    return chunk;
+                }));
+            }
+
+            List<Transaction> transactions = new ArrayList<>();
+            for (ForkJoinTask<List<Transaction>> chunk : chunks) {
+                transactions.addAll(chunk.join());
+            }
+            return transactions;
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw e;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Cuts a file into at most {@code chunks} byte ranges that each start at the beginning of a line.
+     *
+     * @param filePath the path to the CSV file
+     * @param chunks   the desired number of ranges
+     * @return ascending offsets; range {@code i} is {@code [bounds[i], bounds[i + 1])}
+     * @throws IOException if there is an error reading the file
+     */
+    public static long[] split(String filePath, int chunks) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] bounds = new long[chunks + 1];
+            int count = 1;
+            ByteBuffer one = ByteBuffer.allocate(1);
+            for (int i = 1; i < chunks; i++) {
+                long pos = Math.max(size * i / chunks, bounds[count - 1]);
+                // move forward to the byte after the next newline
+                while (pos < size) {
+                    one.clear();
+                    channel.read(one, pos++);
+                    if (one.get(0) == '\n') {
+                        break;
+                    }
+                }
+                if (pos >= size) {
+                    break;
+                }
+                if (pos > bounds[count - 1]) {
+                    bounds[count++] = pos;
+                }
+            }
+            bounds[count++] = size;
+            return Arrays.copyOf(bounds, count);
+        }
+    }
+
+    /**
+     * Parses the rows in a line-aligned byte range of a file. Only the range starting at offset 0 may
+     * contain the header.
+     *
+     * @param filePath   the path to the CSV file
+     * @param start      the first byte of the range, at the start of a line
+     * @param end        the end of the range (exclusive), at the start of a line or past the end of the file
+     * @param fixedPoint true to parse each price's exact fixed-point micros, rather than rounding them from
+     *                   the double
+     * @param handler    receives each row
+     * @throws IOException if there is an error reading the file
+     */
+    public static void parse(String filePath, long start, long end, boolean fixedPoint, RowHandler handler)
+            throws IOException {
+        MappedCSVParser parser = new MappedCSVParser(fixedPoint, handler);
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            long limit = Math.min(end, channel.size());
+            long pos = start;
+            boolean firstLine = start == 0;
+            while (pos < limit) {
+                long windowSize = Math.min(limit - pos, MAX_WINDOW);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, pos, windowSize);
+                int parsed = parser.parseWindow(buffer, (int) windowSize, pos + windowSize == limit, firstLine);
+                if (parsed == 0) {
+                    throw new IOException("line longer than " + MAX_WINDOW + " bytes at offset " + pos);
+                }
+                pos += parsed;
+                firstLine = false;
+            }
+        }
+    }
+
+    /**
+     * Parses the complete lines in a mapped window.
+     *
+     * @param buf       the mapped bytes
+     * @param size      the number of bytes in the window
+     * @param last      whether the window ends the range, so a final line without a newline is complete
+     * @param firstLine whether the window begins with the first line of the file
+     * @return the number of bytes consumed, always ending just after a newline unless {@code last}
+     */
+    private int parseWindow(MappedByteBuffer buf, int size, boolean last, boolean firstLine) {
+        int lineStart = 0;
+        while (lineStart < size) {
+            int lineEnd = lineStart;
+            while (lineEnd < size && buf.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            if (lineEnd == size && !last) {
+                break;
+            }
+            int contentEnd = lineEnd;
+            if (contentEnd > lineStart && buf.get(contentEnd - 1) == '\r') {
+                contentEnd--;
+            }
+            if (!(firstLine && containsDate(buf, lineStart, contentEnd))) {
+                parseLine(buf, lineStart, contentEnd);
+            }
+            firstLine = false;
+            lineStart = lineEnd + 1;
+        }
+        return Math.min(lineStart, size);
+    }
+
+    /**
+     * Parses one line, skipping it if it has fewer than five fields. Like {@code String.split(",")}, empty
+     * trailing fields do not count. A sixth field is the optional lot ID and a seventh the optional account.
+     */
+    private void parseLine(MappedByteBuffer buf, int from, int to) {
+        int count = 0;
+        int fieldStart = from;
+        for (int i = from; i <= to && count < 7; i++) {
+            if (i == to || buf.get(i) == ',') {
+                fields[count * 2] = fieldStart;
+                fields[count * 2 + 1] = i;
+                count++;
+                fieldStart = i + 1;
+            }
+        }
+        if (count < 5 || (fields[8] == fields[9] && onlyCommas(buf, fields[9], to))) {
+            return;
+        }
+        for (int f = 0; f < 5; f++) {
+            trim(buf, fields, f);
+        }
+
+        int epochDay = parseDate(buf, fields[0], fields[1]);
+        TransactionType type = parseType(buf, fields[2], fields[3]);
+        int symbolId = symbols.get(buf, fields[4], fields[5]);
+        int quantity = parseInt(buf, fields[6], fields[7]);
+        double price = parsePrice(buf, fields[8], fields[9]);
+        long lotId = 0L;
+        if (count >= 6) {
+            trim(buf, fields, 5);
+            if (fields[10] < fields[11]) {
+                lotId = parseLong(buf, fields[10], fields[11]);
+            }
+        }
+        int accountId = AccountDictionary.DEFAULT;
+        if (count == 7) {
+            trim(buf, fields, 6);
+            if (accounts == null) {
+                accounts = new NameCache(AccountDictionary::idOf);
+            }
+            accountId = accounts.get(buf, fields[12], fields[13]);
+        }
+        handler.onRow(epochDay, type, symbolId, quantity, price, priceMicros, lotId, accountId);
+    }
+
+    private static void trim(MappedByteBuffer buf, int[] fields, int f) {
+        int s = fields[f * 2];
+        int e = fields[f * 2 + 1];
+        while (s < e && buf.get(s) <= ' ') {
+            s++;
+        }
+        while (e > s && buf.get(e - 1) <= ' ') {
+            e--;
+        }
+        fields[f * 2] = s;
+        fields[f * 2 + 1] = e;
+    }
+
+    private static boolean onlyCommas(MappedByteBuffer buf, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buf.get(i) != ',') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsDate(MappedByteBuffer buf, int from, int to) {
+        for (int i = from; i + 4 <= to; i++) {
+            if ((buf.get(i) | 0x20) == 'd' && (buf.get(i + 1) | 0x20) == 'a'
+                    && (buf.get(i + 2) | 0x20) == 't' && (buf.get(i + 3) | 0x20) == 'e') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses a {@code yyyy-MM-dd} date to an epoch-day.
+     */
+    private static int parseDate(MappedByteBuffer buf, int from, int to) {
+        if (to - from != 10 || buf.get(from + 4) != '-' || buf.get(from + 7) != '-') {
+            throw new IllegalArgumentException("expected yyyy-MM-dd date: " + text(buf, from, to));
+        }
+        int year = digits(buf, from, from + 4);
+        int month = digits(buf, from + 5, from + 7);
+        int day = digits(buf, from + 8, from + 10);
+        return EpochDays.of(year, month, day);
+    }
+
+    private static TransactionType parseType(MappedByteBuffer buf, int from, int to) {
+        int len = to - from;
+        if (len == 3 && (buf.get(from) | 0x20) == 'b' && (buf.get(from + 1) | 0x20) == 'u'
+                && (buf.get(from + 2) | 0x20) == 'y') {
+            return TransactionType.BUY;
+        }
+        if (len == 4 && (buf.get(from) | 0x20) == 's' && (buf.get(from + 1) | 0x20) == 'e'
+                && (buf.get(from + 2) | 0x20) == 'l' && (buf.get(from + 3) | 0x20) == 'l') {
+            return TransactionType.SELL;
+        }
+        throw new IllegalArgumentException("unknown transaction type: " + text(buf, from, to));
+    }
+
+    private static int parseInt(MappedByteBuffer buf, int from, int to) {
+        boolean negative = from < to && buf.get(from) == '-';
+        int i = negative || (from < to && buf.get(from) == '+') ? from + 1 : from;
+        if (i == to || to - i > 10) {
+            return Integer.parseInt(text(buf, from, to));
+        }
+        long value = 0;
+        for (; i < to; i++) {
+            int d = buf.get(i) - '0';
+            if (d < 0 || d > 9) {
+                return Integer.parseInt(text(buf, from, to));
+            }
+            value = value * 10 + d;
+        }
+        value = negative ? -value : value;
+        if (value != (int) value) {
+            return Integer.parseInt(text(buf, from, to));
+        }
+        return (int) value;
+    }
+
+    private static long parseLong(MappedByteBuffer buf, int from, int to) {
+        if (to - from > 18) {
+            return Long.parseLong(text(buf, from, to));
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int d = buf.get(i) - '0';
+            if (d < 0 || d > 9) {
+                return Long.parseLong(text(buf, from, to));
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    /**
+     * Parses a plain decimal as {@code mantissa / 10^scale}, also leaving the fixed-point value in
+     * {@link #priceMicros}: exact in fixed-point mode, otherwise rounded from the double. When the mantissa fits in 53 bits and the scale is at most 22 both operands are
+     * exact doubles, so the division is correctly rounded and matches {@link Double#parseDouble(String)};
+     * anything else (exponents, very long numbers) falls back to it and to {@link FixedPoint#parse(String)}.
+     */
+    private double parsePrice(MappedByteBuffer buf, int from, int to) {
+        boolean negative = from < to && buf.get(from) == '-';
+        int i = negative || (from < to && buf.get(from) == '+') ? from + 1 : from;
+        long mantissa = 0;
+        int scale = -1;
+        int digitCount = 0;
+        for (; i < to; i++) {
+            byte b = buf.get(i);
+            if (b == '.' && scale < 0) {
+                scale = 0;
+                continue;
+            }
+            int d = b - '0';
+            if (d < 0 || d > 9 || digitCount >= 18) {
+                return parsePriceSlow(buf, from, to);
+            }
+            mantissa = mantissa * 10 + d;
+            digitCount++;
+            if (scale >= 0) {
+                scale++;
+            }
+        }
+        if (digitCount == 0 || mantissa >= (1L << 53) || scale > 22) {
+            return parsePriceSlow(buf, from, to);
+        }
+        scale = Math.max(scale, 0);
+        double value = scale > 0 ? mantissa / POW10[scale] : mantissa;
+        value = negative ? -value : value;
+        if (!fixedPoint) {
+            priceMicros = FixedPoint.fromDouble(value);
+            return value;
+        }
+
+        if (scale <= FixedPoint.DECIMALS) {
+            long micros = mantissa * (long) POW10[FixedPoint.DECIMALS - scale];
+            if (micros / (long) POW10[FixedPoint.DECIMALS - scale] != mantissa) {
+                return parsePriceSlow(buf, from, to);
+            }
+            priceMicros = negative ? -micros : micros;
+        } else {
+            long divisor = (long) POW10[scale - FixedPoint.DECIMALS];
+            long micros = mantissa / divisor;
+            if ((mantissa % divisor) * 2 >= divisor) {
+                micros++; // half-up, like FixedPoint.parse
+            }
+            priceMicros = negative ? -micros : micros;
+        }
+        return value;
+    }
+
+    private double parsePriceSlow(MappedByteBuffer buf, int from, int to) {
+        String text = text(buf, from, to);
+        double value = Double.parseDouble(text);
+        priceMicros = fixedPoint ? FixedPoint.parse(text) : FixedPoint.fromDouble(value);
+        return value;
+    }
+
+    private static int digits(MappedByteBuffer buf, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int d = buf.get(i) - '0';
+            if (d < 0 || d > 9) {
+                throw new IllegalArgumentException("expected yyyy-MM-dd date: " + text(buf, from, to));
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    /**
+     * Copies a byte range into a String; only used on the slow path and for error messages.
+     */
+    private static String text(MappedByteBuffer buf, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buf.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Open-addressed table from name bytes to dictionary IDs ({@link SymbolDictionary} for symbols,
+     * {@link AccountDictionary} for accounts), so a name's String is created and interned the first time this
+     * parser sees it and every later row only hashes and compares bytes.
+     */
+    private static class NameCache {
+
+        private final ToIntFunction<String> dictionary;
+        private byte[][] keys = new byte[64][];
+        private int[] values = new int[64];
+        private int size;
+
+        private NameCache(ToIntFunction<String> dictionary) {
+            this.dictionary = dictionary;
+        }
+
+        private int get(MappedByteBuffer buf, int from, int to) {
+            int hash = 1;
+            for (int i = from; i < to; i++) {
+                hash = 31 * hash + buf.get(i);
+            }
+            int mask = keys.length - 1;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (keys[slot] != null) {
+                if (matches(keys[slot], buf, from, to)) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            byte[] key = new byte[to - from];
+            buf.get(from, key);
+            int value = dictionary.applyAsInt(new String(key, StandardCharsets.UTF_8));
+            keys[slot] = key;
+            values[slot] = value;
+            if (++size * 2 > keys.length) {
+                rehash();
+            }
+            return value;
+        }
+
+        private static boolean matches(byte[] key, MappedByteBuffer buf, int from, int to) {
+            if (key.length != to - from) {
+                return false;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (key[i] != buf.get(from + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void rehash() {
+            byte[][] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new byte[oldKeys.length * 2][];
+            values = new int[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == null) {
+                    continue;
+                }
+                int hash = 1;
+                for (byte b : oldKeys[i]) {
+                    hash = 31 * hash + b;
+                }
+                int slot = (hash ^ (hash >>> 16)) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.zeyadrashed.util;
+
+import com.zeyadrashed.engine.MatchSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.zeyadrashed.util.MatchBinaryWriter.HEADER_SIZE;
+import static com.zeyadrashed.util.MatchBinaryWriter.RECORD_SIZE;
+
+/**
+ * Reads a match file written by {@link MatchBinaryWriter} through memory-mapped windows.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * Records are fixed-width, so the file is mapped in windows of whole records (up to about 1 GB each) and
+ * every field is read at a computed offset, without copying or allocating per record. The symbol table is
+ * read once when the file is opened, so symbol IDs can be named without the run's {@link SymbolDictionary}.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class MatchBinaryReader implements Closeable {
+
+    private static final long MAX_WINDOW = (1L << 30) / RECORD_SIZE * RECORD_SIZE;
+
+    private final FileChannel channel;
+    private final boolean fixedPoint;
+    private final long records;
+    private final String[] symbols;
+
+    /**
+     * Constructor for a reader, which checks the header and reads the symbol table.
+     *
+     * @param path the match file
+     * @throws IOException if the file cannot be read, is not a match file or was not closed properly
+     */
+    public MatchBinaryReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), HEADER_SIZE));
+            if (header.limit() < HEADER_SIZE || header.getInt(0) != MatchBinaryWriter.MAGIC) {
+                throw new IOException("not a match file: " + path);
+            }
+            int version = header.getInt(4);
+            if (version != MatchBinaryWriter.VERSION) {
+                throw new IOException("unsupported match file version " + version + ": " + path);
+            }
+            fixedPoint = header.get(8) != 0;
+            records = header.getLong(16);
+            // the writer leaves the count at INCOMPLETE until it is closed
+            if (records < 0 || records > (channel.size() - HEADER_SIZE) / RECORD_SIZE) {
+                throw new IOException("incomplete match file: " + path);
+            }
+            long tableStart = HEADER_SIZE + records * RECORD_SIZE;
+            if (tableStart + 4 > channel.size() || channel.size() - tableStart > Integer.MAX_VALUE) {
+                throw new IOException("incomplete match file: " + path);
+            }
+            MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, tableStart, channel.size() - tableStart);
+            symbols = new String[table.getInt()];
+            for (int i = 0; i < symbols.length; i++) {
+                byte[] bytes = new byte[table.getShort() & 0xFFFF];
+                table.get(bytes);
+                symbols[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Passes every record to a sink, in the order they were written.
+     *
+     * @param sink receives each record, with symbol IDs as named by {@link #symbolOf(int)}
+     * @throws IOException if the file cannot be mapped
+     */
+    public void forEach(MatchSink sink) throws IOException {
+        long end = HEADER_SIZE + records * RECORD_SIZE;
+        for (long pos = HEADER_SIZE; pos < end; ) {
+            long windowSize = Math.min(end - pos, MAX_WINDOW);
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, pos, windowSize);
+            for (int at = 0; at < windowSize; at += RECORD_SIZE) {
+                sink.onMatch(buf.getInt(at + 8), buf.getInt(at), buf.getInt(at + 4), buf.getInt(at + 12),
+                        buf.getLong(at + 16), buf.getLong(at + 24), buf.getLong(at + 32), buf.getLong(at + 40),
+                        buf.get(at + 48) != 0);
+            }
+            pos += windowSize;
+        }
+    }
+
+    /**
+     * Checks whether money in the file is fixed-point micros rather than raw {@code double} bits.
+     *
+     * @return true for fixed-point micros
+     */
+    public boolean isFixedPoint() {
+        return fixedPoint;
+    }
+
+    /**
+     * Gets the number of records in the file.
+     *
+     * @return number of records
+     */
+    public long size() {
+        return records;
+    }
+
+    /**
+     * Gets the symbol a record's symbol ID stands for.
+     *
+     * @param symbolId the symbol ID as stored in the file
+     * @return the symbol
+     */
+    public String symbolOf(int symbolId) {
+        return symbols[symbolId];
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Converts a match file to CSV, e.g. {@code matches.bin matches.csv}.
+     *
+     * @param args the input match file and the output CSV file
+     * @throws IOException if either file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: MatchBinaryReader <matches.bin> <matches.csv>");
+            return;
+        }
+        try (MatchBinaryReader reader = new MatchBinaryReader(Path.of(args[0]));
+             MatchCSVWriter writer = new MatchCSVWriter(Path.of(args[1]), reader.isFixedPoint(), reader::symbolOf)) {
+            reader.forEach(writer);
+            System.out.println("wrote " + writer.getRecords() + " records to " + args[1]);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.zeyadrashed.util;
+
+import com.zeyadrashed.engine.MatchSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes match records in a fixed-width binary format, as they are produced, for {@link MatchBinaryReader}
+ * to memory-map.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * The layout is
+ * </p>
+ * <pre>
+ * int magic, int version, byte fixedPoint, 7 bytes reserved, long recordCount
+ * recordCount x {
+ *     int saleDay, int buyDay, int symbolId, int quantity,
+ *     long lotId, long proceeds, long costBasis, long gain,
+ *     byte longTerm, 7 bytes reserved
+ * }
+ * int symbolCount, symbolCount x string
+ * </pre>
+ * <p>
+ * with money stored as the books hold it (micros, or the raw bits of a double) and strings stored as an
+ * unsigned short length and UTF-8 bytes, as in a {@link Snapshot}. Every record is {@link #RECORD_SIZE}
+ * bytes and starts on an 8-byte boundary, so record {@code i} is at a fixed offset. The symbol table names
+ * the run's symbol IDs and is written with the record count on {@link #close()}; until then the count
+ * is {@link #INCOMPLETE}, so a file left by a crashed run is recognized as incomplete rather than read as
+ * a file with no records.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class MatchBinaryWriter implements MatchSink, Closeable {
+
+    static final int MAGIC = 0x43434D52; // "CCMR"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 24;
+    static final int RECORD_SIZE = 56;
+    /**
+     * Record count a file holds until it is closed.
+     */
+    static final long INCOMPLETE = -1L;
+    private static final int COUNT_OFFSET = 16;
+    private static final int BUFFER_SIZE = RECORD_SIZE << 11;
+
+    private final FileChannel channel;
+    private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long records;
+    private int symbolCount;
+
+    /**
+     * Constructor for a writer.
+     *
+     * @param path       the file to create or replace
+     * @param fixedPoint true if money is passed as fixed-point micros rather than raw {@code double} bits
+     * @throws IOException if the file cannot be opened
+     */
+    public MatchBinaryWriter(Path path, boolean fixedPoint) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buf.putInt(MAGIC).putInt(VERSION).put((byte) (fixedPoint ? 1 : 0)).put(new byte[7]).putLong(INCOMPLETE);
+    }
+
+    @Override
+    public void onMatch(int symbolId, int saleDay, int buyDay, int quantity, long lotId, long proceeds, long costBasis,
+                        long gain, boolean longTerm) {
+        if (buf.remaining() < RECORD_SIZE) {
+            try {
+                drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        buf.putInt(saleDay).putInt(buyDay).putInt(symbolId).putInt(quantity)
+                .putLong(lotId).putLong(proceeds).putLong(costBasis).putLong(gain)
+                .put((byte) (longTerm ? 1 : 0)).put((byte) 0).putShort((short) 0).putInt(0);
+        symbolCount = Math.max(symbolCount, symbolId + 1);
+        records++;
+    }
+
+    /**
+     * Gets the number of records written.
+     *
+     * @return number of records
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Writes out the buffered records, the symbol table and the record count, and closes the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            ensure(4);
+            buf.putInt(symbolCount);
+            for (int id = 0; id < symbolCount; id++) {
+                byte[] bytes = SymbolDictionary.nameOf(id).getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > 0xFFFF) {
+                    throw new IOException("symbol too long for match file: " + SymbolDictionary.nameOf(id));
+                }
+                ensure(2 + bytes.length);
+                buf.putShort((short) bytes.length).put(bytes);
+            }
+            drain();
+            ByteBuffer count = ByteBuffer.allocate(8).putLong(0, records);
+            while (count.hasRemaining()) {
+                channel.write(count, COUNT_OFFSET + count.position());
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Writes the buffer out if fewer than {@code bytes} bytes remain in it.
+     */
+    private void ensure(int bytes) throws IOException {
+        if (buf.remaining() < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+        buf.clear();
+    }
+}
@@ -0,0 +1,221 @@
+package com.zeyadrashed.util;
+
+import com.zeyadrashed.engine.MatchSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Writes match records as CSV rows through a buffered {@link FileChannel}, as they are produced.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * Rows are {@code symbol,saleDate,buyDate,quantity,lotId,proceeds,costBasis,gain,term}, with ISO dates, the
+ * lot ID left empty if the BUY did not name one, money to the micro with trailing zeros dropped past the
+ * cents, and a term of {@code SHORT} or {@code LONG}. Each row is formatted straight into a byte array, with
+ * symbol names encoded once per symbol, and copied into a 64 KB buffer that is written out when full, so
+ * memory does not grow with the number of rows and nothing is allocated per row in fixed-point mode.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class MatchCSVWriter implements MatchSink, Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_ROW_WITHOUT_SYMBOL = 192;
+    private static final byte[] HEADER = "symbol,saleDate,buyDate,quantity,lotId,proceeds,costBasis,gain,term\n"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SHORT = "SHORT".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LONG = "LONG".getBytes(StandardCharsets.US_ASCII);
+
+    private final FileChannel channel;
+    private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final boolean fixedPoint;
+    private final IntFunction<String> symbols;
+    private byte[][] symbolBytes = new byte[16][];
+    private byte[] row = new byte[MAX_ROW_WITHOUT_SYMBOL + 16];
+    private long records;
+
+    /**
+     * Constructor for a writer that names symbols from the {@link SymbolDictionary}.
+     *
+     * @param path       the CSV file to create or replace
+     * @param fixedPoint true if money is passed as fixed-point micros rather than raw {@code double} bits
+     * @throws IOException if the file cannot be opened
+     */
+    public MatchCSVWriter(Path path, boolean fixedPoint) throws IOException {
+        this(path, fixedPoint, SymbolDictionary::nameOf);
+    }
+
+    /**
+     * Constructor for a writer with its own symbol names, e.g. those of a {@link MatchBinaryReader}.
+     *
+     * @param path       the CSV file to create or replace
+     * @param fixedPoint true if money is passed as fixed-point micros rather than raw {@code double} bits
+     * @param symbols    names each symbol ID
+     * @throws IOException if the file cannot be opened
+     */
+    public MatchCSVWriter(Path path, boolean fixedPoint, IntFunction<String> symbols) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.fixedPoint = fixedPoint;
+        this.symbols = symbols;
+        buf.put(HEADER);
+    }
+
+    @Override
+    public void onMatch(int symbolId, int saleDay, int buyDay, int quantity, long lotId, long proceeds, long costBasis,
+                        long gain, boolean longTerm) {
+        byte[] symbol = symbolBytes(symbolId);
+        if (row.length < MAX_ROW_WITHOUT_SYMBOL + symbol.length) {
+            row = new byte[MAX_ROW_WITHOUT_SYMBOL + symbol.length];
+        }
+        byte[] out = row;
+        int at = put(out, 0, symbol);
+        out[at++] = ',';
+        at = putDate(out, at, saleDay);
+        out[at++] = ',';
+        at = putDate(out, at, buyDay);
+        out[at++] = ',';
+        at = putDigits(out, at, quantity);
+        out[at++] = ',';
+        if (lotId != 0) {
+            at = putDigits(out, at, lotId);
+        }
+        out[at++] = ',';
+        at = putMoney(out, at, proceeds);
+        out[at++] = ',';
+        at = putMoney(out, at, costBasis);
+        out[at++] = ',';
+        at = putMoney(out, at, gain);
+        out[at++] = ',';
+        at = put(out, at, longTerm ? LONG : SHORT);
+        out[at++] = '\n';
+        try {
+            if (buf.remaining() < at) {
+                drain();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buf.put(out, 0, at);
+        records++;
+    }
+
+    /**
+     * Gets the number of records written.
+     *
+     * @return number of records
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Writes out the buffered rows and closes the file.
+     *
+     * @throws IOException if the rows cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            drain();
+        }
+    }
+
+    private byte[] symbolBytes(int symbolId) {
+        if (symbolId >= symbolBytes.length) {
+            symbolBytes = Arrays.copyOf(symbolBytes, Math.max(symbolId + 1, symbolBytes.length * 2));
+        }
+        byte[] bytes = symbolBytes[symbolId];
+        if (bytes == null) {
+            bytes = symbols.apply(symbolId).getBytes(StandardCharsets.UTF_8);
+            symbolBytes[symbolId] = bytes;
+        }
+        return bytes;
+    }
+
+    /**
+     * Formats an amount to the micro, dropping trailing zeros after the cents. Doubles are rounded to the
+     * nearest micro first.
+     */
+    private int putMoney(byte[] out, int at, long amount) {
+        long micros = fixedPoint ? amount : FixedPoint.fromDouble(Double.longBitsToDouble(amount));
+        if (micros < 0) {
+            out[at++] = '-';
+            micros = -micros;
+        }
+        at = putDigits(out, at, micros / FixedPoint.SCALE);
+        out[at++] = '.';
+        long fraction = micros % FixedPoint.SCALE;
+        int decimals = FixedPoint.DECIMALS;
+        while (decimals > 2 && fraction % 10 == 0) {
+            fraction /= 10;
+            decimals--;
+        }
+        for (int i = at + decimals - 1; i >= at; i--) {
+            out[i] = (byte) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+        return at + decimals;
+    }
+
+    private static int putDate(byte[] out, int at, int epochDay) {
+        int year = EpochDays.year(epochDay);
+        int month = EpochDays.month(epochDay);
+        int day = EpochDays.dayOfMonth(epochDay);
+        out[at++] = (byte) ('0' + year / 1000 % 10);
+        out[at++] = (byte) ('0' + year / 100 % 10);
+        out[at++] = (byte) ('0' + year / 10 % 10);
+        out[at++] = (byte) ('0' + year % 10);
+        out[at++] = '-';
+        out[at++] = (byte) ('0' + month / 10);
+        out[at++] = (byte) ('0' + month % 10);
+        out[at++] = '-';
+        out[at++] = (byte) ('0' + day / 10);
+        out[at++] = (byte) ('0' + day % 10);
+        return at;
+    }
+
+    private static int put(byte[] out, int at, byte[] bytes) {
+        System.arraycopy(bytes, 0, out, at, bytes.length);
+        return at + bytes.length;
+    }
+
+    private static int putDigits(byte[] out, int at, long value) {
+        if (value < 0) {
+            out[at++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        for (int i = at + digits - 1; i >= at; i--) {
+            out[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return at + digits;
+    }
+
+    private void drain() throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+        buf.clear();
+    }
+}
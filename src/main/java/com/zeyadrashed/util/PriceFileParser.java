@@ -0,0 +1,79 @@
+package com.zeyadrashed.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Parses an end-of-day price file: one closing price per symbol.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * Rows are {@code symbol,price}, with an optional header on the first line. Blank and short rows are
+ * skipped. If a symbol appears more than once the last row wins. Each price is handed over both as a
+ * double and as exact {@link FixedPoint} micros, like transaction prices.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class PriceFileParser {
+
+    /**
+     * Receives each parsed price.
+     */
+    @FunctionalInterface
+    public interface PriceHandler {
+
+        /**
+         * Called once per price row, in file order.
+         *
+         * @param symbolId    the stock symbol's {@link SymbolDictionary} ID
+         * @param price       the closing price per share
+         * @param priceMicros the closing price per share in exact fixed-point millionths
+         */
+        void onPrice(int symbolId, double price, long priceMicros);
+    }
+
+    /**
+     * Parses a price file.
+     *
+     * @param path    the price file
+     * @param handler receives each price
+     * @return the number of prices read
+     * @throws IOException if there is an error reading the file
+     */
+    public static int parse(Path path, PriceHandler handler) throws IOException {
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            boolean firstLine = true;
+            while ((line = reader.readLine()) != null) {
+                boolean header = firstLine && line.toLowerCase().contains("symbol");
+                firstLine = false;
+                int comma = line.indexOf(',');
+                if (header || comma < 0) {
+                    continue;
+                }
+                String symbol = line.substring(0, comma).trim();
+                String priceText = line.substring(comma + 1).trim();
+                int end = priceText.indexOf(',');
+                if (end >= 0) {
+                    priceText = priceText.substring(0, end).trim();
+                }
+                if (symbol.isEmpty() || priceText.isEmpty()) {
+                    continue;
+                }
+                handler.onPrice(SymbolDictionary.idOf(symbol), Double.parseDouble(priceText), FixedPoint.parse(priceText));
+                count++;
+            }
+        }
+        return count;
+    }
+}
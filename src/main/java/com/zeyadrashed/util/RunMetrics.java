@@ -0,0 +1,337 @@
+package com.zeyadrashed.util;
+
+import com.zeyadrashed.engine.MatchCounters;
+import com.zeyadrashed.engine.SymbolBook;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Instrumentation for one run: wall time and allocation per phase, parse rate per file, and matching
+ * counters, exposed over JMX and written out as a JSON summary.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * Phases are timed with {@link System#nanoTime()} and their allocation is the change in the JVM's total
+ * allocated bytes across all threads, read once at each phase boundary. Matching counters live in each
+ * book's {@link MatchCounters} and are only summed when read, so the hot path pays a few field increments
+ * and nothing is synchronized; rejected SELLs, which may be counted from several matching threads, go to a
+ * {@link LongAdder}. Everything here is cheap enough to stay on for every run.
+ * </p>
+ * <p>
+ * {@link #begin(Phase)} and {@link #end(Phase)} are called by the thread driving the run. The JMX getters may
+ * be called from any thread at any time; while a run is in progress they return approximate values.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class RunMetrics implements RunMetricsMXBean {
+
+    /**
+     * The parts of a run that are timed separately.
+     */
+    public enum Phase {
+        LOAD, SORT, MATCH, SUMMARY, SNAPSHOT, EXPORT_LOG
+    }
+
+    private static final String OBJECT_NAME = "com.zeyadrashed:type=RunMetrics";
+    private static final DateTimeFormatter fileDtf = DateTimeFormatter.ofPattern("yyyy_MM_dd_HH_mm_ss");
+
+    private final Supplier<List<SymbolBook>> books;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private final long[] phaseBytes = new long[Phase.values().length];
+    private final long[] beganNanos = new long[Phase.values().length];
+    private final long[] beganBytes = new long[Phase.values().length];
+    private final ConcurrentLinkedQueue<FileStats> files = new ConcurrentLinkedQueue<>();
+    private final LongAdder rejectedSells = new LongAdder();
+
+    /**
+     * Rows and parse time of one file.
+     */
+    private static class FileStats {
+
+        private final String name;
+        private final long rows;
+        private final long nanos;
+
+        private FileStats(String name, long rows, long nanos) {
+            this.name = name;
+            this.rows = rows;
+            this.nanos = nanos;
+        }
+
+        private long rowsPerSecond() {
+            return nanos == 0 ? 0 : rows * 1_000_000_000L / nanos;
+        }
+    }
+
+    /**
+     * Constructor for a run's metrics.
+     *
+     * @param books supplies the run's books, whose counters are summed on demand
+     */
+    public RunMetrics(Supplier<List<SymbolBook>> books) {
+        this.books = books;
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server, replacing metrics registered by an earlier
+     * run in the same JVM.
+     */
+    public void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            try {
+                server.registerMBean(this, name);
+            } catch (InstanceAlreadyExistsException e) {
+                try {
+                    server.unregisterMBean(name);
+                } catch (InstanceNotFoundException ignored) {
+                    // unregistered concurrently; register below
+                }
+                server.registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            UtilLogger.logError("could not register run metrics with JMX", e);
+        }
+    }
+
+    /**
+     * Starts timing a phase.
+     *
+     * @param phase the phase
+     */
+    public void begin(Phase phase) {
+        beganBytes[phase.ordinal()] = allocatedBytes();
+        beganNanos[phase.ordinal()] = System.nanoTime();
+    }
+
+    /**
+     * Stops timing a phase, adding to any earlier time spent in it.
+     *
+     * @param phase the phase
+     */
+    public void end(Phase phase) {
+        phaseNanos[phase.ordinal()] += System.nanoTime() - beganNanos[phase.ordinal()];
+        long bytes = allocatedBytes();
+        phaseBytes[phase.ordinal()] = bytes < 0 ? -1 : phaseBytes[phase.ordinal()] + bytes - beganBytes[phase.ordinal()];
+    }
+
+    /**
+     * Records one parsed file. Safe to call from any thread.
+     *
+     * @param name  the file name
+     * @param rows  the number of transactions read
+     * @param nanos the time taken to parse it
+     */
+    public void recordFile(String name, long rows, long nanos) {
+        files.add(new FileStats(name, rows, nanos));
+    }
+
+    /**
+     * Records a SELL rejected for lack of shares. Safe to call from any thread.
+     */
+    public void recordRejectedSell() {
+        rejectedSells.increment();
+    }
+
+    /**
+     * Sums every book's counters.
+     *
+     * @return the totals
+     */
+    public MatchCounters totals() {
+        MatchCounters total = new MatchCounters();
+        for (SymbolBook book : books.get()) {
+            book.getCounters().addTo(total);
+        }
+        return total;
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean allocation
+                && allocation.isThreadAllocatedMemorySupported() && allocation.isThreadAllocatedMemoryEnabled()) {
+            return allocation.getTotalThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    @Override
+    public Map<String, Long> getPhaseMillis() {
+        Map<String, Long> millis = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            millis.put(phase.name(), phaseNanos[phase.ordinal()] / 1_000_000);
+        }
+        return millis;
+    }
+
+    @Override
+    public Map<String, Long> getPhaseAllocatedBytes() {
+        Map<String, Long> bytes = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            bytes.put(phase.name(), phaseBytes[phase.ordinal()]);
+        }
+        return bytes;
+    }
+
+    @Override
+    public Map<String, Long> getFileRowsPerSecond() {
+        Map<String, Long> rates = new LinkedHashMap<>();
+        for (FileStats file : files) {
+            rates.put(file.name, file.rowsPerSecond());
+        }
+        return rates;
+    }
+
+    @Override
+    public long getBuys() {
+        return totals().getBuys();
+    }
+
+    @Override
+    public long getSells() {
+        return totals().getSells();
+    }
+
+    @Override
+    public long getRejectedSells() {
+        return rejectedSells.sum();
+    }
+
+    @Override
+    public long getPartialFills() {
+        return totals().getPartialFills();
+    }
+
+    @Override
+    public Map<String, Long> getLotsPerSell() {
+        long[] histogram = totals().getLotsPerSell();
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int b = 0; b < histogram.length; b++) {
+            buckets.put(bucketLabel(b), histogram[b]);
+        }
+        return buckets;
+    }
+
+    private static String bucketLabel(int bucket) {
+        if (bucket == 0) {
+            return "1";
+        }
+        if (bucket == 1) {
+            return "2";
+        }
+        if (bucket == MatchCounters.BUCKETS - 1) {
+            return ((1 << (bucket - 1)) + 1) + "+";
+        }
+        return ((1 << (bucket - 1)) + 1) + "-" + (1 << bucket);
+    }
+
+    @Override
+    public Map<String, Integer> getPeakOpenLots() {
+        Map<String, Integer> peaks = new LinkedHashMap<>();
+        for (SymbolBook book : books.get()) {
+            peaks.put(book.getSymbol(), book.getCounters().getPeakOpenLots());
+        }
+        return peaks;
+    }
+
+    @Override
+    public String getSummaryJson() {
+        MatchCounters totals = totals();
+        StringBuilder json = new StringBuilder(1024);
+        json.append("{\n  \"startedAt\": \"").append(startedAt).append("\",\n  \"phases\": {");
+        String separator = "\n";
+        for (Phase phase : Phase.values()) {
+            json.append(separator).append("    \"").append(phase.name()).append("\": {\"millis\": ")
+                    .append(phaseNanos[phase.ordinal()] / 1_000_000).append(", \"allocatedBytes\": ")
+                    .append(phaseBytes[phase.ordinal()]).append('}');
+            separator = ",\n";
+        }
+        json.append("\n  },\n  \"files\": [");
+        separator = "\n";
+        for (FileStats file : files) {
+            json.append(separator).append("    {\"name\": ");
+            appendString(json, file.name);
+            json.append(", \"rows\": ").append(file.rows).append(", \"millis\": ").append(file.nanos / 1_000_000)
+                    .append(", \"rowsPerSecond\": ").append(file.rowsPerSecond()).append('}');
+            separator = ",\n";
+        }
+        json.append(files.isEmpty() ? "]" : "\n  ]");
+        json.append(",\n  \"buys\": ").append(totals.getBuys())
+                .append(",\n  \"sells\": ").append(totals.getSells())
+                .append(",\n  \"rejectedSells\": ").append(rejectedSells.sum())
+                .append(",\n  \"partialFills\": ").append(totals.getPartialFills())
+                .append(",\n  \"lotsPerSell\": {");
+        long[] histogram = totals.getLotsPerSell();
+        separator = "";
+        for (int b = 0; b < histogram.length; b++) {
+            json.append(separator).append('"').append(bucketLabel(b)).append("\": ").append(histogram[b]);
+            separator = ", ";
+        }
+        json.append("},\n  \"peakOpenLots\": {\"max\": ").append(totals.getPeakOpenLots()).append(", \"bySymbol\": {");
+        separator = "";
+        for (SymbolBook book : books.get()) {
+            json.append(separator);
+            appendString(json, book.getSymbol());
+            json.append(": ").append(book.getCounters().getPeakOpenLots());
+            separator = ", ";
+        }
+        return json.append("}}\n}\n").toString();
+    }
+
+    /**
+     * Writes the JSON summary.
+     *
+     * @param path the file to write, or {@code null} for {@code logs/<start time>_metrics.json}
+     * @return the file written
+     * @throws IOException if the file cannot be written
+     */
+    public Path writeJson(Path path) throws IOException {
+        Path file = path != null ? path : Path.of("logs", startedAt.format(fileDtf) + "_metrics.json");
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, getSummaryJson(), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,88 @@
+package com.zeyadrashed.util;
+
+import java.util.Map;
+
+/**
+ * JMX view of a run's {@link RunMetrics}, registered as {@code com.zeyadrashed:type=RunMetrics}.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public interface RunMetricsMXBean {
+
+    /**
+     * Gets the wall time spent in each phase so far.
+     *
+     * @return milliseconds by phase name
+     */
+    Map<String, Long> getPhaseMillis();
+
+    /**
+     * Gets the heap allocated by all threads during each phase so far.
+     *
+     * @return bytes by phase name, or -1 where the JVM cannot measure allocation
+     */
+    Map<String, Long> getPhaseAllocatedBytes();
+
+    /**
+     * Gets the parse rate of each file loaded so far.
+     *
+     * @return rows per second by file name
+     */
+    Map<String, Long> getFileRowsPerSecond();
+
+    /**
+     * Gets the number of BUYs processed.
+     *
+     * @return number of BUYs
+     */
+    long getBuys();
+
+    /**
+     * Gets the number of SELLs matched.
+     *
+     * @return number of SELLs
+     */
+    long getSells();
+
+    /**
+     * Gets the number of SELLs rejected for lack of shares.
+     *
+     * @return number of rejected SELLs
+     */
+    long getRejectedSells();
+
+    /**
+     * Gets the number of SELLs that left their last lot partially consumed.
+     *
+     * @return number of partial fills
+     */
+    long getPartialFills();
+
+    /**
+     * Gets the histogram of lots consumed per SELL.
+     *
+     * @return SELL counts by bucket label, such as {@code "1"}, {@code "3-4"} or {@code "16385+"}
+     */
+    Map<String, Long> getLotsPerSell();
+
+    /**
+     * Gets the most lots open at once for each symbol.
+     *
+     * @return peak open lots by symbol
+     */
+    Map<String, Integer> getPeakOpenLots();
+
+    /**
+     * Gets everything above as one JSON document.
+     *
+     * @return the JSON summary
+     */
+    String getSummaryJson();
+}
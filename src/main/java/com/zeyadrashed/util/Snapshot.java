@@ -0,0 +1,444 @@
+package com.zeyadrashed.util;
+
+import com.zeyadrashed.engine.AverageCostLots;
+import com.zeyadrashed.engine.GainSeries;
+import com.zeyadrashed.engine.LotMethod;
+import com.zeyadrashed.engine.LotSelection;
+import com.zeyadrashed.engine.SplitFactors;
+import com.zeyadrashed.engine.SymbolBook;
+import com.zeyadrashed.engine.WashSaleTracker;
+import com.zeyadrashed.obj.Position;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Binary checkpoint of the engine state, so a daily run only has to process what is new.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * A snapshot holds every symbol's open lots, position summary and cumulative gain, plus a watermark:
+ * the last processed date and the names of the files already consumed. The layout is
+ * </p>
+ * <pre>
+ * int magic, int version, int watermarkDay, byte fixedPoint, byte lotMethod, byte washSales
+ * int fileCount, fileCount x string
+ * int symbolCount, symbolCount x {
+ *     string symbol, string name, int salesMatched, double gain, long gainMicros,
+ *     long openShares, double openCostBasis, long openCostBasisMicros, double lotCostBasis,
+ *     int lotCount, lotCount x int day, lotCount x int quantity, lotCount x long price, lotCount x long lotId,
+ *     lotCount x int epoch,
+ *     int gainDays, gainDays x int day, gainDays x long cumulativeGain,
+ *     int washStateLength, washStateLength x long washState,
+ *     int splitStateLength, splitStateLength x long splitState
+ * }
+ * int aliasCount, aliasCount x { string alias, string symbol }
+ * </pre>
+ * <p>
+ * with strings stored as an unsigned short length and UTF-8 bytes. Lot prices are stored exactly as the
+ * book holds them (micros, or the raw bits of a double), so a restored book continues in the same mode, and
+ * so are the cumulative gains of its {@link GainSeries}. A book that detects wash sales saves its
+ * {@link WashSaleTracker} state (its window, pending losses and deferred basis), otherwise the length is 0.
+ * The lot cost basis is what the lots themselves carry in double mode, the open cost basis without the
+ * deferred losses; an {@link AverageCostLots} pool saves its own total, since taking the deferrals back
+ * out of the basis would not give the same bits.
+ * Likewise a book whose symbol has split saves its {@link SplitFactors}, and each lot the split epoch it is
+ * still stated in. A book renamed by a ticker change saves the symbol it trades under as its name, and each
+ * symbol left pointing at a book by a rename is saved as an alias of that book's symbol, so rows under
+ * either symbol reach the book after a restore. Lots are listed in the order they were opened
+ * whatever the lot-relief method. Lots are stored column by column so
+ * loading is a bulk copy from the mapped file into the lot arrays. Snapshots are
+ * written to a temporary file and moved into place, so a crash never leaves a half-written snapshot.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class Snapshot {
+
+    private static final int MAGIC = 0x43435350; // "CCSP"
+    private static final int VERSION = 8;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final int watermarkDay;
+    private final Set<String> consumedFiles;
+    private final boolean fixedPoint;
+    private final LotMethod lotMethod;
+    private final boolean washSales;
+    private final List<SymbolBook> books;
+    private final Map<String, String> aliases;
+
+    /**
+     * Constructor for a snapshot with no renamed symbols.
+     *
+     * @param watermarkDay  the last processed date as an epoch-day, or {@link Integer#MIN_VALUE} if none
+     * @param consumedFiles names of the CSV files already processed
+     * @param fixedPoint    true if the books keep their money in fixed-point micros
+     * @param lotMethod     the lot-relief method the books use
+     * @param washSales     true if the books detect wash sales
+     * @param books         every symbol's book, including its cumulative gain
+     */
+    public Snapshot(int watermarkDay, Set<String> consumedFiles, boolean fixedPoint, LotMethod lotMethod,
+                    boolean washSales, List<SymbolBook> books) {
+        this(watermarkDay, consumedFiles, fixedPoint, lotMethod, washSales, books, Map.of());
+    }
+
+    /**
+     * Constructor for a snapshot.
+     *
+     * @param watermarkDay  the last processed date as an epoch-day, or {@link Integer#MIN_VALUE} if none
+     * @param consumedFiles names of the CSV files already processed
+     * @param fixedPoint    true if the books keep their money in fixed-point micros
+     * @param lotMethod     the lot-relief method the books use
+     * @param washSales     true if the books detect wash sales
+     * @param books         every symbol's book, including its cumulative gain
+     * @param aliases       each symbol left pointing at a book by a rename, mapped to the book's own symbol
+     */
+    public Snapshot(int watermarkDay, Set<String> consumedFiles, boolean fixedPoint, LotMethod lotMethod,
+                    boolean washSales, List<SymbolBook> books, Map<String, String> aliases) {
+        this.watermarkDay = watermarkDay;
+        this.consumedFiles = consumedFiles;
+        this.fixedPoint = fixedPoint;
+        this.lotMethod = lotMethod;
+        this.washSales = washSales;
+        this.books = books;
+        this.aliases = aliases;
+    }
+
+    /**
+     * Writes the snapshot to a file, replacing any existing snapshot atomically.
+     *
+     * @param path the snapshot file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path path) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buf.putInt(MAGIC).putInt(VERSION).putInt(watermarkDay).put((byte) (fixedPoint ? 1 : 0))
+                    .put((byte) lotMethod.ordinal()).put((byte) (washSales ? 1 : 0));
+            buf.putInt(consumedFiles.size());
+            for (String file : consumedFiles) {
+                putString(channel, buf, file);
+            }
+
+            buf.putInt(books.size());
+            for (SymbolBook book : books) {
+                putString(channel, buf, SymbolDictionary.nameOf(book.getSymbolId()));
+                putString(channel, buf, book.getSymbol());
+                Position position = book.getPosition();
+                LotSelection lots = book.getLots();
+                WashSaleTracker tracker = book.getWashSales();
+                double lotCostBasis = lots instanceof AverageCostLots pool ? pool.getCost()
+                        : tracker == null ? position.getOpenCostBasis()
+                        : position.getOpenCostBasis() - tracker.getDeferredBasis();
+                ensure(channel, buf, 4 + 8 + 8 + 8 + 8 + 8 + 8 + 4);
+                buf.putInt(book.getSalesMatched()).putDouble(book.getRealizedGain()).putLong(book.getRealizedGainMicros());
+                buf.putLong(position.getOpenShares()).putDouble(position.getOpenCostBasis())
+                        .putLong(position.getOpenCostBasisMicros()).putDouble(lotCostBasis);
+
+                int size = lots.size();
+                int[] days = new int[size];
+                int[] quantities = new int[size];
+                long[] prices = new long[size];
+                long[] lotIds = new long[size];
+                int[] epochs = new int[size];
+                int[] next = new int[1];
+                lots.forEach((day, quantity, price, lotId, epoch) -> {
+                    int i = next[0]++;
+                    days[i] = day;
+                    quantities[i] = quantity;
+                    prices[i] = price;
+                    lotIds[i] = lotId;
+                    epochs[i] = epoch;
+                });
+
+                buf.putInt(size);
+                for (int i = 0; i < size; i++) {
+                    ensure(channel, buf, 4);
+                    buf.putInt(days[i]);
+                }
+                for (int i = 0; i < size; i++) {
+                    ensure(channel, buf, 4);
+                    buf.putInt(quantities[i]);
+                }
+                for (int i = 0; i < size; i++) {
+                    ensure(channel, buf, 8);
+                    buf.putLong(prices[i]);
+                }
+                for (int i = 0; i < size; i++) {
+                    ensure(channel, buf, 8);
+                    buf.putLong(lotIds[i]);
+                }
+                for (int i = 0; i < size; i++) {
+                    ensure(channel, buf, 4);
+                    buf.putInt(epochs[i]);
+                }
+
+                GainSeries gainSeries = book.getGainSeries();
+                ensure(channel, buf, 4);
+                buf.putInt(gainSeries.size());
+                for (int i = 0; i < gainSeries.size(); i++) {
+                    ensure(channel, buf, 4);
+                    buf.putInt(gainSeries.dayAt(i));
+                }
+                for (int i = 0; i < gainSeries.size(); i++) {
+                    ensure(channel, buf, 8);
+                    buf.putLong(gainSeries.totalAt(i));
+                }
+
+                long[] washState = tracker == null ? new long[0] : tracker.exportState();
+                ensure(channel, buf, 4);
+                buf.putInt(washState.length);
+                for (long value : washState) {
+                    ensure(channel, buf, 8);
+                    buf.putLong(value);
+                }
+
+                SplitFactors splits = book.getSplits();
+                long[] splitState = splits == null ? new long[0] : splits.exportState();
+                ensure(channel, buf, 4);
+                buf.putInt(splitState.length);
+                for (long value : splitState) {
+                    ensure(channel, buf, 8);
+                    buf.putLong(value);
+                }
+            }
+            ensure(channel, buf, 4);
+            buf.putInt(aliases.size());
+            for (Map.Entry<String, String> alias : aliases.entrySet()) {
+                putString(channel, buf, alias.getKey());
+                putString(channel, buf, alias.getValue());
+            }
+            drain(channel, buf);
+            channel.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a snapshot from a memory-mapped file.
+     *
+     * @param path the snapshot file
+     * @return the snapshot
+     * @throws IOException if the file cannot be read or is not a snapshot
+     */
+    public static Snapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("snapshot too large to map: " + path);
+            }
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buf.getInt() != MAGIC) {
+                throw new IOException("not a snapshot file: " + path);
+            }
+            int version = buf.getInt();
+            if (version != VERSION) {
+                throw new IOException("unsupported snapshot version " + version + ": " + path);
+            }
+            int watermarkDay = buf.getInt();
+            boolean fixedPoint = buf.get() != 0;
+            LotMethod lotMethod = LotMethod.values()[buf.get()];
+            boolean washSales = buf.get() != 0;
+
+            int fileCount = buf.getInt();
+            Set<String> consumedFiles = new LinkedHashSet<>();
+            for (int i = 0; i < fileCount; i++) {
+                consumedFiles.add(getString(buf));
+            }
+
+            int symbolCount = buf.getInt();
+            List<SymbolBook> books = new ArrayList<>(symbolCount);
+            for (int s = 0; s < symbolCount; s++) {
+                String symbol = getString(buf);
+                String name = getString(buf);
+                int salesMatched = buf.getInt();
+                double gain = buf.getDouble();
+                long gainMicros = buf.getLong();
+                long openShares = buf.getLong();
+                double openCostBasis = buf.getDouble();
+                long openCostBasisMicros = buf.getLong();
+                double lotCostBasis = buf.getDouble();
+                Position position = fixedPoint ? new Position(openShares, openCostBasisMicros)
+                        : new Position(openShares, openCostBasis);
+
+                int size = buf.getInt();
+                int[] days = new int[size];
+                int[] quantities = new int[size];
+                long[] prices = new long[size];
+                buf.asIntBuffer().get(days);
+                buf.position(buf.position() + size * 4);
+                buf.asIntBuffer().get(quantities);
+                buf.position(buf.position() + size * 4);
+                buf.asLongBuffer().get(prices);
+                buf.position(buf.position() + size * 8);
+                long[] lotIds = new long[size];
+                buf.asLongBuffer().get(lotIds);
+                buf.position(buf.position() + size * 8);
+                int[] epochs = new int[size];
+                buf.asIntBuffer().get(epochs);
+                buf.position(buf.position() + size * 4);
+                int gainDays = buf.getInt();
+                int[] saleDays = new int[gainDays];
+                long[] totals = new long[gainDays];
+                buf.asIntBuffer().get(saleDays);
+                buf.position(buf.position() + gainDays * 4);
+                buf.asLongBuffer().get(totals);
+                buf.position(buf.position() + gainDays * 8);
+
+                WashSaleTracker tracker = null;
+                Position lotCost = fixedPoint ? position : new Position(openShares, lotCostBasis);
+                int washStateLength = buf.getInt();
+                if (washStateLength > 0) {
+                    long[] washState = new long[washStateLength];
+                    buf.asLongBuffer().get(washState);
+                    buf.position(buf.position() + washStateLength * 8);
+                    tracker = new WashSaleTracker(fixedPoint, washState);
+                    if (fixedPoint) {
+                        // deferred losses are in the position's basis but not yet in any lot's price
+                        lotCost = new Position(openShares, openCostBasisMicros - tracker.getDeferredBasisMicros());
+                    }
+                }
+
+                SplitFactors splits = null;
+                int splitStateLength = buf.getInt();
+                if (splitStateLength > 0) {
+                    long[] splitState = new long[splitStateLength];
+                    buf.asLongBuffer().get(splitState);
+                    buf.position(buf.position() + splitStateLength * 8);
+                    splits = new SplitFactors(fixedPoint, splitState);
+                }
+
+                LotSelection lots = lotMethod.restore(fixedPoint, days, quantities, prices, lotIds, epochs, splits,
+                        lotCost);
+                SymbolBook book = new SymbolBook(SymbolDictionary.idOf(symbol), fixedPoint, lots, position);
+                if (splits != null) {
+                    book.restoreSplits(splits);
+                }
+                book.restoreGain(gain, gainMicros, salesMatched);
+                book.restoreGainSeries(new GainSeries(fixedPoint, saleDays, totals, gainDays));
+                book.restoreWashSales(tracker);
+                if (!name.equals(symbol)) {
+                    book.rename(SymbolDictionary.idOf(name));
+                }
+                books.add(book);
+            }
+
+            int aliasCount = buf.getInt();
+            Map<String, String> aliases = new LinkedHashMap<>();
+            for (int i = 0; i < aliasCount; i++) {
+                String alias = getString(buf);
+                aliases.put(alias, getString(buf));
+            }
+            return new Snapshot(watermarkDay, consumedFiles, fixedPoint, lotMethod, washSales, books, aliases);
+        }
+    }
+
+    /**
+     * Gets the last processed date.
+     *
+     * @return epoch-day, or {@link Integer#MIN_VALUE} if nothing has been processed
+     */
+    public int getWatermarkDay() {
+        return watermarkDay;
+    }
+
+    /**
+     * Gets the names of the CSV files already processed.
+     *
+     * @return file names
+     */
+    public Set<String> getConsumedFiles() {
+        return consumedFiles;
+    }
+
+    /**
+     * Gets every symbol's book.
+     *
+     * @return books
+     */
+    public List<SymbolBook> getBooks() {
+        return books;
+    }
+
+    /**
+     * Gets the symbols left pointing at a book by a rename.
+     *
+     * @return each alias mapped to the symbol of the book it points at
+     */
+    public Map<String, String> getAliases() {
+        return aliases;
+    }
+
+    /**
+     * Checks whether the books keep their money in fixed-point micros.
+     *
+     * @return true in fixed-point mode
+     */
+    public boolean isFixedPoint() {
+        return fixedPoint;
+    }
+
+    /**
+     * Gets the lot-relief method the books use.
+     *
+     * @return lot method
+     */
+    public LotMethod getLotMethod() {
+        return lotMethod;
+    }
+
+    /**
+     * Checks whether the books detect wash sales.
+     *
+     * @return true if wash sales are detected
+     */
+    public boolean isWashSales() {
+        return washSales;
+    }
+
+    private static void putString(FileChannel channel, ByteBuffer buf, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IOException("string too long for snapshot: " + value.substring(0, 32) + "...");
+        }
+        ensure(channel, buf, 2 + bytes.length);
+        buf.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.getShort() & 0xFFFF];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the buffer out if fewer than {@code bytes} bytes remain in it.
+     */
+    private static void ensure(FileChannel channel, ByteBuffer buf, int bytes) throws IOException {
+        if (buf.remaining() < bytes) {
+            drain(channel, buf);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+        buf.clear();
+    }
+}
@@ -0,0 +1,95 @@
+package com.zeyadrashed.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide dictionary that assigns every stock symbol a dense int ID the first time it is seen.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * Parsers intern each ticker once and hand the engine its ID, so per-symbol state can live in arrays
+ * indexed by ID and the matching path never hashes a String. IDs count up from 0 in first-seen order and
+ * are never reused; names are only looked up again for output. Lookups are lock-free and assigning a new
+ * ID takes a short lock, so parsers on several threads can share the dictionary. An ID's name never changes,
+ * since every calculator in the process shares the dictionary; a ticker change is an alias kept by the
+ * calculator that applies it.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public final class SymbolDictionary {
+
+    private static final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private static final Object lock = new Object();
+    private static volatile String[] names = new String[256];
+    private static volatile int size;
+
+    private SymbolDictionary() {
+    }
+
+    /**
+     * Gets the ID of a symbol, assigning the next free ID if the symbol is new.
+     *
+     * @param symbol the stock symbol
+     * @return the symbol's ID
+     */
+    public static int idOf(String symbol) {
+        Integer id = ids.get(symbol);
+        if (id != null) {
+            return id;
+        }
+        synchronized (lock) {
+            id = ids.get(symbol);
+            if (id != null) {
+                return id;
+            }
+            int next = size;
+            String[] current = names;
+            if (next == current.length) {
+                current = Arrays.copyOf(current, next * 2);
+            }
+            current[next] = symbol;
+            // publish the name before the ID, so anyone holding the ID can resolve it
+            names = current;
+            size = next + 1;
+            ids.put(symbol, next);
+            return next;
+        }
+    }
+
+    /**
+     * Gets the ID of a symbol without assigning one.
+     *
+     * @param symbol the stock symbol
+     * @return the symbol's ID, or -1 if it has never been seen
+     */
+    public static int find(String symbol) {
+        Integer id = ids.get(symbol);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Gets the symbol for an ID.
+     *
+     * @param id an ID returned by {@link #idOf(String)}
+     * @return the stock symbol
+     */
+    public static String nameOf(int id) {
+        return names[id];
+    }
+
+    /**
+     * Gets the number of IDs assigned so far; every ID is below this value.
+     *
+     * @return number of symbols
+     */
+    public static int size() {
+        return size;
+    }
+}
@@ -0,0 +1,244 @@
+package com.zeyadrashed.util;
+
+import com.zeyadrashed.obj.Transaction;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Streams transactions from several CSV files in date order using a lazy k-way merge.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ * <p>
+ * Each file is scanned once up front. Files that are already in date order are merged straight from
+ * disk; files that are not are cut into runs of at most {@code runSize} rows, each run is sorted and
+ * spilled to a temporary file, and the runs are merged like any other sorted file. The merge keeps
+ * one pending row per source in a priority queue, so memory is bounded by the number of sources
+ * (plus one run while spilling) rather than by the number of rows.
+ * </p>
+ * <p>
+ * Ties on date are broken by source order (files in the order given, runs in file order), which
+ * yields exactly the order a stable sort of all files concatenated would produce.
+ * </p>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class TransactionMerger implements Closeable {
+
+    /**
+     * Default number of rows sorted in memory at once when spilling an unsorted file.
+     */
+    public static final int DEFAULT_RUN_SIZE = 1_000_000;
+
+    private final List<Source> sources = new ArrayList<>();
+    private final List<File> spillFiles = new ArrayList<>();
+    private final PriorityQueue<Source> heap = new PriorityQueue<>(
+            Comparator.comparingInt((Source s) -> s.head.getEpochDay()).thenComparingInt(s -> s.index));
+    private final int runSize;
+    private final boolean fixedPoint;
+    private boolean primed;
+
+    /**
+     * Constructor for an empty merger for a calculator that keeps money in doubles; files are added with
+     * {@link #addFile(File)}.
+     *
+     * @param runSize the maximum number of rows sorted in memory when spilling an unsorted file
+     */
+    public TransactionMerger(int runSize) {
+        this(runSize, false);
+    }
+
+    /**
+     * Constructor for an empty merger; files are added with {@link #addFile(File)}.
+     *
+     * @param runSize    the maximum number of rows sorted in memory when spilling an unsorted file
+     * @param fixedPoint true to parse each price's exact fixed-point micros
+     */
+    public TransactionMerger(int runSize, boolean fixedPoint) {
+        this.runSize = runSize;
+        this.fixedPoint = fixedPoint;
+    }
+
+    /**
+     * Adds a CSV file to the merge, spilling it into sorted runs first if its rows are out of date order.
+     * A file that cannot be read or parsed throws before any of its rows are added.
+     *
+     * @param file the CSV file
+     * @return the number of transactions in the file
+     * @throws IOException if there is an error reading the file or writing a spill file
+     */
+    public int addFile(File file) throws IOException {
+        if (primed) {
+            throw new IllegalStateException("files cannot be added once merging has started");
+        }
+
+        int rows = 0;
+        boolean sorted = true;
+        try (TransactionReader reader = new TransactionReader(file.getAbsolutePath(), fixedPoint)) {
+            Transaction transaction;
+            int previousDay = Integer.MIN_VALUE;
+            while ((transaction = reader.next()) != null) {
+                int day = transaction.getEpochDay();
+                if (day < previousDay) {
+                    sorted = false;
+                }
+                previousDay = day;
+                rows++;
+            }
+        }
+
+        if (sorted) {
+            UtilLogger.logDebug("file is already sorted by date: " + file.getName());
+            sources.add(new Source(sources.size(), new TransactionReader(file.getAbsolutePath(), fixedPoint), null));
+        } else {
+            spill(file);
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the next transaction in date order.
+     *
+     * @return the next transaction, or {@code null} once every source is exhausted
+     * @throws IOException if there is an error reading a source
+     */
+    public Transaction next() throws IOException {
+        if (!primed) {
+            primed = true;
+            for (Source source : sources) {
+                if (source.advance()) {
+                    heap.add(source);
+                }
+            }
+        }
+
+        Source source = heap.poll();
+        if (source == null) {
+            return null;
+        }
+        Transaction transaction = source.head;
+        if (source.advance()) {
+            heap.add(source);
+        }
+        return transaction;
+    }
+
+    /**
+     * Closes all open sources and deletes any spill files.
+     *
+     * @throws IOException if a source fails to close
+     */
+    @Override
+    public void close() throws IOException {
+        for (Source source : sources) {
+            source.reader.close();
+        }
+        for (File spillFile : spillFiles) {
+            if (!spillFile.delete()) {
+                UtilLogger.logWarning("could not delete spill file: " + spillFile);
+            }
+        }
+    }
+
+    /**
+     * Cuts an unsorted file into sorted runs on disk and adds each run as a source.
+     *
+     * @param file the unsorted CSV file
+     * @throws IOException if there is an error reading the file or writing a run
+     */
+    private void spill(File file) throws IOException {
+        int runs = 0;
+        try (TransactionReader reader = new TransactionReader(file.getAbsolutePath(), fixedPoint)) {
+            List<Transaction> run = new ArrayList<>(Math.min(runSize, 1 << 16));
+            Transaction transaction;
+            do {
+                transaction = reader.next();
+                if (transaction != null) {
+                    run.add(transaction);
+                }
+                if (run.size() == runSize || (transaction == null && !run.isEmpty())) {
+                    DateSort.sort(run);
+                    File spillFile = writeRun(run);
+                    sources.add(new Source(sources.size(), new TransactionReader(spillFile.getAbsolutePath(), fixedPoint),
+                            spillFile));
+                    run.clear();
+                    runs++;
+                }
+            } while (transaction != null);
+        }
+        UtilLogger.logInfo("spilled unsorted file " + file.getName() + " into " + runs + " sorted run(s)");
+    }
+
+    /**
+     * Writes a sorted run to a temporary CSV file. Prices are written with {@link Double#toString(double)}
+     * so they parse back to the same value, and the lot and account columns are kept when the row has them.
+     *
+     * @param run the sorted rows
+     * @return the spill file
+     * @throws IOException if there is an error writing the file
+     */
+    private File writeRun(List<Transaction> run) throws IOException {
+        File spillFile = File.createTempFile("capitalcalc_run_", ".csv");
+        spillFiles.add(spillFile);
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(spillFile))) {
+            for (Transaction t : run) {
+                bw.write(t.getDate() + "," + t.getType() + "," + t.getSymbol() + "," + t.getQuantity() + "," + t.getPrice());
+                if (t.getAccountId() != AccountDictionary.DEFAULT) {
+                    // the lot column stays in place, empty if the row has no lot
+                    bw.write("," + (t.getLotId() != 0 ? Long.toString(t.getLotId()) : "") + "," + t.getAccount());
+                } else if (t.getLotId() != 0) {
+                    bw.write("," + t.getLotId());
+                }
+                bw.newLine();
+            }
+        }
+        return spillFile;
+    }
+
+    /**
+     * One sorted input to the merge and its pending row.
+     */
+    private static class Source {
+
+        private final int index;
+        private final TransactionReader reader;
+        private final File spillFile;
+        private Transaction head;
+
+        private Source(int index, TransactionReader reader, File spillFile) {
+            this.index = index;
+            this.reader = reader;
+            this.spillFile = spillFile;
+        }
+
+        /**
+         * Reads the next row into {@code head}, closing the reader once it is exhausted.
+         *
+         * @return true if a row was read
+         * @throws IOException if there is an error reading the source
+         */
+        private boolean advance() throws IOException {
+            head = reader.next();
+            if (head == null) {
+                reader.close();
+                if (spillFile != null) {
+                    UtilLogger.logDebug("finished merging run " + spillFile.getName());
+                }
+                return false;
+            }
+            return true;
+        }
+    }
+}
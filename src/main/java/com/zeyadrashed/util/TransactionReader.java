@@ -0,0 +1,73 @@
+package com.zeyadrashed.util;
+
+import com.zeyadrashed.obj.Transaction;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FileReader;
+import java.io.IOException;
+
+/**
+ * Reads transactions from a CSV file one row at a time, so a file can be consumed without holding
+ * all of its rows in memory. Rows are parsed exactly as {@link CSVParser#parseCSV(String, boolean)} does.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class TransactionReader implements Closeable {
+
+    private final BufferedReader br;
+    private final boolean fixedPoint;
+    private boolean isFirstLine = true;
+
+    /**
+     * Opens a CSV file for reading for a calculator that keeps money in doubles.
+     *
+     * @param filePath the path to the CSV file
+     * @throws IOException if the file cannot be opened
+     */
+    public TransactionReader(String filePath) throws IOException {
+        this(filePath, false);
+    }
+
+    /**
+     * Opens a CSV file for reading.
+     *
+     * @param filePath   the path to the CSV file
+     * @param fixedPoint true to parse each price's exact fixed-point micros
+     * @throws IOException if the file cannot be opened
+     */
+    public TransactionReader(String filePath, boolean fixedPoint) throws IOException {
+        this.br = new BufferedReader(new FileReader(filePath));
+        this.fixedPoint = fixedPoint;
+    }
+
+    /**
+     * Reads the next transaction, skipping the header and short rows.
+     *
+     * @return the next transaction, or {@code null} at the end of the file
+     * @throws IOException if there is an error reading the file
+     */
+    public Transaction next() throws IOException {
+        String line;
+        while ((line = br.readLine()) != null) {
+            Transaction transaction = CSVParser.parseLine(line, isFirstLine, fixedPoint);
+            isFirstLine = false;
+            if (transaction != null) {
+                return transaction;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        br.close();
+    }
+}
@@ -1,8 +1,18 @@
 package com.zeyadrashed.util;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Util class for building log files for bug testing/error handling.
@@ -11,6 +21,19 @@ import java.time.format.DateTimeFormatter;
  * <p>Chapter 6 Project</p>
  * <p>Rutgers ID: 199009651</p>
  * <br>
+ * <p>
+ * Messages below the current {@link Level} are dropped on entry, and callers building expensive messages
+ * should check {@link #isDebugEnabled()} / {@link #isInfoEnabled()} first. Enabled messages are handed to
+ * a bounded ring buffer and written to {@code logs/} by a background thread while the program runs, so
+ * the log never accumulates in the heap; when the buffer is full, callers wait for the writer to catch up.
+ * All methods are safe to call from any thread. Callers hold a shared lock while they queue a message, and
+ * stopping the writer holds it exclusively, so nothing can be queued behind the writer's stop marker and lost.
+ * </p>
+ * <p>
+ * The level defaults to INFO and can be set with {@code -Dcapitalcalc.log.level=DEBUG} or
+ * {@link #setLevel(Level)}; the buffer size with {@code -Dcapitalcalc.log.buffer}. Messages about single
+ * transactions are logged at DEBUG, so a run at the default level logs only its phases and summaries.
+ * </p>
  *
  * @author Zeyad "zmr15" Rashed
  * @mailto zmr15@scarletmail.rutgers.edu
@@ -18,8 +41,86 @@ import java.time.format.DateTimeFormatter;
  */
 public class UtilLogger {
 
-    private static final StringBuilder logBuffer = new StringBuilder();
+    /**
+     * Log levels, from most to least verbose.
+     */
+    public enum Level {
+        DEBUG("DEBUG ["),
+        INFO("INFO  ["),
+        WARN("WARN ["),
+        ERROR("ERROR [");
+
+        private final String prefix;
+
+        Level(String prefix) {
+            this.prefix = prefix;
+        }
+    }
+
     private static final DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter fileDtf = DateTimeFormatter.ofPattern("yyyy_MM_dd_HH_mm_ss");
+    private static final int BATCH_SIZE = 256;
+
+    private static final BlockingQueue<Object> buffer =
+            new ArrayBlockingQueue<>(Integer.getInteger("capitalcalc.log.buffer", 8192));
+    private static final Object STOP = new Object();
+    private static final ReadWriteLock lifecycle = new ReentrantReadWriteLock();
+
+    private static volatile Level level = Level.valueOf(System.getProperty("capitalcalc.log.level", "INFO").toUpperCase());
+    private static volatile CachedClock clock = new CachedClock(-1, "");
+    private static volatile Thread writerThread;
+    private static LogWriter currentWriter;
+    private static Path logFile;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(UtilLogger::stopWriter, "UtilLogger-shutdown"));
+    }
+
+    /**
+     * Sets the minimum level that is logged.
+     *
+     * @param newLevel the new level
+     */
+    public static void setLevel(Level newLevel) {
+        level = newLevel;
+    }
+
+    /**
+     * Gets the minimum level that is logged.
+     *
+     * @return current level
+     */
+    public static Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Checks whether messages at a level are logged.
+     *
+     * @param messageLevel the level to check
+     * @return true if messages at the level are logged
+     */
+    public static boolean isEnabled(Level messageLevel) {
+        return messageLevel.compareTo(level) >= 0;
+    }
+
+    /**
+     * Checks whether debug messages are logged.
+     *
+     * @return true if debug messages are logged
+     */
+    public static boolean isDebugEnabled() {
+        return level == Level.DEBUG;
+    }
+
+    /**
+     * Checks whether info messages are logged.
+     *
+     * @return true if info messages are logged
+     */
+    public static boolean isInfoEnabled() {
+        return level.compareTo(Level.INFO) <= 0;
+    }
 
     /**
      * Logs an informational message.
@@ -27,12 +128,7 @@ public class UtilLogger {
      * @param message the info message to log
      */
     public static void logInfo(String message) {
-        String timestamp = LocalDateTime.now().format(dtf);
-        logBuffer.append("INFO  [")
-                .append(timestamp)
-                .append("] ")
-                .append(message)
-                .append(System.lineSeparator());
+        log(Level.INFO, message, null);
     }
 
     /**
@@ -42,17 +138,7 @@ public class UtilLogger {
      * @param e       the exception to log
      */
     public static void logError(String message, Exception e) {
-        String timestamp = LocalDateTime.now().format(dtf);
-        logBuffer.append("ERROR [")
-                .append(timestamp)
-                .append("] ")
-                .append(message)
-                .append(System.lineSeparator());
-        StringWriter sw = new StringWriter();
-        e.printStackTrace(new PrintWriter(sw));
-        String exceptionAsString = sw.toString();
-        logBuffer.append(exceptionAsString)
-                .append(System.lineSeparator());
+        log(Level.ERROR, message, e);
     }
 
     /**
@@ -61,12 +147,7 @@ public class UtilLogger {
      * @param message the debug message to log
      */
     public static void logDebug(String message) {
-        String timestamp = LocalDateTime.now().format(dtf);
-        logBuffer.append("DEBUG [")
-                .append(timestamp)
-                .append("] ")
-                .append(message)
-                .append(System.lineSeparator());
+        log(Level.DEBUG, message, null);
     }
 
     /**
@@ -75,40 +156,269 @@ public class UtilLogger {
      * @param message the debug message to log
      */
     public static void logWarning(String message) {
-        String timestamp = LocalDateTime.now().format(dtf);
-        logBuffer.append("WARN [")
-                .append(timestamp)
-                .append("] ")
-                .append(message)
-                .append(System.lineSeparator());
+        log(Level.WARN, message, null);
     }
 
     /**
-     * Exports the current log buffer content to a file in '/logs'.
+     * Finishes the current log file in '/logs', waiting until every buffered message has been written.
+     * Messages logged afterwards start a new file.
      *
-     * @throws IOException if an error occurs while writing to the file
+     * @throws IOException if the log file could not be written
      */
     public static void exportLog() throws IOException {
-        DateTimeFormatter fileDtf = DateTimeFormatter.ofPattern("yyyy_MM_dd_HH_mm_ss");
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter("logs/" + LocalDateTime.now().format(fileDtf) + ".log", true))) {
-            logInfo("program successfully finished executing @ " + LocalDateTime.now().format(dtf));
-            writer.write(logBuffer.toString());
+        logInfo("program successfully finished executing @ " + LocalDateTime.now().format(dtf));
+        IOException failure = stopWriter();
+        if (failure != null) {
+            throw failure;
         }
     }
 
     /**
-     * Clears the log buffer.
+     * Discards messages that have not been written yet.
      */
     public static void clearLog() {
-        logBuffer.setLength(0);
+        buffer.removeIf(entry -> entry instanceof Entry);
     }
 
     /**
-     * Returns the entire log as a single string.
+     * Returns everything written to the current log file so far, after flushing buffered messages.
      *
      * @return String
      */
     public static String getLog() {
-        return logBuffer.toString();
+        Path file;
+        CountDownLatch flushed = new CountDownLatch(1);
+        lifecycle.readLock().lock();
+        try {
+            if (writerThread == null) {
+                return "";
+            }
+            file = logFile;
+            // queued before the writer can be told to stop, so it is always counted down
+            enqueue(flushed);
+        } finally {
+            lifecycle.readLock().unlock();
+        }
+        try {
+            flushed.await();
+            return Files.readString(file, StandardCharsets.UTF_8);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "";
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    private static void log(Level messageLevel, String message, Exception e) {
+        if (messageLevel.compareTo(level) < 0) {
+            return;
+        }
+        Entry entry = new Entry(messageLevel, timestamp(), message, e);
+        lifecycle.readLock().lock();
+        try {
+            if (writerThread == null) {
+                startWriter();
+            }
+            enqueue(entry);
+        } finally {
+            lifecycle.readLock().unlock();
+        }
+    }
+
+    private static void enqueue(Object item) {
+        try {
+            buffer.put(item);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the formatted current time, reformatting at most once per second.
+     */
+    private static String timestamp() {
+        long second = System.currentTimeMillis() / 1000;
+        CachedClock cached = clock;
+        if (cached.second != second) {
+            cached = new CachedClock(second, LocalDateTime.now().format(dtf));
+            clock = cached;
+        }
+        return cached.text;
+    }
+
+    /**
+     * Starts the writer thread and opens a new log file, unless another thread already has.
+     */
+    private static synchronized void startWriter() {
+        if (writerThread != null) {
+            return;
+        }
+        logFile = Path.of("logs", LocalDateTime.now().format(fileDtf) + ".log");
+        currentWriter = new LogWriter(logFile);
+        Thread thread = new Thread(currentWriter, "UtilLogger-writer");
+        thread.setDaemon(true);
+        thread.start();
+        writerThread = thread;
+    }
+
+    /**
+     * Stops the writer thread after it has drained the buffer. Messages logged meanwhile wait and then start
+     * a new writer, rather than being queued after the stop marker.
+     *
+     * @return the first write failure, or {@code null}
+     */
+    private static IOException stopWriter() {
+        lifecycle.writeLock().lock();
+        try {
+            synchronized (UtilLogger.class) {
+                if (writerThread == null) {
+                    return null;
+                }
+                enqueue(STOP);
+                try {
+                    writerThread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                IOException failure = currentWriter.failure;
+                writerThread = null;
+                currentWriter = null;
+                return failure;
+            }
+        } finally {
+            lifecycle.writeLock().unlock();
+        }
+    }
+
+    /**
+     * A timestamp string and the epoch second it was formatted for.
+     */
+    private static class CachedClock {
+
+        private final long second;
+        private final String text;
+
+        private CachedClock(long second, String text) {
+            this.second = second;
+            this.text = text;
+        }
+    }
+
+    /**
+     * A buffered log message; formatting (including stack traces) happens on the writer thread.
+     */
+    private static class Entry {
+
+        private final Level level;
+        private final String timestamp;
+        private final String message;
+        private final Exception exception;
+
+        private Entry(Level level, String timestamp, String message, Exception exception) {
+            this.level = level;
+            this.timestamp = timestamp;
+            this.message = message;
+            this.exception = exception;
+        }
+
+        private void writeTo(Writer writer) throws IOException {
+            writer.write(level.prefix);
+            writer.write(timestamp);
+            writer.write("] ");
+            writer.write(message);
+            writer.write(System.lineSeparator());
+            if (exception != null) {
+                StringWriter sw = new StringWriter();
+                exception.printStackTrace(new PrintWriter(sw));
+                writer.write(sw.toString());
+                writer.write(System.lineSeparator());
+            }
+        }
+    }
+
+    /**
+     * Drains the buffer into the log file in batches, flushing whenever the buffer runs dry.
+     */
+    private static class LogWriter implements Runnable {
+
+        private final Path file;
+        private IOException failure;
+
+        private LogWriter(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        public void run() {
+            List<Object> batch = new ArrayList<>(BATCH_SIZE);
+            Writer writer = open();
+            try {
+                while (true) {
+                    if (buffer.drainTo(batch, BATCH_SIZE) == 0) {
+                        flush(writer);
+                        batch.add(buffer.take());
+                    }
+                    for (Object item : batch) {
+                        if (item == STOP) {
+                            close(writer);
+                            return;
+                        } else if (item instanceof CountDownLatch flushed) {
+                            flush(writer);
+                            flushed.countDown();
+                        } else if (writer != null) {
+                            try {
+                                ((Entry) item).writeTo(writer);
+                            } catch (IOException e) {
+                                fail(e);
+                                writer = null;
+                            }
+                        }
+                    }
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                close(writer);
+            }
+        }
+
+        private Writer open() {
+            try {
+                Files.createDirectories(file.getParent());
+                return new BufferedWriter(new FileWriter(file.toFile(), true), 1 << 16);
+            } catch (IOException e) {
+                fail(e);
+                return null;
+            }
+        }
+
+        private void flush(Writer writer) {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        private void close(Writer writer) {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.close();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        private void fail(IOException e) {
+            if (failure == null) {
+                failure = e;
+                System.err.println("error writing log file " + file + ": " + e.getMessage());
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,182 @@
+package com.zeyadrashed;
+
+import com.zeyadrashed.engine.LotMethod;
+import com.zeyadrashed.engine.MatchSink;
+import com.zeyadrashed.obj.CorporateAction;
+import com.zeyadrashed.obj.Transaction;
+import com.zeyadrashed.obj.TransactionType;
+import com.zeyadrashed.util.FixedPoint;
+import com.zeyadrashed.util.MatchBinaryReader;
+import com.zeyadrashed.util.MatchBinaryWriter;
+import com.zeyadrashed.util.MatchCSVWriter;
+import com.zeyadrashed.util.SymbolDictionary;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for {@link CapitalCalculator}.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class CapitalCalculatorTest {
+
+    private static final int SYMBOLS = 50;
+    private static final int ROWS = 60_000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Parallel matching gives every symbol exactly the same gain, bit for bit, as sequential matching, for
+     * every lot-relief method in both money modes.
+     */
+    @Test
+    public void testParallelMatchesSequential() {
+        List<Transaction> transactions = generate(42L);
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            for (LotMethod method : LotMethod.values()) {
+                String mode = method + (fixedPoint ? " (fixed-point)" : " (double)");
+
+                CapitalCalculator sequential = new CapitalCalculator(fixedPoint, method);
+                sequential.setPrintSales(false);
+                sequential.processTransactions(transactions);
+
+                CapitalCalculator parallel = new CapitalCalculator(fixedPoint, method);
+                parallel.setPrintSales(false);
+                parallel.processTransactionsParallel(transactions, 4);
+
+                Map<String, Double> expected = sequential.getSymbolGains();
+                Map<String, Double> actual = parallel.getSymbolGains();
+                assertFalse(mode + ": no sales matched", expected.isEmpty());
+                assertEquals(mode + ": symbols with sales", expected.keySet(), actual.keySet());
+                for (Map.Entry<String, Double> gain : expected.entrySet()) {
+                    assertEquals(mode + ": gain of " + gain.getKey(), Double.doubleToRawLongBits(gain.getValue()),
+                            Double.doubleToRawLongBits(actual.get(gain.getKey())));
+                }
+            }
+        }
+    }
+
+    /**
+     * A rename makes the new ticker an alias of the old ticker's book in one calculator only. Rows under
+     * either ticker reach the same lots, earlier rows keep their ticker, and each match record is named by
+     * the ticker its sale was made under, the same in the CSV and binary exports.
+     */
+    @Test
+    public void testRenameAliasesBookWithoutRenamingEarlierRows() throws IOException {
+        CapitalCalculator calculator = new CapitalCalculator(true);
+        calculator.setPrintSales(false);
+        calculator.setCorporateActions(List.of(new CorporateAction(day("2022-06-09"), "RNFB", "RNMETA")));
+        Path csv = folder.getRoot().toPath().resolve("matches.csv");
+        Path bin = folder.getRoot().toPath().resolve("matches.bin");
+        Path converted = folder.getRoot().toPath().resolve("converted.csv");
+        try (MatchCSVWriter csvWriter = new MatchCSVWriter(csv, true);
+             MatchBinaryWriter binaryWriter = new MatchBinaryWriter(bin, true)) {
+            MatchSink both = (symbolId, saleDay, buyDay, quantity, lotId, proceeds, costBasis, gain, longTerm) -> {
+                csvWriter.onMatch(symbolId, saleDay, buyDay, quantity, lotId, proceeds, costBasis, gain, longTerm);
+                binaryWriter.onMatch(symbolId, saleDay, buyDay, quantity, lotId, proceeds, costBasis, gain, longTerm);
+            };
+            calculator.setMatchSink(both);
+            Transaction buy = transaction("2022-01-03", TransactionType.BUY, "RNFB", 10, "300");
+            calculator.processTransaction(buy);
+            calculator.processTransaction(transaction("2022-02-03", TransactionType.SELL, "RNFB", 2, "250"));
+            calculator.processTransaction(transaction("2022-07-05", TransactionType.SELL, "RNMETA", 3, "170"));
+            calculator.processTransaction(transaction("2022-07-06", TransactionType.SELL, "RNFB", 1, "160"));
+            calculator.setMatchSink(null);
+
+            assertEquals("RNFB", buy.getSymbol());
+            assertEquals("RNFB", SymbolDictionary.nameOf(buy.getSymbolId()));
+        }
+
+        assertEquals(Map.of("RNMETA", -630.0), calculator.getSymbolGains());
+        assertEquals(4, calculator.getPosition("RNMETA").getOpenShares());
+        assertEquals(4, calculator.getPosition("RNFB").getOpenShares());
+        // the alias belongs to the calculator that applied the rename
+        assertNull(new CapitalCalculator(true).getPosition("RNMETA"));
+
+        try (MatchBinaryReader reader = new MatchBinaryReader(bin);
+             MatchCSVWriter writer = new MatchCSVWriter(converted, reader.isFixedPoint(), reader::symbolOf)) {
+            reader.forEach(writer);
+        }
+        List<String> rows = Files.readAllLines(csv);
+        assertEquals(List.of("symbol,saleDate,buyDate,quantity,lotId,proceeds,costBasis,gain,term",
+                "RNFB,2022-02-03,2022-01-03,2,,500.00,600.00,-100.00,SHORT",
+                "RNMETA,2022-07-05,2022-01-03,3,,510.00,900.00,-390.00,SHORT",
+                "RNMETA,2022-07-06,2022-01-03,1,,160.00,300.00,-140.00,SHORT"), rows);
+        assertEquals(rows, Files.readAllLines(converted));
+    }
+
+    private static int day(String date) {
+        return (int) LocalDate.parse(date).toEpochDay();
+    }
+
+    private static Transaction transaction(String date, TransactionType type, String symbol, int quantity,
+                                           String price) {
+        return new Transaction(day(date), type, SymbolDictionary.idOf(symbol), quantity, Double.parseDouble(price),
+                FixedPoint.parse(price), 0L);
+    }
+
+    /**
+     * Generates date-sorted transactions over {@link #SYMBOLS} symbols with cent prices. BUYs open numbered
+     * lots and some SELLs name one, for the specific-lot method; some SELLs oversell and are rejected.
+     */
+    private static List<Transaction> generate(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] symbolIds = new int[SYMBOLS];
+        for (int s = 0; s < SYMBOLS; s++) {
+            symbolIds[s] = SymbolDictionary.idOf("PAR" + s);
+        }
+        long[] held = new long[SYMBOLS];
+        long[] lastLot = new long[SYMBOLS];
+        int firstDay = (int) LocalDate.of(2020, 1, 1).toEpochDay();
+
+        List<Transaction> transactions = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            int s = random.nextInt(SYMBOLS);
+            int day = firstDay + (int) ((long) i * 1500 / ROWS);
+            int quantity = random.nextInt(200) + 1;
+            int cents = 1000 + random.nextInt(49_001);
+            TransactionType type;
+            long lotId = 0L;
+            if (held[s] > 0 && random.nextInt(10) < 4) {
+                type = TransactionType.SELL;
+                if (random.nextInt(20) != 0) {
+                    quantity = (int) Math.min(quantity, held[s]);
+                }
+                if (random.nextInt(4) == 0) {
+                    lotId = 1 + random.nextLong(lastLot[s]);
+                }
+                if (quantity <= held[s]) {
+                    held[s] -= quantity;
+                }
+            } else {
+                type = TransactionType.BUY;
+                lotId = ++lastLot[s];
+                held[s] += quantity;
+            }
+            transactions.add(new Transaction(day, type, symbolIds[s], quantity, cents / 100.0, cents * 10_000L, lotId));
+        }
+        return transactions;
+    }
+}
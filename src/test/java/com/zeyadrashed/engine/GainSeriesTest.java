@@ -0,0 +1,160 @@
+package com.zeyadrashed.engine;
+
+import com.zeyadrashed.obj.Transaction;
+import com.zeyadrashed.obj.TransactionType;
+import com.zeyadrashed.util.FixedPoint;
+import com.zeyadrashed.util.SymbolDictionary;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link GainSeries}.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class GainSeriesTest {
+
+    private static final int DAY = (int) LocalDate.of(2024, 1, 2).toEpochDay();
+    private static final int SYMBOL = SymbolDictionary.idOf("GAINSERIES");
+
+    /**
+     * Ranges that hold no sale sum to 0 and report no sales: an empty series, a reversed range, and ranges
+     * before the first sale, after the last and between two sales.
+     */
+    @Test
+    public void testEmptyRanges() {
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            GainSeries empty = new GainSeries(fixedPoint);
+            assertEmpty(empty, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+            GainSeries series = new GainSeries(fixedPoint);
+            record(series, fixedPoint, DAY + 10, "25.5");
+            record(series, fixedPoint, DAY + 20, "-7.25");
+            assertEmpty(series, DAY + 20, DAY + 10);
+            assertEmpty(series, DAY, DAY + 9);
+            assertEmpty(series, DAY + 21, DAY + 100);
+            assertEmpty(series, DAY + 11, DAY + 19);
+            assertEquals(0.0, series.sum(DAY + 15, DAY + 10), 0.0);
+        }
+    }
+
+    /**
+     * A range of a single day holds every sale on that day and nothing from the days either side of it.
+     */
+    @Test
+    public void testRangeInsideOneDay() {
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            GainSeries series = new GainSeries(fixedPoint);
+            record(series, fixedPoint, DAY, "100");
+            record(series, fixedPoint, DAY + 1, "10.01");
+            record(series, fixedPoint, DAY + 1, "-3.02");
+            record(series, fixedPoint, DAY + 1, "0.03");
+            record(series, fixedPoint, DAY + 2, "1000");
+            assertEquals(3, series.size());
+            assertTrue(series.hasSales(DAY + 1, DAY + 1));
+            assertEquals(7.02, series.sum(DAY + 1, DAY + 1), 1e-9);
+            if (fixedPoint) {
+                assertEquals(7_020_000L, series.sumMicros(DAY + 1, DAY + 1));
+            }
+            assertEquals(100.0, series.sum(DAY, DAY), 1e-9);
+            assertEquals(1000.0, series.sum(DAY + 2, DAY + 2), 1e-9);
+        }
+    }
+
+    /**
+     * Gains recorded out of date order, at the front, in the middle on a new date and on an existing date,
+     * give the same range sums as adding up every gain in the range, for every range.
+     */
+    @Test
+    public void testOutOfOrderRecordsMatchBruteForce() {
+        SplittableRandom random = new SplittableRandom(15);
+        int days = 40;
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            GainSeries series = new GainSeries(fixedPoint);
+            long[] byDay = new long[days];
+            for (int i = 0; i < 300; i++) {
+                // mostly in order, but one in four goes back to any earlier or later day
+                int day = random.nextInt(4) == 0 ? random.nextInt(days) : Math.min(days - 1, i * days / 300);
+                long micros = random.nextLong(-50_000_000L, 50_000_001L);
+                byDay[day] += micros;
+                series.record(DAY + day, FixedPoint.toDouble(micros), micros);
+            }
+            assertRangesMatch(fixedPoint ? "fixed-point" : "double", series, byDay, fixedPoint);
+        }
+    }
+
+    /**
+     * A wash sale disallowed by a later BUY adds the loss back on the losing sale's date, after sales on
+     * later dates were recorded, and every range over the book's series sees it on that date.
+     */
+    @Test
+    public void testWashSaleDisallowedAfterLaterSales() {
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            String mode = fixedPoint ? "fixed-point" : "double";
+            SymbolBook book = new SymbolBook(SYMBOL, fixedPoint, LotMethod.FIFO);
+            book.enableWashSales();
+            book.buy(transaction(DAY, TransactionType.BUY, 10, "100"));
+            book.buy(transaction(DAY + 1, TransactionType.BUY, 10, "50"));
+            book.sell(transaction(DAY + 40, TransactionType.SELL, 10, "80")); // -200, pending
+            book.sell(transaction(DAY + 42, TransactionType.SELL, 5, "60"));  // +50
+            book.sell(transaction(DAY + 44, TransactionType.SELL, 5, "60"));  // +50
+            GainSeries series = book.getGainSeries();
+            assertEquals(mode, -200.0, series.sum(DAY + 40, DAY + 40), 1e-9);
+
+            // the replacement disallows 6 of the 10 shares' loss, back on the losing sale's date
+            book.buy(transaction(DAY + 50, TransactionType.BUY, 6, "90"));
+            assertEquals(mode, 3, series.size());
+            assertEquals(mode, -80.0, series.sum(DAY + 40, DAY + 40), 1e-9);
+            assertEquals(mode, -80.0, series.sum(DAY, DAY + 41), 1e-9);
+            assertEquals(mode, 50.0, series.sum(DAY + 41, DAY + 43), 1e-9);
+            assertEquals(mode, 100.0, series.sum(DAY + 41, DAY + 50), 1e-9);
+            assertEquals(mode, 20.0, series.sum(DAY, DAY + 50), 1e-9);
+            assertEquals(mode, book.getRealizedGain(), series.sum(Integer.MIN_VALUE, Integer.MAX_VALUE), 1e-9);
+        }
+    }
+
+    private static void assertEmpty(GainSeries series, int fromDay, int toDay) {
+        assertFalse(series.hasSales(fromDay, toDay));
+        assertEquals(0.0, series.sum(fromDay, toDay), 0.0);
+        assertEquals(0L, series.sumMicros(fromDay, toDay));
+    }
+
+    /**
+     * Checks every range of days against the per-day gains: exactly in fixed-point mode, and in double mode
+     * to well under a micro, since double totals round as they run.
+     */
+    private static void assertRangesMatch(String mode, GainSeries series, long[] byDay, boolean fixedPoint) {
+        for (int from = 0; from < byDay.length; from++) {
+            long expected = 0L;
+            for (int to = from; to < byDay.length; to++) {
+                expected += byDay[to];
+                String range = mode + ": days " + from + " to " + to;
+                if (fixedPoint) {
+                    assertEquals(range, expected, series.sumMicros(DAY + from, DAY + to));
+                }
+                assertEquals(range, FixedPoint.toDouble(expected), series.sum(DAY + from, DAY + to), 1e-7);
+            }
+        }
+    }
+
+    private static void record(GainSeries series, boolean fixedPoint, int day, String gain) {
+        series.record(day, fixedPoint ? 0.0 : Double.parseDouble(gain), fixedPoint ? FixedPoint.parse(gain) : 0L);
+    }
+
+    private static Transaction transaction(int day, TransactionType type, int quantity, String price) {
+        return new Transaction(day, type, SYMBOL, quantity, Double.parseDouble(price), FixedPoint.parse(price), 0L);
+    }
+}
@@ -0,0 +1,137 @@
+package com.zeyadrashed.engine;
+
+import com.zeyadrashed.obj.Transaction;
+import com.zeyadrashed.obj.TransactionType;
+import com.zeyadrashed.util.FixedPoint;
+import com.zeyadrashed.util.SymbolDictionary;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link LotMethod} and the lot selections it creates.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class LotMethodTest {
+
+    private static final int DAY = (int) LocalDate.of(2024, 1, 2).toEpochDay();
+    private static final int SYMBOL = SymbolDictionary.idOf("LOTMETHOD");
+
+    /**
+     * Lots of 10 shares at $10, $30 and $20, then 15 shares sold at $25: each method relieves its own lots
+     * and realizes its own gain, and selling the rest realizes the remainder of the same $150 total.
+     */
+    @Test
+    public void testEachMethodRealizesItsExpectedGain() {
+        Object[][] expected = {
+                {LotMethod.FIFO, 0L, 125.0},      // 10 @ 10 + 5 @ 30
+                {LotMethod.LIFO, 0L, 25.0},       // 10 @ 20 + 5 @ 30
+                {LotMethod.HIFO, 0L, -25.0},      // 10 @ 30 + 5 @ 20
+                {LotMethod.AVERAGE, 0L, 75.0},    // 15 @ 20
+                {LotMethod.SPECIFIC, 2L, 25.0},   // lot 2: 10 @ 30, then FIFO 5 @ 10
+                {LotMethod.SPECIFIC, 0L, 125.0}}; // no lot named: FIFO
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            for (Object[] row : expected) {
+                LotMethod method = (LotMethod) row[0];
+                long lotId = (Long) row[1];
+                String mode = method + " lot " + lotId + (fixedPoint ? " (fixed-point)" : " (double)");
+                SymbolBook book = threeLots(fixedPoint, method);
+                assertEquals(mode, (Double) row[2], book.sell(sell(DAY + 10, 15, "25", lotId)), 1e-9);
+                assertEquals(mode + ": rest", 150.0 - (Double) row[2], book.sell(sell(DAY + 11, 15, "25", 0L)), 1e-9);
+                assertEquals(mode + ": total", 150.0, book.getRealizedGain(), 1e-9);
+            }
+        }
+    }
+
+    /**
+     * A SELL naming a lot that is not open is relieved oldest first.
+     */
+    @Test
+    public void testSpecificUnknownLotFallsBackToFifo() {
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            SymbolBook book = threeLots(fixedPoint, LotMethod.SPECIFIC);
+            assertEquals(125.0, book.sell(sell(DAY + 10, 15, "25", 99L)), 1e-9);
+            // lot 1 is closed now, so naming it again falls back too
+            assertEquals(5 * 25.0 - 5 * 30.0, book.sell(sell(DAY + 11, 5, "25", 1L)), 1e-9);
+        }
+    }
+
+    /**
+     * A lot ID used twice selects the newer lot until it is closed; after that the older one is only
+     * reached oldest first.
+     */
+    @Test
+    public void testSpecificDuplicateLotSelectsNewest() {
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            SymbolBook book = new SymbolBook(SYMBOL, fixedPoint, LotMethod.SPECIFIC);
+            book.buy(buy(DAY, 10, "20", 3L));
+            book.buy(buy(DAY + 1, 10, "10", 7L));
+            book.buy(buy(DAY + 2, 10, "30", 7L));
+            List<Integer> days = new ArrayList<>();
+            book.setMatchSink((symbolId, saleDay, buyDay, quantity, lotId, proceeds, costBasis, gain, longTerm) ->
+                    days.add(buyDay));
+
+            assertEquals(5 * 25.0 - 5 * 30.0, book.sell(sell(DAY + 10, 5, "25", 7L)), 1e-9);
+            assertEquals(5 * 25.0 - 5 * 30.0, book.sell(sell(DAY + 11, 5, "25", 7L)), 1e-9);
+            assertEquals(5 * 25.0 - 5 * 20.0, book.sell(sell(DAY + 12, 5, "25", 7L)), 1e-9);
+            assertEquals(List.of(DAY + 2, DAY + 2, DAY), days);
+        }
+    }
+
+    /**
+     * HIFO relieves the highest price first even when prices are negative, in both money modes, and lots
+     * at the same price oldest first.
+     */
+    @Test
+    public void testHifoOrdersNegativePrices() {
+        String[] prices = {"-5", "3", "-1", "0", "-1", "-0.5"};
+        int[] order = {1, 3, 5, 2, 4, 0};
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            SymbolBook book = new SymbolBook(SYMBOL, fixedPoint, LotMethod.HIFO);
+            for (int i = 0; i < prices.length; i++) {
+                book.buy(buy(DAY + i, 1, prices[i], i + 1));
+            }
+            List<Integer> days = new ArrayList<>();
+            book.setMatchSink((symbolId, saleDay, buyDay, quantity, lotId, proceeds, costBasis, gain, longTerm) ->
+                    days.add(buyDay - DAY));
+            for (int i = 0; i < prices.length; i++) {
+                String mode = (fixedPoint ? "fixed-point" : "double") + " sale " + i;
+                assertEquals(mode, -Double.parseDouble(prices[order[i]]), book.sell(sell(DAY + 10, 1, "0", 0L)), 1e-9);
+            }
+            assertEquals(List.of(1, 3, 5, 2, 4, 0), days);
+        }
+    }
+
+    /**
+     * Buys 10 shares each at $10, $30 and $20, as lots 1, 2 and 3.
+     */
+    private static SymbolBook threeLots(boolean fixedPoint, LotMethod method) {
+        SymbolBook book = new SymbolBook(SYMBOL, fixedPoint, method);
+        book.buy(buy(DAY, 10, "10", 1L));
+        book.buy(buy(DAY + 1, 10, "30", 2L));
+        book.buy(buy(DAY + 2, 10, "20", 3L));
+        return book;
+    }
+
+    private static Transaction buy(int day, int quantity, String price, long lotId) {
+        return new Transaction(day, TransactionType.BUY, SYMBOL, quantity, Double.parseDouble(price),
+                FixedPoint.parse(price), lotId);
+    }
+
+    private static Transaction sell(int day, int quantity, String price, long lotId) {
+        return new Transaction(day, TransactionType.SELL, SYMBOL, quantity, Double.parseDouble(price),
+                FixedPoint.parse(price), lotId);
+    }
+}
@@ -0,0 +1,124 @@
+package com.zeyadrashed.engine;
+
+import com.zeyadrashed.CapitalCalculator;
+import com.zeyadrashed.obj.Transaction;
+import com.zeyadrashed.obj.TransactionType;
+import com.zeyadrashed.util.FixedPoint;
+import com.zeyadrashed.util.SymbolDictionary;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link MarkToMarket}.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class MarkToMarketTest {
+
+    private static final int DAY = (int) LocalDate.of(2024, 1, 2).toEpochDay();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Reading the portfolio's unrealized gain recomputes a symbol only after its price moved or its book
+     * traded: re-reading, reloading unchanged prices and trading another symbol leave it cached.
+     */
+    @Test
+    public void testRecomputesOnlyMovedOrTradedSymbols() throws IOException {
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            String mode = fixedPoint ? "fixed-point" : "double";
+            String[] symbols = {"MARKA" + mode, "MARKB" + mode, "MARKC" + mode};
+            CapitalCalculator calculator = new CapitalCalculator(fixedPoint, LotMethod.FIFO);
+            calculator.setPrintSales(false);
+            for (String symbol : symbols) {
+                calculator.processTransaction(transaction(DAY, TransactionType.BUY, symbol, 10, "100"));
+            }
+            MarkToMarket marks = calculator.getMarks();
+
+            assertEquals(mode, 3, calculator.loadPrices(prices(symbols, "110", "90", "100.5")));
+            assertEquals(mode, 100.0 - 100.0 + 5.0, calculator.getUnrealizedGain(), 1e-9);
+            assertEquals(mode + ": first read", 3, marks.getRecomputed());
+            calculator.getUnrealizedGain();
+            assertEquals(mode + ": second read", 3, marks.getRecomputed());
+
+            // only the second symbol's price moves
+            assertEquals(mode, 1, calculator.loadPrices(prices(symbols, "110", "95", "100.5")));
+            assertEquals(mode, 100.0 - 50.0 + 5.0, calculator.getUnrealizedGain(), 1e-9);
+            assertEquals(mode + ": one price moved", 4, marks.getRecomputed());
+
+            // only the third symbol's book trades
+            calculator.processTransaction(transaction(DAY + 1, TransactionType.BUY, symbols[2], 10, "101.5"));
+            assertEquals(mode, 100.0 - 50.0 + 5.0 - 10.0, calculator.getUnrealizedGain(), 1e-9);
+            assertEquals(mode + ": one book bought", 5, marks.getRecomputed());
+            calculator.processTransaction(transaction(DAY + 2, TransactionType.SELL, symbols[0], 4, "120"));
+            assertEquals(mode, 60.0 - 50.0 + 5.0 - 10.0, calculator.getUnrealizedGain(), 1e-9);
+            assertEquals(mode + ": one book sold", 6, marks.getRecomputed());
+
+            // a single symbol's gain only recomputes that symbol, and only once
+            calculator.processTransaction(transaction(DAY + 3, TransactionType.SELL, symbols[1], 1, "80"));
+            assertEquals(mode, -45.0, calculator.getUnrealizedGain(symbols[1]), 1e-9);
+            assertEquals(mode, -45.0, calculator.getUnrealizedGain(symbols[1]), 1e-9);
+            assertEquals(mode + ": one symbol read", 7, marks.getRecomputed());
+            calculator.getUnrealizedGain();
+            assertEquals(mode + ": rest still cached", 7, marks.getRecomputed());
+        }
+    }
+
+    /**
+     * Setting a price reports whether it changed, and only a change makes the cached gain stale.
+     */
+    @Test
+    public void testSetPriceReportsChanges() {
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            int symbolId = SymbolDictionary.idOf("MARKSET" + fixedPoint);
+            SymbolBook book = new SymbolBook(symbolId, fixedPoint, LotMethod.FIFO);
+            book.buy(transaction(DAY, TransactionType.BUY, "MARKSET" + fixedPoint, 3, "10"));
+            MarkToMarket marks = new MarkToMarket();
+            assertEquals(0.0, marks.unrealizedGain(book), 0.0);
+            assertEquals(0, marks.getRecomputed());
+
+            assertTrue(marks.setPrice(symbolId, 12.0, FixedPoint.parse("12")));
+            assertEquals(6.0, marks.unrealizedGain(book), 1e-9);
+            assertFalse(marks.setPrice(symbolId, 12.0, FixedPoint.parse("12")));
+            assertEquals(6.0, marks.unrealizedGain(book), 1e-9);
+            assertEquals(1, marks.getRecomputed());
+
+            marks.invalidateAll();
+            assertEquals(6.0, marks.unrealizedGain(book), 1e-9);
+            assertEquals(2, marks.getRecomputed());
+        }
+    }
+
+    private Path prices(String[] symbols, String... prices) throws IOException {
+        StringBuilder text = new StringBuilder("symbol,price\n");
+        for (int i = 0; i < symbols.length; i++) {
+            text.append(symbols[i]).append(',').append(prices[i]).append('\n');
+        }
+        Path path = Files.createTempFile(folder.getRoot().toPath(), "prices", ".csv");
+        Files.writeString(path, text);
+        return path;
+    }
+
+    private static Transaction transaction(int day, TransactionType type, String symbol, int quantity, String price) {
+        return new Transaction(day, type, SymbolDictionary.idOf(symbol), quantity, Double.parseDouble(price),
+                FixedPoint.parse(price), 0L);
+    }
+}
@@ -0,0 +1,166 @@
+package com.zeyadrashed.engine;
+
+import com.zeyadrashed.CapitalCalculator;
+import com.zeyadrashed.obj.Position;
+import com.zeyadrashed.obj.Transaction;
+import com.zeyadrashed.obj.TransactionType;
+import com.zeyadrashed.util.AccountDictionary;
+import com.zeyadrashed.util.FixedPoint;
+import com.zeyadrashed.util.SymbolDictionary;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link ShardedEngine}.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class ShardedEngineTest {
+
+    private static final int DAY = (int) LocalDate.of(2024, 1, 2).toEpochDay();
+    private static final String[] ACCOUNTS = {"SHARDACCTA", "SHARDACCTB", "SHARDACCTC"};
+    private static final String[] SYMBOLS = {"SHARDW", "SHARDX", "SHARDY", "SHARDZ"};
+
+    /**
+     * The per-account gains, positions and consolidated per-symbol gains of a sharded run equal running
+     * each account alone through a single calculator, in every lot method and both money modes.
+     */
+    @Test
+    public void testSummariesMatchEachAccountRunAlone() throws InterruptedException {
+        List<Transaction> transactions = workload(3000);
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            for (LotMethod method : LotMethod.values()) {
+                String mode = method + (fixedPoint ? " (fixed-point)" : " (double)");
+                ShardedEngine engine = new ShardedEngine(4, fixedPoint, method);
+                engine.processTransactions(transactions);
+
+                Map<String, Double> accountGains = engine.getAccountGains();
+                Map<String, Long> symbolMicros = new HashMap<>();
+                Map<String, Double> symbolGains = new HashMap<>();
+                for (String account : ACCOUNTS) {
+                    int accountId = AccountDictionary.idOf(account);
+                    List<Transaction> own = new ArrayList<>();
+                    for (Transaction t : transactions) {
+                        if (t.getAccountId() == accountId) {
+                            own.add(t);
+                        }
+                    }
+                    CapitalCalculator alone = new CapitalCalculator(fixedPoint, method);
+                    alone.setPrintSales(false);
+                    alone.processTransactions(own);
+
+                    long totalMicros = 0L;
+                    double total = 0.0;
+                    for (SymbolBook book : alone.getBooks()) {
+                        String symbol = book.getSymbol();
+                        SymbolBook sharded = engine.getBook(account, symbol);
+                        assertNotNull(mode + ": " + account + " " + symbol, sharded);
+                        assertEquals(mode + ": " + account + " " + symbol + " gain",
+                                Double.doubleToRawLongBits(book.getRealizedGain()),
+                                Double.doubleToRawLongBits(sharded.getRealizedGain()));
+                        assertSamePosition(mode + ": " + account + " " + symbol, book.getPosition(),
+                                sharded.getPosition());
+                        if (book.getSalesMatched() > 0) {
+                            totalMicros += book.getRealizedGainMicros();
+                            total += book.getRealizedGain();
+                            symbolMicros.merge(symbol, book.getRealizedGainMicros(), Long::sum);
+                            symbolGains.merge(symbol, book.getRealizedGain(), Double::sum);
+                        }
+                    }
+                    assertEquals(mode + ": " + account, fixedPoint ? FixedPoint.toDouble(totalMicros) : total,
+                            accountGains.get(account), fixedPoint ? 0.0 : 1e-6);
+                }
+
+                Map<String, Double> consolidated = engine.getSymbolGains();
+                assertEquals(mode + ": symbols", symbolGains.keySet(), consolidated.keySet());
+                for (Map.Entry<String, Double> gain : consolidated.entrySet()) {
+                    double expected = fixedPoint ? FixedPoint.toDouble(symbolMicros.get(gain.getKey()))
+                            : symbolGains.get(gain.getKey());
+                    assertEquals(mode + ": " + gain.getKey(), expected, gain.getValue(), fixedPoint ? 0.0 : 1e-6);
+                }
+            }
+        }
+    }
+
+    /**
+     * The matching counters read through the metrics grow while the shards are still running, before
+     * {@link ShardedEngine#finish()}.
+     */
+    @Test
+    public void testMetricsCountWhileRunning() throws InterruptedException {
+        ShardedEngine engine = new ShardedEngine(2, true, LotMethod.FIFO);
+        engine.start();
+        int account = AccountDictionary.idOf(ACCOUNTS[0]);
+        int symbol = SymbolDictionary.idOf(SYMBOLS[0]);
+        for (int i = 0; i < 2 * ShardedEngine.BATCH_SIZE; i++) {
+            engine.submit(new Transaction(DAY + i, TransactionType.BUY, symbol, 1, 10.0, 10_000_000L, 0L, account));
+        }
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (engine.getMetrics().totals().getBuys() < 2 * ShardedEngine.BATCH_SIZE && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(2 * ShardedEngine.BATCH_SIZE, engine.getMetrics().totals().getBuys());
+        engine.finish();
+        assertEquals(2 * ShardedEngine.BATCH_SIZE, engine.getMetrics().totals().getBuys());
+    }
+
+    /**
+     * A shard that fails while matching makes {@link ShardedEngine#finish()} throw with the failure as its
+     * cause, after every other shard has drained.
+     */
+    @Test
+    public void testFinishReportsShardFailure() throws InterruptedException {
+        ShardedEngine engine = new ShardedEngine(2, false, LotMethod.FIFO);
+        engine.start();
+        int symbol = SymbolDictionary.idOf(SYMBOLS[1]);
+        engine.submit(new Transaction(DAY, TransactionType.BUY, symbol, 1, 10.0, 10_000_000L, 0L, -1));
+        IllegalStateException e = assertThrows(IllegalStateException.class, engine::finish);
+        assertTrue(String.valueOf(e.getCause()), e.getCause() instanceof RuntimeException);
+    }
+
+    private static void assertSamePosition(String mode, Position expected, Position actual) {
+        assertEquals(mode + ": shares", expected.getOpenShares(), actual.getOpenShares());
+        assertEquals(mode + ": basis", Double.doubleToRawLongBits(expected.getOpenCostBasis()),
+                Double.doubleToRawLongBits(actual.getOpenCostBasis()));
+        assertEquals(mode + ": basis micros", expected.getOpenCostBasisMicros(), actual.getOpenCostBasisMicros());
+    }
+
+    /**
+     * Random date-ordered buys and sells across every account and symbol, including some SELLs an account
+     * cannot cover.
+     */
+    private static List<Transaction> workload(int rows) {
+        SplittableRandom random = new SplittableRandom(21);
+        List<Transaction> transactions = new ArrayList<>(rows);
+        int day = DAY;
+        for (int i = 0; i < rows; i++) {
+            day += random.nextInt(2);
+            int account = AccountDictionary.idOf(ACCOUNTS[random.nextInt(ACCOUNTS.length)]);
+            int symbol = SymbolDictionary.idOf(SYMBOLS[random.nextInt(SYMBOLS.length)]);
+            TransactionType type = random.nextInt(5) < 3 ? TransactionType.BUY : TransactionType.SELL;
+            long priceMicros = 1_000_000L + random.nextInt(100_000_000);
+            long lotId = type == TransactionType.BUY ? i + 1 : random.nextInt(4) == 0 ? 1 + random.nextInt(i + 1) : 0;
+            transactions.add(new Transaction(day, type, symbol, 1 + random.nextInt(30), FixedPoint.toDouble(priceMicros),
+                    priceMicros, lotId, account));
+        }
+        return transactions;
+    }
+}
@@ -0,0 +1,75 @@
+package com.zeyadrashed.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link SplitFactors}.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class SplitFactorsTest {
+
+    /**
+     * Each split starts an epoch whose factor is the exact cumulative ratio, and the position's share count
+     * is rounded down with the fraction kept for the next split.
+     */
+    @Test
+    public void testSplitsAccumulateExactly() {
+        SplitFactors splits = new SplitFactors(true);
+        assertEquals(0, splits.current());
+        assertEquals(200, splits.split(50, 4, 1));
+        assertEquals(66, splits.split(200, 1, 3));
+        assertEquals(2, splits.current());
+        assertEquals(4.0 / 3.0, splits.getFactor(), 0.0);
+        assertEquals(4.0 / 3.0, splits.ratio(0), 0.0);
+        assertEquals(1.0 / 3.0, splits.ratio(1), 0.0);
+        // 66 2/3 shares split 3:1 is exactly 200, not 198
+        assertEquals(200, splits.split(66, 3, 1));
+    }
+
+    /**
+     * Restating lots rounds each one down and carries the fraction, so the lots add up to the position.
+     */
+    @Test
+    public void testRestatedQuantitiesCarryFractions() {
+        SplitFactors splits = new SplitFactors(false);
+        assertEquals(4, splits.split(3, 3, 2));
+        int total = 0;
+        for (int lot = 0; lot < 3; lot++) {
+            total += splits.restateQuantity(0, 1);
+        }
+        assertEquals(4, total);
+    }
+
+    /**
+     * The exported state restores factors, carried fractions and carried cost exactly.
+     */
+    @Test
+    public void testExportStateRoundTrip() {
+        SplitFactors splits = new SplitFactors(true);
+        splits.split(7, 3, 2);
+        splits.split(10, 2, 3);
+        splits.split(7, 7, 5);
+        splits.restateQuantity(0, 3);
+        splits.carryCost(0.0, -7L);
+
+        SplitFactors restored = new SplitFactors(true, splits.exportState());
+        assertArrayEquals(splits.exportState(), restored.exportState());
+        assertEquals(splits.current(), restored.current());
+        assertEquals(splits.restateQuantity(1, 5), restored.restateQuantity(1, 5));
+        assertEquals(splits.takeCarriedCost(), restored.takeCarriedCost());
+        // a restored instance keeps room for more epochs
+        assertEquals(splits.split(9, 5, 1), restored.split(9, 5, 1));
+        assertArrayEquals(splits.exportState(), restored.exportState());
+    }
+}
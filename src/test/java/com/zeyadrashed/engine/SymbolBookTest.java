@@ -0,0 +1,211 @@
+package com.zeyadrashed.engine;
+
+import com.zeyadrashed.obj.Transaction;
+import com.zeyadrashed.obj.TransactionType;
+import com.zeyadrashed.util.FixedPoint;
+import com.zeyadrashed.util.SymbolDictionary;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link SymbolBook}'s stock splits.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class SymbolBookTest {
+
+    private static final int DAY = (int) LocalDate.of(2024, 1, 2).toEpochDay();
+    private static final int SYMBOL = SymbolDictionary.idOf("SPLITBOOK");
+    private static final LotMethod[] PER_LOT_METHODS = {LotMethod.FIFO, LotMethod.LIFO, LotMethod.HIFO,
+            LotMethod.SPECIFIC};
+
+    /**
+     * A 50-share lot bought at $20, split 4:1 and then 1:3, keeps its $1000 cost basis, so selling the 66
+     * whole shares left at $12.50 realizes exactly -$175 and the match records carry the whole $1000, in
+     * both money modes. The pooled average is rounded to the micro, so AVERAGE is off by at most a micro
+     * per share.
+     */
+    @Test
+    public void testSplitThenReverseSplitKeepsCostBasis() {
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            for (LotMethod method : LotMethod.values()) {
+                String mode = method + (fixedPoint ? " (fixed-point)" : " (double)");
+                SymbolBook book = new SymbolBook(SYMBOL, fixedPoint, method);
+                long[] recordedCost = new long[1];
+                double[] recordedCostDouble = new double[1];
+                book.setMatchSink((symbolId, saleDay, buyDay, quantity, lotId, proceeds, costBasis, gain, longTerm) -> {
+                    recordedCost[0] += costBasis;
+                    recordedCostDouble[0] += Double.longBitsToDouble(costBasis);
+                });
+
+                book.buy(buy(DAY, 50, "20", 1));
+                book.split(4, 1);
+                book.split(1, 3);
+                assertEquals(mode + ": open shares", 66, book.getOpenShares());
+                if (fixedPoint) {
+                    assertEquals(mode + ": position basis", 1_000_000_000L, book.getPosition().getOpenCostBasisMicros());
+                } else {
+                    assertEquals(mode + ": position basis", 1000.0, book.getPosition().getOpenCostBasis(), 1e-9);
+                }
+
+                double gain = book.sell(sell(DAY + 60, 66, "12.5", 0));
+                assertEquals(mode + ": open shares after selling out", 0, book.getOpenShares());
+                if (method == LotMethod.AVERAGE) {
+                    assertEquals(mode + ": gain", -175.0, gain, 66e-6);
+                } else if (fixedPoint) {
+                    assertEquals(mode + ": gain", -175_000_000L, book.getRealizedGainMicros());
+                    assertEquals(mode + ": recorded cost", 1_000_000_000L, recordedCost[0]);
+                } else {
+                    assertEquals(mode + ": gain", -175.0, gain, 1e-9);
+                    assertEquals(mode + ": recorded cost", 1000.0, recordedCostDouble[0], 1e-9);
+                }
+            }
+        }
+    }
+
+    /**
+     * A split that does not divide evenly rounds the position down and carries the fractions between lots,
+     * so the restated lots still cover exactly the position's shares and cost: three 1-share lots split 3:2
+     * are 4 shares, and selling them relieves all three lots' cost.
+     */
+    @Test
+    public void testUnevenSplitCarriesFractionsBetweenLots() {
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            for (LotMethod method : PER_LOT_METHODS) {
+                String mode = method + (fixedPoint ? " (fixed-point)" : " (double)");
+                SymbolBook book = new SymbolBook(SYMBOL, fixedPoint, method);
+                long[] recordedShares = new long[1];
+                book.setMatchSink((symbolId, saleDay, buyDay, quantity, lotId, proceeds, costBasis, gain, longTerm) ->
+                        recordedShares[0] += quantity);
+                book.buy(buy(DAY, 1, "10", 1));
+                book.buy(buy(DAY + 1, 1, "20", 2));
+                book.buy(buy(DAY + 2, 1, "30", 3));
+                book.split(3, 2);
+                assertEquals(mode + ": open shares", 4, book.getOpenShares());
+
+                double gain = book.sell(sell(DAY + 10, 4, "25", 0));
+                assertEquals(mode + ": gain", 40.0, gain, 1e-9);
+                assertEquals(mode + ": shares relieved", 4, recordedShares[0]);
+                assertEquals(mode + ": open shares", 0, book.getOpenShares());
+                assertTrue(mode + ": no whole shares left in lots", wholeSharesLeft(book) == 0);
+            }
+        }
+    }
+
+    /**
+     * A reverse split that leaves less than a share closes the position and drops its cost.
+     */
+    @Test
+    public void testReverseSplitBelowOneShareClosesPosition() {
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            SymbolBook book = new SymbolBook(SYMBOL, fixedPoint, LotMethod.FIFO);
+            book.buy(buy(DAY, 5, "10", 1));
+            book.split(1, 10);
+            assertEquals(0, book.getOpenShares());
+            assertEquals(0L, book.getPosition().getOpenCostBasisMicros());
+            assertEquals(0.0, book.getPosition().getOpenCostBasis(), 0.0);
+            assertEquals(0, wholeSharesLeft(book));
+        }
+    }
+
+    /**
+     * Random buys, sells and splits in fixed-point mode: after every step the open lots plus the cost carried
+     * between them add up to the position's cost basis to the micro, and every position closed by a sale
+     * has realized exactly the cost it was bought for.
+     */
+    @Test
+    public void testRestatedLotsAddUpToPosition() {
+        long[][] ratios = {{3, 2}, {2, 3}, {1, 3}, {4, 1}, {7, 5}, {1, 10}};
+        SplittableRandom random = new SplittableRandom(7);
+        for (int trial = 0; trial < 400; trial++) {
+            LotMethod method = PER_LOT_METHODS[trial % PER_LOT_METHODS.length];
+            SymbolBook book = new SymbolBook(SYMBOL, true, method);
+            int day = DAY;
+            long bought = 0L;
+            long relieved = 0L;
+            boolean closedBySplit = false;
+            for (int step = 0; step < 80; step++) {
+                int op = random.nextInt(6);
+                if (op < 2) {
+                    int quantity = 1 + random.nextInt(50);
+                    long priceMicros = 1_000_000L + random.nextInt(100_000_000);
+                    book.buy(new Transaction(day++, TransactionType.BUY, SYMBOL, quantity,
+                            FixedPoint.toDouble(priceMicros), priceMicros, step + 1));
+                    bought += quantity * priceMicros;
+                } else if (op < 5) {
+                    long open = book.getOpenShares();
+                    if (open == 0) {
+                        continue;
+                    }
+                    int quantity = random.nextInt(3) == 0 ? (int) open : 1 + random.nextInt((int) Math.min(open, 100));
+                    long lotId = method == LotMethod.SPECIFIC && random.nextBoolean() ? 1 + random.nextInt(step + 1) : 0;
+                    long before = book.getRealizedGainMicros();
+                    book.sell(new Transaction(day++, TransactionType.SELL, SYMBOL, quantity, 10.0, 10_000_000L, lotId));
+                    relieved += quantity * 10_000_000L - (book.getRealizedGainMicros() - before);
+                    if (book.getOpenShares() == 0) {
+                        if (!closedBySplit) {
+                            assertEquals(method + " trial " + trial + ": cost realized on close", bought, relieved);
+                        }
+                        bought = 0L;
+                        relieved = 0L;
+                        closedBySplit = false;
+                    }
+                } else {
+                    long[] ratio = ratios[random.nextInt(ratios.length)];
+                    long open = book.getOpenShares();
+                    book.split(ratio[0], ratio[1]);
+                    closedBySplit |= open > 0 && book.getOpenShares() == 0;
+                }
+                if (book.getOpenShares() > 0) {
+                    long[] lotCost = new long[1];
+                    book.getLots().forEach((lotDay, quantity, price, lotId, epoch) -> lotCost[0] += quantity * price);
+                    assertEquals(method + " trial " + trial + " step " + step + ": lots and carry vs position",
+                            book.getPosition().getOpenCostBasisMicros(), lotCost[0] + carriedCostMicros(book));
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the cost carried between restated lots, from the exported split state.
+     */
+    private static long carriedCostMicros(SymbolBook book) {
+        if (book.getSplits() == null) {
+            return 0L;
+        }
+        long[] state = book.getSplits().exportState();
+        int epochs = (int) state[0];
+        return state[1 + 2 * epochs + 4];
+    }
+
+    /**
+     * Counts the whole shares left in the book's lots, as stated in the current split epoch.
+     */
+    private static long wholeSharesLeft(SymbolBook book) {
+        long[] shares = new long[1];
+        book.forEachLot((day, quantity, price, lotId, epoch) -> shares[0] += quantity);
+        return shares[0];
+    }
+
+    private static Transaction buy(int day, int quantity, String price, long lotId) {
+        return new Transaction(day, TransactionType.BUY, SYMBOL, quantity, Double.parseDouble(price),
+                FixedPoint.parse(price), lotId);
+    }
+
+    private static Transaction sell(int day, int quantity, String price, long lotId) {
+        return new Transaction(day, TransactionType.SELL, SYMBOL, quantity, Double.parseDouble(price),
+                FixedPoint.parse(price), lotId);
+    }
+}
@@ -0,0 +1,255 @@
+package com.zeyadrashed.engine;
+
+import com.zeyadrashed.CapitalCalculator;
+import com.zeyadrashed.obj.Transaction;
+import com.zeyadrashed.obj.TransactionType;
+import com.zeyadrashed.util.FixedPoint;
+import com.zeyadrashed.util.SymbolDictionary;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link SymbolJournal}.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class SymbolJournalTest {
+
+    private static final int DAY = (int) LocalDate.of(2024, 1, 2).toEpochDay();
+    private static final int SYMBOL = SymbolDictionary.idOf("JOURNALBOOK");
+
+    /**
+     * Random buys and sells, some backdated, leave the book exactly as a run over the same rows sorted by
+     * date (keeping input order within a date), in every lot method and both money modes, after every row.
+     */
+    @Test
+    public void testCorrectionsEqualDateSortedRun() {
+        SplittableRandom random = new SplittableRandom(22);
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            for (LotMethod method : LotMethod.values()) {
+                String mode = method + (fixedPoint ? " (fixed-point)" : " (double)");
+                SymbolBook book = new SymbolBook(SYMBOL, fixedPoint, method);
+                SymbolJournal journal = new SymbolJournal(book, method);
+                List<Transaction> rows = new ArrayList<>();
+                int day = DAY;
+                for (int i = 0; i < 400; i++) {
+                    int date = random.nextInt(6) == 0 ? day - random.nextInt(day - DAY + 1) : (day += random.nextInt(3));
+                    boolean buy = random.nextInt(5) < 2;
+                    long lotId = buy ? i + 1 : method == LotMethod.SPECIFIC && random.nextBoolean() ? 1 + random.nextInt(i + 1) : 0;
+                    Transaction row = transaction(date, buy ? TransactionType.BUY : TransactionType.SELL,
+                            1 + random.nextInt(40), 1_000_000L + random.nextInt(200_000_000), lotId);
+                    rows.add(row);
+                    submit(journal, row);
+                    if (i % 20 == 0 || i == 399) {
+                        assertSameBook(mode + " row " + i, sortedRun(fixedPoint, method, rows), book);
+                    }
+                }
+                assertTrue(mode + ": corrections made", journal.getCorrections() > 0);
+                assertTrue(mode + ": checkpoints taken", journal.getCheckpoints() > 1);
+            }
+        }
+    }
+
+    /**
+     * A row dated before the first checkpoint rewinds to the journal's start and replays every event, while
+     * one dated after a later checkpoint replays only the events since it.
+     */
+    @Test
+    public void testBackdateBeforeFirstCheckpointReplaysFromStart() {
+        for (LotMethod method : LotMethod.values()) {
+            SymbolBook book = new SymbolBook(SYMBOL, true, method);
+            SymbolJournal journal = new SymbolJournal(book, method);
+            List<Transaction> rows = new ArrayList<>();
+            for (int i = 0; i < 3 * SymbolJournal.MIN_CHECKPOINT_INTERVAL; i++) {
+                Transaction row = i % 3 == 2 ? transaction(DAY + 10 + i, TransactionType.SELL, 2, 30_000_000L, 0L)
+                        : transaction(DAY + 10 + i, TransactionType.BUY, 1 + i % 5, 20_000_000L + i * 10_000L, i + 1);
+                rows.add(row);
+                assertTrue(journal.append(row));
+            }
+            assertTrue(method + ": checkpoints taken", journal.getCheckpoints() > 2);
+
+            Transaction first = transaction(DAY, TransactionType.BUY, 7, 5_000_000L, 1000L);
+            rows.add(first);
+            journal.correct(first);
+            assertEquals(method + ": replayed from start", journal.size(), journal.getReplayedEvents());
+            assertSameBook(method + " before first event", sortedRun(true, method, rows), book);
+
+            Transaction early = transaction(DAY + 20, TransactionType.SELL, 3, 40_000_000L, 0L);
+            rows.add(early);
+            long replayed = journal.getReplayedEvents();
+            journal.correct(early);
+            assertEquals(method + ": replayed from start", journal.size(), journal.getReplayedEvents() - replayed);
+            assertSameBook(method + " before first checkpoint", sortedRun(true, method, rows), book);
+
+            Transaction late = transaction(DAY + 10 + journal.size() - 20, TransactionType.BUY, 4, 25_000_000L, 2000L);
+            rows.add(late);
+            replayed = journal.getReplayedEvents();
+            journal.correct(late);
+            long replayedNow = journal.getReplayedEvents() - replayed;
+            assertTrue(method + ": replayed " + replayedNow, replayedNow < journal.size() - SymbolJournal.MIN_CHECKPOINT_INTERVAL);
+            assertSameBook(method + " after a checkpoint", sortedRun(true, method, rows), book);
+        }
+    }
+
+    /**
+     * A backdated SELL that takes shares a later SELL relied on leaves that SELL rejected, as it would have
+     * been had the rows come in date order; a backdated SELL without the shares is itself rejected.
+     */
+    @Test
+    public void testBackdatedSellMakesLaterSellInsufficient() {
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            for (LotMethod method : LotMethod.values()) {
+                String mode = method + (fixedPoint ? " (fixed-point)" : " (double)");
+                SymbolBook book = new SymbolBook(SYMBOL, fixedPoint, method);
+                SymbolJournal journal = new SymbolJournal(book, method);
+                List<Transaction> rows = new ArrayList<>(List.of(
+                        transaction(DAY, TransactionType.BUY, 10, 10_000_000L, 1L),
+                        transaction(DAY + 10, TransactionType.SELL, 6, 12_000_000L, 0L)));
+                rows.forEach(journal::append);
+                assertEquals(mode, 4, book.getOpenShares());
+
+                Transaction backdated = transaction(DAY + 5, TransactionType.SELL, 5, 11_000_000L, 0L);
+                rows.add(backdated);
+                assertEquals(mode + ": change", 5.0 - 12.0, journal.correct(backdated), 1e-9);
+                assertFalse(mode + ": backdated sell applied", journal.isLastRejected());
+                assertEquals(mode + ": later sell rejected", 5, book.getOpenShares());
+                assertEquals(mode, 1, book.getSalesMatched());
+                assertSameBook(mode, sortedRun(fixedPoint, method, rows), book);
+
+                Transaction uncovered = transaction(DAY + 1, TransactionType.SELL, 11, 11_000_000L, 0L);
+                rows.add(uncovered);
+                assertEquals(mode, 0.0, journal.correct(uncovered), 0.0);
+                assertTrue(mode + ": uncovered sell rejected", journal.isLastRejected());
+                assertSameBook(mode, sortedRun(fixedPoint, method, rows), book);
+            }
+        }
+    }
+
+    /**
+     * In a calculator, a backdated row replays only its own symbol's book, and the gains by symbol and by
+     * date equal a run over the date-sorted rows without corrections.
+     */
+    @Test
+    public void testCorrectionReplaysOnlyItsSymbol() {
+        int a = SymbolDictionary.idOf("JOURNALA");
+        int b = SymbolDictionary.idOf("JOURNALB");
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int symbol = i % 2 == 0 ? a : b;
+            TransactionType type = i % 4 < 2 ? TransactionType.BUY : TransactionType.SELL;
+            rows.add(new Transaction(DAY + i, type, symbol, 3, 10.0 + i, FixedPoint.fromDouble(10.0 + i), 0L));
+        }
+        CapitalCalculator calculator = new CapitalCalculator(true, LotMethod.FIFO);
+        calculator.setPrintSales(false);
+        calculator.setCorrections(true);
+        calculator.processTransactions(rows);
+        SymbolBook bookA = book(calculator, "JOURNALA");
+        SymbolBook bookB = book(calculator, "JOURNALB");
+        long buysA = bookA.getCounters().getBuys();
+        long buysB = bookB.getCounters().getBuys();
+        long sellsB = bookB.getCounters().getSells();
+
+        Transaction backdated = new Transaction(DAY + 1, TransactionType.SELL, a, 2, 5.0, FixedPoint.parse("5"), 0L);
+        assertTrue(calculator.processTransaction(backdated));
+        rows.add(backdated);
+        assertTrue("symbol A replayed", bookA.getCounters().getBuys() > buysA);
+        assertEquals("symbol B untouched", buysB, bookB.getCounters().getBuys());
+        assertEquals("symbol B untouched", sellsB, bookB.getCounters().getSells());
+
+        CapitalCalculator sorted = new CapitalCalculator(true, LotMethod.FIFO);
+        sorted.setPrintSales(false);
+        List<Transaction> sortedRows = new ArrayList<>(rows);
+        sortedRows.sort(Comparator.comparingInt(Transaction::getEpochDay));
+        sorted.processTransactions(sortedRows);
+        assertEquals(sorted.getSymbolGains(), calculator.getSymbolGains());
+        for (int from = 0; from < 100; from += 7) {
+            LocalDate start = LocalDate.ofEpochDay(DAY + from);
+            LocalDate end = LocalDate.ofEpochDay(DAY + from + 13);
+            assertEquals("gain from " + start, sorted.getRealizedGain("JOURNALA", start, end),
+                    calculator.getRealizedGain("JOURNALA", start, end), 0.0);
+        }
+    }
+
+    private static void submit(SymbolJournal journal, Transaction row) {
+        if (journal.isBackdated(row)) {
+            journal.correct(row);
+        } else {
+            journal.append(row);
+        }
+    }
+
+    /**
+     * Runs rows sorted by date, keeping input order within a date, through a fresh journaled book.
+     */
+    private static SymbolBook sortedRun(boolean fixedPoint, LotMethod method, List<Transaction> rows) {
+        List<Transaction> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparingInt(Transaction::getEpochDay));
+        SymbolBook book = new SymbolBook(SYMBOL, fixedPoint, method);
+        SymbolJournal journal = new SymbolJournal(book, method);
+        sorted.forEach(journal::append);
+        return book;
+    }
+
+    /**
+     * Asserts that two books hold bit-for-bit the same lots, position, realized gain and gains by date.
+     */
+    private static void assertSameBook(String mode, SymbolBook expected, SymbolBook actual) {
+        assertEquals(mode + ": lots", lots(expected), lots(actual));
+        assertEquals(mode + ": shares", expected.getOpenShares(), actual.getOpenShares());
+        assertEquals(mode + ": basis", Double.doubleToRawLongBits(expected.getPosition().getOpenCostBasis()),
+                Double.doubleToRawLongBits(actual.getPosition().getOpenCostBasis()));
+        assertEquals(mode + ": basis micros", expected.getPosition().getOpenCostBasisMicros(),
+                actual.getPosition().getOpenCostBasisMicros());
+        assertEquals(mode + ": gain", Double.doubleToRawLongBits(expected.getRealizedGain()),
+                Double.doubleToRawLongBits(actual.getRealizedGain()));
+        assertEquals(mode + ": sales", expected.getSalesMatched(), actual.getSalesMatched());
+        GainSeries expectedSeries = expected.getGainSeries();
+        GainSeries actualSeries = actual.getGainSeries();
+        assertEquals(mode + ": sale days", expectedSeries.size(), actualSeries.size());
+        for (int i = 0; i < expectedSeries.size(); i++) {
+            assertEquals(mode + ": sale day " + i, expectedSeries.dayAt(i), actualSeries.dayAt(i));
+            assertEquals(mode + ": total " + i, expectedSeries.totalAt(i), actualSeries.totalAt(i));
+        }
+    }
+
+    /**
+     * Lists a book's open lots in a fixed order, since a heap's layout depends on its history.
+     */
+    private static List<String> lots(SymbolBook book) {
+        List<String> lots = new ArrayList<>();
+        book.getLots().forEach((day, quantity, price, lotId, epoch) ->
+                lots.add(day + "," + quantity + "," + price + "," + lotId + "," + epoch));
+        Collections.sort(lots);
+        return lots;
+    }
+
+    private static SymbolBook book(CapitalCalculator calculator, String symbol) {
+        for (SymbolBook book : calculator.getBooks()) {
+            if (book.getSymbol().equals(symbol)) {
+                return book;
+            }
+        }
+        throw new AssertionError("no book for " + symbol);
+    }
+
+    private static Transaction transaction(int day, TransactionType type, int quantity, long priceMicros, long lotId) {
+        return new Transaction(day, type, SYMBOL, quantity, FixedPoint.toDouble(priceMicros), priceMicros, lotId);
+    }
+}
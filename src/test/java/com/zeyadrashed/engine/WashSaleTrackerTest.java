@@ -0,0 +1,257 @@
+package com.zeyadrashed.engine;
+
+import com.zeyadrashed.CapitalCalculator;
+import com.zeyadrashed.obj.Transaction;
+import com.zeyadrashed.obj.TransactionType;
+import com.zeyadrashed.util.FixedPoint;
+import com.zeyadrashed.util.SymbolDictionary;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link WashSaleTracker}.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class WashSaleTrackerTest {
+
+    private static final int SALE = (int) LocalDate.of(2024, 6, 3).toEpochDay();
+    private static final int SYMBOL = SymbolDictionary.idOf("WASHBOOK");
+
+    /**
+     * A replacement BUY 30 days before a losing sale disallows the loss; one 31 days before does not.
+     */
+    @Test
+    public void testLookBackWindowEndsAtThirtyDays() {
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            SymbolBook washed = lossAfterReplacement(fixedPoint, WashSaleTracker.WINDOW_DAYS);
+            assertLoss(fixedPoint + ": 30 days before", washed, 200.0, 0.0, 0.0);
+            assertEquals(1, washed.getWashSales().getWashSales());
+
+            SymbolBook allowed = lossAfterReplacement(fixedPoint, WashSaleTracker.WINDOW_DAYS + 1);
+            assertLoss(fixedPoint + ": 31 days before", allowed, 0.0, -200.0, -200.0);
+            assertEquals(0, allowed.getWashSales().getWashSales());
+        }
+    }
+
+    /**
+     * A losing sale is pending until a BUY within 30 days after it disallows the loss; a BUY 31 days after
+     * it finds the loss already final.
+     */
+    @Test
+    public void testLookAheadWindowEndsAtThirtyDays() {
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            SymbolBook washed = losingSale(fixedPoint);
+            assertLoss(fixedPoint + ": before replacement", washed, 0.0, -200.0, -200.0);
+            washed.buy(buy(SALE + WashSaleTracker.WINDOW_DAYS, 10, "90", 2));
+            assertLoss(fixedPoint + ": 30 days after", washed, 200.0, 0.0, 0.0);
+
+            SymbolBook allowed = losingSale(fixedPoint);
+            allowed.buy(buy(SALE + WashSaleTracker.WINDOW_DAYS + 1, 10, "90", 2));
+            assertLoss(fixedPoint + ": 31 days after", allowed, 0.0, 0.0, -200.0);
+        }
+    }
+
+    /**
+     * Fewer replacement shares than were sold disallow only their share of the loss, before or after the
+     * sale, and the rest stays pending until its window closes.
+     */
+    @Test
+    public void testPartialReplacementDisallowsItsShare() {
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            SymbolBook after = losingSale(fixedPoint);
+            after.buy(buy(SALE + 10, 4, "90", 2));
+            assertLoss(fixedPoint + ": 4 of 10 after", after, 80.0, -120.0, -120.0);
+            after.getWashSales().settle(SALE + WashSaleTracker.WINDOW_DAYS);
+            assertLoss(fixedPoint + ": window still open", after, 80.0, -120.0, -120.0);
+            after.getWashSales().settle(SALE + WashSaleTracker.WINDOW_DAYS + 1);
+            assertLoss(fixedPoint + ": window closed", after, 80.0, 0.0, -120.0);
+
+            SymbolBook before = book(fixedPoint);
+            before.buy(buy(SALE - 60, 10, "100", 1));
+            before.buy(buy(SALE - 5, 4, "90", 2));
+            before.sell(sell(SALE, 10, "80"));
+            assertLoss(fixedPoint + ": 4 of 10 before", before, 80.0, -120.0, -120.0);
+        }
+    }
+
+    /**
+     * The disallowed loss is added to the replacement lot's basis and charged, prorated, as its shares are
+     * sold, so it shows up in their later gain.
+     */
+    @Test
+    public void testDeferredBasisLandsOnReplacementLot() {
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            String mode = fixedPoint ? "fixed-point" : "double";
+            SymbolBook book = losingSale(fixedPoint);
+            book.buy(buy(SALE + 10, 10, "90", 2));
+            assertEquals(mode, 1100.0, basis(book), 1e-9);
+            assertEquals(mode, 200.0, deferredBasis(book), 1e-9);
+
+            assertEquals(mode, 4 * 95.0 - 4 * 90.0 - 80.0, book.sell(sell(SALE + 100, 4, "95")), 1e-9);
+            assertEquals(mode, 120.0, deferredBasis(book), 1e-9);
+            assertEquals(mode, 6 * 95.0 - 6 * 90.0 - 120.0, book.sell(sell(SALE + 101, 6, "95")), 1e-9);
+            assertEquals(mode, 0.0, deferredBasis(book), 0.0);
+            assertEquals(mode, 0.0, basis(book), 1e-9);
+            // the first loss was washed, so only the replacement lot's -150 is realized
+            assertEquals(mode, -150.0, realized(book), 1e-9);
+        }
+    }
+
+    /**
+     * A loss whose window closed before the run's last date is settled by the wash-sale summary, while one
+     * whose window is still open stays pending.
+     */
+    @Test
+    public void testSummarySettlesLossesWhoseWindowClosed() {
+        CapitalCalculator calculator = new CapitalCalculator(true, LotMethod.FIFO);
+        calculator.setPrintSales(false);
+        calculator.setWashSales(true);
+        int closed = SymbolDictionary.idOf("WASHCLOSED");
+        int open = SymbolDictionary.idOf("WASHOPEN");
+        calculator.processTransactions(List.of(
+                new Transaction(SALE - 60, TransactionType.BUY, closed, 10, 100.0, FixedPoint.parse("100"), 0L),
+                new Transaction(SALE - 60, TransactionType.BUY, open, 10, 100.0, FixedPoint.parse("100"), 0L),
+                new Transaction(SALE, TransactionType.SELL, closed, 10, 80.0, FixedPoint.parse("80"), 0L),
+                new Transaction(SALE + 20, TransactionType.SELL, open, 10, 90.0, FixedPoint.parse("90"), 0L),
+                new Transaction(SALE + 31, TransactionType.BUY, open, 1, 95.0, FixedPoint.parse("95"), 0L)));
+        WashSaleTracker closedTracker = tracker(calculator, "WASHCLOSED");
+        WashSaleTracker openTracker = tracker(calculator, "WASHOPEN");
+        assertEquals(-200.0, closedTracker.getPendingLoss(), 0.0);
+
+        calculator.printWashSaleSummary();
+        assertEquals(0.0, closedTracker.getPendingLoss(), 0.0);
+        assertEquals(0L, closedTracker.getDisallowedLossMicros());
+        assertEquals(10_000_000L, openTracker.getDisallowedLossMicros());
+        assertEquals(-90.0, openTracker.getPendingLoss(), 0.0);
+    }
+
+    /**
+     * Deferrals on purchase days spread over years, relieved out of date order, are charged exactly once:
+     * every lot's cost plus the deferred basis is the position's basis after each step, the exported state
+     * restores to the same state, and once everything is sold the total realized is proceeds minus cost.
+     */
+    @Test
+    public void testDeferralsSpanningManyDaysAreChargedOnce() {
+        for (LotMethod method : new LotMethod[]{LotMethod.FIFO, LotMethod.LIFO, LotMethod.HIFO}) {
+            SymbolBook book = book(true, method);
+            book.buy(buy(SALE, 10, "100", 1));
+            long net = -10 * 100_000_000L;
+            for (int k = 1; k <= 40; k++) {
+                int day = SALE + 45 * k;
+                book.sell(sell(day, 1, "50"));
+                net += 50_000_000L;
+                String price = Integer.toString(90 + k % 7);
+                book.buy(buy(day + 1, 2, price, k + 1));
+                net -= 2 * FixedPoint.parse(price);
+                assertBasisCovered(method + " step " + k, book);
+                long[] state = book.getWashSales().exportState();
+                WashSaleTracker restored = new WashSaleTracker(true, state);
+                assertArrayEquals(method + " step " + k, state, restored.exportState());
+                assertEquals(book.getWashSales().getDeferredBasisMicros(), restored.getDeferredBasisMicros());
+            }
+            int last = SALE + 45 * 41;
+            long open = book.getOpenShares();
+            book.sell(sell(last, (int) open, "100"));
+            net += open * 100_000_000L;
+            book.getWashSales().settle(last + WashSaleTracker.WINDOW_DAYS + 1);
+            assertEquals(method.toString(), 0L, book.getWashSales().getDeferredBasisMicros());
+            assertEquals(method.toString(), 0L, book.getPosition().getOpenCostBasisMicros());
+            assertEquals(method.toString(), net, book.getRealizedGainMicros());
+        }
+    }
+
+    /**
+     * Buys 10 shares at $100 60 days before the sale and 10 replacement shares at $90 some days before it,
+     * then sells 10 at $80 for a $200 loss on the first lot.
+     */
+    private static SymbolBook lossAfterReplacement(boolean fixedPoint, int daysBefore) {
+        SymbolBook book = book(fixedPoint);
+        book.buy(buy(SALE - 60, 10, "100", 1));
+        book.buy(buy(SALE - daysBefore, 10, "90", 2));
+        book.sell(sell(SALE, 10, "80"));
+        return book;
+    }
+
+    /**
+     * Buys 10 shares at $100 60 days before the sale and sells them at $80, for a $200 loss.
+     */
+    private static SymbolBook losingSale(boolean fixedPoint) {
+        SymbolBook book = book(fixedPoint);
+        book.buy(buy(SALE - 60, 10, "100", 1));
+        book.sell(sell(SALE, 10, "80"));
+        return book;
+    }
+
+    private static void assertLoss(String mode, SymbolBook book, double disallowed, double pending, double realized) {
+        WashSaleTracker tracker = book.getWashSales();
+        assertEquals(mode + ": disallowed", disallowed, tracker.getDisallowedLoss(), 1e-9);
+        assertEquals(mode + ": pending", pending, tracker.getPendingLoss(), 1e-9);
+        assertEquals(mode + ": realized", realized, realized(book), 1e-9);
+    }
+
+    /**
+     * Asserts that the open lots' cost plus the loss deferred into them is the position's cost basis.
+     */
+    private static void assertBasisCovered(String mode, SymbolBook book) {
+        long[] lotCost = new long[1];
+        book.getLots().forEach((day, quantity, price, lotId, epoch) -> lotCost[0] += quantity * price);
+        assertEquals(mode, book.getPosition().getOpenCostBasisMicros(),
+                lotCost[0] + book.getWashSales().getDeferredBasisMicros());
+    }
+
+    private static double realized(SymbolBook book) {
+        return book.isFixedPoint() ? FixedPoint.toDouble(book.getRealizedGainMicros()) : book.getRealizedGain();
+    }
+
+    private static double basis(SymbolBook book) {
+        return book.isFixedPoint() ? FixedPoint.toDouble(book.getPosition().getOpenCostBasisMicros())
+                : book.getPosition().getOpenCostBasis();
+    }
+
+    private static double deferredBasis(SymbolBook book) {
+        WashSaleTracker tracker = book.getWashSales();
+        return book.isFixedPoint() ? FixedPoint.toDouble(tracker.getDeferredBasisMicros()) : tracker.getDeferredBasis();
+    }
+
+    private static WashSaleTracker tracker(CapitalCalculator calculator, String symbol) {
+        for (SymbolBook book : calculator.getBooks()) {
+            if (book.getSymbol().equals(symbol)) {
+                return book.getWashSales();
+            }
+        }
+        throw new AssertionError("no book for " + symbol);
+    }
+
+    private static SymbolBook book(boolean fixedPoint) {
+        return book(fixedPoint, LotMethod.FIFO);
+    }
+
+    private static SymbolBook book(boolean fixedPoint, LotMethod method) {
+        SymbolBook book = new SymbolBook(SYMBOL, fixedPoint, method);
+        book.enableWashSales();
+        return book;
+    }
+
+    private static Transaction buy(int day, int quantity, String price, long lotId) {
+        return new Transaction(day, TransactionType.BUY, SYMBOL, quantity, Double.parseDouble(price),
+                FixedPoint.parse(price), lotId);
+    }
+
+    private static Transaction sell(int day, int quantity, String price) {
+        return new Transaction(day, TransactionType.SELL, SYMBOL, quantity, Double.parseDouble(price),
+                FixedPoint.parse(price), 0L);
+    }
+}
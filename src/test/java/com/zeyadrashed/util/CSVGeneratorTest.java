@@ -0,0 +1,58 @@
+package com.zeyadrashed.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link CSVGenerator}.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 01 Feb 2025
+ */
+public class CSVGeneratorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Test method for testing CSV generation.
+     */
+    @Test
+    public void testGenerator() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("sample_transactions.csv");
+        CSVGenerator.generateCSV(path.toString(), 10);
+
+        List<String> lines = Files.readAllLines(path);
+        assertEquals(11, lines.size());
+        assertEquals("date,transactionType,symbol,quantity,price", lines.get(0));
+    }
+
+    /**
+     * The same seed gives the same file whatever the number of threads.
+     */
+    @Test
+    public void testParallelGenerationIsDeterministic() throws IOException {
+        Path sequential = folder.getRoot().toPath().resolve("sequential.csv");
+        Path parallel = folder.getRoot().toPath().resolve("parallel.csv");
+        CSVGenerator.generateCSV(sequential, 5_000, new CSVGenerator.Config().seed(7).symbols(20).chunkRows(512));
+        CSVGenerator.generateCSV(parallel, 5_000,
+                new CSVGenerator.Config().seed(7).symbols(20).chunkRows(512).parallelism(4));
+
+        assertArrayEquals(Files.readAllBytes(sequential), Files.readAllBytes(parallel));
+    }
+}
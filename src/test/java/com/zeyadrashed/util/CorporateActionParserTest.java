@@ -0,0 +1,101 @@
+package com.zeyadrashed.util;
+
+import com.zeyadrashed.obj.CorporateAction;
+import com.zeyadrashed.obj.CorporateActionType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link CorporateActionParser}.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class CorporateActionParserTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Every value form parses to the right ratio, and actions come back in date order, keeping file order
+     * within a date.
+     */
+    @Test
+    public void testParsesEveryActionInDateOrder() throws IOException {
+        List<CorporateAction> actions = CorporateActionParser.parse(write(
+                "date,action,symbol,value",
+                "2024-06-10,SPLIT,NVDA,10:1",
+                "",
+                "2022-06-09,RENAME,FB,META",
+                "2024-06-10,split,AAPL,3",
+                "2023-01-05, REVERSE_SPLIT , GE , 1:8",
+                "2023-01-06,REVERSE_SPLIT,XYZ,10"));
+
+        assertEquals(5, actions.size());
+        assertAction(actions.get(0), "2022-06-09", CorporateActionType.RENAME, "FB", 1, 1);
+        assertEquals("META", actions.get(0).getNewSymbol());
+        assertAction(actions.get(1), "2023-01-05", CorporateActionType.REVERSE_SPLIT, "GE", 1, 8);
+        assertAction(actions.get(2), "2023-01-06", CorporateActionType.REVERSE_SPLIT, "XYZ", 1, 10);
+        assertAction(actions.get(3), "2024-06-10", CorporateActionType.SPLIT, "NVDA", 10, 1);
+        assertAction(actions.get(4), "2024-06-10", CorporateActionType.SPLIT, "AAPL", 3, 1);
+    }
+
+    /**
+     * A ratio that points the wrong way for its action, or gives as many shares as it takes, is rejected
+     * with the line it is on rather than applied the other way.
+     */
+    @Test
+    public void testRejectsRatiosThatContradictTheAction() throws IOException {
+        String[] rejected = {"SPLIT,X,1:10", "SPLIT,X,1", "SPLIT,X,2:2", "REVERSE_SPLIT,X,10:1", "REVERSE_SPLIT,X,1",
+                "REVERSE_SPLIT,X,3:3", "SPLIT,X,0:1", "REVERSE_SPLIT,X,-2"};
+        for (String row : rejected) {
+            Path file = write("2024-01-02,SPLIT,OK,2:1", "2024-01-03," + row);
+            IllegalArgumentException e = assertThrows(row, IllegalArgumentException.class,
+                    () -> CorporateActionParser.parse(file));
+            assertTrue(row + ": " + e.getMessage(), e.getMessage().startsWith("line 2: "));
+        }
+    }
+
+    /**
+     * Rows missing a field, or with an unknown action, are rejected.
+     */
+    @Test
+    public void testRejectsMalformedRows() throws IOException {
+        for (String row : new String[]{"2024-01-03,SPLIT,X", "2024-01-03,MERGE,X,Y", "2024-01-03,RENAME, ,Y"}) {
+            Path file = write(row);
+            assertThrows(row, IllegalArgumentException.class, () -> CorporateActionParser.parse(file));
+        }
+    }
+
+    private static void assertAction(CorporateAction action, String date, CorporateActionType type, String symbol,
+                                     long numerator, long denominator) {
+        assertEquals(LocalDate.parse(date).toEpochDay(), action.getEpochDay());
+        assertEquals(type, action.getType());
+        assertEquals(symbol, action.getSymbol());
+        assertEquals(numerator, action.getRatioNumerator());
+        assertEquals(denominator, action.getRatioDenominator());
+    }
+
+    private Path write(String... lines) throws IOException {
+        Path file = Files.createTempFile(folder.getRoot().toPath(), "actions", ".csv");
+        Files.write(file, List.of(lines));
+        return file;
+    }
+}
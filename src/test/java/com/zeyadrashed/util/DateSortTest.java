@@ -0,0 +1,115 @@
+package com.zeyadrashed.util;
+
+import com.zeyadrashed.obj.Transaction;
+import com.zeyadrashed.obj.TransactionType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link DateSort}.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class DateSortTest {
+
+    private static final int SYMBOL = SymbolDictionary.idOf("DATESORT");
+
+    /**
+     * Dates spanning fewer than 65536 days, sorted in one counting pass, come out in the same order as a
+     * stable sort, with transactions on the same day in their input order.
+     */
+    @Test
+    public void testCountingSortIsStable() {
+        assertSortsLikeStableSort(transactions(5000, -300, 1000), 1);
+        // the widest span a single pass handles
+        assertSortsLikeStableSort(transactions(5000, 0, 65535), 1);
+    }
+
+    /**
+     * Dates spanning 65536 days or more, sorted by the radix passes, come out in the same order as a stable
+     * sort, including dates before 1970.
+     */
+    @Test
+    public void testRadixSortIsStable() {
+        assertSortsLikeStableSort(transactions(5000, 0, 65536), 1);
+        assertSortsLikeStableSort(transactions(5000, -400_000, 2_000_000), 1);
+    }
+
+    /**
+     * Input large enough to be split across threads comes out in the same order as a stable sort, on both
+     * the counting and the radix paths, whatever the number of threads.
+     */
+    @Test
+    public void testSortParallelIsStable() {
+        for (int parallelism : new int[]{2, 3, 4}) {
+            assertSortsLikeStableSort(transactions(300_000, 0, 2000), parallelism);
+            assertSortsLikeStableSort(transactions(300_000, -100_000, 200_000), parallelism);
+        }
+    }
+
+    /**
+     * Empty, single-day and already sorted input is left as it is.
+     */
+    @Test
+    public void testTrivialInput() {
+        assertSortsLikeStableSort(new ArrayList<>(), 1);
+        assertSortsLikeStableSort(transactions(100, 7, 7), 1);
+        List<Transaction> sorted = transactions(1000, 0, 100_000);
+        sorted.sort(Comparator.comparingInt(Transaction::getEpochDay));
+        assertSortsLikeStableSort(sorted, 1);
+    }
+
+    /**
+     * Sorts a copy with {@link DateSort} and a copy with {@link Collections#sort}, which is stable, and checks
+     * that every position holds the same transaction, as told apart by its input position.
+     */
+    private static void assertSortsLikeStableSort(List<Transaction> transactions, int parallelism) {
+        List<Transaction> expected = new ArrayList<>(transactions);
+        Collections.sort(expected, Comparator.comparingInt(Transaction::getEpochDay));
+        List<Transaction> actual = new ArrayList<>(transactions);
+        if (parallelism == 1) {
+            DateSort.sort(actual);
+        } else {
+            DateSort.sortParallel(actual, parallelism);
+        }
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals("parallelism " + parallelism + ", position " + i, expected.get(i).getLotId(),
+                    actual.get(i).getLotId());
+        }
+    }
+
+    /**
+     * Random dates between {@code from} and {@code from + span} inclusive, always including both ends, drawn
+     * from about one day per eight rows so that most days hold several transactions.
+     */
+    private static List<Transaction> transactions(int rows, int from, int span) {
+        SplittableRandom random = new SplittableRandom(12);
+        int[] days = new int[Math.max(2, rows / 8)];
+        days[0] = from;
+        days[1] = from + span;
+        for (int i = 2; i < days.length; i++) {
+            days[i] = from + random.nextInt(span + 1);
+        }
+        List<Transaction> transactions = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            int day = i < 2 ? days[1 - i] : days[random.nextInt(days.length)];
+            transactions.add(new Transaction(day, TransactionType.BUY, SYMBOL, 1, 10.0, 10_000_000L, i + 1));
+        }
+        return transactions;
+    }
+}
@@ -0,0 +1,151 @@
+package com.zeyadrashed.util;
+
+import com.zeyadrashed.obj.Transaction;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link MappedCSVParser}.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class MappedCSVParserTest {
+
+    private static final String[] ROWS = {
+            "2024-01-02,BUY,MCSVA,10,100.5",
+            " 2024-01-03 , sell , MCSVA , 4 , 101.25 ",
+            "2024-01-04,Buy,MCSVB,7,0.1234567",
+            "2024-01-05,BUY,MCSVB,3,1e2,17",
+            "2024-01-06,SELL,MCSVB,2,-3.5,17,",
+            "2024-01-07,BUY,MCSVC,5,+42,,MCSVACCT1",
+            "2024-01-08,SELL,MCSVC,1,42.000001, 9 , MCSVACCT2 ",
+            "2024-01-09,BUY,MCSVC,1,42,,",
+            "2024-01-10,BUY,MCSVC,1,123456789012.1234567891",
+            "2024-01-11,BUY,MCSVA,2,0.30000000000000004,3,MCSVACCT1,extra",
+            "2024-01-12,BUY,MCSVA",
+            "",
+            "2024-01-13,BUY,MCSVA,1,,,",
+            "2024-01-14,SELL,MCSVA,1,99.999999949"};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * A file with a header, LF line ends, untrimmed fields, short rows and every combination of the lot and
+     * account columns parses to the same transactions as {@link CSVParser}, in both money modes.
+     */
+    @Test
+    public void testParseMatchesCsvParser() throws IOException {
+        Path path = write("rows.csv", "date,transactionType,symbol,quantity,price,lot,account", ROWS, "\n", true);
+        assertSameAsCsvParser(path);
+    }
+
+    /**
+     * CRLF line ends, a missing final newline and a file without a header parse the same as with
+     * {@link CSVParser}.
+     */
+    @Test
+    public void testCrlfAndNoHeader() throws IOException {
+        assertSameAsCsvParser(write("crlf.csv", "Date,Type,Symbol,Quantity,Price", ROWS, "\r\n", false));
+        assertSameAsCsvParser(write("noheader.csv", null, ROWS, "\r\n", true));
+        assertSameAsCsvParser(write("noheader-lf.csv", null, ROWS, "\n", false));
+    }
+
+    /**
+     * Splitting a file into any number of chunks, so that chunk boundaries fall next to every line, parses
+     * the same rows in the same order as one sequential pass and as {@link CSVParser}.
+     */
+    @Test
+    public void testParseParallelMatchesAtEveryChunkBoundary() throws IOException {
+        SplittableRandom random = new SplittableRandom(5);
+        String[] rows = new String[400];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = ROWS[random.nextInt(ROWS.length)];
+        }
+        Path path = write("chunks.csv", "date,transactionType,symbol,quantity,price,lot,account", rows, "\r\n", false);
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            List<Transaction> expected = CSVParser.parseCSV(path.toString(), fixedPoint);
+            for (int chunks = 1; chunks <= 64; chunks++) {
+                assertSame("chunks " + chunks, expected, MappedCSVParser.parseParallel(path.toString(), chunks, fixedPoint));
+            }
+            assertSame("one chunk per byte", expected, MappedCSVParser.parseParallel(path.toString(),
+                    (int) Files.size(path), fixedPoint));
+        }
+    }
+
+    /**
+     * In double mode a price only a double can hold parses as with {@link CSVParser}, instead of failing on
+     * its fixed-point micros.
+     */
+    @Test
+    public void testDoubleModeAcceptsWhatCsvParserAccepts() throws IOException {
+        Path path = write("nan.csv", null, new String[]{"2024-01-02,BUY,MCSVD,1,NaN", "2024-01-03,BUY,MCSVD,1,0x1p3"},
+                "\n", true);
+        assertSame("double", CSVParser.parseCSV(path.toString(), false), MappedCSVParser.parse(path.toString()));
+    }
+
+    private static void assertSameAsCsvParser(Path path) throws IOException {
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            String mode = path.getFileName() + (fixedPoint ? " (fixed-point)" : " (double)");
+            List<Transaction> expected = CSVParser.parseCSV(path.toString(), fixedPoint);
+            assertTrue(mode, expected.size() > 10);
+            assertSame(mode, expected, MappedCSVParser.parse(path.toString(), fixedPoint));
+            assertSame(mode + " parallel", expected, MappedCSVParser.parseParallel(path.toString(), 3, fixedPoint));
+        }
+    }
+
+    /**
+     * Asserts that two parses hold the same rows, field by field and with prices compared bit for bit.
+     */
+    private static void assertSame(String mode, List<Transaction> expected, List<Transaction> actual) {
+        assertEquals(mode + ": rows", expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Transaction e = expected.get(i);
+            Transaction a = actual.get(i);
+            String row = mode + ": row " + i;
+            assertEquals(row + " day", e.getEpochDay(), a.getEpochDay());
+            assertEquals(row + " type", e.getType(), a.getType());
+            assertEquals(row + " symbol", e.getSymbolId(), a.getSymbolId());
+            assertEquals(row + " quantity", e.getQuantity(), a.getQuantity());
+            assertEquals(row + " price", Double.doubleToRawLongBits(e.getPrice()), Double.doubleToRawLongBits(a.getPrice()));
+            assertEquals(row + " micros", e.getPriceMicros(), a.getPriceMicros());
+            assertEquals(row + " lot", e.getLotId(), a.getLotId());
+            assertEquals(row + " account", e.getAccountId(), a.getAccountId());
+        }
+    }
+
+    private Path write(String name, String header, String[] rows, String lineEnd, boolean finalLineEnd)
+            throws IOException {
+        StringBuilder text = new StringBuilder();
+        if (header != null) {
+            text.append(header).append(lineEnd);
+        }
+        for (int i = 0; i < rows.length; i++) {
+            text.append(rows[i]);
+            if (i < rows.length - 1 || finalLineEnd) {
+                text.append(lineEnd);
+            }
+        }
+        Path path = folder.getRoot().toPath().resolve(name);
+        Files.write(path, text.toString().getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+}
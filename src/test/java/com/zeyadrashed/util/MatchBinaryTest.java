@@ -0,0 +1,130 @@
+package com.zeyadrashed.util;
+
+import com.zeyadrashed.engine.MatchSink;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link MatchBinaryWriter} and {@link MatchBinaryReader}.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class MatchBinaryTest {
+
+    private static final int DAY = (int) LocalDate.of(2024, 1, 2).toEpochDay();
+    private static final String[] SYMBOLS = {"MBINA", "MBINB", "MBINC"};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Records written to a binary file, read back and converted to CSV give the same bytes as writing the
+     * CSV directly, in both money modes, including enough records to drain the write buffer several times.
+     */
+    @Test
+    public void testRoundTripMatchesDirectCsv() throws IOException {
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            String mode = fixedPoint ? "fixed-point" : "double";
+            Path direct = folder.newFile(mode + "-direct.csv").toPath();
+            Path binary = folder.newFile(mode + ".bin").toPath();
+            Path converted = folder.newFile(mode + "-converted.csv").toPath();
+            int records = 10_000;
+            try (MatchCSVWriter csv = new MatchCSVWriter(direct, fixedPoint);
+                 MatchBinaryWriter bin = new MatchBinaryWriter(binary, fixedPoint)) {
+                write(records, fixedPoint, csv, bin);
+                assertEquals(mode, records, bin.getRecords());
+            }
+
+            try (MatchBinaryReader reader = new MatchBinaryReader(binary)) {
+                assertEquals(mode, fixedPoint, reader.isFixedPoint());
+                assertEquals(mode, records, reader.size());
+                try (MatchCSVWriter writer = new MatchCSVWriter(converted, reader.isFixedPoint(), reader::symbolOf)) {
+                    reader.forEach(writer);
+                    assertEquals(mode, records, writer.getRecords());
+                }
+            }
+            assertEquals(mode, Files.readString(direct), Files.readString(converted));
+        }
+    }
+
+    /**
+     * A file with no records still round-trips, and is not confused with one left unclosed.
+     */
+    @Test
+    public void testEmptyFileRoundTrips() throws IOException {
+        Path binary = folder.newFile("empty.bin").toPath();
+        new MatchBinaryWriter(binary, true).close();
+        try (MatchBinaryReader reader = new MatchBinaryReader(binary)) {
+            assertEquals(0L, reader.size());
+            assertTrue(reader.isFixedPoint());
+        }
+    }
+
+    /**
+     * A file whose writer was never closed, as after a crashed run, is rejected as incomplete even once
+     * its records have reached the disk.
+     */
+    @Test
+    public void testUnclosedFileIsIncomplete() throws IOException {
+        Path binary = folder.newFile("unclosed.bin").toPath();
+        MatchBinaryWriter bin = new MatchBinaryWriter(binary, false);
+        try {
+            // enough records to drain the header and some records to the file
+            write(10_000, false, bin);
+            assertTrue(Files.size(binary) > 0);
+            IOException e = assertThrows(IOException.class, () -> new MatchBinaryReader(binary).close());
+            assertTrue(e.getMessage(), e.getMessage().startsWith("incomplete match file"));
+        } finally {
+            bin.close();
+        }
+        try (MatchBinaryReader reader = new MatchBinaryReader(binary)) {
+            assertEquals(10_000L, reader.size());
+        }
+    }
+
+    /**
+     * Writes the same random records to every sink, with money as micros or {@code double} bits.
+     */
+    private static void write(int records, boolean fixedPoint, MatchSink... sinks) {
+        SplittableRandom random = new SplittableRandom(23);
+        for (int i = 0; i < records; i++) {
+            int symbolId = SymbolDictionary.idOf(SYMBOLS[random.nextInt(SYMBOLS.length)]);
+            int buyDay = DAY + random.nextInt(1000);
+            int saleDay = buyDay + random.nextInt(800);
+            int quantity = 1 + random.nextInt(500);
+            long lotId = random.nextInt(4) == 0 ? 0L : 1 + random.nextInt(1_000_000);
+            long proceedsMicros = random.nextLong(1_000_000_000_000L);
+            long costMicros = random.nextLong(1_000_000_000_000L);
+            long proceeds = money(proceedsMicros, fixedPoint);
+            long costBasis = money(costMicros, fixedPoint);
+            long gain = fixedPoint ? proceedsMicros - costMicros
+                    : Double.doubleToRawLongBits(FixedPoint.toDouble(proceedsMicros) - FixedPoint.toDouble(costMicros));
+            boolean longTerm = saleDay - buyDay > 365;
+            for (MatchSink sink : sinks) {
+                sink.onMatch(symbolId, saleDay, buyDay, quantity, lotId, proceeds, costBasis, gain, longTerm);
+            }
+        }
+    }
+
+    private static long money(long micros, boolean fixedPoint) {
+        return fixedPoint ? micros : Double.doubleToRawLongBits(FixedPoint.toDouble(micros));
+    }
+}
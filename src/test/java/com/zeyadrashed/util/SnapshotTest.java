@@ -0,0 +1,220 @@
+package com.zeyadrashed.util;
+
+import com.zeyadrashed.CapitalCalculator;
+import com.zeyadrashed.engine.LotMethod;
+import com.zeyadrashed.engine.SymbolBook;
+import com.zeyadrashed.obj.CorporateAction;
+import com.zeyadrashed.obj.CorporateActionType;
+import com.zeyadrashed.obj.Position;
+import com.zeyadrashed.obj.Transaction;
+import com.zeyadrashed.obj.TransactionType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Tests for {@link Snapshot}.
+ *
+ * <p>21:198:435:25SP Adv. Data Structures & Algorithms</p>
+ * <p>Chapter 6 Project</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 17 Oct 2026
+ */
+public class SnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * A run with splits and a rename, snapshotted while some lots are still stated before a split, restores
+     * the split factors and the alias exactly, and continuing from it gives the same gains and positions as
+     * the uninterrupted run, in every lot method and both money modes.
+     */
+    @Test
+    public void testSplitsAndRenamesSurviveSnapshot() throws IOException {
+        List<CorporateAction> actions = List.of(
+                new CorporateAction(day("2024-02-01"), CorporateActionType.SPLIT, "SNSPL", 3, 2),
+                new CorporateAction(day("2024-02-01"), "SNOLD", "SNNEW"),
+                new CorporateAction(day("2024-03-01"), CorporateActionType.REVERSE_SPLIT, "SNSPL", 2, 3));
+        List<Transaction> before = List.of(
+                transaction("2024-01-02", TransactionType.BUY, "SNSPL", 3, "10.01"),
+                transaction("2024-01-03", TransactionType.BUY, "SNSPL", 5, "20.03"),
+                transaction("2024-01-04", TransactionType.BUY, "SNSPL", 7, "15.07"),
+                transaction("2024-01-05", TransactionType.BUY, "SNOLD", 10, "300"),
+                transaction("2024-02-05", TransactionType.SELL, "SNSPL", 4, "12.50"),
+                transaction("2024-02-06", TransactionType.SELL, "SNNEW", 3, "170"));
+        List<Transaction> after = List.of(
+                transaction("2024-02-20", TransactionType.SELL, "SNOLD", 2, "180"),
+                transaction("2024-02-21", TransactionType.BUY, "SNNEW", 4, "175.25"),
+                transaction("2024-03-05", TransactionType.SELL, "SNSPL", 9, "30.10"),
+                transaction("2024-03-06", TransactionType.SELL, "SNNEW", 9, "190"));
+
+        for (boolean fixedPoint : new boolean[]{false, true}) {
+            for (LotMethod method : LotMethod.values()) {
+                String mode = method + (fixedPoint ? " (fixed-point)" : " (double)");
+                CapitalCalculator uninterrupted = calculator(fixedPoint, method, actions);
+                uninterrupted.processTransactions(before);
+                uninterrupted.processTransactions(after);
+
+                CapitalCalculator first = calculator(fixedPoint, method, actions);
+                first.processTransactions(before);
+                Path path = folder.getRoot().toPath().resolve(method + "-" + fixedPoint + ".snap");
+                first.toSnapshot(Set.of("before.csv")).write(path);
+
+                Snapshot snapshot = Snapshot.read(path);
+                assertEquals(mode, day("2024-02-06"), snapshot.getWatermarkDay());
+                assertEquals(mode, Map.of("SNNEW", "SNOLD"), snapshot.getAliases());
+                SymbolBook split = book(first, "SNSPL");
+                assertArrayEquals(mode + ": split state", split.getSplits().exportState(),
+                        book(snapshot.getBooks(), "SNSPL").getSplits().exportState());
+                assertEquals(mode, "SNNEW", book(snapshot.getBooks(), "SNNEW").getSymbol());
+
+                CapitalCalculator resumed = calculator(fixedPoint, method, actions);
+                resumed.restore(snapshot);
+                resumed.processTransactions(after);
+
+                assertSameState(mode, uninterrupted, resumed, "SNSPL", "SNNEW", "SNOLD");
+            }
+        }
+    }
+
+    /**
+     * A random run of buys and sells with lot IDs, snapshotted and restored twice along the way, ends with
+     * the same gains, positions, gains by date and disallowed losses as the uninterrupted run, with and
+     * without wash-sale detection, in every lot method and both money modes.
+     */
+    @Test
+    public void testContinuingFromSnapshotsMatchesUninterruptedRun() throws IOException {
+        String[] symbols = {"SNCONTA", "SNCONTB", "SNCONTC"};
+        List<Transaction> transactions = workload(symbols, 1500);
+        int[] cuts = {0, 500, 1100, transactions.size()};
+        LocalDate first = LocalDate.ofEpochDay(transactions.get(0).getEpochDay());
+        LocalDate last = LocalDate.ofEpochDay(transactions.get(transactions.size() - 1).getEpochDay());
+        for (boolean washSales : new boolean[]{false, true}) {
+            for (boolean fixedPoint : new boolean[]{false, true}) {
+                for (LotMethod method : LotMethod.values()) {
+                    String mode = method + (fixedPoint ? " (fixed-point)" : " (double)") + (washSales ? " wash" : "");
+                    CapitalCalculator uninterrupted = calculator(fixedPoint, method, null);
+                    uninterrupted.setWashSales(washSales);
+                    uninterrupted.processTransactions(transactions);
+
+                    CapitalCalculator resumed = calculator(fixedPoint, method, null);
+                    resumed.setWashSales(washSales);
+                    for (int i = 1; i < cuts.length; i++) {
+                        resumed.processTransactions(transactions.subList(cuts[i - 1], cuts[i]));
+                        if (i < cuts.length - 1) {
+                            Path path = folder.getRoot().toPath().resolve(mode + "-" + i + ".snap");
+                            resumed.toSnapshot(Set.of("part" + i + ".csv")).write(path);
+                            Snapshot snapshot = Snapshot.read(path);
+                            assertEquals(mode, transactions.get(cuts[i] - 1).getEpochDay(), snapshot.getWatermarkDay());
+                            // a fresh calculator in the other mode and method still continues as the snapshot says
+                            resumed = calculator(!fixedPoint, LotMethod.FIFO, null);
+                            resumed.restore(snapshot);
+                        }
+                    }
+
+                    assertSameState(mode, uninterrupted, resumed, symbols);
+                    assertEquals(mode + ": disallowed", Double.doubleToRawLongBits(uninterrupted.getDisallowedLoss()),
+                            Double.doubleToRawLongBits(resumed.getDisallowedLoss()));
+                    for (LocalDate from = first; !from.isAfter(last); from = from.plusDays(97)) {
+                        LocalDate to = from.plusDays(150);
+                        assertEquals(mode + ": gain from " + from,
+                                Double.doubleToRawLongBits(uninterrupted.getRealizedGain(from, to)),
+                                Double.doubleToRawLongBits(resumed.getRealizedGain(from, to)));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Asserts that two calculators hold bit-for-bit the same gains and positions for the given symbols.
+     */
+    static void assertSameState(String mode, CapitalCalculator expected, CapitalCalculator actual, String... symbols) {
+        Map<String, Double> expectedGains = expected.getSymbolGains();
+        Map<String, Double> actualGains = actual.getSymbolGains();
+        assertEquals(mode + ": symbols with sales", expectedGains.keySet(), actualGains.keySet());
+        for (Map.Entry<String, Double> gain : expectedGains.entrySet()) {
+            assertEquals(mode + ": gain of " + gain.getKey(), Double.doubleToRawLongBits(gain.getValue()),
+                    Double.doubleToRawLongBits(actualGains.get(gain.getKey())));
+        }
+        for (String symbol : symbols) {
+            Position expectedPosition = expected.getPosition(symbol);
+            Position actualPosition = actual.getPosition(symbol);
+            assertNotNull(mode + ": position of " + symbol, actualPosition);
+            assertEquals(mode + ": shares of " + symbol, expectedPosition.getOpenShares(), actualPosition.getOpenShares());
+            assertEquals(mode + ": basis of " + symbol, Double.doubleToRawLongBits(expectedPosition.getOpenCostBasis()),
+                    Double.doubleToRawLongBits(actualPosition.getOpenCostBasis()));
+            assertEquals(mode + ": basis micros of " + symbol, expectedPosition.getOpenCostBasisMicros(),
+                    actualPosition.getOpenCostBasisMicros());
+        }
+    }
+
+    /**
+     * Random date-ordered buys and sells, each BUY opening a lot named by its row and some SELLs naming one,
+     * with prices that move enough for both gains and losses and sales close enough for wash sales.
+     */
+    private static List<Transaction> workload(String[] symbols, int rows) {
+        SplittableRandom random = new SplittableRandom(9);
+        List<Transaction> transactions = new ArrayList<>(rows);
+        int day = day("2023-01-02");
+        for (int i = 0; i < rows; i++) {
+            day += random.nextInt(3);
+            TransactionType type = random.nextInt(5) < 3 ? TransactionType.BUY : TransactionType.SELL;
+            long priceMicros = 1_000_000L + random.nextInt(100_000_000);
+            long lotId = type == TransactionType.BUY ? i + 1 : random.nextInt(4) == 0 ? 1 + random.nextInt(i + 1) : 0;
+            transactions.add(new Transaction(day, type, SymbolDictionary.idOf(symbols[random.nextInt(symbols.length)]),
+                    1 + random.nextInt(20), FixedPoint.toDouble(priceMicros), priceMicros, lotId));
+        }
+        return transactions;
+    }
+
+    private static CapitalCalculator calculator(boolean fixedPoint, LotMethod method, List<CorporateAction> actions) {
+        CapitalCalculator calculator = new CapitalCalculator(fixedPoint, method);
+        calculator.setPrintSales(false);
+        if (actions != null) {
+            calculator.setCorporateActions(actions);
+        }
+        return calculator;
+    }
+
+    private static SymbolBook book(CapitalCalculator calculator, String symbol) {
+        return book(calculator.getBooks(), symbol);
+    }
+
+    private static SymbolBook book(List<SymbolBook> books, String symbol) {
+        for (SymbolBook book : books) {
+            if (book.getSymbol().equals(symbol)) {
+                return book;
+            }
+        }
+        throw new AssertionError("no book for " + symbol);
+    }
+
+    private static int day(String date) {
+        return (int) LocalDate.parse(date).toEpochDay();
+    }
+
+    private static Transaction transaction(String date, TransactionType type, String symbol, int quantity,
+                                           String price) {
+        return new Transaction(day(date), type, SymbolDictionary.idOf(symbol), quantity, Double.parseDouble(price),
+                FixedPoint.parse(price), 0L);
+    }
+}